@@ -89,8 +89,6 @@ public class JWTAuthenticationFilter implements Filter {
 		} else {
 			log.debug("decoding jwt token...");
 			Claims claims = JWTGenerator.decodeJWT(jwt);
-			log.trace("Claims:" + claims.toString());
-			String userId = (String) claims.get("id");
 			if (claims == null) {
 				log.error("Invalid  JWT!");
 				HttpServletResponse response = (HttpServletResponse) servletResponse;
@@ -98,6 +96,7 @@ public class JWTAuthenticationFilter implements Filter {
 				response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 				return;
 			} else {
+				log.trace("Claims:" + claims.toString());
 				if (dnaAuthEnable) {
 					JSONObject res = dnaAuthClient.verifyLogin(jwt);
 					if (res != null) {
@@ -0,0 +1,166 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+
+package com.daimler.data.application.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.daimler.data.application.config.CacheConfig;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+
+/**
+ * Results of JWT validation against the user record, keyed by hash of the
+ * token. Entries expire after the configured TTL and are evicted for a user on
+ * login, logout and role changes.
+ * <p>
+ * The cache is local to each backend replica and evictions are not broadcast:
+ * a logout or role change only evicts on the replica handling it, other
+ * replicas keep accepting the cached result until it expires, for up to
+ * jwt.validation-cache.ttl-seconds.
+ */
+@Component
+public class TokenValidationCache {
+
+	private static Logger LOGGER = LoggerFactory.getLogger(TokenValidationCache.class);
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	// eviction generation of each user, a validation read from the user record
+	// before the latest eviction of that user must not be cached
+	private final AtomicLong evictions = new AtomicLong();
+
+	private final Map<String, Long> userGenerations = new ConcurrentHashMap<>();
+
+	/**
+	 * To get the cached validation result of the given token.
+	 * 
+	 * @param token
+	 * @return valid{Boolean}, null if the token was not validated recently
+	 */
+	public Boolean get(String token) {
+		TokenValidation validation = getCache().get(hash(token), TokenValidation.class);
+		return validation != null ? validation.isValid() : null;
+	}
+
+	/**
+	 * To be read before the user record is read for a validation, see put.
+	 * 
+	 * @param userId
+	 * @return current eviction generation of the user
+	 */
+	public long getGeneration(String userId) {
+		return userGenerations.getOrDefault(key(userId), 0L);
+	}
+
+	/**
+	 * To cache a validation result, unless the user was evicted since
+	 * generation was read, as the user record it was validated against may
+	 * predate a logout or role change.
+	 * 
+	 * @param token
+	 * @param userId
+	 * @param valid
+	 * @param generation getGeneration(userId) read before validating
+	 */
+	public void put(String token, String userId, boolean valid, long generation) {
+		if (getGeneration(userId) != generation) {
+			return;
+		}
+		String key = hash(token);
+		getCache().put(key, new TokenValidation(userId, valid));
+		// an eviction running since the check may have missed this entry
+		if (getGeneration(userId) != generation) {
+			getCache().evict(key);
+		}
+	}
+
+	/**
+	 * To evict the validation results of all tokens of the given user.
+	 * 
+	 * @param userId
+	 */
+	public void evictUser(String userId) {
+		// bumped before removing, so puts racing with this eviction are refused
+		userGenerations.put(key(userId), evictions.incrementAndGet());
+		Ehcache nativeCache = (Ehcache) getCache().getNativeCache();
+		for (Object key : nativeCache.getKeys()) {
+			Element element = nativeCache.getQuiet(key);
+			if (element != null && element.getObjectValue() instanceof TokenValidation
+					&& ((TokenValidation) element.getObjectValue()).getUserId().equalsIgnoreCase(userId)) {
+				nativeCache.remove(key);
+			}
+		}
+		LOGGER.debug("Evicted token validations of user {}", userId);
+	}
+
+	private Cache getCache() {
+		return cacheManager.getCache(CacheConfig.TOKEN_VALIDATION_CACHE);
+	}
+
+	private static String key(String userId) {
+		return userId.toLowerCase(Locale.ROOT);
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	@Data
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class TokenValidation {
+		private String userId;
+		private boolean valid;
+	}
+
+}
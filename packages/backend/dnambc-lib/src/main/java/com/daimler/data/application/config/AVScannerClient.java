@@ -27,28 +27,31 @@
 
 package com.daimler.data.application.config;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.ObjectUtils;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.daimler.data.dto.AVScanResponseWrapperVO;
 import com.daimler.data.dto.FileScanDetailsVO;
+import com.daimler.dna.common.scan.MalwareScannerHttpClient;
+import com.daimler.dna.common.scan.MalwareScannerHttpClient.ScanResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
 public class AVScannerClient {
@@ -64,8 +67,39 @@ public class AVScannerClient {
 	@Value("${avscan.apiKey}")
 	private String apiKey;
 
+	@Value("${avscan.connectTimeoutMillis}")
+	private long connectTimeoutMillis;
+
+	@Value("${avscan.readTimeoutMillis}")
+	private long readTimeoutMillis;
+
+	@Value("${avscan.maxInFlight}")
+	private int maxInFlight;
+
+	@Value("${avscan.acquireTimeoutMillis}")
+	private long acquireTimeoutMillis;
+
+	@Value("${avscan.circuitBreaker.failureThreshold}")
+	private int failureThreshold;
+
+	@Value("${avscan.circuitBreaker.openMillis}")
+	private long openMillis;
+
 	@Autowired
-	RestTemplate restTemplate;
+	private ObjectMapper objectMapper;
+
+	private MalwareScannerHttpClient scannerClient;
+
+	@PostConstruct
+	public void init() {
+		scannerClient = new MalwareScannerHttpClient(avscanBaseUri, appId, apiKey, connectTimeoutMillis,
+				readTimeoutMillis, maxInFlight, acquireTimeoutMillis, failureThreshold, openMillis);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		scannerClient.close();
+	}
 
 	/**
 	 * To scan file for malware
@@ -74,39 +108,70 @@ public class AVScannerClient {
 	 * @return
 	 */
 	public Optional<FileScanDetailsVO> scan(MultipartFile file) {
-		FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
-		try {
-			String avscanUri = avscanBaseUri + "/scan/upload";
-			LinkedMultiValueMap<String, Object> map = new LinkedMultiValueMap<>();
+		return Optional.ofNullable(scanAsync(file).join());
+	}
 
-			if (!file.isEmpty()) {
-				map.add("files", file.getResource());
-			}
-			HttpHeaders headers = new HttpHeaders();
-			headers.set("Accept", "application/json");
-			headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-			headers.set("appId", appId);
-			headers.set("apiKey", apiKey);
-
-			HttpEntity<LinkedMultiValueMap<String, Object>> requestEntity = new HttpEntity<>(map, headers);
-
-			ResponseEntity<AVScanResponseWrapperVO> response = restTemplate.exchange(avscanUri, HttpMethod.POST,
-					requestEntity, AVScanResponseWrapperVO.class);
-			if (response != null && response.hasBody()) {
-				LOGGER.debug("Success from avscan for file {}", file.getName());
-				if (!ObjectUtils.isEmpty(response.getBody().getFileDetails())) {
-					fileScanDetailsVO = response.getBody().getFileDetails().get(0);
-				}
+	/**
+	 * To scan file for malware without blocking the caller while the scanner
+	 * works, the returned future never completes exceptionally, failures are
+	 * reported in the error message of the result
+	 * 
+	 * @param multiPartFile
+	 * @return
+	 */
+	public CompletableFuture<FileScanDetailsVO> scanAsync(MultipartFile file) {
+		return scanAsync(file.getOriginalFilename(), () -> {
+			try {
+				return file.getInputStream();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
-		} catch (HttpClientErrorException e) {
-			LOGGER.error("HttpClientErrorException occured:{} while scanning file {}", e.getMessage(), file.getName());
-			fileScanDetailsVO.setErrorMessage(this.getErrorMsg(e.getMessage()));
-		} catch (Exception e) {
-			LOGGER.error("Error occured while calling avscan service:{} while scanning file {} ", e.getMessage(),
-					file.getName());
-			fileScanDetailsVO.setErrorMessage(this.getErrorMsg(e.getMessage()));
+		});
+	}
+
+	/**
+	 * To scan file content for malware without blocking the caller, content is
+	 * read on the http client threads
+	 * 
+	 * @param fileName
+	 * @param content
+	 * @return
+	 */
+	public CompletableFuture<FileScanDetailsVO> scanAsync(String fileName, InputStream content) {
+		return scanAsync(fileName, () -> content);
+	}
+
+	private CompletableFuture<FileScanDetailsVO> scanAsync(String fileName, Supplier<InputStream> content) {
+		return scannerClient.scan(fileName, content).thenApply(response -> toFileScanDetails(fileName, response));
+	}
+
+	private FileScanDetailsVO toFileScanDetails(String fileName, ScanResponse response) {
+		if (response.getErrorMessage() != null) {
+			return failure(response.getErrorMessage());
+		}
+		if (response.getStatusCode() >= 400) {
+			LOGGER.error("HttpClientErrorException occured:{} while scanning file {}", response.getStatusCode(),
+					fileName);
+			String errorMsg = this.getErrorMsg(response.getBody());
+			return failure(errorMsg != null ? errorMsg : MalwareScannerHttpClient.SCAN_FAILED_MSG);
+		}
+		try {
+			AVScanResponseWrapperVO aVScanResponseWrapperVO = objectMapper.readValue(response.getBody(),
+					AVScanResponseWrapperVO.class);
+			LOGGER.debug("Success from avscan for file {}", fileName);
+			return aVScanResponseWrapperVO != null && !ObjectUtils.isEmpty(aVScanResponseWrapperVO.getFileDetails())
+					? aVScanResponseWrapperVO.getFileDetails().get(0)
+					: null;
+		} catch (IOException ex) {
+			LOGGER.error("Failed to read malware scanner response:{} for file {}", ex.getMessage(), fileName);
+			return failure(MalwareScannerHttpClient.SCAN_FAILED_MSG);
 		}
-		return Optional.ofNullable(fileScanDetailsVO);
+	}
+
+	private static FileScanDetailsVO failure(String errorMessage) {
+		FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
+		fileScanDetailsVO.setErrorMessage(errorMessage);
+		return fileScanDetailsVO;
 	}
 
 	/**
@@ -117,6 +182,9 @@ public class AVScannerClient {
 	 */
 	private String getErrorMsg(String error) {
 		String result = null;
+		if (error == null) {
+			return result;
+		}
 		Pattern pattern = Pattern.compile("message\":\"(.*?)\"}");
 		Matcher matcher = pattern.matcher(error);
 		if (matcher.find()) {
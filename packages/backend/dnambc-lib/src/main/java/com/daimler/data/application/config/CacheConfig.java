@@ -1,8 +1,16 @@
 package com.daimler.data.application.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.ehcache.EhCacheCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+
 /*import com.hazelcast.config.Config;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
@@ -13,6 +21,16 @@ import com.hazelcast.config.MaxSizePolicy;*/
 @EnableCaching
 public class CacheConfig {
 
+	public static final String TOKEN_VALIDATION_CACHE = "token-validation";
+
+	@Value("${jwt.validation-cache.max-entries:10000}")
+	private long tokenValidationMaxEntries;
+
+	// also the time other replicas keep accepting a logged out token or revoked
+	// roles, evictions only apply to the replica handling the change
+	@Value("${jwt.validation-cache.ttl-seconds:300}")
+	private long tokenValidationTtlSeconds;
+
 	/*
 	 * @Bean public Config dnaMetadataCacheConfig() { return new
 	 * Config().setInstanceName("hazel-instance") .addMapConfig(new MapConfig()
@@ -22,4 +40,28 @@ public class CacheConfig {
 	 * .setEvictionPolicy(EvictionPolicy.LRU)) ) ; }
 	 */
 
+	@Bean(destroyMethod = "shutdown")
+	public net.sf.ehcache.CacheManager ehCacheManager() {
+		net.sf.ehcache.config.Configuration configuration = new net.sf.ehcache.config.Configuration();
+		configuration.setName("dna-backend-cache");
+		// caches only declared by @Cacheable, like the lov caches, are created from
+		// the default configuration and kept until restart
+		configuration.setDefaultCacheConfiguration(new CacheConfiguration().eternal(true).maxEntriesLocalHeap(0));
+		configuration.addCache(new CacheConfiguration().name(TOKEN_VALIDATION_CACHE)
+				.maxEntriesLocalHeap(tokenValidationMaxEntries).timeToLiveSeconds(tokenValidationTtlSeconds)
+				.memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU));
+		return net.sf.ehcache.CacheManager.newInstance(configuration);
+	}
+
+	@Bean
+	public CacheManager cacheManager(net.sf.ehcache.CacheManager ehCacheManager) {
+		return new EhCacheCacheManager(ehCacheManager) {
+			@Override
+			protected Cache getMissingCache(String name) {
+				getCacheManager().addCacheIfAbsent(name);
+				return super.getMissingCache(name);
+			}
+		};
+	}
+
 }
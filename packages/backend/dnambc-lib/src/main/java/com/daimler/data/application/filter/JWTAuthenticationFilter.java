@@ -83,8 +83,6 @@ public class JWTAuthenticationFilter implements Filter {
 				return;
 			} else {
 				Claims claims = JWTGenerator.decodeJWT(jwt);
-				log.trace("Claims:" + claims.toString());
-				String userId = (String) claims.get("id");
 				if (claims == null) {
 					log.error("Invalid  JWT!");
 					HttpServletResponse response = (HttpServletResponse) servletResponse;
@@ -92,13 +90,15 @@ public class JWTAuthenticationFilter implements Filter {
 					response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 					return;
 				} else {
+					log.trace("Claims:" + claims.toString());
+					String userId = (String) claims.get("id");
 					if (!oidcDisabled) {
 						if (!StringUtils.hasText(userId)) {
 							forbidResponse(servletResponse);
 							return;
 						} else {
 							try {
-								boolean tokenMappedToUser = userinfoService.validateUserToken(userId, jwt);
+								boolean tokenMappedToUser = userinfoService.validateUserToken(userId, jwt, claims);
 								if (!tokenMappedToUser) {
 									forbidResponse(servletResponse);
 									this.userStore.clear();
@@ -41,9 +41,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import com.daimler.data.dto.SolDashboardSummaryDTO;
 import com.daimler.data.dto.SolDigitalValueDTO;
 import com.daimler.data.dto.dashboard.DigitalValueVO;
 import com.daimler.data.dto.dashboard.SolDigitalValuesummaryVO;
+import com.daimler.data.dto.dashboard.SolSummaryResponseVO;
 import com.daimler.data.util.ConstantsUtility;
 
 @Component
@@ -99,6 +101,26 @@ public class DashboardAssembler {
 		return divisions;
 	}
 
+	/**
+	 * To convert dashboard summary to summary response
+	 * 
+	 * @param summary
+	 * @param digitalValueSummary
+	 * @return SolSummaryResponseVO
+	 */
+	public SolSummaryResponseVO toSummaryResponseVO(SolDashboardSummaryDTO summary,
+			List<SolDigitalValuesummaryVO> digitalValueSummary) {
+		SolSummaryResponseVO summaryResponseVO = new SolSummaryResponseVO();
+		summaryResponseVO.setTotalCount(summary.getTotalCount().intValue());
+		summaryResponseVO.setNotebookSolutionCount(summary.getNotebookSolutionCount().intValue());
+		summaryResponseVO.setTotalDigitalValue(summary.getTotalDigitalValue());
+		summaryResponseVO.setDataSources(summary.getDataSources());
+		summaryResponseVO.setLocations(summary.getLocations());
+		summaryResponseVO.setMilestones(summary.getMilestones());
+		summaryResponseVO.setSolDigitalValuesummary(digitalValueSummary);
+		return summaryResponseVO;
+	}
+
 	/**
 	 * To convert solDigitalValues to digital value summary response
 	 * 
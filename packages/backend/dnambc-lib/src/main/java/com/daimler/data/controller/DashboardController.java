@@ -59,6 +59,7 @@ import com.daimler.data.dto.dashboard.SolDigitalValuesummaryResponseVO;
 import com.daimler.data.dto.dashboard.SolDigitalValuesummaryVO;
 import com.daimler.data.dto.dashboard.SolLocWidgetResponseVO;
 import com.daimler.data.dto.dashboard.SolMilestoneWidgetResponseVO;
+import com.daimler.data.dto.dashboard.SolSummaryResponseVO;
 import com.daimler.data.dto.solution.CreatedByVO;
 import com.daimler.data.dto.userinfo.UserFavoriteUseCaseVO;
 import com.daimler.data.dto.userinfo.UserInfoVO;
@@ -478,4 +479,57 @@ public class DashboardController implements DashboardApi {
 		}
 	}
 
+	@Override
+	@ApiOperation(value = "Get all dashboard widgets.", nickname = "getSummary", notes = "Get solution count, notebook solution count, digital value, datasources, locations, milestones and digital value summary of solutions with given filter in one request.", response = SolSummaryResponseVO.class, tags = {
+			"dashboard", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns message of success or failure.", response = SolSummaryResponseVO.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 404, message = "Invalid id, record not found."),
+			@ApiResponse(code = 500, message = "Internal error.") })
+	@RequestMapping(value = "/dashboard/summary", method = RequestMethod.GET)
+	public ResponseEntity<SolSummaryResponseVO> getSummary(
+			@ApiParam(value = "Filtering solutions based on publish state. Draft or published, values true or false") @Valid @RequestParam(value = "published", required = false) Boolean published,
+			@ApiParam(value = "List of IDs of locations of solutions, seperated by comma. Example 1,2,3") @Valid @RequestParam(value = "location", required = false) String location,
+			@ApiParam(value = "List of IDs of divisions and subdivisions under each division of solutions. Example [{1,[2,3]},{2,[1]},{3,[4,5]}]") @Valid @RequestParam(value = "division", required = false) String division,
+			@ApiParam(value = "List of IDs of current phase of solutions, seperated by comma. Example 1,2,3") @Valid @RequestParam(value = "phase", required = false) String phase,
+			@ApiParam(value = "List of IDs of dataVolume of dataSources for solutions, seperated by comma. Example 1,2,3") @Valid @RequestParam(value = "dataVolume", required = false) String dataVolume,
+			@ApiParam(value = "ID of current project status of solutions, Example 1") @Valid @RequestParam(value = "projectstatus", required = false) String projectstatus,
+			@ApiParam(value = "ID of useCaseType of solutions. 1.MyBookmarks or 2.MySolutions , Example 1", allowableValues = "1, 2") @Valid @RequestParam(value = "useCaseType", required = false) String useCaseType,
+			@ApiParam(value = "searchTerm to filter solutions. SearchTerm is comma seperated search keywords which are used to search Tags and ProductName of solutions. Example \"BAT, java\"") @Valid @RequestParam(value = "searchTerm", required = false) String searchTerm,
+			@ApiParam(value = "tags to filter solutions. tags is comma seperated search keywords which are used to search Tags and ProductName of solutions. Example \"BAT, java\"") @Valid @RequestParam(value = "tags", required = false) String tags) {
+		try {
+			Boolean isAdmin = false;
+			CreatedByVO currentUser = this.userStore.getVO();
+			String userId = currentUser != null ? currentUser.getId() : null;
+			List<String> bookmarkedSolutions = new ArrayList<>();
+			if (userId != null && !"".equalsIgnoreCase(userId)) {
+				UserInfoVO userInfoVO = userInfoService.getById(userId);
+				if (userInfoVO != null) {
+					List<UserRoleVO> userRoles = userInfoVO.getRoles();
+					if (userRoles != null && !userRoles.isEmpty())
+						isAdmin = userRoles.stream().anyMatch(role -> "admin".equalsIgnoreCase(role.getName()));
+					List<UserFavoriteUseCaseVO> favSolutions = userInfoVO.getFavoriteUsecases();
+					if (favSolutions != null && !favSolutions.isEmpty())
+						bookmarkedSolutions = favSolutions.stream().map(n -> n.getUsecaseId())
+								.collect(Collectors.toList());
+				}
+			}
+
+			SolSummaryResponseVO resVO = dashboardService.getSolSummary(published, assembler.toList(phase),
+					assembler.toList(dataVolume), division, assembler.toList(location),
+					assembler.toList(projectstatus), useCaseType, userId, isAdmin, bookmarkedSolutions,
+					assembler.toList(searchTerm), assembler.toList(tags));
+			return new ResponseEntity<>(resVO, HttpStatus.OK);
+		} catch (Exception e) {
+			LOGGER.error("Internal server error occured::{}", e.getMessage());
+			SolSummaryResponseVO resVO = new SolSummaryResponseVO();
+			List<MessageDescription> errors = Arrays.asList(new MessageDescription(e.getMessage()));
+			resVO.setErrors(errors);
+			return new ResponseEntity<>(resVO, HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+	}
+
 }
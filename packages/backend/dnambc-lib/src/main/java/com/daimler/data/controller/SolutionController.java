@@ -34,6 +34,8 @@ import com.daimler.data.assembler.SolutionAssembler;
 import com.daimler.data.controller.exceptions.*;
 import com.daimler.data.controller.exceptions.GenericMessage;
 import com.daimler.data.controller.exceptions.MessageDescription;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.PageDTO;
 import com.daimler.data.dto.solution.*;
 import com.daimler.data.dto.userinfo.UserFavoriteUseCaseVO;
 import com.daimler.data.dto.userinfo.UserInfoVO;
@@ -173,7 +175,9 @@ public class SolutionController implements SolutionsApi, ChangelogsApi {
 			@ApiParam(value = "page number from which listing of solutions should start. Offset. Example 2") @Valid @RequestParam(value = "offset", required = false) Integer offset,
 			@ApiParam(value = "page size to limit the number of solutions, Example 15") @Valid @RequestParam(value = "limit", required = false) Integer limit,
 			@ApiParam(value = "Sort solutions by a given variable like name, phase, division, location or status") @Valid @RequestParam(value = "sortBy", required = false) String sortBy,
-			@ApiParam(value = "Sort solutions based on the given order, example asc,desc") @Valid @RequestParam(value = "sortOrder", required = false) String sortOrder) {
+			@ApiParam(value = "Sort solutions based on the given order, example asc,desc") @Valid @RequestParam(value = "sortOrder", required = false) String sortOrder,
+			@ApiParam(value = "Cursor returned as nextCursor of the previous page. When given, the page starts after that record and offset is ignored. Must be used with the same sortBy and sortOrder.") @Valid @RequestParam(value = "after", required = false) String after,
+			@ApiParam(value = "Whether totalCount should be calculated, defaults to true. Infinite scroll clients paging with after can skip the count.") @Valid @RequestParam(value = "includeTotal", required = false) Boolean includeTotal) {
 		try {
 			int defaultLimit = 10;
 			if (offset == null || offset < 0)
@@ -187,6 +191,15 @@ public class SolutionController implements SolutionsApi, ChangelogsApi {
 			if (sortOrder == null) {
 				sortOrder = "asc";
 			}
+			PageCursorDTO afterCursor = null;
+			if (StringUtils.isNotEmpty(after)) {
+				afterCursor = PageCursorDTO.decode(after);
+				if (afterCursor == null || !afterCursor.isIssuedFor(sortBy, sortOrder)) {
+					LOGGER.debug("Invalid cursor {} for sortBy {} and sortOrder {}", after, sortBy, sortOrder);
+					return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+				}
+				offset = 0;
+			}
 			String[] phases = null;
 			List<String> phasesList = new ArrayList<>();
 			if (phase != null && !"".equals(phase))
@@ -201,38 +214,6 @@ public class SolutionController implements SolutionsApi, ChangelogsApi {
 			if (dataVolumes != null && dataVolumes.length > 0)
 				dataVolumesList = Arrays.asList(dataVolumes);
 
-			List<Map<String, List<String>>> divisionsList = new ArrayList<Map<String, List<String>>>();
-			if (!StringUtils.isEmpty(division)) {
-				boolean hasEmptySubdivision = false;
-				LOGGER.debug("Checking for EMPTY subdivision in query");
-				if (division.contains(ConstantsUtility.EMPTY_VALUE)) {
-					hasEmptySubdivision = true;
-				}
-				Map<String, List<String>> divisionMap = new HashMap<String, List<String>>();
-				List<String> subdivisionsList = new ArrayList<String>();
-				division = division.substring(1, division.length() - 1);
-				String[] divisionSplit = division.split("},", 0);
-				for (int i = 0; i < divisionSplit.length; i++) {
-					divisionSplit[i] = divisionSplit[i].replaceAll("[\\{\\}\\[\\]]", "");
-					String[] divSubdivSplitArray = divisionSplit[i].split(",");
-					subdivisionsList = new ArrayList<String>();
-					divisionMap = new HashMap<String, List<String>>();
-					if (null != divSubdivSplitArray) {
-						if (divSubdivSplitArray.length > 1) {
-							for (int j = 1; j < divSubdivSplitArray.length; j++) {
-								subdivisionsList.add(divSubdivSplitArray[j]);
-							}
-						}
-						if (hasEmptySubdivision && !subdivisionsList.contains(ConstantsUtility.EMPTY_VALUE)) {
-							LOGGER.debug("Appending EMPTY in subdivisionList");
-							subdivisionsList.add(ConstantsUtility.EMPTY_VALUE);
-						}
-						divisionMap.put(divSubdivSplitArray[0], subdivisionsList);
-					}
-					divisionsList.add(divisionMap);
-				}
-			}
-
 			String[] locations = null;
 			List<String> locationsList = new ArrayList<>();
 			if (location != null && !"".equals(location))
@@ -272,39 +253,36 @@ public class SolutionController implements SolutionsApi, ChangelogsApi {
 			if (tags != null && !"".equalsIgnoreCase(tags)) {
 				listOfTags = Arrays.asList(tags.split(","));
 			}
-			Long count = solutionService.getCount(published, phasesList, dataVolumesList, divisionsList, locationsList,
-					statusesList, useCaseType, userId, isAdmin, bookmarkedSolutions, searchTerms, listOfTags);
+			Long count = null;
+			if (includeTotal == null || includeTotal) {
+				count = solutionService.getCount(published, phasesList, dataVolumesList, division, locationsList,
+						statusesList, useCaseType, userId, isAdmin, bookmarkedSolutions, searchTerms, listOfTags);
+				if (count < offset)
+					offset = 0;
+			}
 			SolutionCollection solutionCollection = new SolutionCollection();
 
-			if (count < offset)
-				offset = 0;
-
-			List<SolutionVO> solutionVOListVO = solutionService.getAllWithFilters(published, phasesList,
-					dataVolumesList, divisionsList, locationsList, statusesList, useCaseType, userId, isAdmin,
-					bookmarkedSolutions, searchTerms, listOfTags, offset, limit, sortBy, sortOrder);
+			PageDTO<SolutionVO> page = solutionService.getAllWithFilters(published, phasesList, dataVolumesList,
+					division, locationsList, statusesList, useCaseType, userId, isAdmin, bookmarkedSolutions,
+					searchTerms, listOfTags, offset, limit, sortBy, sortOrder, afterCursor);
+			List<SolutionVO> solutionVOListVO = page.getRecords();
 			LOGGER.debug("Solutions fetched successfully");
 			if ("locations".equalsIgnoreCase(sortBy)) {
-				List<SolutionVO> sortedSolutionVOList = this.sortSolutionsBasedOnLocations(solutionVOListVO, sortOrder);
-				int fromIndex = offset > 0 ? (offset > count ? 0 : offset) : 0;
-				int listSize = sortedSolutionVOList.size();
-				if (limit == 0)
-					limit = listSize;
-				int limitAndFromIndexSum = fromIndex + limit;
-				int toIndex = limitAndFromIndexSum > listSize ? listSize : limitAndFromIndexSum;
-				solutionVOListVO = sortedSolutionVOList != null && !sortedSolutionVOList.isEmpty()
-						? sortedSolutionVOList.subList(fromIndex, toIndex)
-						: sortedSolutionVOList;
-				LOGGER.debug("Sorted solutions fetched based on locations");
+				// page is already ordered by the database, only the locations shown per solution
+				// follow the sort order
+				this.sortLocationsOfSolutions(solutionVOListVO, sortOrder);
 			}
 
 			if (solutionVOListVO != null && solutionVOListVO.size() > 0) {
+				String nextCursor = page.getNextCursor() != null ? page.getNextCursor().encode() : null;
 				solutionCollection = solutionAssembler.applyBookMarkflag(solutionVOListVO, bookmarkedSolutions, userId);
 				if (!isAdmin)
 					solutionCollection = solutionAssembler.maskDigitalValues(solutionVOListVO, userId, true);
-				solutionCollection.setTotalCount(count.intValue());
+				solutionCollection.setTotalCount(count != null ? count.intValue() : null);
+				solutionCollection.setNextCursor(nextCursor);
 				return new ResponseEntity<>(solutionCollection, HttpStatus.OK);
 			} else {
-				solutionCollection.setTotalCount(count.intValue());
+				solutionCollection.setTotalCount(count != null ? count.intValue() : null);
 				return new ResponseEntity<>(solutionCollection, HttpStatus.NO_CONTENT);
 			}
 		} catch (Exception e) {
@@ -314,44 +292,13 @@ public class SolutionController implements SolutionsApi, ChangelogsApi {
 
 	}
 
-	private List<SolutionVO> sortSolutionsBasedOnLocations(List<SolutionVO> solutionVOListVO, String sortOrder) {
-		if (solutionVOListVO != null && !solutionVOListVO.isEmpty()) {
-			if ("asc".equalsIgnoreCase(sortOrder))
-				solutionVOListVO.forEach(n -> n.getLocations()
-						.sort(Comparator.comparing(SolutionLocationVO::getName, String.CASE_INSENSITIVE_ORDER)));
-			else
-				solutionVOListVO.forEach(n -> n.getLocations().sort(
-						Comparator.comparing(SolutionLocationVO::getName, String.CASE_INSENSITIVE_ORDER).reversed()));
-			Collections.sort(solutionVOListVO, new Comparator<SolutionVO>() {
-				@Override
-				public int compare(SolutionVO vo1, SolutionVO vo2) {
-					String loc1 = toLocationsNameString(vo1.getLocations());
-					String loc2 = toLocationsNameString(vo2.getLocations());
-					if (loc1 == null) {
-						if (loc2 == null)
-							return 0;
-						else
-							return "asc".equalsIgnoreCase(sortOrder) ? -1 : 1;
-					} else {
-						if (loc2 == null)
-							return "asc".equalsIgnoreCase(sortOrder) ? 1 : -1;
-						else {
-							int value = loc1.compareToIgnoreCase(loc2);
-							return "asc".equalsIgnoreCase(sortOrder) ? value : -1 * value;
-						}
-					}
-				}
-			});
-		}
-		return solutionVOListVO;
-	}
-
-	private String toLocationsNameString(List<SolutionLocationVO> locations) {
-		String names = "";
-		if (locations != null && !locations.isEmpty()) {
-			names = locations.stream().map(n -> n.getName()).collect(Collectors.joining(","));
-		}
-		return names;
+	private void sortLocationsOfSolutions(List<SolutionVO> solutionVOListVO, String sortOrder) {
+		Comparator<SolutionLocationVO> comparator = Comparator.comparing(SolutionLocationVO::getName,
+				String.CASE_INSENSITIVE_ORDER);
+		Comparator<SolutionLocationVO> locationComparator = "asc".equalsIgnoreCase(sortOrder) ? comparator
+				: comparator.reversed();
+		solutionVOListVO.stream().filter(n -> n.getLocations() != null)
+				.forEach(n -> n.getLocations().sort(locationComparator));
 	}
 
 	@Override
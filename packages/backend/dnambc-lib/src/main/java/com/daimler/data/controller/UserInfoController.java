@@ -28,6 +28,7 @@
 package com.daimler.data.controller;
 
 import com.daimler.data.api.userinfo.UsersApi;
+import com.daimler.data.application.auth.TokenValidationCache;
 import com.daimler.data.controller.exceptions.*;
 import com.daimler.data.controller.exceptions.GenericMessage;
 import com.daimler.data.controller.exceptions.MessageDescription;
@@ -58,6 +59,9 @@ public class UserInfoController implements UsersApi {
 	@Autowired
 	private UserInfoService userInfoService;
 
+	@Autowired
+	private TokenValidationCache tokenValidationCache;
+
 	@Override
 	@ApiOperation(value = "Get all available users.", nickname = "getAll", notes = "Get all users. This endpoints will be used to Get all valid available user maintenance records.", response = UsersCollection.class, tags = {
 			"users", })
@@ -185,12 +189,17 @@ public class UserInfoController implements UsersApi {
 			if (userRequestVO.getData() != null && userRequestVO.getData().getId() != null) {
 				UserInfoVO userInfoVO = userRequestVO.getData();
 				UserInfoVO currentUserData = userInfoService.getById(userInfoVO.getId());
-				if (!rolesUpdated(userRequestVO, currentUserData)) {
+				boolean rolesUpdated = rolesUpdated(userRequestVO, currentUserData);
+				if (!rolesUpdated) {
 					userInfoVO.setToken(currentUserData.getToken());
 				} else {
 					userInfoVO.setToken(null);
 				}
 				userInfoService.create(userInfoVO);
+				if (rolesUpdated) {
+					// tokens claiming the previous roles must be validated again
+					tokenValidationCache.evictUser(userInfoVO.getId());
+				}
 				log.debug("user details updated successfully for userid {}", userRequestVO.getData().getId());
 				return new ResponseEntity<>(userInfoVO, HttpStatus.OK);
 			} else {
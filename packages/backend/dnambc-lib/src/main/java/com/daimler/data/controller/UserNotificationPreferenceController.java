@@ -27,6 +27,8 @@
 
 package com.daimler.data.controller;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
@@ -41,6 +43,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.daimler.data.api.usernotificationpref.NotificationPreferencesApi;
 import com.daimler.data.controller.exceptions.GenericMessage;
+import com.daimler.data.dto.usernotificationpref.UserNotificationPrefBatchRequestVO;
+import com.daimler.data.dto.usernotificationpref.UserNotificationPrefCollectionVO;
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefRequestVO;
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
 import com.daimler.data.service.usernotificationpref.UserNotificationPrefService;
@@ -60,6 +64,8 @@ public class UserNotificationPreferenceController implements NotificationPrefere
 	
 	@Autowired
 	public UserNotificationPrefService userNotificationPrefService;
+
+	private static final int MAX_USERS_PER_BATCH = 1000;
 	
 	@Override
 	@ApiOperation(value = "Get user notification preferences.", nickname = "getUserNotificationPreferences", notes = "Get user notification preferences", response = UserNotificationPrefVO.class, tags={ "userNotificationPreferences", })
@@ -109,6 +115,7 @@ public class UserNotificationPreferenceController implements NotificationPrefere
 				preferencesRequestVO.setId(existingPreferencesVO.getId());
 			responseVO = userNotificationPrefService.create(preferencesRequestVO);
 			log.debug("Saved user notification preferences successfully.");
+			userNotificationPrefService.publishPreferencesChanged(preferencesRequestVO.getUserId());
 			return new ResponseEntity<>(responseVO, HttpStatus.OK);
 		}catch(Exception e) {
 			log.error("Error occured while saving notification preferences for user {}", preferencesRequestVO.getUserId());
@@ -116,4 +123,34 @@ public class UserNotificationPreferenceController implements NotificationPrefere
 		return null;	
 	}
 
+	@Override
+	@ApiOperation(value = "Get notification preferences of multiple users.", nickname = "getUserNotificationPreferencesBatch", notes = "Get notification preferences of multiple users in one call. Users without stored preferences get the defaults.", response = UserNotificationPrefCollectionVO.class, tags={ "userNotificationPreferences", })
+    @ApiResponses(value = { 
+        @ApiResponse(code = 200, message = "Returns preferences of the requested users", response = UserNotificationPrefCollectionVO.class),
+        @ApiResponse(code = 400, message = "Bad request.", response = GenericMessage.class),
+        @ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+        @ApiResponse(code = 403, message = "Request is not authorized."),
+        @ApiResponse(code = 405, message = "Method not allowed"),
+        @ApiResponse(code = 500, message = "Internal error") })
+    @RequestMapping(value = "/notification-preferences/batch",
+        produces = { "application/json" }, 
+        consumes = { "application/json" },
+        method = RequestMethod.POST)
+    public ResponseEntity<UserNotificationPrefCollectionVO> getUserNotificationPreferencesBatch(@ApiParam(value = "Request Body that contains the shortIds of the users" ,required=true )  @Valid @RequestBody UserNotificationPrefBatchRequestVO userNotificationPrefBatchRequestVO){
+		List<String> userIds = userNotificationPrefBatchRequestVO.getUserIds();
+		if (userIds == null || userIds.size() > MAX_USERS_PER_BATCH) {
+			log.error("Invalid batch of user ids for fetching notification preferences, at most {} allowed", MAX_USERS_PER_BATCH);
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		UserNotificationPrefCollectionVO collectionVO = new UserNotificationPrefCollectionVO();
+		try {
+			collectionVO.setRecords(userNotificationPrefService.getByUserIds(userIds));
+			log.debug("Fetched notification preferences of {} users successfully.", userIds.size());
+			return new ResponseEntity<>(collectionVO, HttpStatus.OK);
+		}catch(Exception e) {
+			log.error("Error occured while fetching notification preferences for users {}", userIds);
+		}
+		return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+	}
+
 }
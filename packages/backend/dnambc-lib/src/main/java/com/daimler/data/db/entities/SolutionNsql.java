@@ -31,6 +31,7 @@ import com.daimler.data.db.jsonb.solution.Solution;
 
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import java.io.Serializable;
 
 @Entity
@@ -39,6 +40,10 @@ public class SolutionNsql extends BaseEntity<Solution> implements Serializable {
 
 	private static final long serialVersionUID = 4857908075537600169L;
 
+	/** Key the listing was ordered by, only populated by the filtered listing */
+	@Transient
+	private String sortKey;
+
 	public SolutionNsql() {
 		super();
 	}
@@ -48,4 +53,12 @@ public class SolutionNsql extends BaseEntity<Solution> implements Serializable {
 		this.setData(data);
 	}
 
+	public String getSortKey() {
+		return sortKey;
+	}
+
+	public void setSortKey(String sortKey) {
+		this.sortKey = sortKey;
+	}
+
 }
@@ -33,6 +33,8 @@ import java.util.Map;
 
 import com.daimler.data.db.entities.SolutionNsql;
 import com.daimler.data.db.repo.common.CommonDataRepository;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.SolDashboardSummaryDTO;
 import com.daimler.data.dto.SolDigitalValueDTO;
 import com.daimler.data.dto.dashboard.DatasourceWidgetVO;
 import com.daimler.data.dto.dashboard.LocationWidgetVO;
@@ -110,13 +112,15 @@ public interface SolutionCustomRepository extends CommonDataRepository<SolutionN
 	 * @param limit
 	 * @param sortBy
 	 * @param sortOrder
+	 * @param after     position of the last record of the previous page, null
+	 *                  for offset based paging
 	 * @return List<SolutionNsql>
 	 */
 	List<SolutionNsql> getAllWithFiltersUsingNativeQuery(Boolean published, List<String> phases,
 			List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
 			List<String> searchTerms, List<String> tags, List<String> relatedProducts, int offset, int limit,
-			String sortBy, String sortOrder);
+			String sortBy, String sortOrder, PageCursorDTO after);
 
 	/**
 	 * To get SOlution count using Native query.
@@ -265,4 +269,29 @@ public interface SolutionCustomRepository extends CommonDataRepository<SolutionN
 			List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
 			List<String> searchTerms, List<String> tags);
+
+	/**
+	 * To Fetch all dashboard widgets of solutions matching the given filter in one
+	 * pass
+	 * 
+	 * @param published
+	 * @param phases
+	 * @param dataVolumes
+	 * @param divisions
+	 * @param locations
+	 * @param statuses
+	 * @param solutionType
+	 * @param userId
+	 * @param isAdmin
+	 * @param bookmarkedSolutions
+	 * @param searchTerms
+	 * @param tags
+	 * @param useAggregates serve requests filtered by publish state only from the
+	 *                      aggregated statistics
+	 * @return SolDashboardSummaryDTO
+	 */
+	SolDashboardSummaryDTO getDashboardSummary(Boolean published, List<String> phases, List<String> dataVolumes,
+			String divisions, List<String> locations, List<String> statuses, String solutionType, String userId,
+			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags,
+			boolean useAggregates);
 }
@@ -32,8 +32,10 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.persistence.Query;
@@ -44,6 +46,8 @@ import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.hibernate.query.NativeQuery;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
@@ -53,6 +57,8 @@ import org.springframework.util.StringUtils;
 import com.daimler.data.db.entities.SolutionNsql;
 import com.daimler.data.db.jsonb.solution.Solution;
 import com.daimler.data.db.repo.common.CommonDataRepositoryImpl;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.SolDashboardSummaryDTO;
 import com.daimler.data.dto.SolDigitalValueDTO;
 import com.daimler.data.dto.dashboard.DatasourceWidgetVO;
 import com.daimler.data.dto.dashboard.LocationWidgetVO;
@@ -63,6 +69,8 @@ import com.daimler.data.dto.solution.SolutionLocationVO;
 import com.daimler.data.dto.solution.SolutionPhaseVO;
 import com.daimler.data.util.ConstantsUtility;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.vladmihalcea.hibernate.type.array.StringArrayType;
 
 @Repository
 public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<SolutionNsql, String>
@@ -71,153 +79,182 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 	private static Logger LOGGER = LoggerFactory.getLogger(SolutionCustomRepositoryImpl.class);
 	private static String noBookMarkId = "NOBOOKMARK";
 
-	private String getPublishPredicateString(Boolean published, String userId, Boolean isAdmin) {
-		String allTrueCondition = " (jsonb_extract_path_text(data,'publish') in ('true')) ";
-		String allFalseCondition = " (jsonb_extract_path_text(data,'publish') in ('false')) ";
-		String isCreator = null;
+	// publish state is matched by containment to make use of the jsonb_path_ops gin
+	// index on data, creator by equality on the lower(createdBy.id) index.
+	// createdBy.id holds the exact shortId, the former substring match also
+	// returned drafts of users whose shortId merely contains the given one
+	private static final String PUBLISHED_PREDICATE = " (data @> jsonb_build_object('publish', true)) ";
+	private static final String DRAFT_PREDICATE = " (data @> jsonb_build_object('publish', false)) ";
+	private static final String CREATOR_PREDICATE = " lower(jsonb_extract_path_text(data,'createdBy','id')) = :creatorId ";
+
+	private static final Pattern SEARCHABLE = Pattern.compile("[\\p{L}\\p{N}]");
+
+	/**
+	 * To convert given value into a case insensitive contains pattern for like
+	 * predicates, escaping the like wildcards present in the value.
+	 * 
+	 * @param value
+	 * @return pattern{String}
+	 */
+	private static String toContainsPattern(String value) {
+		String escaped = value.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return "%" + escaped + "%";
+	}
+
+	private static String[] toContainsPatterns(List<String> values) {
+		return values.stream().map(SolutionCustomRepositoryImpl::toContainsPattern).toArray(String[]::new);
+	}
+
+	private String getPublishPredicateString(Boolean published, String userId, Boolean isAdmin,
+			Map<String, Object> parameters) {
 		String userCreatedDraftsOnly = null;
 		String publishQuery = "";
 		if (userId != null) {
-			isCreator = " lower(jsonb_extract_path_text(data,'createdBy','id')) like " + "'%" + userId.toLowerCase()
-					+ "%'";
-			userCreatedDraftsOnly = " ( " + allFalseCondition + " and " + isCreator + " ) ";
+			userCreatedDraftsOnly = " ( " + DRAFT_PREDICATE + " and " + CREATOR_PREDICATE + " ) ";
 		}
 		if (published != null) {
 			if (published || isAdmin) {
-				String requestedPublishState = published ? allTrueCondition : allFalseCondition;
+				String requestedPublishState = published ? PUBLISHED_PREDICATE : DRAFT_PREDICATE;
 				publishQuery = publishQuery + " and " + requestedPublishState;
 			}
 			if (!published && !isAdmin && userCreatedDraftsOnly != null) {
 				publishQuery = publishQuery + " and " + userCreatedDraftsOnly;
+				parameters.put("creatorId", userId.toLowerCase());
 			}
 		} else {
 			if (!isAdmin && userCreatedDraftsOnly != null) {
-				String requestedPublishState = " and ( " + allTrueCondition + " or " + userCreatedDraftsOnly + " ) ";
-				publishQuery = StringUtils.hasText(publishQuery) ? publishQuery += " and " + requestedPublishState
-						: requestedPublishState;
+				publishQuery = " and ( " + PUBLISHED_PREDICATE + " or " + userCreatedDraftsOnly + " ) ";
+				parameters.put("creatorId", userId.toLowerCase());
 			}
 		}
 		return publishQuery;
 	}
 
 	private String getSolutionTypePredicateString(String solutionType, String userId,
-			List<String> bookmarkedSolutions) {
+			List<String> bookmarkedSolutions, Map<String, Object> parameters) {
 		if (solutionType != null && !"".equalsIgnoreCase(solutionType)) {
 			if ("1".equalsIgnoreCase(solutionType)) {
-				if (bookmarkedSolutions == null || bookmarkedSolutions.isEmpty()) {
-					bookmarkedSolutions.add(noBookMarkId);
-				}
-				String commaSeparatedBookmarkedIds = bookmarkedSolutions.stream()
-						.collect(Collectors.joining("','", "'", "'"));
-				return " and (id in (" + commaSeparatedBookmarkedIds + "))";
+				// empty array simply matches nothing, no placeholder id required
+				String[] bookmarkedIds = bookmarkedSolutions != null ? bookmarkedSolutions.toArray(new String[0])
+						: new String[0];
+				parameters.put("bookmarkedSolutions", bookmarkedIds);
+				return " and (id = any(:bookmarkedSolutions))";
 			}
 			if ("2".equalsIgnoreCase(solutionType)) {
-				String isCreator = " lower(jsonb_extract_path_text(data,'createdBy','id')) like " + "'%"
-						+ userId.toLowerCase() + "%'";
-				String isMemberPredicate = " lower(jsonb_extract_path_text(data,'teamMembers')) like " + "'%"
-						+ userId.toLowerCase() + "%'";
-				String currentUserPredicate = " and ( " + isMemberPredicate + " or " + isCreator + " ) ";
-				return currentUserPredicate;
+				String isMemberPredicate = " lower(jsonb_extract_path_text(data,'teamMembers')) like :memberPattern ";
+				parameters.put("memberPattern", toContainsPattern(userId));
+				parameters.put("creatorId", userId.toLowerCase());
+				return " and ( " + isMemberPredicate + " or " + CREATOR_PREDICATE + " ) ";
 			}
 		}
 		return "";
 	}
 
-	private String getPhasesPredicateString(List<String> phaseIds) {
+	private String getPhasesPredicateString(List<String> phaseIds, Map<String, Object> parameters) {
 		if (phaseIds != null && !phaseIds.isEmpty()) {
-			String commaSeparatedPhaseIds = phaseIds.stream().collect(Collectors.joining("','", "'", "'"));
-			return "  and ((jsonb_extract_path_text(data,'currentPhase','id') in (" + commaSeparatedPhaseIds + ")))";
+			parameters.put("phases", phaseIds.toArray(new String[0]));
+			return "  and (jsonb_extract_path_text(data,'currentPhase','id') = any(:phases))";
 		}
 		return "";
 	}
 
-	private String getDataVolumesPredicateString(List<String> dataVolumes) {
+	private String getDataVolumesPredicateString(List<String> dataVolumes, Map<String, Object> parameters) {
 		if (dataVolumes != null && !dataVolumes.isEmpty()) {
-			String commaSeparateddataVolumes = dataVolumes.stream().collect(Collectors.joining("','", "'", "'"));
-			return "  and ((jsonb_extract_path_text(data,'totalDataVolume','id') in (" + commaSeparateddataVolumes
-					+ ")))";
+			parameters.put("dataVolumes", dataVolumes.toArray(new String[0]));
+			return "  and (jsonb_extract_path_text(data,'totalDataVolume','id') = any(:dataVolumes))";
 		}
 		return "";
 	}
 
-	private String getProjectStatusesPredicateString(List<String> statuses) {
+	private String getProjectStatusesPredicateString(List<String> statuses, Map<String, Object> parameters) {
 		if (statuses != null && !statuses.isEmpty()) {
-			String commaSeparatedstatuses = statuses.stream().collect(Collectors.joining("','", "'", "'"));
-			return "  and ((jsonb_extract_path_text(data,'projectStatus','id') in (" + commaSeparatedstatuses + "))) ";
+			parameters.put("statuses", statuses.toArray(new String[0]));
+			return "  and (jsonb_extract_path_text(data,'projectStatus','id') = any(:statuses)) ";
 		}
 		return "";
 	}
 
-	private String getLocationsPredicateString(List<String> locations) {
+	private String getLocationsPredicateString(List<String> locations, Map<String, Object> parameters) {
 		if (locations != null && !locations.isEmpty()) {
-			String commaSeparatedLocations = locations.stream().map(s -> "%\"" + s + "\"%")
-					.collect(Collectors.joining("|"));
-			String locationPredicate = "and (jsonb_extract_path_text(data,'locations') similar to '"
-					+ commaSeparatedLocations + "' )";
-			return locationPredicate;
+			// each location is matched as containment of [{"id": <location>}] in the
+			// locations array of the solution
+			ObjectMapper mapper = new ObjectMapper();
+			String[] locationDocuments = locations.stream().map(location -> {
+				ArrayNode locationArray = mapper.createArrayNode();
+				locationArray.addObject().put("id", location);
+				return locationArray.toString();
+			}).toArray(String[]::new);
+			parameters.put("locations", locationDocuments);
+			return "  and (data->'locations' @> any(cast(:locations as jsonb[]))) ";
 		}
 		return "";
 	}
 
-	private String getSearchTermsPredicateString(List<String> searchTerms) {
+	/**
+	 * To join the given search terms by newline for solution_nsql_prefix_tsquery,
+	 * which tokenizes them with the same parser the search_vector is built with.
+	 * Terms without any letter or digit would not match anything and are skipped.
+	 * 
+	 * @param searchTerms
+	 * @return search terms{String}, empty if no searchable term is present
+	 */
+	private static String toSearchQuery(List<String> searchTerms) {
+		return searchTerms.stream().filter(searchTerm -> searchTerm != null && SEARCHABLE.matcher(searchTerm).find())
+				.map(searchTerm -> searchTerm.replace('\n', ' ')).collect(Collectors.joining("\n"));
+	}
+
+	private String getSearchTermsPredicateString(List<String> searchTerms, Map<String, Object> parameters) {
 		if (searchTerms != null && !searchTerms.isEmpty()) {
-			String delimiterSeparatedSearchTerms = searchTerms.stream().collect(Collectors.joining("|", "%", "%"));
-			delimiterSeparatedSearchTerms = "'" + delimiterSeparatedSearchTerms + "'";
-			return "  and (" + "lower(jsonb_extract_path_text(data,'productName')) similar to "
-					+ delimiterSeparatedSearchTerms + " or " + "lower(jsonb_extract_path_text(data,'tags')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'dataSources')) similar to " + delimiterSeparatedSearchTerms
-					+ " or " + "lower(jsonb_extract_path_text(data,'platforms')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'languages')) similar to " + delimiterSeparatedSearchTerms
-					+ " or " + "lower(jsonb_extract_path_text(data,'algorithms')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'visualizations')) similar to "
-					+ delimiterSeparatedSearchTerms + " ) ";
+			String searchQuery = toSearchQuery(searchTerms);
+			if (StringUtils.hasText(searchQuery)) {
+				// search_vector is maintained by trigger, see V5__create_solution_search_vector,
+				// the tsquery is built by V11__create_solution_prefix_tsquery
+				parameters.put("searchQuery", searchQuery);
+				return "  and (search_vector @@ solution_nsql_prefix_tsquery(:searchQuery)) ";
+			}
 		}
 		return "";
 	}
 
-	private String getTagsPredicateString(List<String> tags) {
+	private String getTagsPredicateString(List<String> tags, Map<String, Object> parameters) {
 		if (tags != null && !tags.isEmpty()) {
-			String delimiterSeparatedTags = tags.stream().map(String::toLowerCase)
-					.collect(Collectors.joining("|", "%", "%"));
-			delimiterSeparatedTags = "'" + delimiterSeparatedTags + "'";
-			return "  and (lower(jsonb_extract_path_text(data,'tags')) similar to " + delimiterSeparatedTags + " ) ";
+			parameters.put("tags", toContainsPatterns(tags));
+			return "  and (lower(jsonb_extract_path_text(data,'tags')) like any(:tags)) ";
 		}
 		return "";
 	}
 
-	private String getRelatedProductsPredicateString(List<String> relatedProducts) {
+	private String getRelatedProductsPredicateString(List<String> relatedProducts, Map<String, Object> parameters) {
 		if (relatedProducts != null && !relatedProducts.isEmpty()) {
-			String delimiterSeparatedRelatedProducts = relatedProducts.stream()
-					.collect(Collectors.joining("'|'", "%", "%"));
-			return "  and (lower(jsonb_extract_path_text(data,'relatedProducts')) similar to "
-					+ delimiterSeparatedRelatedProducts + " ) ";
+			parameters.put("relatedProducts", toContainsPatterns(relatedProducts));
+			return "  and (lower(jsonb_extract_path_text(data,'relatedProducts')) like any(:relatedProducts)) ";
 		}
 		return "";
 	}
 
 	/**
-	 * To get Predicate string for division & subdivision combination.
+	 * To get Predicate string for division & subdivision combination. Divisions
+	 * without subdivisions are bound as one array of division ids, division &
+	 * subdivision combinations as one array of {@code divisionId|subdivisionId}
+	 * pairs, so the statement text does not change with the number of divisions.
+	 * As before, an EMPTY subdivision anywhere in the filter lets solutions
+	 * without subdivision match for every division filtered by subdivisions.
 	 * 
 	 * @param divisions
+	 * @param parameters
 	 * @return divisionPredicate{String}
 	 */
-	private String getDivisionsPredicateString(String divisions) {
+	private String getDivisionsPredicateString(String divisions, Map<String, Object> parameters) {
 		if (StringUtils.hasText(divisions)) {
-			StringBuilder consolidatedQuery = new StringBuilder();
-			boolean isEmptySubdivision = false;
+			List<String> onlyDivisions = new ArrayList<>();
+			List<String> divisionSubdivisionPairs = new ArrayList<>();
+			// If null has to be added in the subdivision predicate
+			boolean isEmptySubdivision = divisions.contains(ConstantsUtility.EMPTY_VALUE);
 			// To remove outer [] bracket, eg: [{a,[1]},{b,[1]}], result:{a,[1]},{b,[1]}
 			divisions = divisions.substring(1, divisions.length() - 1);
 			// To Split value with <},>, eg: {a,[1]},{b,[1]}, result: {a,[1]} {b,[1]
 			String[] divisionSplit = divisions.split("},", 0);
-			if (divisions.contains("EMPTY")) {
-				// If null has to be added in the subdivision predicate
-				isEmptySubdivision = true;
-			}
 			for (String divSubdiv : divisionSplit) {
-				String query = "";
 				// To remove all the brackets
 				divSubdiv = divSubdiv.replaceAll("[\\{\\}\\[\\]]", "");
 				// To remove the trailing comma(,)
@@ -226,45 +263,48 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 				// occurrence of comma(,)
 				String[] divList = divSubdiv.trim().split(",", 2);
 				if (divList.length > 1) {
-					query += "(jsonb_extract_path_text(data,'division','id') in ('" + divList[0] + "')";
-					String commaSeparatedinSubdivisions = Arrays.asList(divList[1].split(",")).stream()
-							.collect(Collectors.joining("','", "'", "'"));
+					for (String subdivision : divList[1].split(",")) {
+						divisionSubdivisionPairs.add(divList[0] + "|" + subdivision);
+					}
+					// null subdivision is matched through the EMPTY placeholder
 					if (isEmptySubdivision) {
-						query += " and (jsonb_extract_path_text(data,'division','subdivision','id') in ("
-								+ commaSeparatedinSubdivisions + ")";
-						query += " or jsonb_extract_path_text(data,'division','subdivision','id') is null)";
-					} else {
-						query += " and jsonb_extract_path_text(data,'division','subdivision','id') in ("
-								+ commaSeparatedinSubdivisions + ")";
+						divisionSubdivisionPairs.add(divList[0] + "|" + ConstantsUtility.EMPTY_VALUE);
 					}
-					query += ")";
-				} else {
-					query += "jsonb_extract_path_text(data,'division','id') in ('" + divList[0] + "')";
-				}
-				if (divisionSplit.length > 1 && !consolidatedQuery.toString().isEmpty()) {
-					consolidatedQuery.append(" or " + query);
 				} else {
-					consolidatedQuery.append(query);
+					onlyDivisions.add(divList[0]);
 				}
 			}
-			consolidatedQuery.insert(0, "and (");
-			consolidatedQuery.append(")");
-			return consolidatedQuery.toString();
+			parameters.put("onlyDivisions", onlyDivisions.toArray(new String[0]));
+			parameters.put("divisionSubdivisionPairs", divisionSubdivisionPairs.toArray(new String[0]));
+			return "and (jsonb_extract_path_text(data,'division','id') = any(:onlyDivisions)"
+					+ " or (jsonb_extract_path_text(data,'division','id') || '|' || coalesce(jsonb_extract_path_text(data,'division','subdivision','id'), '"
+					+ ConstantsUtility.EMPTY_VALUE + "')) = any(:divisionSubdivisionPairs))";
 		}
 		return "";
 	}
 
+	/**
+	 * To build the where clause for the given filters. User supplied values are
+	 * never concatenated into the statement, they are collected in
+	 * {@code parameters} and bound as scalar or array parameters, so that the
+	 * same filter combination always produces the same statement text and the
+	 * prepared statement can be reused.
+	 */
 	public String buildPredicateString(Boolean published, List<String> phases, List<String> dataVolumes,
 			String divisions, List<String> locations, List<String> statuses, String solutionType, String userId,
 			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags,
-			List<String> relatedProducts) {
+			List<String> relatedProducts, Map<String, Object> parameters) {
 
-		return getPublishPredicateString(published, userId, isAdmin) + "\n" + getDivisionsPredicateString(divisions)
-				+ "\n" + getPhasesPredicateString(phases) + "\n" + getDataVolumesPredicateString(dataVolumes) + "\n"
-				+ getProjectStatusesPredicateString(statuses) + "\n" + getLocationsPredicateString(locations) + "\n"
-				+ getSearchTermsPredicateString(searchTerms) + "\n" + getTagsPredicateString(tags) + "\n"
-				+ getRelatedProductsPredicateString(relatedProducts) + "\n"
-				+ getSolutionTypePredicateString(solutionType, userId, bookmarkedSolutions) + "\n";
+		return getPublishPredicateString(published, userId, isAdmin, parameters) + "\n"
+				+ getDivisionsPredicateString(divisions, parameters) + "\n"
+				+ getPhasesPredicateString(phases, parameters) + "\n"
+				+ getDataVolumesPredicateString(dataVolumes, parameters) + "\n"
+				+ getProjectStatusesPredicateString(statuses, parameters) + "\n"
+				+ getLocationsPredicateString(locations, parameters) + "\n"
+				+ getSearchTermsPredicateString(searchTerms, parameters) + "\n"
+				+ getTagsPredicateString(tags, parameters) + "\n"
+				+ getRelatedProductsPredicateString(relatedProducts, parameters) + "\n"
+				+ getSolutionTypePredicateString(solutionType, userId, bookmarkedSolutions, parameters) + "\n";
 	}
 
 	@Override
@@ -273,8 +313,8 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags) {
 		Query q = getNativeQueryWithFilters(" select cast ( data->'currentPhase' as text), count(*)   ", published,
 				phases, dataVolumes, divisions, locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions,
-				searchTerms, tags, new ArrayList<>(), 0, 0, "productName", "asc", "",
-				" group by (data->'currentPhase') ");
+				searchTerms, tags, new ArrayList<>(), 0, 0, null, null, "",
+				" group by (data->'currentPhase') ", null);
 		ObjectMapper mapper = new ObjectMapper();
 		List<Object[]> results = q.getResultList();
 		List<MilestoneWidgetVO> convertedResults = results.stream().map(temp -> {
@@ -301,8 +341,8 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 		Query q = getNativeQueryWithFilters(
 				" select cast (jsonb_array_elements(data->'locations') as text) , count(*) ", published, phases,
 				dataVolumes, divisions, locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions,
-				searchTerms, tags, new ArrayList<>(), 0, 0, "productName", "asc", "",
-				" group by jsonb_array_elements(data->'locations') ");
+				searchTerms, tags, new ArrayList<>(), 0, 0, null, null, "",
+				" group by jsonb_array_elements(data->'locations') ", null);
 		ObjectMapper mapper = new ObjectMapper();
 		List<Object[]> results = q.getResultList();
 
@@ -335,8 +375,8 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 			List<String> searchTerms, List<String> tags) {
 		Query q = getNativeQueryWithFilters(" select cast (data->'totalDataVolume' as text) , count(*)  ", published,
 				phases, dataVolumes, divisions, locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions,
-				searchTerms, tags, new ArrayList<>(), 0, 0, "productName", "asc", "",
-				" group by (data->'totalDataVolume') ");
+				searchTerms, tags, new ArrayList<>(), 0, 0, null, null, "",
+				" group by (data->'totalDataVolume') ", null);
 
 		ObjectMapper mapper = new ObjectMapper();
 		List<Object[]> results = q.getResultList();
@@ -364,7 +404,7 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 		Query q = getNativeQueryWithFilters(
 				" select sum(cast (data->'digitalValueDetails'->>'digitalValue' as decimal)) ", published, phases,
 				dataVolumes, divisions, locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions,
-				searchTerms, tags, new ArrayList<>(), 0, 0, "productName", "asc", "", "");
+				searchTerms, tags, new ArrayList<>(), 0, 0, null, null, "", "", null);
 		BigDecimal result = (BigDecimal) q.getSingleResult();
 		return result;
 	}
@@ -375,7 +415,7 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags) {
 		Query q = getNativeQueryWithFilters("select count(*)  ", published, phases, dataVolumes, divisions, locations,
 				statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, new ArrayList<>(), 0,
-				0, "productName", "asc", " and jsonb_extract_path_text(data,'dnaNotebookId') is not null \n", "");
+				0, null, null, " and jsonb_extract_path_text(data,'dnaNotebookId') is not null \n", "", null);
 		BigInteger result = (BigInteger) q.getSingleResult();
 		return result != null ? result.longValue() : 0;
 	}
@@ -386,7 +426,7 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags) {
 		Query q = getNativeQueryWithFilters("select count(*) ", published, phases, dataVolumes, divisions, locations,
 				statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, new ArrayList<>(), 0,
-				0, "productName", "asc", "", "");
+				0, null, null, "", "", null);
 		BigInteger results = (BigInteger) q.getSingleResult();
 		return results.longValue();
 	}
@@ -396,10 +436,14 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 			List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
 			List<String> searchTerms, List<String> tags, List<String> relatedProducts, int offset, int limit,
-			String sortBy, String sortOrder) {
+			String sortBy, String sortOrder, PageCursorDTO after) {
+		if (!StringUtils.hasText(sortBy)) {
+			sortBy = getDefaultSortBy(searchTerms);
+			sortOrder = "asc";
+		}
 		Query q = getNativeQueryWithFilters("", published, phases, dataVolumes, divisions, locations, statuses,
 				solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, relatedProducts, offset, limit,
-				sortBy, sortOrder, "", "");
+				sortBy, sortOrder, "", "", after);
 		ObjectMapper mapper = new ObjectMapper();
 		List<Object[]> results = q.getResultList();
 		List<SolutionNsql> convertedResults = results.stream().map(temp -> {
@@ -413,66 +457,144 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 			}
 			String id = temp[0] != null ? temp[0].toString() : "";
 			entity.setId(id);
+			if (temp.length > 2 && temp[2] != null) {
+				entity.setSortKey(temp[2].toString());
+			}
 			return entity;
 		}).collect(Collectors.toList());
 		return convertedResults;
 	}
 
+	/**
+	 * Default sort on relevance for keyword search, otherwise on solution name.
+	 */
+	private String getDefaultSortBy(List<String> searchTerms) {
+		return searchTerms != null && !searchTerms.isEmpty() ? "relevance" : "productName";
+	}
+
+	/**
+	 * To get the expression the listing is ordered by, also used as seek key for
+	 * keyset pagination. Nullable keys are coalesced, so that they can be compared
+	 * as row values.
+	 * 
+	 * @param sortBy
+	 * @param sortOrder
+	 * @param hasSearchQuery
+	 * @return sortKeyExpression{String}, null if sortBy is not supported
+	 */
+	private String getSortKeyExpression(String sortBy, String sortOrder, boolean hasSearchQuery) {
+		if (!StringUtils.hasText(sortBy)) {
+			return null;
+		}
+		switch (sortBy) {
+		case "productName":
+			// mandatory field, kept without coalesce to use the productName index
+			return "lower(jsonb_extract_path_text(data,'productName'))";
+		case "currentPhase":
+			return "coalesce(lower(jsonb_extract_path_text(data,'currentPhase','name')), '')";
+		case "division":
+			return "coalesce(lower(jsonb_extract_path_text(data,'division','name')), '')";
+		case "projectStatus":
+			return "coalesce(lower(jsonb_extract_path_text(data,'projectStatus','name')), '')";
+		case "locations":
+			// location names joined in sort direction, see V6__create_solution_locations_sort_key
+			return "solution_nsql_locations_key(data, " + "desc".equalsIgnoreCase(sortOrder) + ")";
+		case "digitalValue":
+			return "coalesce(jsonb_extract_path(data,'digitalValueDetails','digitalValue'), cast('null' as jsonb))";
+		case "relevance":
+			// rank is compared as numeric, as real does not survive the text round trip
+			return hasSearchQuery ? "cast(ts_rank(search_vector, solution_nsql_prefix_tsquery(:searchQuery)) as numeric)"
+					: "lower(jsonb_extract_path_text(data,'productName'))";
+		default:
+			return null;
+		}
+	}
+
+	private String getSortKeyType(String sortBy, boolean hasSearchQuery) {
+		if ("digitalValue".equalsIgnoreCase(sortBy)) {
+			return "jsonb";
+		}
+		if ("relevance".equalsIgnoreCase(sortBy) && hasSearchQuery) {
+			return "numeric";
+		}
+		return "text";
+	}
+
 	public Query getNativeQueryWithFilters(String selectFieldsString, Boolean published, List<String> phases,
 			List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
 			List<String> searchTerms, List<String> tags, List<String> relatedProducts, int offset, int limit,
-			String sortBy, String sortOrder, String additionalPredicatesString, String groupByString) {
+			String sortBy, String sortOrder, String additionalPredicatesString, String groupByString,
+			PageCursorDTO after) {
 
-		String prefix = selectFieldsString != null && !"".equalsIgnoreCase(selectFieldsString) ? selectFieldsString
-				: "select cast(id as text), cast(data as text) ";
-		prefix = prefix + "from solution_nsql";
+		Map<String, Object> parameters = new HashMap<>();
 		String basicpredicate = " where (id is not null)";
 		String consolidatedPredicates = buildPredicateString(published, phases, dataVolumes, divisions, locations,
-				statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, relatedProducts);
-		String query = prefix + basicpredicate + consolidatedPredicates;
-		String sortQueryString = "";
-		if (sortBy != null && "".equalsIgnoreCase(sortBy)) {
-			switch (sortBy) {
-			case "productName":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'productName')) ";
-				break;
-			case "currentPhase":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'currentPhase','name')) ";
-				break;
-			case "division":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'division','name')) ";
-				break;
-			case "projectStatus":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'projectStatus','name')) ";
-				break;
-			case "digitalValue":
-				sortQueryString = " order by (jsonb_extract_path_text(data,'digitalValueDetails','digitalValue')) ";
-				break;
-			default:
-				sortQueryString = "";
-				break;
-			}
-			if ("desc".equalsIgnoreCase(sortOrder))
-				sortQueryString = sortQueryString + " desc ";
-			else
-				sortQueryString = sortQueryString + " asc ";
-
-			query = query + sortQueryString;
-
+				statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, relatedProducts,
+				parameters);
+		String sortKeyExpression = getSortKeyExpression(sortBy, sortOrder, parameters.containsKey("searchQuery"));
+		String prefix = selectFieldsString;
+		if (prefix == null || "".equalsIgnoreCase(prefix)) {
+			// sort key is selected along, so that the next page cursor needs no extra lookup
+			prefix = "select cast(id as text), cast(data as text)"
+					+ (sortKeyExpression != null ? ", cast((" + sortKeyExpression + ") as text) " : " ");
 		}
+		prefix = prefix + "from solution_nsql";
+		String query = prefix + basicpredicate + consolidatedPredicates;
 		if (additionalPredicatesString != null && !"".equalsIgnoreCase(additionalPredicatesString))
 			query = query + " " + additionalPredicatesString + " \n";
 		if (groupByString != null && !"".equalsIgnoreCase(groupByString))
 			query = query + " " + groupByString + " \n";
-		if (limit > 0 && !"locations".equalsIgnoreCase(sortBy))
-			query = query + " limit " + limit;
-		if (offset >= 0 && !"locations".equalsIgnoreCase(sortBy))
-			query = query + " offset " + offset;
+		if (sortKeyExpression != null) {
+			if ("relevance".equalsIgnoreCase(sortBy) && parameters.containsKey("searchQuery")) {
+				// best match first, sortOrder is not applicable
+				sortOrder = "desc";
+			}
+			String direction = "desc".equalsIgnoreCase(sortOrder) ? " desc " : " asc ";
+			if (after != null) {
+				// seek past the last record of the previous page instead of skipping rows
+				String comparator = "desc".equalsIgnoreCase(sortOrder) ? " < " : " > ";
+				query = query + " and ((" + sortKeyExpression + "), id)" + comparator + "(cast(:afterSortKey as "
+						+ getSortKeyType(sortBy, parameters.containsKey("searchQuery")) + "), :afterId) \n";
+				parameters.put("afterSortKey", after.getSortKey());
+				parameters.put("afterId", after.getId());
+				offset = 0;
+			}
+			// id as tie breaker keeps pages stable for equal sort keys
+			query = query + " order by " + sortKeyExpression + direction + ", id" + direction;
+		} else if (limit > 0) {
+			// unsupported sortBy, offset paging still needs a stable order
+			query = query + " order by id \n";
+		}
+		if (limit > 0) {
+			query = query + " limit :limit offset :offset";
+			parameters.put("limit", limit);
+			parameters.put("offset", offset >= 0 ? offset : 0);
+		}
 		Query q = em.createNativeQuery(query);
+		bindParameters(q, parameters);
 		return q;
 	}
 
+	/**
+	 * To bind the collected filter values to the native query, array values are
+	 * bound as postgres text[].
+	 * 
+	 * @param q
+	 * @param parameters
+	 */
+	@SuppressWarnings("rawtypes")
+	private void bindParameters(Query q, Map<String, Object> parameters) {
+		NativeQuery nativeQuery = q.unwrap(NativeQuery.class);
+		parameters.forEach((name, value) -> {
+			if (value instanceof String[]) {
+				nativeQuery.setParameter(name, value, StringArrayType.INSTANCE);
+			} else {
+				nativeQuery.setParameter(name, value);
+			}
+		});
+	}
+
 	@Override
 	public List<SolutionNsql> getAllWithFilters(Boolean published, List<String> phases, List<String> dataVolumes,
 			List<Map<String, List<String>>> divisions, List<String> locations, List<String> statuses,
@@ -810,7 +932,7 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 				published, phases, dataVolumes, divisions, locations, statuses, solutionType, userId, isAdmin,
 				bookmarkedSolutions, searchTerms, tags, new ArrayList<>(), 0, 0, "productName", "asc",
 				"and jsonb_extract_path_text(data,'digitalValueDetails','valueCalculator','calculatedDigitalValue','year') is not null ",
-				"");
+				"", null);
 		ObjectMapper mapper = new ObjectMapper();
 		List<Object[]> results = q.getResultList();
 		List<SolDigitalValueDTO> convertedResults = results.stream().map(temp -> {
@@ -833,4 +955,144 @@ public class SolutionCustomRepositoryImpl extends CommonDataRepositoryImpl<Solut
 		return convertedResults;
 	}
 
+
+	@Override
+	public SolDashboardSummaryDTO getDashboardSummary(Boolean published, List<String> phases,
+			List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
+			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
+			List<String> searchTerms, List<String> tags, boolean useAggregates) {
+		Map<String, Object> parameters = new HashMap<>();
+		String consolidatedPredicates = buildPredicateString(published, phases, dataVolumes, divisions, locations,
+				statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, new ArrayList<>(),
+				parameters);
+		// drafts of the requesting user are not part of the aggregates
+		boolean includesUserDrafts = !Boolean.TRUE.equals(isAdmin) && userId != null
+				&& !Boolean.TRUE.equals(published);
+		boolean hasFilters = !ObjectUtils.isEmpty(phases) || !ObjectUtils.isEmpty(dataVolumes)
+				|| StringUtils.hasText(divisions) || !ObjectUtils.isEmpty(locations) || !ObjectUtils.isEmpty(statuses)
+				|| StringUtils.hasText(solutionType) || !ObjectUtils.isEmpty(searchTerms) || !ObjectUtils.isEmpty(tags);
+		if (useAggregates && !hasFilters && !includesUserDrafts) {
+			// only the publish state remains, so the request can be served from solution_nsql_stats
+			SolDashboardSummaryDTO summary = getDashboardSummaryFromStats(
+					getAggregatedPublishState(published, isAdmin));
+			summary.setDigitalValues(getDigitalValueUsingNativeQuery(published, phases, dataVolumes, divisions,
+					locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags));
+			return summary;
+		}
+		String query = "with filtered as (select id, data from solution_nsql where (id is not null) "
+				+ consolidatedPredicates + ") \n"
+				+ " select case grouping(data->'currentPhase', data->'totalDataVolume') when 1 then 'phase' when 2 then 'dataVolume' else 'total' end, "
+				+ " coalesce(cast(data->'currentPhase' as text), cast(data->'totalDataVolume' as text)), cast(null as text), cast(null as text), "
+				+ " count(*), count(*) filter (where jsonb_extract_path_text(data,'dnaNotebookId') is not null), "
+				+ " sum(cast (data->'digitalValueDetails'->>'digitalValue' as decimal)) "
+				+ " from filtered group by grouping sets ((), (data->'currentPhase'), (data->'totalDataVolume')) \n"
+				+ " union all select 'location', cast(location as text), null, null, count(*), null, null "
+				+ " from filtered, jsonb_array_elements(data->'locations') as location group by location \n"
+				+ " union all select 'digitalValue', cast(data->'digitalValueDetails'->'valueCalculator'->'calculatedDigitalValue' as text), "
+				+ " cast(id as text), jsonb_extract_path_text(data,'productName'), null, null, null from filtered "
+				+ " where jsonb_extract_path_text(data,'digitalValueDetails','valueCalculator','calculatedDigitalValue','year') is not null ";
+		Query q = em.createNativeQuery(query);
+		bindParameters(q, parameters);
+		List<Object[]> results = q.getResultList();
+		SolDashboardSummaryDTO summary = new SolDashboardSummaryDTO();
+		ObjectMapper mapper = new ObjectMapper();
+		for (Object[] result : results) {
+			addDashboardSummaryRow(summary, result, locations, mapper);
+		}
+		return summary;
+	}
+
+	/**
+	 * To get the publish state selected by getPublishPredicateString for a request
+	 * without user specific draft access.
+	 * 
+	 * @return publishState{Boolean}, null if solutions of both states are selected
+	 */
+	private Boolean getAggregatedPublishState(Boolean published, Boolean isAdmin) {
+		if (Boolean.TRUE.equals(published)) {
+			return Boolean.TRUE;
+		}
+		return Boolean.FALSE.equals(published) && Boolean.TRUE.equals(isAdmin) ? Boolean.FALSE : null;
+	}
+
+	/**
+	 * To get the dashboard widgets from the aggregated statistics, maintained by
+	 * trigger on solution_nsql, see V7__create_solution_dashboard_stats. Stats are
+	 * spread over shards, see V9__spread_solution_dashboard_stats.
+	 * 
+	 * @param publishState publish state of an otherwise unfiltered request, null
+	 *                     for both
+	 * @return SolDashboardSummaryDTO, without digital values of solutions
+	 */
+	private SolDashboardSummaryDTO getDashboardSummaryFromStats(Boolean publishState) {
+		String statsPredicate = "";
+		if (publishState != null) {
+			statsPredicate = publishState ? " where published = true " : " where published = false ";
+		}
+		Query q = em.createNativeQuery(
+				"select dimension, dimension_key, null, null, sum(solution_count), sum(notebook_count), sum(digital_value) "
+						+ " from solution_nsql_stats " + statsPredicate + " group by dimension, dimension_key "
+						+ " having sum(solution_count) > 0 ");
+		List<Object[]> results = q.getResultList();
+		SolDashboardSummaryDTO summary = new SolDashboardSummaryDTO();
+		ObjectMapper mapper = new ObjectMapper();
+		for (Object[] result : results) {
+			addDashboardSummaryRow(summary, result, null, mapper);
+		}
+		return summary;
+	}
+
+	/**
+	 * To add one row of the dashboard summary query to the summary. Row is of
+	 * widget, widget key (json), solution id, product name, solution count,
+	 * notebook count and digital value.
+	 */
+	private void addDashboardSummaryRow(SolDashboardSummaryDTO summary, Object[] result, List<String> locations,
+			ObjectMapper mapper) {
+		String widget = result[0] != null ? result[0].toString() : "";
+		String jsonData = result[1] != null ? result[1].toString() : "null";
+		long count = result[4] != null ? ((Number) result[4]).longValue() : 0;
+		try {
+			switch (widget) {
+			case "total":
+				summary.setTotalCount(count);
+				summary.setNotebookSolutionCount(result[5] != null ? ((Number) result[5]).longValue() : 0);
+				summary.setTotalDigitalValue(result[6] != null ? new BigDecimal(result[6].toString()) : null);
+				break;
+			case "phase":
+				MilestoneWidgetVO milestone = new MilestoneWidgetVO();
+				milestone.setPhase(mapper.readValue(jsonData, SolutionPhaseVO.class));
+				milestone.setSolutionCount(count);
+				summary.getMilestones().add(milestone);
+				break;
+			case "dataVolume":
+				DatasourceWidgetVO datasource = new DatasourceWidgetVO();
+				datasource.setDataVolume(mapper.readValue(jsonData, DataVolumeVO.class));
+				datasource.setSolutionCount(count);
+				summary.getDataSources().add(datasource);
+				break;
+			case "location":
+				SolutionLocationVO location = mapper.readValue(jsonData, SolutionLocationVO.class);
+				if (ObjectUtils.isEmpty(locations) || locations.contains(location.getId())) {
+					LocationWidgetVO locationWidget = new LocationWidgetVO();
+					locationWidget.setLocation(location);
+					locationWidget.setSolutionCount(count);
+					summary.getLocations().add(locationWidget);
+				}
+				break;
+			case "digitalValue":
+				SolDigitalValueDTO digitalValue = new SolDigitalValueDTO();
+				digitalValue.setId(result[2] != null ? result[2].toString() : "");
+				digitalValue.setProductName(result[3] != null ? result[3].toString() : "");
+				digitalValue.setCalculatedDigitalValueVO(mapper.readValue(jsonData, CalculatedDigitalValueVO.class));
+				summary.getDigitalValues().add(digitalValue);
+				break;
+			default:
+				break;
+			}
+		} catch (Exception e) {
+			LOGGER.error("Failed while processing dashboard summary {} row {} ", widget, e.getMessage());
+		}
+	}
+
 }
\ No newline at end of file
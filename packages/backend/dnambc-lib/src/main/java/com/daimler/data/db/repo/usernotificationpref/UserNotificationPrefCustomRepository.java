@@ -27,9 +27,13 @@
 
 package com.daimler.data.db.repo.usernotificationpref;
 
+import java.util.List;
+
 import com.daimler.data.db.entities.UserNotificationPrefNsql;
 import com.daimler.data.db.repo.common.CommonDataRepository;
 
 public interface UserNotificationPrefCustomRepository extends CommonDataRepository<UserNotificationPrefNsql, String> {
 
+	List<UserNotificationPrefNsql> findByUserIds(List<String> userIds);
+
 }
@@ -27,6 +27,14 @@
 
 package com.daimler.data.db.repo.usernotificationpref;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
 import org.springframework.stereotype.Repository;
 
 import com.daimler.data.db.entities.UserNotificationPrefNsql;
@@ -36,4 +44,17 @@ import com.daimler.data.db.repo.common.CommonDataRepositoryImpl;
 public class UserNotificationPrefCustomRepositoryImpl extends CommonDataRepositoryImpl<UserNotificationPrefNsql, String>
 		implements UserNotificationPrefCustomRepository {
 
+	@Override
+	public List<UserNotificationPrefNsql> findByUserIds(List<String> userIds) {
+		if (userIds == null || userIds.isEmpty())
+			return new ArrayList<>();
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<UserNotificationPrefNsql> cq = cb.createQuery(UserNotificationPrefNsql.class);
+		Root<UserNotificationPrefNsql> root = cq.from(UserNotificationPrefNsql.class);
+		cq.select(root).where(cb
+				.lower(cb.function("jsonb_extract_path_text", String.class, root.get("data"), cb.literal("userId")))
+				.in(userIds.stream().map(String::toLowerCase).collect(Collectors.toList())));
+		return em.createQuery(cq).getResultList();
+	}
+
 }
@@ -59,10 +59,11 @@ public class SolutionQuery implements GraphQLQueryResolver {
 
 	public SolutionCollection getSolutions(Boolean published, String division, String location, String phase,
 			String dataVolume, String projectstatus, String useCaseType, String searchTerm, String tags, int offset,
-			int limit, String sortBy, String sortOrder) {
+			int limit, String sortBy, String sortOrder, String after, Boolean includeTotal) {
 
 		ResponseEntity<SolutionCollection> solutions = solutionController.getAll(published, location, division, phase,
-				dataVolume, projectstatus, useCaseType, searchTerm, tags, offset, limit, sortBy, sortOrder);
+				dataVolume, projectstatus, useCaseType, searchTerm, tags, offset, limit, sortBy, sortOrder, after,
+				includeTotal);
 
 		if (solutions != null && solutions.getBody() != null) {
 			return solutions.getBody();
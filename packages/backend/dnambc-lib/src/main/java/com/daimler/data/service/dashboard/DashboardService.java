@@ -34,6 +34,7 @@ import com.daimler.data.dto.dashboard.DatasourceWidgetVO;
 import com.daimler.data.dto.dashboard.LocationWidgetVO;
 import com.daimler.data.dto.dashboard.MilestoneWidgetVO;
 import com.daimler.data.dto.dashboard.SolDigitalValuesummaryVO;
+import com.daimler.data.dto.dashboard.SolSummaryResponseVO;
 
 public interface DashboardService {
 
@@ -185,4 +186,25 @@ public interface DashboardService {
 			List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
 			List<String> searchTerms, List<String> tags);
+
+	/**
+	 * To get all dashboard widgets of solutions in one pass
+	 * 
+	 * @param published
+	 * @param phases
+	 * @param dataVolumes
+	 * @param divisions
+	 * @param locations
+	 * @param statuses
+	 * @param solutionType
+	 * @param userId
+	 * @param isAdmin
+	 * @param bookmarkedSolutions
+	 * @param searchTerms
+	 * @param tags
+	 * @return SolSummaryResponseVO
+	 */
+	SolSummaryResponseVO getSolSummary(Boolean published, List<String> phases, List<String> dataVolumes,
+			String divisions, List<String> locations, List<String> statuses, String solutionType, String userId,
+			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags);
 }
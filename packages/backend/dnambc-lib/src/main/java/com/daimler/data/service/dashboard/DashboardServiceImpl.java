@@ -38,15 +38,18 @@ import java.util.TreeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.daimler.data.assembler.DashboardAssembler;
 import com.daimler.data.db.repo.solution.SolutionCustomRepository;
+import com.daimler.data.dto.SolDashboardSummaryDTO;
 import com.daimler.data.dto.SolDigitalValueDTO;
 import com.daimler.data.dto.dashboard.DatasourceWidgetVO;
 import com.daimler.data.dto.dashboard.LocationWidgetVO;
 import com.daimler.data.dto.dashboard.MilestoneWidgetVO;
 import com.daimler.data.dto.dashboard.SolDigitalValuesummaryVO;
+import com.daimler.data.dto.dashboard.SolSummaryResponseVO;
 
 @Service
 public class DashboardServiceImpl implements DashboardService {
@@ -59,6 +62,9 @@ public class DashboardServiceImpl implements DashboardService {
 	@Autowired
 	private DashboardAssembler dashboardAssembler;
 
+	@Value("${dna.dashboard.summary-aggregates:true}")
+	private boolean summaryAggregates;
+
 	@Override
 	public Long getSolCountWithNotebook(Boolean published, List<String> phases, List<String> dataVolumes,
 			String divisions, List<String> locations, List<String> statuses, String solutionType, String userId,
@@ -117,6 +123,26 @@ public class DashboardServiceImpl implements DashboardService {
 			List<String> searchTerms, List<String> tags) {
 		List<SolDigitalValueDTO> result = customRepo.getDigitalValueUsingNativeQuery(published, phases, dataVolumes,
 				divisions, locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags);
+		return toDigitalValueSummary(result);
+	}
+
+	@Override
+	public SolSummaryResponseVO getSolSummary(Boolean published, List<String> phases, List<String> dataVolumes,
+			String divisions, List<String> locations, List<String> statuses, String solutionType, String userId,
+			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags) {
+		SolDashboardSummaryDTO summary = customRepo.getDashboardSummary(published, phases, dataVolumes, divisions,
+				locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags,
+				summaryAggregates);
+		return dashboardAssembler.toSummaryResponseVO(summary, toDigitalValueSummary(summary.getDigitalValues()));
+	}
+
+	/**
+	 * To group digital values of solutions by year, highest value first
+	 * 
+	 * @param result
+	 * @return List<SolDigitalValuesummaryVO>
+	 */
+	private List<SolDigitalValuesummaryVO> toDigitalValueSummary(List<SolDigitalValueDTO> result) {
 		SortedSet<SolDigitalValueDTO> digitalValueSortedSet = null;
 		Map<BigDecimal, SortedSet<SolDigitalValueDTO>> digitalValueSummaryTreeMap = new TreeMap<BigDecimal, SortedSet<SolDigitalValueDTO>>();
 		for (SolDigitalValueDTO dto : result) {
@@ -33,7 +33,6 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -62,6 +61,8 @@ import com.daimler.data.db.jsonb.solution.SolutionVisualization;
 import com.daimler.data.db.repo.dataiku.DataikuCustomRepository;
 import com.daimler.data.db.repo.solution.SolutionCustomRepository;
 import com.daimler.data.db.repo.solution.SolutionRepository;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.PageDTO;
 import com.daimler.data.dto.algorithm.AlgorithmVO;
 import com.daimler.data.dto.appsubscription.SubscriptionVO;
 import com.daimler.data.dto.datasource.DataSourceVO;
@@ -162,27 +163,33 @@ public class BaseSolutionService extends BaseCommonService<SolutionVO, SolutionN
 
 	@Override
 	@Transactional
-	public List<SolutionVO> getAllWithFilters(Boolean published, List<String> phases, List<String> dataVolumes,
-			List<Map<String, List<String>>> divisions, List<String> locations, List<String> statuses,
-			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
-			List<String> searchTerms, List<String> tags, int offset, int limit, String sortBy, String sortOrder) {
-		List<SolutionNsql> solutionEntities = customRepo.getAllWithFilters(published, phases, dataVolumes, divisions,
-				locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags, null,
-				offset, limit, sortBy, sortOrder);
-		if (solutionEntities != null && !solutionEntities.isEmpty())
-			return solutionEntities.stream().map(n -> solutionAssembler.toVo(n)).collect(Collectors.toList());
-		else
-			return new ArrayList<>();
+	public PageDTO<SolutionVO> getAllWithFilters(Boolean published, List<String> phases, List<String> dataVolumes,
+			String divisions, List<String> locations, List<String> statuses, String solutionType, String userId,
+			Boolean isAdmin, List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags,
+			int offset, int limit, String sortBy, String sortOrder, PageCursorDTO after) {
+		List<SolutionNsql> solutionEntities = customRepo.getAllWithFiltersUsingNativeQuery(published, phases,
+				dataVolumes, divisions, locations, statuses, solutionType, userId, isAdmin, bookmarkedSolutions,
+				searchTerms, tags, null, offset, limit, sortBy, sortOrder, after);
+		if (solutionEntities == null || solutionEntities.isEmpty()) {
+			return new PageDTO<>(new ArrayList<>(), null);
+		}
+		PageCursorDTO nextCursor = null;
+		SolutionNsql last = solutionEntities.get(solutionEntities.size() - 1);
+		if (limit > 0 && solutionEntities.size() == limit && last.getSortKey() != null) {
+			nextCursor = new PageCursorDTO(sortBy, sortOrder, last.getSortKey(), last.getId());
+		}
+		return new PageDTO<>(
+				solutionEntities.stream().map(n -> solutionAssembler.toVo(n)).collect(Collectors.toList()),
+				nextCursor);
 	}
 
 	@Override
 	@Transactional
-	public Long getCount(Boolean published, List<String> phases, List<String> dataVolumes,
-			List<Map<String, List<String>>> divisions, List<String> locations, List<String> statuses,
-			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
-			List<String> searchTerms, List<String> tags) {
-		return customRepo.getCount(published, phases, dataVolumes, divisions, locations, statuses, solutionType, userId,
-				isAdmin, bookmarkedSolutions, searchTerms, tags);
+	public Long getCount(Boolean published, List<String> phases, List<String> dataVolumes, String divisions,
+			List<String> locations, List<String> statuses, String solutionType, String userId, Boolean isAdmin,
+			List<String> bookmarkedSolutions, List<String> searchTerms, List<String> tags) {
+		return customRepo.getCountUsingNativeQuery(published, phases, dataVolumes, divisions, locations, statuses,
+				solutionType, userId, isAdmin, bookmarkedSolutions, searchTerms, tags);
 	}
 
 	@Override
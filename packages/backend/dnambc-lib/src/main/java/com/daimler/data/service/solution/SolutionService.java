@@ -29,9 +29,10 @@ package com.daimler.data.service.solution;
 
 import java.util.Calendar;
 import java.util.List;
-import java.util.Map;
 
 import com.daimler.data.db.entities.SolutionNsql;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.PageDTO;
 import com.daimler.data.dto.solution.ChangeLogVO;
 import com.daimler.data.dto.solution.SolutionVO;
 import com.daimler.data.service.common.CommonService;
@@ -42,13 +43,20 @@ public interface SolutionService extends CommonService<SolutionVO, SolutionNsql,
 		TAG, DS, PLATFORM, LANG, ALGO, VISUALIZATION, RELATEDPRODUCT, SKILL, DIVISION;
 	}
 
-	List<SolutionVO> getAllWithFilters(Boolean published, List<String> phases, List<String> dataVolumes,
-			List<Map<String, List<String>>> divisions, List<String> locations, List<String> statuses,
+	/**
+	 * To get a page of solutions with the cursor pointing after its last solution,
+	 * for keyset pagination.
+	 * 
+	 * @return solutions{PageDTO<SolutionVO>}, nextCursor is null if the page is
+	 *         not full or the listing cannot be continued with a cursor
+	 */
+	PageDTO<SolutionVO> getAllWithFilters(Boolean published, List<String> phases, List<String> dataVolumes,
+			String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
-			List<String> searchTerms, List<String> tags, int offset, int limit, String sortBy, String sortOrder);
+			List<String> searchTerms, List<String> tags, int offset, int limit, String sortBy, String sortOrder,
+			PageCursorDTO after);
 
-	Long getCount(Boolean published, List<String> phases, List<String> dataVolumes,
-			List<Map<String, List<String>>> divisions, List<String> locations, List<String> statuses,
+	Long getCount(Boolean published, List<String> phases, List<String> dataVolumes, String divisions, List<String> locations, List<String> statuses,
 			String solutionType, String userId, Boolean isAdmin, List<String> bookmarkedSolutions,
 			List<String> searchTerms, List<String> tags);
 
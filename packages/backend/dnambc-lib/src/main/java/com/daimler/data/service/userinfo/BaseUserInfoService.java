@@ -31,6 +31,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -38,6 +40,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import com.daimler.data.application.auth.TokenValidationCache;
 import com.daimler.data.assembler.UserInfoAssembler;
 import com.daimler.data.db.entities.UserInfoNsql;
 import com.daimler.data.db.jsonb.UserFavoriteUseCase;
@@ -50,7 +53,6 @@ import com.daimler.data.dto.userinfo.UserFavoriteUseCaseVO;
 import com.daimler.data.dto.userinfo.UserInfoVO;
 import com.daimler.data.service.common.BaseCommonService;
 import com.daimler.data.service.solution.SolutionService;
-import com.daimler.data.util.JWTGenerator;
 import com.daimler.dna.notifications.common.producer.KafkaProducerService;
 
 import io.jsonwebtoken.Claims;
@@ -76,6 +78,9 @@ public class BaseUserInfoService extends BaseCommonService<UserInfoVO, UserInfoN
 	@Autowired
 	private KafkaProducerService kafkaProducer;
 
+	@Autowired
+	private TokenValidationCache tokenValidationCache;
+
 	public BaseUserInfoService() {
 		super();
 	}
@@ -100,6 +105,7 @@ public class BaseUserInfoService extends BaseCommonService<UserInfoVO, UserInfoN
 			userinfo.setIsLoggedIn("N");
 		}
 		customRepo.update(userinfo);
+		tokenValidationCache.evictUser(id);
 		return true;
 
 	}
@@ -164,39 +170,36 @@ public class BaseUserInfoService extends BaseCommonService<UserInfoVO, UserInfoN
 	}
 
 	@Override
-	public boolean validateUserToken(final String id, String token) {
+	public boolean validateUserToken(final String id, String token, Claims claims) {
+		Boolean cachedResult = tokenValidationCache.get(token);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+		long generation = tokenValidationCache.getGeneration(id);
+		boolean valid = isTokenMappedToUser(id, claims);
+		tokenValidationCache.put(token, id, valid, generation);
+		return valid;
+	}
+
+	private boolean isTokenMappedToUser(final String id, Claims claims) {
 		UserInfoNsql userinfo = jpaRepo.findById(id).get();
 		if (userinfo != null && userinfo.getIsLoggedIn().equalsIgnoreCase("Y")) {
 			// Validate Claimed roles
-			log.debug("Validating claimed roles for user {} and token {}", id, token);
-			Claims claims = JWTGenerator.decodeJWT(token);
+			log.debug("Validating claimed roles for user {}", id);
 			List<LinkedHashMap<String, String>> claimedRoles = (List<LinkedHashMap<String, String>>) claims
 					.get("digiRole");
 			if (claimedRoles != null && !claimedRoles.isEmpty()) {
 				List<UserInfoRole> userRoles = userinfo.getData().getRoles();
-				if (userRoles != null && !userRoles.isEmpty()) {
-					if (userRoles.size() != claimedRoles.size()) {
-						// Claimed roles dont match with User Roles
-						return false;
-					}
-					for (LinkedHashMap<String, String> roleClaimed : claimedRoles) {
-						boolean roleFound = false;
-						for (UserInfoRole userRole : userRoles) {
-							if (userRole.getId().equals(roleClaimed.get("id"))) {
-								roleFound = true;
-								break;
-							}
-						}
-						if (!roleFound) {
-							return false;
-						}
-					}
-				} else {
+				if (userRoles == null || userRoles.size() != claimedRoles.size()) {
 					// Claimed roles dont match with User Roles
 					return false;
 				}
+				Set<String> userRoleIds = userRoles.stream().map(UserInfoRole::getId).collect(Collectors.toSet());
+				if (!claimedRoles.stream().allMatch(roleClaimed -> userRoleIds.contains(roleClaimed.get("id")))) {
+					return false;
+				}
 			}
-			log.debug("Roles verified for user checking token validity for user {} and token {}", id, token);
+			log.debug("Roles verified for user {}", id);
 			// Validate Token
 			/*
 			 * String[] tokens = userinfo.getToken().split("#"); if (tokens != null) { for
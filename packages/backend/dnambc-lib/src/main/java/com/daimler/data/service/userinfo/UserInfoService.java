@@ -35,13 +35,24 @@ import com.daimler.data.dto.solution.SolutionVO;
 import com.daimler.data.dto.userinfo.UserInfoVO;
 import com.daimler.data.service.common.CommonService;
 
+import io.jsonwebtoken.Claims;
+
 public interface UserInfoService extends CommonService<UserInfoVO, UserInfoNsql, String> {
 
 	/* boolean updateUserToken(String id, String token); */
 
 	boolean updateNewUserToken(String id, boolean isLogin);
 
-	boolean validateUserToken(final String id, String token);
+	/**
+	 * To validate that the user of the token is logged in and still has the
+	 * claimed roles. Results are cached per token.
+	 * 
+	 * @param id     id of the user claimed by the token
+	 * @param token
+	 * @param claims decoded claims of the token
+	 * @return valid
+	 */
+	boolean validateUserToken(final String id, String token, Claims claims);
 
 	void addUser(UserInfoNsql userinfo);
 
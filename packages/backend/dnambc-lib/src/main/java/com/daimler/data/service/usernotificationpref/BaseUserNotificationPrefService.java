@@ -27,6 +27,11 @@
 
 package com.daimler.data.service.usernotificationpref;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +43,7 @@ import com.daimler.data.db.repo.usernotificationpref.UserNotificationPrefReposit
 import com.daimler.data.dto.usernotificationpref.NotificationPreferenceVO;
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
 import com.daimler.data.service.common.BaseCommonService;
+import com.daimler.dna.notifications.common.producer.KafkaProducerService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -52,6 +58,10 @@ public class BaseUserNotificationPrefService extends BaseCommonService<UserNotif
 	private UserNotificationPrefRepository jpaRepo;
 	@Autowired
 	private UserNotificationPrefAssembler userNotificationPrefAssembler;
+	@Autowired
+	private KafkaProducerService kafkaProducer;
+
+	public static final String PREFERENCES_CHANGED_EVENT = "Notification Preferences Updated";
 
 	public BaseUserNotificationPrefService() {
 		super();
@@ -75,24 +85,62 @@ public class BaseUserNotificationPrefService extends BaseCommonService<UserNotif
 				return preferencesVO;
 			}else {
 				log.debug("Couldnt find user preferences for user {} , sending default preference", value);
-				preferencesVO = new UserNotificationPrefVO();
-				preferencesVO.setUserId(value);
-				NotificationPreferenceVO notebookNotificationPref = new NotificationPreferenceVO();
-				notebookNotificationPref.setEnableAppNotifications(true);
-				notebookNotificationPref.setEnableEmailNotifications(false);
-				preferencesVO.setNotebookNotificationPref(notebookNotificationPref);
-				NotificationPreferenceVO solutionNotificationPref = new NotificationPreferenceVO();
-				solutionNotificationPref.setEnableAppNotifications(true);
-				solutionNotificationPref.setEnableEmailNotifications(false);
-				preferencesVO.setSolutionNotificationPref(solutionNotificationPref);
-				try {
-					UserNotificationPrefVO savedPreferencesVO = this.create(preferencesVO);
-					log.info("Notification preferences created for user {} ", value);
-					return savedPreferencesVO;
-				}catch(Exception e) {
-					log.error("Error creating notification preferences for user {} . Exception is {} ", value,e.getMessage());
-				}
+				return this.createDefaultPreferences(value);
+			}
+		}
+		return preferencesVO;
+	}
+
+	@Override
+	@Transactional
+	public List<UserNotificationPrefVO> getByUserIds(List<String> userIds) {
+		Map<String, UserNotificationPrefVO> preferencesByUser = new LinkedHashMap<>();
+		for (UserNotificationPrefNsql entity : customRepo.findByUserIds(userIds)) {
+			UserNotificationPrefVO preferencesVO = userNotificationPrefAssembler.toVo(entity);
+			if (preferencesVO != null && preferencesVO.getUserId() != null)
+				preferencesByUser.putIfAbsent(preferencesVO.getUserId().toLowerCase(), preferencesVO);
+		}
+		List<UserNotificationPrefVO> preferences = new ArrayList<>();
+		for (String userId : userIds) {
+			UserNotificationPrefVO preferencesVO = preferencesByUser.get(userId.toLowerCase());
+			if (preferencesVO == null) {
+				log.debug("Couldnt find user preferences for user {} , sending default preference", userId);
+				preferencesVO = this.createDefaultPreferences(userId);
+				preferencesByUser.put(userId.toLowerCase(), preferencesVO);
 			}
+			preferences.add(preferencesVO);
+		}
+		return preferences;
+	}
+
+	@Override
+	public void publishPreferencesChanged(String userId) {
+		try {
+			kafkaProducer.send(PREFERENCES_CHANGED_EVENT, userId, "", userId, "Notification preferences updated", false,
+					new ArrayList<>(), new ArrayList<>(), null);
+		} catch (Exception e) {
+			log.error("Failed while publishing notification preferences change of user {} with exceptionmsg {} ",
+					userId, e.getMessage());
+		}
+	}
+
+	private UserNotificationPrefVO createDefaultPreferences(String userId) {
+		UserNotificationPrefVO preferencesVO = new UserNotificationPrefVO();
+		preferencesVO.setUserId(userId);
+		NotificationPreferenceVO notebookNotificationPref = new NotificationPreferenceVO();
+		notebookNotificationPref.setEnableAppNotifications(true);
+		notebookNotificationPref.setEnableEmailNotifications(false);
+		preferencesVO.setNotebookNotificationPref(notebookNotificationPref);
+		NotificationPreferenceVO solutionNotificationPref = new NotificationPreferenceVO();
+		solutionNotificationPref.setEnableAppNotifications(true);
+		solutionNotificationPref.setEnableEmailNotifications(false);
+		preferencesVO.setSolutionNotificationPref(solutionNotificationPref);
+		try {
+			UserNotificationPrefVO savedPreferencesVO = this.create(preferencesVO);
+			log.info("Notification preferences created for user {} ", userId);
+			return savedPreferencesVO;
+		}catch(Exception e) {
+			log.error("Error creating notification preferences for user {} . Exception is {} ", userId,e.getMessage());
 		}
 		return preferencesVO;
 	}
@@ -27,10 +27,23 @@
 
 package com.daimler.data.service.usernotificationpref;
 
+import java.util.List;
+
 import com.daimler.data.db.entities.UserNotificationPrefNsql;
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
 import com.daimler.data.service.common.CommonService;
 
 public interface UserNotificationPrefService extends CommonService<UserNotificationPrefVO, UserNotificationPrefNsql, String> {
 
+	/**
+	 * Preferences of all given users in one lookup, users without stored
+	 * preferences get the defaults created.
+	 */
+	List<UserNotificationPrefVO> getByUserIds(List<String> userIds);
+
+	/**
+	 * Publishes a change event so that cached preferences of the user are dropped.
+	 */
+	void publishPreferencesChanged(String userId);
+
 }
@@ -0,0 +1,11 @@
+--
+-- Partial index for the digital value list of the dashboard, only solutions with a
+-- calculated digital value are indexed, ordered like the list (by productName).
+-- Expressions must stay identical to the ones used in SolutionCustomRepositoryImpl.
+--
+
+CREATE INDEX IF NOT EXISTS solution_nsql_digital_value_idx
+    ON solution_nsql ((lower(jsonb_extract_path_text(data,'productName'))))
+    WHERE jsonb_extract_path_text(data,'digitalValueDetails','valueCalculator','calculatedDigitalValue','year') IS NOT NULL;
+
+ANALYZE solution_nsql;
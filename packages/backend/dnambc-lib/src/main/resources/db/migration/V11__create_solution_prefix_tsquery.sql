@@ -0,0 +1,15 @@
+--
+-- Prefix matching tsquery for solution keyword search.
+-- Search terms are separated by newline, the words of a term are tokenized by the same
+-- 'simple' parser the search_vector is built with (as plainto_tsquery does), but each
+-- lexeme is matched as prefix. Words of one term must all match, terms are alternatives,
+-- eg: E'data lake\nbat' results in ('data':* & 'lake':*) | ('bat':*)
+--
+
+CREATE OR REPLACE FUNCTION solution_nsql_prefix_tsquery(terms text) RETURNS tsquery AS $$
+    SELECT string_agg(term_words.words, ' | ')::tsquery
+    FROM (SELECT '(' || string_agg('''' || replace(replace(word.lexeme, '\', '\\'), '''', '''''') || ''':*', ' & ') || ')' AS words
+          FROM unnest(string_to_array(terms, E'\n')) WITH ORDINALITY AS term(value, n)
+              CROSS JOIN LATERAL unnest(to_tsvector('simple', term.value)) AS word(lexeme, positions, weights)
+          GROUP BY term.n) AS term_words;
+$$ LANGUAGE sql IMMUTABLE;
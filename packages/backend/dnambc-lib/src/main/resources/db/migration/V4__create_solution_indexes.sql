@@ -0,0 +1,30 @@
+--
+-- Indexes for the solution listing and dashboard filters.
+-- Expressions must stay identical to the ones used in SolutionCustomRepositoryImpl.
+--
+
+CREATE INDEX IF NOT EXISTS solution_nsql_data_gin_idx
+    ON solution_nsql USING gin (data jsonb_path_ops);
+
+CREATE INDEX IF NOT EXISTS solution_nsql_phase_idx
+    ON solution_nsql ((jsonb_extract_path_text(data,'currentPhase','id')));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_division_idx
+    ON solution_nsql ((jsonb_extract_path_text(data,'division','id')));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_division_subdivision_idx
+    ON solution_nsql ((jsonb_extract_path_text(data,'division','id') || '|' || coalesce(jsonb_extract_path_text(data,'division','subdivision','id'), 'EMPTY')));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_projectstatus_idx
+    ON solution_nsql ((jsonb_extract_path_text(data,'projectStatus','id')));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_datavolume_idx
+    ON solution_nsql ((jsonb_extract_path_text(data,'totalDataVolume','id')));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_createdby_idx
+    ON solution_nsql ((lower(jsonb_extract_path_text(data,'createdBy','id'))));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_productname_idx
+    ON solution_nsql ((lower(jsonb_extract_path_text(data,'productName'))));
+
+ANALYZE solution_nsql;
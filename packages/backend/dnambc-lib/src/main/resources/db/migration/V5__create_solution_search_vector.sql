@@ -0,0 +1,41 @@
+--
+-- Full text search document for solution keyword search.
+-- Only values are indexed, weighted productName (A), tags (B), remaining fields (C).
+--
+
+ALTER TABLE solution_nsql ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION solution_nsql_names(items jsonb, field text) RETURNS text AS $$
+    SELECT coalesce(string_agg(item ->> field, ' '), '')
+    FROM jsonb_array_elements(CASE WHEN jsonb_typeof(items) = 'array' THEN items ELSE '[]'::jsonb END) AS item;
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION solution_nsql_search_vector(data jsonb) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(data ->> 'productName', '')), 'A')
+        || setweight(jsonb_to_tsvector('simple', coalesce(data -> 'tags', '[]'::jsonb), '["string"]'), 'B')
+        || setweight(to_tsvector('simple',
+               solution_nsql_names(data -> 'dataSources', 'name') || ' '
+            || solution_nsql_names(data -> 'platforms', 'name') || ' '
+            || solution_nsql_names(data -> 'languages', 'name') || ' '
+            || solution_nsql_names(data -> 'algorithms', 'name') || ' '
+            || solution_nsql_names(data -> 'visualizations', 'name') || ' '
+            || solution_nsql_names(data -> 'skills', 'neededSkill') || ' '
+            || coalesce(data -> 'division' ->> 'name', '')), 'C');
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION solution_nsql_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := solution_nsql_search_vector(NEW.data);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS solution_nsql_search_vector_update ON solution_nsql;
+CREATE TRIGGER solution_nsql_search_vector_update
+    BEFORE INSERT OR UPDATE OF data ON solution_nsql
+    FOR EACH ROW EXECUTE PROCEDURE solution_nsql_search_vector_trigger();
+
+UPDATE solution_nsql SET search_vector = solution_nsql_search_vector(data);
+
+CREATE INDEX IF NOT EXISTS solution_nsql_search_vector_idx
+    ON solution_nsql USING gin (search_vector);
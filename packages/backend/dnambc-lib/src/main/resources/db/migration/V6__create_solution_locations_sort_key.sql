@@ -0,0 +1,20 @@
+--
+-- Sort key for ordering solutions by locations.
+-- Lower-cased location names joined in sort direction, descending keys list the names descending.
+-- Expression must stay identical to the one used in SolutionCustomRepositoryImpl.
+--
+
+CREATE OR REPLACE FUNCTION solution_nsql_locations_key(data jsonb, descending boolean) RETURNS text AS $$
+    SELECT coalesce(string_agg(lower(location ->> 'name'), ','
+               ORDER BY CASE WHEN descending THEN lower(location ->> 'name') END DESC,
+                        CASE WHEN NOT descending THEN lower(location ->> 'name') END ASC), '')
+    FROM jsonb_array_elements(CASE WHEN jsonb_typeof(data -> 'locations') = 'array' THEN data -> 'locations' ELSE '[]'::jsonb END) AS location;
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE INDEX IF NOT EXISTS solution_nsql_locations_asc_idx
+    ON solution_nsql ((solution_nsql_locations_key(data, false)));
+
+CREATE INDEX IF NOT EXISTS solution_nsql_locations_desc_idx
+    ON solution_nsql ((solution_nsql_locations_key(data, true)));
+
+ANALYZE solution_nsql;
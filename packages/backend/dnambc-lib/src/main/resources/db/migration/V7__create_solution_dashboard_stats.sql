@@ -0,0 +1,65 @@
+--
+-- Aggregated dashboard statistics of solutions per publish state, kept current by trigger.
+-- Serves the unfiltered dashboard summary without scanning solution_nsql.
+-- Dimensions: total (empty key), phase, dataVolume and location (key is the jsonb value as text).
+--
+
+CREATE TABLE IF NOT EXISTS solution_nsql_stats (
+    dimension text NOT NULL,
+    dimension_key text NOT NULL,
+    published boolean NOT NULL,
+    solution_count bigint NOT NULL DEFAULT 0,
+    notebook_count bigint NOT NULL DEFAULT 0,
+    digital_value numeric NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, dimension_key, published)
+);
+
+CREATE OR REPLACE FUNCTION solution_nsql_stats_apply(data jsonb, delta integer) RETURNS void AS $$
+DECLARE
+    is_published boolean := data @> '{"publish": true}';
+    notebooks integer := CASE WHEN jsonb_extract_path_text(data, 'dnaNotebookId') IS NOT NULL THEN delta ELSE 0 END;
+    digital_value_text text := data -> 'digitalValueDetails' ->> 'digitalValue';
+    digital numeric := CASE WHEN digital_value_text ~ '^\s*-?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)?\s*$'
+                            THEN cast(digital_value_text AS numeric) * delta ELSE 0 END;
+BEGIN
+    INSERT INTO solution_nsql_stats AS stats (dimension, dimension_key, published, solution_count, notebook_count, digital_value)
+    SELECT dimension, dimension_key, is_published, count(*) * delta, count(*) * notebooks, count(*) * digital
+    FROM (
+        SELECT 'total' AS dimension, '' AS dimension_key
+        UNION ALL
+        SELECT 'phase', coalesce(cast(data -> 'currentPhase' AS text), 'null')
+        UNION ALL
+        SELECT 'dataVolume', coalesce(cast(data -> 'totalDataVolume' AS text), 'null')
+        UNION ALL
+        SELECT 'location', cast(location AS text)
+        FROM jsonb_array_elements(CASE WHEN jsonb_typeof(data -> 'locations') = 'array' THEN data -> 'locations' ELSE '[]'::jsonb END) AS location
+    ) AS dimensions
+    GROUP BY dimension, dimension_key
+    ON CONFLICT (dimension, dimension_key, published) DO UPDATE
+        SET solution_count = stats.solution_count + excluded.solution_count,
+            notebook_count = stats.notebook_count + excluded.notebook_count,
+            digital_value = stats.digital_value + excluded.digital_value;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION solution_nsql_stats_trigger() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM solution_nsql_stats_apply(OLD.data, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM solution_nsql_stats_apply(NEW.data, 1);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+LOCK TABLE solution_nsql IN SHARE ROW EXCLUSIVE MODE;
+
+DROP TRIGGER IF EXISTS solution_nsql_stats_update ON solution_nsql;
+CREATE TRIGGER solution_nsql_stats_update
+    AFTER INSERT OR UPDATE OF data OR DELETE ON solution_nsql
+    FOR EACH ROW EXECUTE PROCEDURE solution_nsql_stats_trigger();
+
+TRUNCATE solution_nsql_stats;
+SELECT solution_nsql_stats_apply(data, 1) FROM solution_nsql;
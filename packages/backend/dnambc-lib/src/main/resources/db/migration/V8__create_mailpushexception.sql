@@ -0,0 +1,8 @@
+--
+-- Notification mails naas could not deliver after retrying, replayed periodically by naas.
+--
+
+CREATE TABLE if not exists mailpushexception_nsql (
+    id TEXT primary key,
+    data jsonb NOT NULL
+);
@@ -0,0 +1,41 @@
+--
+-- Spreads the solution_nsql_stats rows over shards chosen by the writing backend.
+-- Every solution write updates the 'total' row of its publish state, so concurrent writes
+-- serialized on that single row lock. Each write now only adds its delta to the shard of its
+-- connection, readers sum over all shards (the summary query already groups by dimension).
+--
+
+LOCK TABLE solution_nsql IN SHARE ROW EXCLUSIVE MODE;
+
+ALTER TABLE solution_nsql_stats ADD COLUMN IF NOT EXISTS shard smallint NOT NULL DEFAULT 0;
+ALTER TABLE solution_nsql_stats DROP CONSTRAINT IF EXISTS solution_nsql_stats_pkey;
+ALTER TABLE solution_nsql_stats ADD PRIMARY KEY (dimension, dimension_key, published, shard);
+
+CREATE OR REPLACE FUNCTION solution_nsql_stats_apply(data jsonb, delta integer) RETURNS void AS $$
+DECLARE
+    is_published boolean := data @> '{"publish": true}';
+    notebooks integer := CASE WHEN jsonb_extract_path_text(data, 'dnaNotebookId') IS NOT NULL THEN delta ELSE 0 END;
+    digital_value_text text := data -> 'digitalValueDetails' ->> 'digitalValue';
+    digital numeric := CASE WHEN digital_value_text ~ '^\s*-?[0-9]+(\.[0-9]+)?([eE][-+]?[0-9]+)?\s*$'
+                            THEN cast(digital_value_text AS numeric) * delta ELSE 0 END;
+    write_shard smallint := pg_backend_pid() % 16;
+BEGIN
+    INSERT INTO solution_nsql_stats AS stats (dimension, dimension_key, published, shard, solution_count, notebook_count, digital_value)
+    SELECT dimension, dimension_key, is_published, write_shard, count(*) * delta, count(*) * notebooks, count(*) * digital
+    FROM (
+        SELECT 'total' AS dimension, '' AS dimension_key
+        UNION ALL
+        SELECT 'phase', coalesce(cast(data -> 'currentPhase' AS text), 'null')
+        UNION ALL
+        SELECT 'dataVolume', coalesce(cast(data -> 'totalDataVolume' AS text), 'null')
+        UNION ALL
+        SELECT 'location', cast(location AS text)
+        FROM jsonb_array_elements(CASE WHEN jsonb_typeof(data -> 'locations') = 'array' THEN data -> 'locations' ELSE '[]'::jsonb END) AS location
+    ) AS dimensions
+    GROUP BY dimension, dimension_key
+    ON CONFLICT (dimension, dimension_key, published, shard) DO UPDATE
+        SET solution_count = stats.solution_count + excluded.solution_count,
+            notebook_count = stats.notebook_count + excluded.notebook_count,
+            digital_value = stats.digital_value + excluded.digital_value;
+END
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,159 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.dna.common.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Short lived, in memory cache of verifyLogin results keyed by token hash.
+ * Concurrent misses for the same token share a single call to the loader.
+ * Failed and empty results are never cached. Above maxEntries the oldest
+ * entries are evicted first.
+ */
+public class VerifiedLoginCache<T> {
+
+	private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+	// entries in insertion order, which is expiry order as all share the same ttl
+	private final ConcurrentLinkedQueue<Entry<T>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final long ttlMillis;
+
+	private final int maxEntries;
+
+	public VerifiedLoginCache(long ttlSeconds, int maxEntries) {
+		this.ttlMillis = ttlSeconds * 1000;
+		this.maxEntries = maxEntries;
+	}
+
+	public T get(String token, Function<String, T> loader) {
+		if (ttlMillis <= 0) {
+			return loader.apply(token);
+		}
+		String key = hash(token);
+		long now = System.currentTimeMillis();
+		Entry<T> entry = entries.get(key);
+		if (entry != null && entry.isExpired(now)) {
+			entries.remove(key, entry);
+			entry = null;
+		}
+		if (entry == null) {
+			Entry<T> created = new Entry<>(key, now + ttlMillis);
+			entry = entries.putIfAbsent(key, created);
+			if (entry == null) {
+				entry = created;
+				insertionOrder.add(created);
+				evictExpiredAndOldest(now);
+				load(key, token, created, loader);
+			}
+		}
+		try {
+			return entry.value.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public void evict(String token) {
+		entries.remove(hash(token));
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private void load(String key, String token, Entry<T> entry, Function<String, T> loader) {
+		try {
+			T value = loader.apply(token);
+			if (value == null) {
+				entries.remove(key, entry);
+			}
+			entry.value.complete(value);
+		} catch (RuntimeException e) {
+			entries.remove(key, entry);
+			entry.value.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * To drop entries from the head of the insertion order while they are
+	 * expired, already removed from the cache or the cache is above maxEntries.
+	 * Stops at the first live entry within the limit, so each call only touches
+	 * the entries it removes.
+	 */
+	private void evictExpiredAndOldest(long now) {
+		Entry<T> oldest;
+		while ((oldest = insertionOrder.peek()) != null) {
+			boolean removed = entries.get(oldest.key) != oldest;
+			if (!removed && now < oldest.expiresAt && entries.size() <= maxEntries) {
+				return;
+			}
+			if (insertionOrder.remove(oldest)) {
+				entries.remove(oldest.key, oldest);
+			}
+		}
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class Entry<T> {
+
+		private final CompletableFuture<T> value = new CompletableFuture<>();
+
+		private final String key;
+
+		private final long expiresAt;
+
+		private Entry(String key, long expiresAt) {
+			this.key = key;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return value.isDone() && now >= expiresAt;
+		}
+	}
+}
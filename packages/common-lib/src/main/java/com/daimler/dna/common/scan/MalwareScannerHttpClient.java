@@ -0,0 +1,274 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.dna.common.scan;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams files to the malware scanner upload api. At most maxInFlight scans
+ * are sent at once, further scans wait for a free slot up to
+ * acquireTimeoutMillis without blocking the caller. After failureThreshold
+ * consecutive failures no scan is sent for openMillis.
+ */
+public class MalwareScannerHttpClient implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MalwareScannerHttpClient.class);
+
+	public static final String SCAN_FAILED_MSG = "Error occured while scanning for malware.";
+
+	private final String baseUri;
+
+	private final String appId;
+
+	private final String apiKey;
+
+	private final long readTimeoutMillis;
+
+	private final long acquireTimeoutMillis;
+
+	private final int failureThreshold;
+
+	private final long openMillis;
+
+	// request bodies are read from blocking streams on these threads, sized for
+	// the body and the response handling of each scan in flight
+	private final ExecutorService httpExecutor;
+
+	private final HttpClient httpClient;
+
+	private final Semaphore inFlight;
+
+	// scans waiting for a free slot, completed when a slot is handed to them
+	private final ConcurrentLinkedQueue<CompletableFuture<Void>> waiting = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	private final AtomicBoolean halfOpenTrial = new AtomicBoolean();
+
+	private volatile long openUntil;
+
+	public MalwareScannerHttpClient(String baseUri, String appId, String apiKey, long connectTimeoutMillis,
+			long readTimeoutMillis, int maxInFlight, long acquireTimeoutMillis, int failureThreshold,
+			long openMillis) {
+		this.baseUri = baseUri;
+		this.appId = appId;
+		this.apiKey = apiKey;
+		this.readTimeoutMillis = readTimeoutMillis;
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+		this.failureThreshold = failureThreshold;
+		this.openMillis = openMillis;
+		this.httpExecutor = Executors.newFixedThreadPool(maxInFlight * 2);
+		this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+				.executor(httpExecutor).build();
+		this.inFlight = new Semaphore(maxInFlight);
+	}
+
+	/**
+	 * To scan file content, read on the http client threads once the scan is
+	 * sent. The returned future never completes exceptionally, scans which were
+	 * not answered by the scanner are reported as failed response.
+	 */
+	public CompletableFuture<ScanResponse> scan(String fileName, Supplier<InputStream> content) {
+		if (!allowRequest()) {
+			LOGGER.warn("Malware scanner circuit is open, not scanning file {}", fileName);
+			return CompletableFuture
+					.completedFuture(ScanResponse.failed("Malware scanner is unavailable, please try again later."));
+		}
+		CompletableFuture<Void> slot = new CompletableFuture<>();
+		waiting.add(slot);
+		handOutSlots();
+		return slot.orTimeout(acquireTimeoutMillis, TimeUnit.MILLISECONDS).handle((granted, e) -> e == null)
+				.thenCompose(granted -> {
+					if (!granted) {
+						waiting.remove(slot);
+						halfOpenTrial.set(false);
+						LOGGER.warn("Too many files in scan, not scanning file {}", fileName);
+						return CompletableFuture.completedFuture(
+								ScanResponse.failed("Too many files in scan, please try again later."));
+					}
+					return send(fileName, content);
+				});
+	}
+
+	@Override
+	public void close() {
+		httpExecutor.shutdown();
+	}
+
+	private CompletableFuture<ScanResponse> send(String fileName, Supplier<InputStream> content) {
+		try {
+			String boundary = "dna-scan-" + UUID.randomUUID();
+			HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + "/scan/upload"))
+					.timeout(Duration.ofMillis(readTimeoutMillis)).header("Accept", "application/json")
+					.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+					.header("appId", appId).header("apiKey", apiKey)
+					.POST(HttpRequest.BodyPublishers
+							.ofInputStream(() -> multipartBody(boundary, fileName, content.get())))
+					.build();
+			LOGGER.info("Scanning file:{} with avscan.", fileName);
+			return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).handle((response, e) -> {
+				releaseSlot();
+				return toScanResponse(fileName, response, e);
+			});
+		} catch (RuntimeException e) {
+			releaseSlot();
+			return CompletableFuture.completedFuture(toScanResponse(fileName, null, e));
+		}
+	}
+
+	/*
+	 * Hands free slots to waiting scans in arrival order. Called after every
+	 * arrival and release, so a slot freed while a scan was being queued is
+	 * not missed. Scans which already timed out give their slot back.
+	 */
+	private void handOutSlots() {
+		while (!waiting.isEmpty() && inFlight.tryAcquire()) {
+			CompletableFuture<Void> slot = waiting.poll();
+			if (slot == null || !slot.complete(null)) {
+				inFlight.release();
+			}
+		}
+	}
+
+	private void releaseSlot() {
+		inFlight.release();
+		handOutSlots();
+	}
+
+	/*
+	 * Single part multipart body, the file content is streamed between the part
+	 * header and the closing boundary
+	 */
+	private static InputStream multipartBody(String boundary, String fileName, InputStream content) {
+		String header = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"files\"; filename=\""
+				+ (fileName != null ? fileName.replace("\"", "%22").replace("\r", "").replace("\n", "") : "file")
+				+ "\"\r\nContent-Type: application/octet-stream\r\n\r\n";
+		String footer = "\r\n--" + boundary + "--\r\n";
+		List<InputStream> parts = List.of(new ByteArrayInputStream(header.getBytes(StandardCharsets.UTF_8)),
+				content, new ByteArrayInputStream(footer.getBytes(StandardCharsets.US_ASCII)));
+		return new SequenceInputStream(Collections.enumeration(parts));
+	}
+
+	private ScanResponse toScanResponse(String fileName, HttpResponse<String> response, Throwable e) {
+		if (e != null || response.statusCode() >= 500) {
+			recordFailure();
+			LOGGER.error("Error occured while calling malware scanner service:{} while scanning file {} ",
+					(e != null ? e.getMessage() : response.statusCode()), fileName);
+			return ScanResponse.failed(SCAN_FAILED_MSG);
+		}
+		recordSuccess();
+		return new ScanResponse(response.statusCode(), response.body(), null);
+	}
+
+	/*
+	 * Circuit breaker, after failureThreshold consecutive failures no request is
+	 * sent for openMillis, then a single trial request decides to close it again
+	 */
+	private boolean allowRequest() {
+		if (consecutiveFailures.get() < failureThreshold) {
+			return true;
+		}
+		if (System.currentTimeMillis() < openUntil) {
+			return false;
+		}
+		return halfOpenTrial.compareAndSet(false, true);
+	}
+
+	private void recordSuccess() {
+		consecutiveFailures.set(0);
+		halfOpenTrial.set(false);
+	}
+
+	private void recordFailure() {
+		if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+			openUntil = System.currentTimeMillis() + openMillis;
+			halfOpenTrial.set(false);
+			LOGGER.warn("Malware scanner failed {} times in a row, pausing scans for {} ms",
+					consecutiveFailures.get(), openMillis);
+		}
+	}
+
+	/**
+	 * Answer of the scanner, or the reason no answer was received in
+	 * errorMessage
+	 */
+	public static class ScanResponse {
+
+		private final int statusCode;
+
+		private final String body;
+
+		private final String errorMessage;
+
+		public ScanResponse(int statusCode, String body, String errorMessage) {
+			this.statusCode = statusCode;
+			this.body = body;
+			this.errorMessage = errorMessage;
+		}
+
+		static ScanResponse failed(String errorMessage) {
+			return new ScanResponse(0, null, errorMessage);
+		}
+
+		public int getStatusCode() {
+			return statusCode;
+		}
+
+		public String getBody() {
+			return body;
+		}
+
+		public String getErrorMessage() {
+			return errorMessage;
+		}
+
+	}
+}
@@ -27,6 +27,8 @@
 
 package com.daimler.data.auth.client;
 
+import javax.annotation.PostConstruct;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
@@ -40,6 +42,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import com.daimler.dna.common.auth.VerifiedLoginCache;
+
 @Component
 public class DnaAuthClientImpl implements DnaAuthClient {
 
@@ -50,11 +54,40 @@ public class DnaAuthClientImpl implements DnaAuthClient {
 
 	private static final String VERIFY_LOGIN = "/api/verifyLogin";
 
+	@Value("${dna.auth.verify-login-cache-ttl-seconds:30}")
+	private long verifyLoginCacheTtlSeconds;
+
+	@Value("${dna.auth.verify-login-cache-max-entries:10000}")
+	private int verifyLoginCacheMaxEntries;
+
+	/**
+	 * When enabled verified logins are cached for the extended ttl instead, so DnA
+	 * is called less often. Logins revoked in DnA, e.g. by logout, then stay
+	 * accepted until their cached verification expires, up to the extended ttl.
+	 */
+	@Value("${dna.auth.extended-verify-login-cache:false}")
+	private boolean extendedVerifyLoginCache;
+
+	@Value("${dna.auth.extended-verify-login-cache-ttl-seconds:300}")
+	private long extendedVerifyLoginCacheTtlSeconds;
+
 	@Autowired
 	RestTemplate restTemplate;
 
+	private VerifiedLoginCache<JSONObject> verifiedLogins;
+
+	@PostConstruct
+	public void init() {
+		long ttlSeconds = extendedVerifyLoginCache ? extendedVerifyLoginCacheTtlSeconds : verifyLoginCacheTtlSeconds;
+		verifiedLogins = new VerifiedLoginCache<>(ttlSeconds, verifyLoginCacheMaxEntries);
+	}
+
 	@Override
 	public JSONObject verifyLogin(String jwt) {
+		return verifiedLogins.get(jwt, this::callVerifyLogin);
+	}
+
+	private JSONObject callVerifyLogin(String jwt) {
 		JSONObject res = null;
 		try {
 			HttpHeaders headers = new HttpHeaders();
@@ -49,6 +49,8 @@ import com.daimler.data.api.report.ReportsApi;
 import com.daimler.data.application.auth.UserStore;
 import com.daimler.data.assembler.ReportAssembler;
 import com.daimler.data.controller.exceptions.GenericMessage;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.PageDTO;
 import com.daimler.data.dto.report.CreatedByVO;
 import com.daimler.data.dto.report.ProcessOwnerCollection;
 import com.daimler.data.dto.report.ProductOwnerCollection;
@@ -159,7 +161,9 @@ public class ReportController implements ReportsApi {
 			@ApiParam(value = "List of deparments. Example dep1,dep2,dep3") @Valid @RequestParam(value = "department", required = false) String department,
 			@ApiParam(value = "List of processOwner. Example shortID1,shortId2") @Valid @RequestParam(value = "processOwner", required = false) String processOwner,
 			@ApiParam(value = "List of productOwner. Example shortID1,shortId2") @Valid @RequestParam(value = "productOwner", required = false) String productOwner,
-			@ApiParam(value = "List of art. Example art1,art2,art3") @Valid @RequestParam(value = "art", required = false) String art) {
+			@ApiParam(value = "List of art. Example art1,art2,art3") @Valid @RequestParam(value = "art", required = false) String art,
+			@ApiParam(value = "Cursor returned as nextCursor of the previous page. When given, the page starts after that record and offset is ignored. Must be used with the same sortBy and sortOrder.") @Valid @RequestParam(value = "after", required = false) String after,
+			@ApiParam(value = "Whether totalCount should be calculated, defaults to true. Infinite scroll clients paging with after can skip the count.") @Valid @RequestParam(value = "includeTotal", required = false) Boolean includeTotal) {
 		try {
 			ReportCollection reportCollection = new ReportCollection();
 
@@ -175,6 +179,15 @@ public class ReportController implements ReportsApi {
 			if (sortOrder == null) {
 				sortOrder = "asc";
 			}
+			PageCursorDTO afterCursor = null;
+			if (StringUtils.hasText(after)) {
+				afterCursor = PageCursorDTO.decode(after);
+				if (afterCursor == null || !afterCursor.isIssuedFor(sortBy, sortOrder)) {
+					LOGGER.debug("Invalid cursor {} for sortBy {} and sortOrder {}", after, sortBy, sortOrder);
+					return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+				}
+				offset = 0;
+			}
 
 			Boolean isAdmin = false;
 			CreatedByVO currentUser = this.userStore.getVO();
@@ -182,26 +195,31 @@ public class ReportController implements ReportsApi {
 			if (StringUtils.hasText(userId)) {
 				isAdmin = this.userStore.getUserInfo().hasAdminAccess();
 			}
-			Long count = reportService.getCount(published, reportAssembler.toList(productPhase),
-					reportAssembler.toList(status), userId, isAdmin, reportAssembler.toList(searchTerm),
-					reportAssembler.toList(tags), division, reportAssembler.toList(department),
-					reportAssembler.toList(processOwner), reportAssembler.toList(productOwner),
-					reportAssembler.toList(art));
-			if (count < offset)
-				offset = 0;
+			Long count = null;
+			if (includeTotal == null || includeTotal) {
+				count = reportService.getCount(published, reportAssembler.toList(productPhase),
+						reportAssembler.toList(status), userId, isAdmin, reportAssembler.toList(searchTerm),
+						reportAssembler.toList(tags), division, reportAssembler.toList(department),
+						reportAssembler.toList(processOwner), reportAssembler.toList(productOwner),
+						reportAssembler.toList(art));
+				if (count < offset)
+					offset = 0;
+			}
 
-			List<ReportVO> reports = reportService.getAllWithFilters(published, reportAssembler.toList(productPhase),
+			PageDTO<ReportVO> page = reportService.getAllWithFilters(published, reportAssembler.toList(productPhase),
 					reportAssembler.toList(status), userId, isAdmin, reportAssembler.toList(searchTerm),
 					reportAssembler.toList(tags), offset, limit, sortBy, sortOrder, division,
 					reportAssembler.toList(department), reportAssembler.toList(processOwner),
-					reportAssembler.toList(productOwner), reportAssembler.toList(art));
+					reportAssembler.toList(productOwner), reportAssembler.toList(art), afterCursor);
+			List<ReportVO> reports = page.getRecords();
 			LOGGER.debug("Reports fetched successfully");
 			if (!ObjectUtils.isEmpty(reports)) {
-				reportCollection.setTotalCount(count.intValue());
+				reportCollection.setNextCursor(page.getNextCursor() != null ? page.getNextCursor().encode() : null);
+				reportCollection.setTotalCount(count != null ? count.intValue() : null);
 				reportCollection.setRecords(reports);
 				return new ResponseEntity<>(reportCollection, HttpStatus.OK);
 			} else {
-				reportCollection.setTotalCount(count.intValue());
+				reportCollection.setTotalCount(count != null ? count.intValue() : null);
 				return new ResponseEntity<>(reportCollection, HttpStatus.NO_CONTENT);
 			}
 
@@ -31,6 +31,7 @@ import java.io.Serializable;
 
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 
 import com.daimler.data.db.jsonb.report.Report;
 
@@ -40,6 +41,10 @@ public class ReportNsql extends BaseEntity<Report> implements Serializable {
 
 	private static final long serialVersionUID = 4857908075537600169L;
 
+	/** Key the listing was ordered by, only populated by the filtered listing */
+	@Transient
+	private String sortKey;
+
 	public ReportNsql() {
 		super();
 	}
@@ -49,4 +54,12 @@ public class ReportNsql extends BaseEntity<Report> implements Serializable {
 		this.setData(data);
 	}
 
+	public String getSortKey() {
+		return sortKey;
+	}
+
+	public void setSortKey(String sortKey) {
+		this.sortKey = sortKey;
+	}
+
 }
@@ -31,6 +31,7 @@ import java.util.List;
 
 import com.daimler.data.db.entities.ReportNsql;
 import com.daimler.data.db.repo.common.CommonDataRepository;
+import com.daimler.data.dto.PageCursorDTO;
 import com.daimler.data.dto.report.TeamMemberVO;
 
 public interface ReportCustomRepository extends CommonDataRepository<ReportNsql, String> {
@@ -38,12 +39,14 @@ public interface ReportCustomRepository extends CommonDataRepository<ReportNsql,
 	List<ReportNsql> getAllWithFiltersUsingNativeQuery(Boolean published, List<String> statuses, String userId,
 			Boolean isAdmin, List<String> searchTerms, List<String> tags, int offset, int limit, String sortBy,
 			String sortOrder, String division, List<String> department, List<String> processOwner,
-			List<String> productOwner, List<String> art);
+			List<String> productOwner, List<String> art, PageCursorDTO after);
 
 	Long getCountUsingNativeQuery(Boolean published, List<String> statuses, String userId, Boolean isAdmin,
 			List<String> searchTerms, List<String> tags, String division, List<String> department,
 			List<String> processOwner, List<String> productOwner, List<String> art);
 
+	List<ReportNsql> getAllByDivisionId(String divisionId);
+
 	List<TeamMemberVO> getAllProductOwnerUsingNativeQuery();
 
 	List<TeamMemberVO> getAllProcessOwnerUsingNativeQuery();
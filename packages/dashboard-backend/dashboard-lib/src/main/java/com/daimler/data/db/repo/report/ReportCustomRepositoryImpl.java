@@ -30,9 +30,11 @@ package com.daimler.data.db.repo.report;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.persistence.Query;
@@ -45,6 +47,7 @@ import org.springframework.util.StringUtils;
 import com.daimler.data.db.entities.ReportNsql;
 import com.daimler.data.db.jsonb.report.Report;
 import com.daimler.data.db.repo.common.CommonDataRepositoryImpl;
+import com.daimler.data.dto.PageCursorDTO;
 import com.daimler.data.dto.report.TeamMemberVO;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -56,16 +59,32 @@ public class ReportCustomRepositoryImpl extends CommonDataRepositoryImpl<ReportN
 
 	private static Logger LOGGER = LoggerFactory.getLogger(ReportCustomRepositoryImpl.class);
 	private static String REGEX = "[\\[+\\]+:{}^~?\\\\/()><=\"!]";
+	private static final Pattern SEARCHABLE = Pattern.compile("[\\p{L}\\p{N}]");
 
 	@Override
 	public List<ReportNsql> getAllWithFiltersUsingNativeQuery(Boolean published, List<String> statuses, String userId,
 			Boolean isAdmin, List<String> searchTerms, List<String> tags, int offset, int limit, String sortBy,
 			String sortOrder, String division, List<String> department, List<String> processOwner,
-			List<String> productOwner, List<String> art) {
+			List<String> productOwner, List<String> art, PageCursorDTO after) {
+		if (!StringUtils.hasText(sortBy)) {
+			sortBy = getDefaultSortBy(searchTerms);
+			sortOrder = "asc";
+		}
 		Query q = getNativeQueryWithFilters("", published, statuses, userId, isAdmin, searchTerms, tags, offset, limit,
-				sortBy, sortOrder, "", "", division, department, processOwner, productOwner, art);
+				sortBy, sortOrder, "", "", division, department, processOwner, productOwner, art, after);
+		return convertResults(q.getResultList());
+	}
+
+	@Override
+	public List<ReportNsql> getAllByDivisionId(String divisionId) {
+		Query q = em.createNativeQuery("select cast(id as text), cast(data as text) from report_nsql "
+				+ "where jsonb_extract_path_text(data,'description','division','id') = :divisionId");
+		q.setParameter("divisionId", divisionId);
+		return convertResults(q.getResultList());
+	}
+
+	private List<ReportNsql> convertResults(List<Object[]> results) {
 		ObjectMapper mapper = new ObjectMapper();
-		List<Object[]> results = q.getResultList();
 		List<ReportNsql> convertedResults = results.stream().map(temp -> {
 			ReportNsql entity = new ReportNsql();
 			try {
@@ -77,6 +96,9 @@ public class ReportCustomRepositoryImpl extends CommonDataRepositoryImpl<ReportN
 			}
 			String id = temp[0] != null ? temp[0].toString() : "";
 			entity.setId(id);
+			if (temp.length > 2 && temp[2] != null) {
+				entity.setSortKey(temp[2].toString());
+			}
 			return entity;
 		}).collect(Collectors.toList());
 		return convertedResults;
@@ -88,74 +110,113 @@ public class ReportCustomRepositoryImpl extends CommonDataRepositoryImpl<ReportN
 			List<String> processOwner, List<String> productOwner, List<String> art) {
 
 		Query q = getNativeQueryWithFilters("select count(*) ", published, statuses, userId, isAdmin, searchTerms, tags,
-				0, 0, "", "asc", "", "", division, department, processOwner, productOwner, art);
+				0, 0, "", "asc", "", "", division, department, processOwner, productOwner, art, null);
 		BigInteger results = (BigInteger) q.getSingleResult();
 		return results.longValue();
 	}
 
+	/**
+	 * Default sort on relevance for keyword search, otherwise on report name.
+	 */
+	private String getDefaultSortBy(List<String> searchTerms) {
+		return searchTerms != null && !searchTerms.isEmpty() ? "relevance" : "productName";
+	}
+
+	/**
+	 * To get the expression the listing is ordered by, also used as seek key for
+	 * keyset pagination. Nullable keys are coalesced, so that they can be compared
+	 * as row values.
+	 * 
+	 * @param sortBy
+	 * @param hasSearchQuery
+	 * @return sortKeyExpression{String}, null if sortBy is not supported
+	 */
+	private String getSortKeyExpression(String sortBy, boolean hasSearchQuery) {
+		if (!StringUtils.hasText(sortBy)) {
+			return null;
+		}
+		switch (sortBy) {
+		case "productName":
+			return "coalesce(lower(jsonb_extract_path_text(data,'productName')), '')";
+		case "productPhase":
+			return "coalesce(lower(jsonb_extract_path_text(data,'description','productPhase')), '')";
+		case "status":
+			return "coalesce(lower(jsonb_extract_path_text(data,'description','status')), '')";
+		case "department":
+			return "coalesce(lower(jsonb_extract_path_text(data,'description','department')), '')";
+		case "art":
+			return "coalesce(lower(jsonb_extract_path_text(data,'description','agileReleaseTrains')), '')";
+		case "productOwner":
+			return "coalesce(lower(jsonb_extract_path_text(data,'member','productOwners')), '')";
+		case "relevance":
+			// rank is compared as numeric, as real does not survive the text round trip
+			return hasSearchQuery ? "cast(ts_rank(search_vector, report_nsql_prefix_tsquery(:searchQuery)) as numeric)"
+					: "coalesce(lower(jsonb_extract_path_text(data,'productName')), '')";
+		default:
+			return null;
+		}
+	}
+
 	private Query getNativeQueryWithFilters(String selectFieldsString, Boolean published, List<String> statuses,
 			String userId, Boolean isAdmin, List<String> searchTerms, List<String> tags, int offset, int limit,
 			String sortBy, String sortOrder, String additionalPredicatesString, String groupByString, String division,
-			List<String> department, List<String> processOwner, List<String> productOwner, List<String> art) {
+			List<String> department, List<String> processOwner, List<String> productOwner, List<String> art,
+			PageCursorDTO after) {
 
-		String prefix = selectFieldsString != null && !"".equalsIgnoreCase(selectFieldsString) ? selectFieldsString
-				: "select cast(id as text), cast(data as text) ";
-		prefix = prefix + "from report_nsql";
+		Map<String, Object> parameters = new HashMap<>();
 		String basicpredicate = " where (id is not null)";
 		String consolidatedPredicates = buildPredicateString(published, statuses, userId, isAdmin, searchTerms, tags,
-				division, department, processOwner, productOwner, art);
-		String query = prefix + basicpredicate + consolidatedPredicates;
-		String sortQueryString = "";
-		if (StringUtils.hasText(sortBy)) {
-			switch (sortBy) {
-			case "productName":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'productName')) ";
-				break;
-			case "productPhase":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'description','productPhase')) ";
-				break;
-			case "status":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'description','status')) ";
-				break;
-			case "department":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'description','department')) ";
-				break;
-			case "art":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'description','agileReleaseTrains')) ";
-				break;
-			case "productOwner":
-				sortQueryString = " order by lower(jsonb_extract_path_text(data,'member','productOwners')) ";
-				break;
-			default:
-				sortQueryString = "";
-				break;
-			}
-			if ("desc".equalsIgnoreCase(sortOrder))
-				sortQueryString = sortQueryString + " desc ";
-			else
-				sortQueryString = sortQueryString + " asc ";
-
-			query = query + sortQueryString;
-
+				division, department, processOwner, productOwner, art, parameters);
+		boolean hasSearchQuery = parameters.containsKey("searchQuery");
+		String sortKeyExpression = getSortKeyExpression(sortBy, hasSearchQuery);
+		String prefix = selectFieldsString;
+		if (prefix == null || "".equalsIgnoreCase(prefix)) {
+			// sort key is selected along, so that the next page cursor needs no extra lookup
+			prefix = "select cast(id as text), cast(data as text)"
+					+ (sortKeyExpression != null ? ", cast((" + sortKeyExpression + ") as text) " : " ");
 		}
+		prefix = prefix + "from report_nsql";
+		String query = prefix + basicpredicate + consolidatedPredicates;
 		if (additionalPredicatesString != null && !"".equalsIgnoreCase(additionalPredicatesString))
 			query = query + " " + additionalPredicatesString + " \n";
 		if (groupByString != null && !"".equalsIgnoreCase(groupByString))
 			query = query + " " + groupByString + " \n";
-		if (limit > 0)
-			query = query + " limit " + limit;
-		if (offset >= 0)
-			query = query + " offset " + offset;
+		if (sortKeyExpression != null) {
+			boolean rankSort = "relevance".equalsIgnoreCase(sortBy) && hasSearchQuery;
+			if (rankSort) {
+				// best match first, sortOrder is not applicable
+				sortOrder = "desc";
+			}
+			String direction = "desc".equalsIgnoreCase(sortOrder) ? " desc " : " asc ";
+			if (after != null) {
+				// seek past the last record of the previous page instead of skipping rows
+				String comparator = "desc".equalsIgnoreCase(sortOrder) ? " < " : " > ";
+				query = query + " and ((" + sortKeyExpression + "), id)" + comparator + "(cast(:afterSortKey as "
+						+ (rankSort ? "numeric" : "text") + "), :afterId) \n";
+				parameters.put("afterSortKey", after.getSortKey());
+				parameters.put("afterId", after.getId());
+				offset = 0;
+			}
+			// id as tie breaker keeps pages stable for equal sort keys
+			query = query + " order by " + sortKeyExpression + direction + ", id" + direction;
+		}
+		if (limit > 0) {
+			query = query + " limit :limit offset :offset";
+			parameters.put("limit", limit);
+			parameters.put("offset", offset >= 0 ? offset : 0);
+		}
 		Query q = em.createNativeQuery(query);
+		parameters.forEach(q::setParameter);
 		return q;
 	}
 
 	private String buildPredicateString(Boolean published, List<String> statuses, String userId, Boolean isAdmin,
 			List<String> searchTerms, List<String> tags, String division, List<String> department,
-			List<String> processOwner, List<String> productOwner, List<String> art) {
+			List<String> processOwner, List<String> productOwner, List<String> art, Map<String, Object> parameters) {
 
 		return getPublishedAndAccessPredicate(published, userId, isAdmin) + "\n"
-				+ getProjectStatusesPredicateString(statuses) + "\n" + getSearchTermsPredicateString(searchTerms) + "\n"
+				+ getProjectStatusesPredicateString(statuses) + "\n"
+				+ getSearchTermsPredicateString(searchTerms, parameters) + "\n"
 				+ getTagsPredicateString(tags) + "\n" + getDivisionsPredicateString(division) + "\n"
 				+ getDepartmentsPredicateString(department) + "\n" + getProcessOwnersPredicateString(processOwner)
 				+ "\n" + getProductOwnersPredicateString(productOwner) + "\n" + getArtsPredicateString(art);
@@ -201,39 +262,28 @@ public class ReportCustomRepositoryImpl extends CommonDataRepositoryImpl<ReportN
 		return "";
 	}
 
-	private String getSearchTermsPredicateString(List<String> searchTerms) {
+	/**
+	 * To join the given search terms into the input of report_nsql_prefix_tsquery,
+	 * which tokenizes them with the same parser the search_vector is built with.
+	 * Terms without any letter or digit can not match and are left out.
+	 *
+	 * @param searchTerms
+	 * @return searchQuery{String}, newline separated terms, empty if no term is
+	 *         searchable
+	 */
+	private static String toSearchQuery(List<String> searchTerms) {
+		return searchTerms.stream().filter(searchTerm -> searchTerm != null && SEARCHABLE.matcher(searchTerm).find())
+				.map(searchTerm -> searchTerm.replace('\n', ' ')).collect(Collectors.joining("\n"));
+	}
+
+	private String getSearchTermsPredicateString(List<String> searchTerms, Map<String, Object> parameters) {
 		if (searchTerms != null && !searchTerms.isEmpty()) {
-			String delimiterSeparatedSearchTerms = searchTerms.stream()
-					.map(n -> n.replaceAll(REGEX, "\\\\$0").toLowerCase()).collect(Collectors.joining("%|%", "%", "%"));
-
-			delimiterSeparatedSearchTerms = "'" + delimiterSeparatedSearchTerms + "'";
-			return "  and (" + "lower(jsonb_extract_path_text(data,'productName')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','tags')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','status')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','integratedPortal')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','frontendTechnologies')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','agileReleaseTrains')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','designGuideImplemented')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','productPhase')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'customer','customers')) similar to "
-					+ delimiterSeparatedSearchTerms + " or " + "lower(jsonb_extract_path_text(data,'kpis')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'singleDataSources')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'dataWarehouses')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','division')) similar to "
-					+ delimiterSeparatedSearchTerms + " or "
-					+ "lower(jsonb_extract_path_text(data,'description','department')) similar to "
-					+ delimiterSeparatedSearchTerms + " ) ";
+			String searchQuery = toSearchQuery(searchTerms);
+			if (StringUtils.hasText(searchQuery)) {
+				// search_vector is maintained by trigger, see V4__create_report_search_vector
+				parameters.put("searchQuery", searchQuery);
+				return "  and (search_vector @@ report_nsql_prefix_tsquery(:searchQuery)) ";
+			}
 		}
 		return "";
 	}
@@ -0,0 +1,84 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position of the last record of a page for keyset pagination, exchanged with
+ * clients as an opaque token. Carries the requested sort so that a token can
+ * only be used with the listing it was issued for.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursorDTO {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private String sortBy;
+	private String sortOrder;
+	private String sortKey;
+	private String id;
+
+	public String encode() {
+		try {
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to encode page cursor", e);
+		}
+	}
+
+	/**
+	 * To decode a token issued by {@link #encode()}.
+	 * 
+	 * @param token
+	 * @return cursor, null if the token is not a valid cursor
+	 */
+	public static PageCursorDTO decode(String token) {
+		try {
+			PageCursorDTO cursor = MAPPER.readValue(
+					new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8), PageCursorDTO.class);
+			return cursor.getId() != null && cursor.getSortKey() != null ? cursor : null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	public boolean isIssuedFor(String sortBy, String sortOrder) {
+		return Objects.equals(this.sortBy, sortBy) && Objects.equals(this.sortOrder, sortOrder);
+	}
+}
@@ -58,10 +58,11 @@ public class ReportQuery implements GraphQLQueryResolver {
 
 	public ReportCollection getReports(Boolean published, String productPhase, String status, String searchTerm,
 			String tags, int offset, int limit, String sortBy, String sortOrder, String division, String department,
-			String processOwner, String productOwner, String art) {
+			String processOwner, String productOwner, String art, String after, Boolean includeTotal) {
 
 		ResponseEntity<ReportCollection> reports = reportController.getAll(published, productPhase, status, searchTerm,
-				tags, offset, limit, sortBy, sortOrder, division, department, processOwner, productOwner, art);
+				tags, offset, limit, sortBy, sortOrder, division, department, processOwner, productOwner, art,
+				after, includeTotal);
 
 		if (reports != null && reports.getBody() != null) {
 			return reports.getBody();
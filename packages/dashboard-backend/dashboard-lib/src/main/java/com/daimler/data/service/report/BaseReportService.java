@@ -61,6 +61,8 @@ import com.daimler.data.db.jsonb.report.SingleDataSource;
 import com.daimler.data.db.jsonb.report.Subdivision;
 import com.daimler.data.db.repo.report.ReportCustomRepository;
 import com.daimler.data.db.repo.report.ReportRepository;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.PageDTO;
 import com.daimler.data.dto.datawarehouse.DataWarehouseInUseVO;
 import com.daimler.data.dto.department.DepartmentVO;
 import com.daimler.data.dto.divisions.DivisionReportVO;
@@ -121,17 +123,23 @@ public class BaseReportService extends BaseCommonService<ReportVO, ReportNsql, S
 	}
 
 	@Override
-	public List<ReportVO> getAllWithFilters(Boolean published, List<String> productPhase, List<String> statuses,
+	public PageDTO<ReportVO> getAllWithFilters(Boolean published, List<String> productPhase, List<String> statuses,
 			String userId, Boolean isAdmin, List<String> searchTerms, List<String> tags, int offset, int limit,
 			String sortBy, String sortOrder, String division, List<String> department, List<String> processOwner,
-			List<String> productOwner, List<String> art) {
+			List<String> productOwner, List<String> art, PageCursorDTO after) {
 		List<ReportNsql> reportEntities = reportCustomRepository.getAllWithFiltersUsingNativeQuery(published, statuses,
 				userId, isAdmin, searchTerms, tags, offset, limit, sortBy, sortOrder, division, department,
-				processOwner, productOwner, art);
-		if (!ObjectUtils.isEmpty(reportEntities))
-			return reportEntities.stream().map(n -> reportAssembler.toVo(n)).collect(Collectors.toList());
-		else
-			return new ArrayList<>();
+				processOwner, productOwner, art, after);
+		if (ObjectUtils.isEmpty(reportEntities)) {
+			return new PageDTO<>(new ArrayList<>(), null);
+		}
+		PageCursorDTO nextCursor = null;
+		ReportNsql last = reportEntities.get(reportEntities.size() - 1);
+		if (limit > 0 && reportEntities.size() == limit && last.getSortKey() != null) {
+			nextCursor = new PageCursorDTO(sortBy, sortOrder, last.getSortKey(), last.getId());
+		}
+		return new PageDTO<>(reportEntities.stream().map(n -> reportAssembler.toVo(n)).collect(Collectors.toList()),
+				nextCursor);
 	}
 
 	@Override
@@ -142,13 +150,26 @@ public class BaseReportService extends BaseCommonService<ReportVO, ReportNsql, S
 				division, department, processOwner, productOwner, art);
 	}
 
+	/**
+	 * To get the reports that may reference the given value of the category.
+	 * Division is referenced by id, which is not part of the search document, so
+	 * it is matched exactly. Other values are pre-filtered by keyword search and
+	 * compared per report by the caller.
+	 */
+	private List<ReportNsql> getAllReferencing(String value, CATEGORY category) {
+		if (category.equals(CATEGORY.DIVISION)) {
+			return reportCustomRepository.getAllByDivisionId(value);
+		}
+		return reportCustomRepository.getAllWithFiltersUsingNativeQuery(null, null, null, true, Arrays.asList(value),
+				null, 0, 0, null, null, null, null, null, null, null, null);
+	}
+
 	@Override
 	@Transactional
 	public void deleteForEachReport(String name, CATEGORY category) {
 		List<ReportNsql> reports = null;
 		if (StringUtils.hasText(name)) {
-			reports = reportCustomRepository.getAllWithFiltersUsingNativeQuery(null, null, null, true,
-					Arrays.asList(name), null, 0, 0, null, null, null, null, null, null, null);
+			reports = getAllReferencing(name, category);
 		}
 		if (!ObjectUtils.isEmpty(reports)) {
 			reports.forEach(reportNsql -> {
@@ -350,8 +371,7 @@ public class BaseReportService extends BaseCommonService<ReportVO, ReportNsql, S
 	public void updateForEachReport(String oldValue, String newValue, CATEGORY category, Object updateObject) {
 		List<ReportNsql> reports = null;
 		if (StringUtils.hasText(oldValue)) {
-			reports = reportCustomRepository.getAllWithFiltersUsingNativeQuery(null, null, null, true,
-					Arrays.asList(oldValue), null, 0, 0, null, null, null, null, null, null, null);
+			reports = getAllReferencing(oldValue, category);
 		}
 		if (!ObjectUtils.isEmpty(reports)) {
 			reports.forEach(reportNsql -> {
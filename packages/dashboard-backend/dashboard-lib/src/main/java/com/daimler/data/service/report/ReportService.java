@@ -33,6 +33,8 @@ import org.springframework.http.ResponseEntity;
 
 import com.daimler.data.controller.exceptions.GenericMessage;
 import com.daimler.data.db.entities.ReportNsql;
+import com.daimler.data.dto.PageCursorDTO;
+import com.daimler.data.dto.PageDTO;
 import com.daimler.data.dto.report.ProcessOwnerCollection;
 import com.daimler.data.dto.report.ProductOwnerCollection;
 import com.daimler.data.dto.report.ReportResponseVO;
@@ -61,12 +63,13 @@ public interface ReportService extends CommonService<ReportVO, ReportNsql, Strin
 	 * @param limit
 	 * @param sortBy
 	 * @param sortOrder
-	 * @return reports{List<ReportVO>}
+	 * @return reports{PageDTO<ReportVO>}, with the cursor of the following page if
+	 *         the page is full
 	 */
-	List<ReportVO> getAllWithFilters(Boolean published, List<String> productPhase, List<String> statuses, String userId,
-			Boolean isAdmin, List<String> searchTerms, List<String> tags, int offset, int limit, String sortBy,
-			String sortOrder, String division, List<String> department, List<String> processOwner,
-			List<String> productOwner, List<String> art);
+	PageDTO<ReportVO> getAllWithFilters(Boolean published, List<String> productPhase, List<String> statuses,
+			String userId, Boolean isAdmin, List<String> searchTerms, List<String> tags, int offset, int limit,
+			String sortBy, String sortOrder, String division, List<String> department, List<String> processOwner,
+			List<String> productOwner, List<String> art, PageCursorDTO after);
 
 	/**
 	 * To get Count of all the reports with given filters.
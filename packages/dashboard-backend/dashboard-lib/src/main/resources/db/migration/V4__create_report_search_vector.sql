@@ -0,0 +1,42 @@
+--
+-- Full text search document for report keyword search.
+-- Only values are indexed, weighted productName (A), tags (B), remaining fields (C).
+--
+
+ALTER TABLE report_nsql ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION report_nsql_search_vector(data jsonb) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(data ->> 'productName', '')), 'A')
+        || setweight(jsonb_to_tsvector('simple', coalesce(data -> 'description' -> 'tags', '[]'::jsonb), '["string"]'), 'B')
+        || setweight(jsonb_to_tsvector('simple', jsonb_build_array(
+               data -> 'description' -> 'status',
+               data -> 'description' -> 'integratedPortal',
+               data -> 'description' -> 'frontendTechnologies',
+               data -> 'description' -> 'agileReleaseTrains',
+               data -> 'description' -> 'designGuideImplemented',
+               data -> 'description' -> 'productPhase',
+               data -> 'description' -> 'department',
+               data -> 'description' -> 'division' -> 'name',
+               data -> 'description' -> 'division' -> 'subdivision' -> 'name',
+               data -> 'customer' -> 'customers',
+               data -> 'kpis',
+               data -> 'singleDataSources',
+               data -> 'dataWarehouses'), '["string"]'), 'C');
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION report_nsql_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := report_nsql_search_vector(NEW.data);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS report_nsql_search_vector_update ON report_nsql;
+CREATE TRIGGER report_nsql_search_vector_update
+    BEFORE INSERT OR UPDATE OF data ON report_nsql
+    FOR EACH ROW EXECUTE PROCEDURE report_nsql_search_vector_trigger();
+
+UPDATE report_nsql SET search_vector = report_nsql_search_vector(data);
+
+CREATE INDEX IF NOT EXISTS report_nsql_search_vector_idx
+    ON report_nsql USING gin (search_vector);
@@ -0,0 +1,200 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.mbc.dna.malwarescanner.app.authaspect;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Local cache of appId/apiKey validation results. Only a SHA-256 of the apiKey
+ * is kept. Concurrent lookups of the same key share one backend call.
+ * <p>
+ * Expired results younger than the stale ttl are served at once while they are
+ * revalidated in background (stale-while-revalidate), so requests never wait
+ * on the backend for a key seen recently. When revalidation fails with an I/O
+ * error or a 5xx the previous result is kept (stale-if-error). Rejected keys
+ * are cached like any other result.
+ */
+@Component
+public class ApiKeyValidationCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ApiKeyValidationCache.class);
+
+	@Value("${malware.api.security.cache.positiveTtlMillis}")
+	private long positiveTtlMillis;
+
+	@Value("${malware.api.security.cache.negativeTtlMillis}")
+	private long negativeTtlMillis;
+
+	@Value("${malware.api.security.cache.staleTtlMillis}")
+	private long staleTtlMillis;
+
+	@Value("${malware.api.security.cache.maxEntries}")
+	private int maxEntries;
+
+	@Value("${malware.api.security.cache.revalidationWorkers}")
+	private int revalidationWorkers;
+
+	private final Map<String, CachedValidation> validations = new ConcurrentHashMap<>();
+
+	private final Map<String, CompletableFuture<ApiKeyValidation>> inFlight = new ConcurrentHashMap<>();
+
+	private ExecutorService revalidationExecutor;
+
+	@PostConstruct
+	public void init() {
+		revalidationExecutor = Executors.newFixedThreadPool(revalidationWorkers);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		revalidationExecutor.shutdown();
+	}
+
+	/**
+	 * @param validator backend call, returning an invalid result for keys the
+	 *                  backend rejects. Exceptions are never cached.
+	 */
+	public ApiKeyValidation validate(String appId, String apiKey, Callable<ApiKeyValidation> validator)
+			throws Exception {
+		String key = appId + ":" + sha256Hex(apiKey);
+		CachedValidation cached = validations.get(key);
+		long now = System.currentTimeMillis();
+		if (cached != null && now < cached.getExpiresAt()) {
+			return cached.getValidation();
+		}
+		if (cached != null && now - cached.getValidatedAt() < staleTtlMillis) {
+			revalidate(key, cached, validator);
+			return cached.getValidation();
+		}
+		try {
+			return revalidate(key, cached, validator).join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		}
+	}
+
+	/*
+	 * Single flight per key, the backend call runs on the revalidation workers
+	 */
+	private CompletableFuture<ApiKeyValidation> revalidate(String key, CachedValidation cached,
+			Callable<ApiKeyValidation> validator) {
+		CompletableFuture<ApiKeyValidation> flight = new CompletableFuture<>();
+		CompletableFuture<ApiKeyValidation> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			return existing;
+		}
+		try {
+			revalidationExecutor.execute(() -> {
+				try {
+					flight.complete(load(key, cached, validator));
+				} catch (Exception e) {
+					flight.completeExceptionally(e);
+				} finally {
+					inFlight.remove(key, flight);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			inFlight.remove(key, flight);
+			flight.completeExceptionally(e);
+		}
+		return flight;
+	}
+
+	private ApiKeyValidation load(String key, CachedValidation cached, Callable<ApiKeyValidation> validator)
+			throws Exception {
+		ApiKeyValidation validation;
+		try {
+			validation = validator.call();
+		} catch (ResourceAccessException | HttpServerErrorException e) {
+			if (cached != null && System.currentTimeMillis() - cached.getValidatedAt() < staleTtlMillis) {
+				LOG.warn("Failed to validate appId/appKey, serving cached result = {} ", e.getMessage());
+				return cached.getValidation();
+			}
+			throw e;
+		}
+		long now = System.currentTimeMillis();
+		if (validations.size() >= maxEntries) {
+			validations.values().removeIf(entry -> now - entry.getValidatedAt() >= staleTtlMillis);
+			if (validations.size() >= maxEntries) {
+				validations.clear();
+			}
+		}
+		long ttl = validation.isValid() ? positiveTtlMillis : negativeTtlMillis;
+		validations.put(key, new CachedValidation(validation, now, now + ttl));
+		return validation;
+	}
+
+	private static String sha256Hex(String value) throws NoSuchAlgorithmException {
+		MessageDigest sha256Digest = MessageDigest.getInstance("SHA-256");
+		return HexFormat.of().formatHex(sha256Digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Data
+	@AllArgsConstructor
+	public static class ApiKeyValidation {
+
+		private boolean valid;
+		private String message;
+
+	}
+
+	@Data
+	@AllArgsConstructor
+	private static class CachedValidation {
+
+		private ApiKeyValidation validation;
+		private long validatedAt;
+		private long expiresAt;
+
+	}
+
+}
@@ -37,6 +37,7 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,10 +51,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.daimler.mbc.dna.malwarescanner.app.authaspect.ApiKeyValidationCache.ApiKeyValidation;
 import com.daimler.mbc.dna.malwarescanner.exceptions.GenericMessage;
 import com.daimler.mbc.dna.malwarescanner.exceptions.MessageDescription;
 
@@ -73,6 +76,9 @@ public class MalwareApiAuthenticationAspect {
 	@Autowired
 	RestTemplate restTemplate;
 
+	@Autowired
+	private ApiKeyValidationCache apiKeyValidationCache;
+
 	@Around(value = "target(com.daimler.mbc.dna.malwarescanner.app.authaspect.MalwareAuthController)")
 	public Object authenticateRequest(ProceedingJoinPoint jp) throws Throwable {
 
@@ -89,40 +95,65 @@ public class MalwareApiAuthenticationAspect {
 				return jp.proceed();
 			}
 		} else if (StringUtils.hasText(appKey) && StringUtils.hasText(appId)) {
+			ApiKeyValidation validation;
 			try {
-				HttpHeaders headers = new HttpHeaders();
-				headers.set("Accept", "application/json");
-				headers.set("Content-Type", "application/json");
-				headers.set("Authorization", authToken);
-				JSONObject personJsonObject = new JSONObject();
-				personJsonObject.put("appId", appId);
-				personJsonObject.put("apiKey", appKey);
-				JSONObject data = new JSONObject();
-				data.put("data", personJsonObject);
-				HttpEntity entity = new HttpEntity<>(data.toString(), headers);
-				ResponseEntity<String> response = restTemplate.exchange(uri, HttpMethod.POST, entity, String.class);
-				if (response != null && response.hasBody()) {
-					JSONObject result = new JSONObject(response.getBody());
-					if (result != null && result.getBoolean("validApiKey")) {
-						return jp.proceed();
-					} else {
-						if (result.has("errors") && !ObjectUtils.isEmpty(result.getJSONArray("errors"))) {
-							JSONArray errors = result.getJSONArray("errors");
-							return forbidRequest(errors.getJSONObject(0).getString("message"));
-						} else {
-							return forbidRequest("Failed to validate appId/appKey. Please provide valid appId/appKey");
-						}
-					}
-
-				}
+				validation = apiKeyValidationCache.validate(appId, appKey, () -> validateApiKey(appId, appKey));
 			} catch (Exception e) {
 				LOG.error("Exception occurred {}", e.getMessage());
 				return forbidRequest("Failed to validate appId/appKey. Please provide valid appId/appKey");
 			}
+			if (validation.isValid()) {
+				return jp.proceed();
+			} else {
+				return forbidRequest(validation.getMessage());
+			}
 		}
 		return forbidRequest("Failed to validate appId/appKey. Please provide valid appId/appKey");
 	}
 
+	private ApiKeyValidation validateApiKey(String appId, String appKey) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("Accept", "application/json");
+		headers.set("Content-Type", "application/json");
+		headers.set("Authorization", authToken);
+		JSONObject personJsonObject = new JSONObject();
+		personJsonObject.put("appId", appId);
+		personJsonObject.put("apiKey", appKey);
+		JSONObject data = new JSONObject();
+		data.put("data", personJsonObject);
+		HttpEntity entity = new HttpEntity<>(data.toString(), headers);
+		ResponseEntity<String> response;
+		try {
+			response = restTemplate.exchange(uri, HttpMethod.POST, entity, String.class);
+		} catch (HttpClientErrorException e) {
+			// Backend answers 400 for deleted subscriptions and 404 for unknown keys,
+			// both are a definitive answer for this appId/apiKey
+			LOG.info("appId/appKey rejected by backend with status {}", e.getRawStatusCode());
+			return invalidApiKey(e.getResponseBodyAsString());
+		}
+		if (response == null || !response.hasBody()) {
+			throw new IllegalStateException("Empty response while validating appId/appKey");
+		}
+		JSONObject result = new JSONObject(response.getBody());
+		if (result.getBoolean("validApiKey")) {
+			return new ApiKeyValidation(true, null);
+		}
+		return invalidApiKey(response.getBody());
+	}
+
+	private ApiKeyValidation invalidApiKey(String body) {
+		try {
+			JSONObject result = new JSONObject(body);
+			if (result.has("errors") && !ObjectUtils.isEmpty(result.getJSONArray("errors"))) {
+				JSONArray errors = result.getJSONArray("errors");
+				return new ApiKeyValidation(false, errors.getJSONObject(0).getString("message"));
+			}
+		} catch (JSONException e) {
+			LOG.debug("Could not read errors of appId/appKey validation response {}", e.getMessage());
+		}
+		return new ApiKeyValidation(false, "Failed to validate appId/appKey. Please provide valid appId/appKey");
+	}
+
 	private ResponseEntity<GenericMessage> forbidRequest(String msg) {
 		LOG.info(msg);
 		GenericMessage resposeMessage = null;
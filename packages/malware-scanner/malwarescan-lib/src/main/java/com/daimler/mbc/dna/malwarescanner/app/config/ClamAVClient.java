@@ -27,6 +27,7 @@
 
 package com.daimler.mbc.dna.malwarescanner.app.config;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -37,7 +38,9 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,27 +56,54 @@ public class ClamAVClient {
 	private String hostName;
 	private int port;
 	private int timeout;
+	private int chunkSize;
+	private long maxIdleMillis;
 
-	// "do not exceed StreamMaxLength as defined in clamd.conf, otherwise clamd will
-	// reply with INSTREAM size limit exceeded and close the connection."
-	private static final int CHUNK_SIZE = 2048;
+	// sessions kept open with zIDSESSION, most recently used first
+	private final BlockingDeque<ClamdSession> idleSessions = new LinkedBlockingDeque<>();
+	// bounds the open connections, should not exceed MaxThreads as defined in
+	// clamd.conf, otherwise requests wait in the clamd connection queue
+	private final Semaphore connectionPermits;
+
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	public static final int DEFAULT_MAX_CONNECTIONS = 12;
+	// has to stay below IdleTimeout as defined in clamd.conf, clamd closes idle
+	// sessions after that
+	public static final long DEFAULT_MAX_IDLE_MILLIS = 20000;
 	private static final int DEFAULT_TIMEOUT = 0;
-	private static final int PONG_REPLY_LEN = 4;
+	private static final int MAX_REPLY_LEN = 4096;
+	private static final int SIZE_LIMIT_REPLY_TIMEOUT = 1000;
 
 	/**
-	 * @param hostName The hostname of the server running clamav-daemon
-	 * @param port     The port that clamav-daemon listens to(By default it might
-	 *                 not listen to a port. Check your clamav configuration).
-	 * @param timeout  zero means infinite timeout. Not a good idea, but will be
-	 *                 accepted.
+	 * @param hostName       The hostname of the server running clamav-daemon
+	 * @param port           The port that clamav-daemon listens to(By default it
+	 *                       might not listen to a port. Check your clamav
+	 *                       configuration).
+	 * @param timeout        zero means infinite timeout. Not a good idea, but will
+	 *                       be accepted.
+	 * @param chunkSize      size of the INSTREAM chunks in bytes.
+	 * @param maxConnections maximum number of connections kept open to clamd.
+	 * @param maxIdleMillis  idle sessions older than this are closed instead of
+	 *                       being reused.
 	 */
-	public ClamAVClient(String hostName, int port, int timeout) {
+	public ClamAVClient(String hostName, int port, int timeout, int chunkSize, int maxConnections,
+			long maxIdleMillis) {
 		if (timeout < 0) {
 			throw new IllegalArgumentException("Negative timeout value does not make sense.");
 		}
+		if (chunkSize <= 0 || maxConnections <= 0) {
+			throw new IllegalArgumentException("Chunk size and max connections must be positive.");
+		}
 		this.hostName = hostName;
 		this.port = port;
 		this.timeout = timeout;
+		this.chunkSize = chunkSize;
+		this.maxIdleMillis = maxIdleMillis;
+		this.connectionPermits = new Semaphore(maxConnections, true);
+	}
+
+	public ClamAVClient(String hostName, int port, int timeout) {
+		this(hostName, port, timeout, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_IDLE_MILLIS);
 	}
 
 	public ClamAVClient(String hostName, int port) {
@@ -86,48 +116,37 @@ public class ClamAVClient {
 	 * @return true if the server responded with proper ping reply.
 	 */
 	public boolean ping() throws IOException {
-		Socket socket = null;
-		OutputStream outStream = null;
-		InputStream inStream = null;
 		try {
-			socket = new Socket(hostName, port);
-			LOGGER.trace("Service to check health of clamAV running on host {} and port {} ", hostName, port);
-			outStream = socket.getOutputStream();
-			socket.setSoTimeout(timeout);
-			outStream.write("zPING\0".getBytes(StandardCharsets.US_ASCII));
-			outStream.flush();
-			byte[] b = new byte[PONG_REPLY_LEN];
-			inStream = socket.getInputStream();
-			int copyIndex = 0;
-			int readResult;
-			do {
-				readResult = inStream.read(b, copyIndex, Math.max(b.length - copyIndex, 0));
-				copyIndex += readResult;
-			} while (readResult > 0);
-			return Arrays.equals(b, "PONG".getBytes(StandardCharsets.US_ASCII));
-		} finally {
-			closeInputStream(inStream);
-			closeOutputStream(outStream);
-			closeSocket(socket);
+			return "PONG".equals(execute(this::sendPing));
+		} catch (IOException e) {
+			// the pooled session might have been closed by clamd, ping carries no
+			// payload so it is safe to retry once on a new connection
+			LOGGER.debug("Retrying ping on a new clamd connection = {} ", e.getMessage());
+			closeIdleSessions();
+			return "PONG".equals(execute(this::sendPing));
 		}
 	}
 
-	private void closeInputStream(InputStream inStream) {
-		try {
-			if (inStream != null)
-				inStream.close();
-		} catch (IOException e) {
-			LOGGER.error("Exception occurred while closing input streams = {} ", e.getMessage());
-		}
+	/**
+	 * Run VERSION command to clamd.
+	 *
+	 * @return clamd version reply, e.g. "ClamAV 0.103.2/26313/Mon Oct 18
+	 *         09:51:34 2021", the second part being the signature database
+	 *         version.
+	 */
+	public String version() throws IOException {
+		return execute(session -> {
+			session.outStream.write("zVERSION\0".getBytes(StandardCharsets.US_ASCII));
+			session.outStream.flush();
+			return new String(readReply(session.inStream), StandardCharsets.US_ASCII);
+		});
 	}
 
-	private void closeOutputStream(OutputStream outStream) {
-		try {
-			if (outStream != null)
-				outStream.close();
-		} catch (IOException e) {
-			LOGGER.error("Exception occurred while closing output streams = {} ", e.getMessage());
-		}
+	private String sendPing(ClamdSession session) throws IOException {
+		LOGGER.trace("Service to check health of clamAV running on host {} and port {} ", hostName, port);
+		session.outStream.write("zPING\0".getBytes(StandardCharsets.US_ASCII));
+		session.outStream.flush();
+		return new String(readReply(session.inStream), StandardCharsets.US_ASCII);
 	}
 
 	/**
@@ -137,7 +156,8 @@ public class ClamAVClient {
 	 * InputStream is not reset, you can not use the stream afterwards, as it will
 	 * be left in a EOF-state.
 	 * <p>
-	 * Opens a socket and reads the reply. Parameter input stream is NOT closed.
+	 * Borrows a pooled clamd session and reads the reply. Parameter input stream is
+	 * NOT closed.
 	 *
 	 * @param is                  data to scan. Not closed by this method!
 	 * @param fileScanResponseDto
@@ -146,77 +166,123 @@ public class ClamAVClient {
 	public byte[] scan(InputStream is, FileScanDetailsVO fileScanResponseDto)
 			throws IOException, NoSuchAlgorithmException {
 		MessageDigest md5Digest = MessageDigest.getInstance("MD5");
-		Socket socket = null;
-		OutputStream outStream = null;
-		InputStream inStream = null;
-		try {
-			socket = new Socket(hostName, port);
-			outStream = new BufferedOutputStream(socket.getOutputStream());
-			LOGGER.info("1Socket information = {} connected = {} ", socket, socket.isConnected());
-			socket.setSoTimeout(timeout);
-
-			// handshake
-			outStream.write("zINSTREAM\0".getBytes(StandardCharsets.US_ASCII));
-			outStream.flush();
-			LOGGER.info("2Socket information = {} connected = {} ", socket, socket.isConnected());
-			byte[] chunk = new byte[CHUNK_SIZE];
-
+		byte[] reply = execute(session -> {
+			OutputStream outStream = session.outStream;
 			try {
-				inStream = socket.getInputStream();
-				// send data
+				outStream.write("zINSTREAM\0".getBytes(StandardCharsets.US_ASCII));
+				byte[] chunk = session.chunk;
 				int read = is.read(chunk);
 				while (read >= 0) {
-					// The format of the chunk is: '<length><data>' where <length> is the size of
-					// the following data in bytes expressed as a 4 byte unsigned
-					// integer in network byte order and <data> is the actual chunk. Streaming is
-					// terminated by sending a zero-length chunk.
-					byte[] chunkSize = ByteBuffer.allocate(4).putInt(read).array();
-
-					outStream.write(chunkSize);
-					outStream.write(chunk, 0, read);
-					md5Digest.update(chunk, 0, read);
-					if (inStream.available() > 0) {
-						// reply from server before scan command has been terminated.
-						byte[] reply = assertSizeLimit(readAll(inStream));
-						throw new IOException(
-								"Scan aborted. Reply from server: " + new String(reply, StandardCharsets.US_ASCII));
+					if (read > 0) {
+						// The format of the chunk is: '<length><data>' where <length> is the size of
+						// the following data in bytes expressed as a 4 byte unsigned
+						// integer in network byte order and <data> is the actual chunk. Streaming is
+						// terminated by sending a zero-length chunk.
+						outStream.write(ByteBuffer.allocate(4).putInt(read).array());
+						outStream.write(chunk, 0, read);
+						md5Digest.update(chunk, 0, read);
 					}
 					read = is.read(chunk);
 				}
-
 				// terminate scan
 				outStream.write(new byte[] { 0, 0, 0, 0 });
 				outStream.flush();
+			} catch (IOException e) {
+				// clamd replies and closes the connection when StreamMaxLength is exceeded
+				throw sizeLimitReplyOr(session, e);
+			}
+			return assertSizeLimit(readReply(session.inStream));
+		});
 
-				// Get the hash's bytes
-				byte[] bytes = md5Digest.digest();
-				StringBuilder sb = new StringBuilder();
-				for (int i = 0; i < bytes.length; i++) {
-					sb.append(Integer.toString((bytes[i] & 0xff) + 0x100, 16).substring(1));
-				}
-				if (!StringUtils.isEmpty(sb.toString())) {
-					fileScanResponseDto.setHash(sb.toString());
-				}
-				// read reply
-				return assertSizeLimit(readAll(inStream));
-			}catch(Exception e) {
-				e.printStackTrace();
-				return null;
-			} finally {
+		// Get the hash's bytes
+		byte[] bytes = md5Digest.digest();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < bytes.length; i++) {
+			sb.append(Integer.toString((bytes[i] & 0xff) + 0x100, 16).substring(1));
+		}
+		if (!StringUtils.isEmpty(sb.toString())) {
+			fileScanResponseDto.setHash(sb.toString());
+		}
+		return reply;
+	}
 
+	/**
+	 * Closes all idle sessions. Sessions in use are closed when they are returned.
+	 */
+	public void close() {
+		closeIdleSessions();
+	}
+
+	private void closeIdleSessions() {
+		ClamdSession session;
+		while ((session = idleSessions.pollLast()) != null) {
+			session.close();
+		}
+	}
+
+	private <T> T execute(SessionCommand<T> command) throws IOException {
+		try {
+			connectionPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for a clamd connection.", e);
+		}
+		ClamdSession session = null;
+		try {
+			session = borrowSession();
+			T result = command.execute(session);
+			session.lastUsed = System.currentTimeMillis();
+			idleSessions.offerFirst(session);
+			session = null;
+			return result;
+		} finally {
+			// clamd ends the session on any error, so failed sessions are never reused
+			if (session != null) {
+				session.close();
 			}
-		} catch(Exception e) {
-				e.printStackTrace();
-				return null;
+			connectionPermits.release();
+		}
+	}
+
+	private ClamdSession borrowSession() throws IOException {
+		ClamdSession session;
+		while ((session = idleSessions.pollFirst()) != null) {
+			if (System.currentTimeMillis() - session.lastUsed < maxIdleMillis && !session.socket.isClosed()) {
+				return session;
 			}
-		finally {
-			closeInputStream(inStream);
-			closeOutputStream(outStream);
+			session.close();
+		}
+		return openSession();
+	}
+
+	private ClamdSession openSession() throws IOException {
+		Socket socket = new Socket(hostName, port);
+		try {
+			socket.setSoTimeout(timeout);
+			socket.setKeepAlive(true);
+			socket.setTcpNoDelay(true);
+			ClamdSession session = new ClamdSession(socket, chunkSize);
+			session.outStream.write("zIDSESSION\0".getBytes(StandardCharsets.US_ASCII));
+			session.outStream.flush();
+			LOGGER.debug("Opened clamd session = {} ", socket);
+			return session;
+		} catch (IOException e) {
 			closeSocket(socket);
+			throw e;
+		}
+	}
+
+	private IOException sizeLimitReplyOr(ClamdSession session, IOException cause) {
+		try {
+			session.socket.setSoTimeout(SIZE_LIMIT_REPLY_TIMEOUT);
+			assertSizeLimit(readReply(session.inStream));
+		} catch (IOException e) {
+			LOGGER.debug("No reply from clamd after failed write = {} ", e.getMessage());
 		}
+		return cause;
 	}
 
-	private void closeSocket(Socket socket) {
+	private static void closeSocket(Socket socket) {
 		try {
 			if (socket != null)
 				socket.close();
@@ -247,16 +313,58 @@ public class ClamAVClient {
 		return reply;
 	}
 
-	// reads all available bytes from the stream
-	private static byte[] readAll(InputStream is) throws IOException {
+	// reads one null terminated session reply and strips the '<id>: ' prefix
+	private static byte[] readReply(InputStream is) throws IOException {
 		ByteArrayOutputStream tmp = new ByteArrayOutputStream();
+		int read;
+		while ((read = is.read()) > 0) {
+			if (tmp.size() >= MAX_REPLY_LEN) {
+				throw new IOException("Clamd reply exceeds " + MAX_REPLY_LEN + " bytes.");
+			}
+			tmp.write(read);
+		}
+		if (read < 0 && tmp.size() == 0) {
+			throw new IOException("Connection closed by clamd.");
+		}
+		String reply = tmp.toString(StandardCharsets.US_ASCII.name());
+		int separator = reply.indexOf(": ");
+		if (separator > 0 && reply.substring(0, separator).chars().allMatch(Character::isDigit)) {
+			reply = reply.substring(separator + 2);
+		}
+		return reply.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@FunctionalInterface
+	private interface SessionCommand<T> {
+		T execute(ClamdSession session) throws IOException;
+	}
 
-		byte[] buf = new byte[2000];
-		int read = 0;
-		do {
-			read = is.read(buf);
-			tmp.write(buf, 0, read);
-		} while ((read > 0) && (is.available() > 0));
-		return tmp.toByteArray();
+	private static class ClamdSession {
+
+		private final Socket socket;
+		private final OutputStream outStream;
+		private final InputStream inStream;
+		private final byte[] chunk;
+		private long lastUsed = System.currentTimeMillis();
+
+		private ClamdSession(Socket socket, int chunkSize) throws IOException {
+			this.socket = socket;
+			this.outStream = new BufferedOutputStream(socket.getOutputStream(), chunkSize + 4);
+			this.inStream = new BufferedInputStream(socket.getInputStream(), MAX_REPLY_LEN);
+			this.chunk = new byte[chunkSize];
+		}
+
+		private void close() {
+			try {
+				if (!socket.isClosed()) {
+					outStream.write("zEND\0".getBytes(StandardCharsets.US_ASCII));
+					outStream.flush();
+				}
+			} catch (IOException e) {
+				LOGGER.debug("Exception occurred while ending clamd session = {} ", e.getMessage());
+			} finally {
+				closeSocket(socket);
+			}
+		}
 	}
-}
\ No newline at end of file
+}
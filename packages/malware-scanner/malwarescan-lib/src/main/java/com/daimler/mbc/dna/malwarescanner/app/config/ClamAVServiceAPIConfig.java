@@ -29,6 +29,9 @@ package com.daimler.mbc.dna.malwarescanner.app.config;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 
@@ -37,6 +40,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 @Configuration
 public class ClamAVServiceAPIConfig {
@@ -46,9 +50,23 @@ public class ClamAVServiceAPIConfig {
 	@Autowired
 	private ClamAvAppProperties clamAvAppProperties;
 
-	@Bean
+	@Bean(destroyMethod = "close")
 	public ClamAVClient clamAVClient() {
-		return new ClamAVClient(clamAvAppProperties.getClamAvHost(), clamAvAppProperties.getClamAvPort());
+		return new ClamAVClient(clamAvAppProperties.getClamAvHost(), clamAvAppProperties.getClamAvPort(),
+				clamAvAppProperties.getTimeout(), clamAvAppProperties.getChunkSize(),
+				clamAvAppProperties.getMaxThreads(), clamAvAppProperties.getMaxIdleMillis());
+	}
+
+	/**
+	 * Scans run on as many threads as clamd has MaxThreads, callers run the scan
+	 * themselves once the queue is full.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ThreadPoolExecutor scanExecutor() {
+		int maxThreads = clamAvAppProperties.getMaxThreads();
+		return new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(clamAvAppProperties.getScanQueueCapacity()),
+				new CustomizableThreadFactory("clamav-scan-"), new ThreadPoolExecutor.CallerRunsPolicy());
 	}
 
 	@PostConstruct
@@ -44,5 +44,10 @@ public class ClamAvAppProperties {
 	private String uploadDir;
 	private String clamAvHost;
 	private Integer clamAvPort;
+	private Integer timeout;
+	private Integer chunkSize;
+	private Integer maxThreads;
+	private Long maxIdleMillis;
+	private Integer scanQueueCapacity;
 
 }
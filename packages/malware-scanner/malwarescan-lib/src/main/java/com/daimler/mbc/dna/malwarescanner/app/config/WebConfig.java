@@ -60,6 +60,12 @@ public class WebConfig implements WebMvcConfigurer {
 	@Value("${allowedCorsOriginPatternUrl}")
 	private String corsOriginUrl;
 
+	@Value("${malware.api.security.connectTimeoutMillis}")
+	private int connectTimeoutMillis;
+
+	@Value("${malware.api.security.readTimeoutMillis}")
+	private int readTimeoutMillis;
+
 	@Override
 	public void addCorsMappings(CorsRegistry registry) {
 
@@ -101,6 +107,11 @@ public class WebConfig implements WebMvcConfigurer {
 		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
 
 		requestFactory.setHttpClient(httpClient);
+		// appId/apiKey validation waits on this client, a hanging auth api must fail
+		// the call so that cached results can be served
+		requestFactory.setConnectTimeout(connectTimeoutMillis);
+		requestFactory.setConnectionRequestTimeout(connectTimeoutMillis);
+		requestFactory.setReadTimeout(readTimeoutMillis);
 
 		RestTemplate restTemplate = new RestTemplate(requestFactory);
 		MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
@@ -42,6 +42,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -50,6 +51,8 @@ import com.daimler.mbc.dna.malwarescanner.app.authaspect.MalwareAuthController;
 import com.daimler.mbc.dna.malwarescanner.app.config.ClamAVClient;
 import com.daimler.mbc.dna.malwarescanner.app.config.ClamAvAppProperties;
 import com.daimler.mbc.dna.malwarescanner.dto.FileScanDetailsVO;
+import com.daimler.mbc.dna.malwarescanner.dto.HashCheckRequestVO;
+import com.daimler.mbc.dna.malwarescanner.dto.HashCheckResponseVO;
 import com.daimler.mbc.dna.malwarescanner.dto.UploadScanResponseWrapperVO;
 import com.daimler.mbc.dna.malwarescanner.exceptions.GenericMessage;
 import com.daimler.mbc.dna.malwarescanner.exceptions.MessageDescription;
@@ -68,6 +71,8 @@ public class FileScanController implements ScanApi, MalwareAuthController {
 
 	private static Logger LOGGER = LoggerFactory.getLogger(FileScanController.class);
 
+	private static final int MAX_HASHES_PER_CHECK = 1000;
+
 	@Autowired
 	private ClamAvAppProperties appProperties;
 
@@ -135,4 +140,52 @@ public class FileScanController implements ScanApi, MalwareAuthController {
 		return new ResponseEntity<>(wrapperVO, HttpStatus.OK);
 	}
 
+	@Override
+	@ApiOperation(value = "Uploads multiple files to scan.", nickname = "uploadFiles", notes = "Uploads files for malware scanning, the files are scanned in parallel", response = UploadScanResponseWrapperVO.class, tags = {
+			"scans", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 201, message = "Returns scan details for each file in upload order", response = UploadScanResponseWrapperVO.class),
+			@ApiResponse(code = 400, message = "Bad Request", response = UploadScanResponseWrapperVO.class),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/scan/uploads", method = RequestMethod.POST, consumes = { "multipart/form-data" })
+	public ResponseEntity<UploadScanResponseWrapperVO> uploadFiles(
+			@ApiParam(value = "Request Body that contains the files to be scanned", required = true) @RequestPart("files") List<MultipartFile> files) {
+		UploadScanResponseWrapperVO wrapperVO = new UploadScanResponseWrapperVO();
+		if (files == null || files.isEmpty()) {
+			LOGGER.info("No files selected to scan.");
+			FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
+			fileScanDetailsVO.setErrorMessage("Please select files to scan.");
+			wrapperVO.setFileDetails(Arrays.asList(fileScanDetailsVO));
+			return new ResponseEntity<>(wrapperVO, HttpStatus.BAD_REQUEST);
+		}
+		LOGGER.info("{} files found, proceed to scan.", files.size());
+		List<FileScanDetailsVO> scanResponse = fileScanService.scanFiles(files.toArray(new MultipartFile[0]));
+		wrapperVO.setFileDetails(scanResponse);
+		return new ResponseEntity<>(wrapperVO, HttpStatus.OK);
+	}
+
+	@Override
+	@ApiOperation(value = "Looks up scan verdicts by SHA-256 content hash.", nickname = "checkHashes", notes = "Returns the known verdicts for the given SHA-256 hashes, files with a known verdict do not need to be uploaded for scanning", response = HashCheckResponseVO.class, tags = {
+			"scans", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns verdict for each hash in request order", response = HashCheckResponseVO.class),
+			@ApiResponse(code = 400, message = "Bad Request"),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/scan/hashcheck", method = RequestMethod.POST)
+	public ResponseEntity<HashCheckResponseVO> checkHashes(
+			@ApiParam(value = "Request Body that contains the SHA-256 hashes to look up", required = true) @Valid @RequestBody HashCheckRequestVO hashCheckRequestVO) {
+		List<String> hashes = hashCheckRequestVO.getHashes();
+		if (hashes == null || hashes.isEmpty() || hashes.size() > MAX_HASHES_PER_CHECK) {
+			LOGGER.info("Hash check requested for {} hashes, rejecting.", (hashes != null ? hashes.size() : null));
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		return new ResponseEntity<>(fileScanService.checkHashes(hashes), HttpStatus.OK);
+	}
+
 }
@@ -27,8 +27,17 @@
 
 package com.daimler.mbc.dna.malwarescanner.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FilenameUtils;
@@ -41,7 +50,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.daimler.mbc.dna.malwarescanner.app.config.ClamAVClient;
 import com.daimler.mbc.dna.malwarescanner.dto.FileScanDetailsVO;
+import com.daimler.mbc.dna.malwarescanner.dto.HashCheckResponseVO;
+import com.daimler.mbc.dna.malwarescanner.dto.HashVerdictVO;
 import com.daimler.mbc.dna.malwarescanner.exceptions.ClamAVSizeLimitException;
+import com.daimler.mbc.dna.malwarescanner.service.ScanVerdictCache.ScanVerdict;
 
 @Service
 public class BaseMalwareScanService implements MalwareScanService {
@@ -51,18 +63,57 @@ public class BaseMalwareScanService implements MalwareScanService {
 	@Autowired
 	private ClamAVClient clamAVClient;
 
+	private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-fA-F]{64}");
+
+	@Autowired
+	private ThreadPoolExecutor scanExecutor;
+
+	@Autowired
+	private ScanVerdictCache scanVerdictCache;
+
 	public List<FileScanDetailsVO> scanFiles(MultipartFile[] files) {
 		LOGGER.info("File received = {} ", (files != null ? files.length : null));
-		return Arrays.stream(files).map(multipartFile -> {
-			FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
-			long startTime = System.currentTimeMillis();
-			fileScanDetailsVO.setUploadTime(startTime);
+		if (files.length == 1) {
+			return Arrays.asList(scanFile(files[0]));
+		}
+		List<CompletableFuture<FileScanDetailsVO>> scans = Arrays.stream(files)
+				.map(multipartFile -> CompletableFuture.supplyAsync(() -> scanFile(multipartFile), scanExecutor))
+				.collect(Collectors.toList());
+		return scans.stream().map(CompletableFuture::join).collect(Collectors.toList());
+	}
+
+	private FileScanDetailsVO scanFile(MultipartFile multipartFile) {
+		FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
+		long startTime = System.currentTimeMillis();
+		fileScanDetailsVO.setUploadTime(startTime);
+		if (multipartFile.isEmpty()) {
+			fileScanDetailsVO.setErrorMessage("Please select file to scan.");
+		} else {
 			try {
-				byte[] response = clamAVClient.scan(multipartFile.getInputStream(), fileScanDetailsVO);
-				Boolean status = ClamAVClient.isCleanReply(response);
-				fileScanDetailsVO.setDetected(status != null ? !status : status);
-				LOGGER.info("File Scanned = {} Clam AV Response = {} ", multipartFile.getOriginalFilename(),
-						(status != null ? status : null));
+				String sha256;
+				try (InputStream inputStream = multipartFile.getInputStream()) {
+					sha256 = sha256Hex(inputStream);
+				}
+				fileScanDetailsVO.setSha256(sha256);
+				String signatureVersion = scanVerdictCache.getSignatureVersion();
+				ScanVerdict verdict = scanVerdictCache.get(sha256, signatureVersion);
+				if (verdict != null) {
+					fileScanDetailsVO.setHash(verdict.getHash());
+					fileScanDetailsVO.setDetected(verdict.isDetected());
+					LOGGER.info("File Scanned = {} Clam AV Response = {} from verdict cache",
+							multipartFile.getOriginalFilename(), verdict.getReply());
+				} else {
+					byte[] response;
+					try (InputStream inputStream = multipartFile.getInputStream()) {
+						response = clamAVClient.scan(inputStream, fileScanDetailsVO);
+					}
+					Boolean status = ClamAVClient.isCleanReply(response);
+					fileScanDetailsVO.setDetected(status != null ? !status : status);
+					LOGGER.info("File Scanned = {} Clam AV Response = {} ", multipartFile.getOriginalFilename(),
+							(status != null ? status : null));
+					scanVerdictCache.put(sha256, signatureVersion, new ScanVerdict(!status,
+							fileScanDetailsVO.getHash(), new String(response, StandardCharsets.US_ASCII)));
+				}
 			} catch (ClamAVSizeLimitException exception) {
 				LOGGER.error("ClamAVSizeLimitException occurred while scanning using clam av = {} ",
 						exception.getMessage());
@@ -71,16 +122,46 @@ public class BaseMalwareScanService implements MalwareScanService {
 				LOGGER.error("Exception occurred while scanning using clam av = {} ", e.getMessage());
 				fileScanDetailsVO.setErrorMessage(e.getMessage());
 			}
-			if (fileScanDetailsVO.isDetected() != null && fileScanDetailsVO.isDetected()) {
-				fileScanDetailsVO.setErrorMessage(
-						"Malware detected in the uploaded file " + multipartFile.getOriginalFilename() + ".");
+		}
+		if (fileScanDetailsVO.isDetected() != null && fileScanDetailsVO.isDetected()) {
+			fileScanDetailsVO.setErrorMessage(
+					"Malware detected in the uploaded file " + multipartFile.getOriginalFilename() + ".");
+		}
+		fileScanDetailsVO.setFileName(multipartFile.getOriginalFilename());
+		fileScanDetailsVO.setFileType(FilenameUtils.getExtension(multipartFile.getOriginalFilename()));
+		fileScanDetailsVO.setFileSize(multipartFile.getSize());
+		fileScanDetailsVO.setScanTime(System.currentTimeMillis() - startTime);
+		return fileScanDetailsVO;
+	}
+
+	public HashCheckResponseVO checkHashes(List<String> hashes) {
+		HashCheckResponseVO responseVO = new HashCheckResponseVO();
+		String signatureVersion = scanVerdictCache.getSignatureVersion();
+		responseVO.setSignatureVersion(signatureVersion);
+		responseVO.setVerdicts(hashes.stream().map(sha256 -> {
+			HashVerdictVO hashVerdictVO = new HashVerdictVO();
+			hashVerdictVO.setSha256(sha256);
+			ScanVerdict verdict = sha256 != null && SHA256_PATTERN.matcher(sha256).matches()
+					? scanVerdictCache.get(sha256, signatureVersion)
+					: null;
+			hashVerdictVO.setKnown(verdict != null);
+			if (verdict != null) {
+				hashVerdictVO.setDetected(verdict.isDetected());
+				hashVerdictVO.setHash(verdict.getHash());
 			}
-			fileScanDetailsVO.setFileName(multipartFile.getOriginalFilename());
-			fileScanDetailsVO.setFileType(FilenameUtils.getExtension(multipartFile.getOriginalFilename()));
-			fileScanDetailsVO.setFileSize(multipartFile.getSize());
-			fileScanDetailsVO.setScanTime(System.currentTimeMillis() - startTime);
-			return fileScanDetailsVO;
-		}).collect(Collectors.toList());
+			return hashVerdictVO;
+		}).collect(Collectors.toList()));
+		return responseVO;
+	}
+
+	private static String sha256Hex(InputStream inputStream) throws IOException, NoSuchAlgorithmException {
+		MessageDigest sha256Digest = MessageDigest.getInstance("SHA-256");
+		byte[] buffer = new byte[ClamAVClient.DEFAULT_CHUNK_SIZE];
+		int read;
+		while ((read = inputStream.read(buffer)) >= 0) {
+			sha256Digest.update(buffer, 0, read);
+		}
+		return HexFormat.of().formatHex(sha256Digest.digest());
 	}
 
 }
@@ -32,9 +32,12 @@ import java.util.List;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.daimler.mbc.dna.malwarescanner.dto.FileScanDetailsVO;
+import com.daimler.mbc.dna.malwarescanner.dto.HashCheckResponseVO;
 
 public interface MalwareScanService {
 
 	List<FileScanDetailsVO> scanFiles(MultipartFile[] files);
 
+	HashCheckResponseVO checkHashes(List<String> hashes);
+
 }
@@ -0,0 +1,138 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.mbc.dna.malwarescanner.service;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.daimler.mbc.dna.malwarescanner.app.config.ClamAVClient;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Scan verdicts keyed by SHA-256 of the content and the clamd signature
+ * database version, so that a signature update never serves an old verdict.
+ */
+@Component
+public class ScanVerdictCache {
+
+	private static Logger LOGGER = LoggerFactory.getLogger(ScanVerdictCache.class);
+
+	public static final String SCAN_VERDICTS_CACHE = "scanVerdicts";
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ClamAVClient clamAVClient;
+
+	private volatile String signatureVersion;
+
+	@Scheduled(initialDelay = 0, fixedDelayString = "${clamavservice.versionCheckMillis}")
+	public void refreshSignatureVersion() {
+		try {
+			String version = parseSignatureVersion(clamAVClient.version());
+			if (version != null && !version.equals(signatureVersion)) {
+				if (signatureVersion != null) {
+					LOGGER.info("Clamd signatures updated from {} to {}, clearing scan verdicts", signatureVersion,
+							version);
+					getCache().clear();
+				}
+				signatureVersion = version;
+			}
+		} catch (Exception e) {
+			LOGGER.error("Exception occurred while getting clamd signature version = {} ", e.getMessage());
+		}
+	}
+
+	/**
+	 * @return current signature database version, null until clamd answered the
+	 *         first VERSION command.
+	 */
+	public String getSignatureVersion() {
+		return signatureVersion;
+	}
+
+	public ScanVerdict get(String sha256, String version) {
+		if (!StringUtils.hasText(sha256) || version == null) {
+			return null;
+		}
+		return getCache().get(key(sha256, version), ScanVerdict.class);
+	}
+
+	/**
+	 * @param version signature version read before the scan was started.
+	 */
+	public void put(String sha256, String version, ScanVerdict verdict) {
+		if (StringUtils.hasText(sha256) && version != null) {
+			getCache().put(key(sha256, version), verdict);
+		}
+	}
+
+	private Cache getCache() {
+		return cacheManager.getCache(SCAN_VERDICTS_CACHE);
+	}
+
+	private static String key(String sha256, String version) {
+		return sha256.toLowerCase() + ":" + version;
+	}
+
+	// "ClamAV 0.103.2/26313/Mon Oct 18 09:51:34 2021" -> "26313"
+	private static String parseSignatureVersion(String reply) throws IOException {
+		String[] parts = reply != null ? reply.trim().split("/") : new String[0];
+		if (parts.length < 2) {
+			throw new IOException("Unexpected clamd version reply " + reply);
+		}
+		return parts[1];
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ScanVerdict implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private boolean detected;
+		private String hash;
+		private String reply;
+
+	}
+
+}
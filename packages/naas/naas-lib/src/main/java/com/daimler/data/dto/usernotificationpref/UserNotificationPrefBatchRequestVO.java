@@ -0,0 +1,88 @@
+package com.daimler.data.dto.usernotificationpref;
+
+import java.util.Objects;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.validation.annotation.Validated;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+
+/**
+ * UserNotificationPrefBatchRequestVO
+ */
+@Validated
+
+
+public class UserNotificationPrefBatchRequestVO   {
+  @JsonProperty("userIds")
+  private List<String> userIds = new ArrayList<String>();
+
+  public UserNotificationPrefBatchRequestVO userIds(List<String> userIds) {
+    this.userIds = userIds;
+    return this;
+  }
+
+  public UserNotificationPrefBatchRequestVO addUserIdsItem(String userIdsItem) {
+    this.userIds.add(userIdsItem);
+    return this;
+  }
+
+  /**
+   * shortIds of the users
+   * @return userIds
+  **/
+  @ApiModelProperty(required = true, value = "shortIds of the users")
+  @NotNull
+
+
+  public List<String> getUserIds() {
+    return userIds;
+  }
+
+  public void setUserIds(List<String> userIds) {
+    this.userIds = userIds;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    UserNotificationPrefBatchRequestVO userNotificationPrefBatchRequestVO = (UserNotificationPrefBatchRequestVO) o;
+    return Objects.equals(this.userIds, userNotificationPrefBatchRequestVO.userIds);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(userIds);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class UserNotificationPrefBatchRequestVO {\n");
+    
+    sb.append("    userIds: ").append(toIndentedString(userIds)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
@@ -0,0 +1,92 @@
+package com.daimler.data.dto.usernotificationpref;
+
+import java.util.Objects;
+import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.validation.annotation.Validated;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+
+/**
+ * UserNotificationPrefCollectionVO
+ */
+@Validated
+
+
+public class UserNotificationPrefCollectionVO   {
+  @JsonProperty("records")
+  private List<UserNotificationPrefVO> records = null;
+
+  public UserNotificationPrefCollectionVO records(List<UserNotificationPrefVO> records) {
+    this.records = records;
+    return this;
+  }
+
+  public UserNotificationPrefCollectionVO addRecordsItem(UserNotificationPrefVO recordsItem) {
+    if (this.records == null) {
+      this.records = new ArrayList<UserNotificationPrefVO>();
+    }
+    this.records.add(recordsItem);
+    return this;
+  }
+
+  /**
+   * Get records
+   * @return records
+  **/
+  @ApiModelProperty(value = "")
+
+  @Valid
+
+  public List<UserNotificationPrefVO> getRecords() {
+    return records;
+  }
+
+  public void setRecords(List<UserNotificationPrefVO> records) {
+    this.records = records;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    UserNotificationPrefCollectionVO userNotificationPrefCollectionVO = (UserNotificationPrefCollectionVO) o;
+    return Objects.equals(this.records, userNotificationPrefCollectionVO.records);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(records);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class UserNotificationPrefCollectionVO {\n");
+    
+    sb.append("    records: ").append(toIndentedString(records)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
@@ -0,0 +1,86 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.dna.notifications.common.db.repo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.daimler.dna.notifications.common.db.entities.MailPushException;
+import com.daimler.dna.notifications.common.db.entities.MailPushExceptionNsql;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Repository
+@Slf4j
+public class MailPushExceptionRepoImpl implements MailPushExceptionRepo {
+
+	@PersistenceContext
+	protected EntityManager em;
+
+	@Override
+	@Transactional
+	public void create(MailPushExceptionNsql entity) {
+		em.persist(entity);
+	}
+
+	@Override
+	@Transactional
+	@SuppressWarnings("unchecked")
+	public List<MailPushException> claimForReplay(int limit, int maxReplays) {
+		// rows stay locked until removed at commit, so parallel replays of other
+		// instances skip them instead of sending the same mails again
+		List<MailPushExceptionNsql> claimed = em.createNativeQuery("SELECT * FROM mailpushexception_nsql"
+				+ " WHERE data IS NOT NULL AND coalesce(cast(data->>'retryCount' as integer), 0) < :maxReplays"
+				+ " LIMIT :limit FOR UPDATE SKIP LOCKED", MailPushExceptionNsql.class)
+				.setParameter("maxReplays", maxReplays).setParameter("limit", limit).getResultList();
+		List<MailPushException> mails = new ArrayList<>();
+		for (MailPushExceptionNsql entity : claimed) {
+			mails.add(entity.getData());
+			em.remove(entity);
+		}
+		log.debug("Claimed {} stored mails for replay", mails.size());
+		return mails;
+	}
+
+	@Override
+	@Transactional
+	public void logPushException(MailPushException mailException) {
+		MailPushExceptionNsql entity = new MailPushExceptionNsql();
+		entity.setData(mailException);
+		log.info("New mail exception added to table for eventRecord {} with {} recipients", mailException.getEventId(),
+				mailException.getRecipients() != null ? mailException.getRecipients().size() : 0);
+		this.create(entity);
+	}
+
+}
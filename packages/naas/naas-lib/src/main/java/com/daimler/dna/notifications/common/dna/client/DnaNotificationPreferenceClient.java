@@ -1,9 +1,17 @@
 package com.daimler.dna.notifications.common.dna.client;
 
+import java.util.List;
+import java.util.Map;
+
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
 
 public interface DnaNotificationPreferenceClient {
 
 	UserNotificationPrefVO getUserNotificationPreferences(String userId);
+
+	/**
+	 * @return preferences by userId as returned by dna, users missing on failure
+	 */
+	Map<String, UserNotificationPrefVO> getUserNotificationPreferences(List<String> userIds);
 	
 }
@@ -1,5 +1,9 @@
 package com.daimler.dna.notifications.common.dna.client;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -9,6 +13,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import com.daimler.data.dto.usernotificationpref.UserNotificationPrefBatchRequestVO;
+import com.daimler.data.dto.usernotificationpref.UserNotificationPrefCollectionVO;
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
 
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +28,12 @@ public class DnaNotificationPreferenceClientImpl implements DnaNotificationPrefe
 
 	@Value("${dna.user.notificationPreferences.get.api}")
 	private String notificationPreferencesApiUri;
+
+	@Value("${dna.user.notificationPreferences.batch.api}")
+	private String notificationPreferencesBatchApiUri;
+
+	// dna accepts at most 1000 users per batch
+	private static final int MAX_USERS_PER_BATCH = 1000;
 	
 	//@Value("${dna.token}")
 	//private String authToken;
@@ -51,5 +63,36 @@ public class DnaNotificationPreferenceClientImpl implements DnaNotificationPrefe
 		}
 		return res;
 	}
+
+	@Override
+	public Map<String, UserNotificationPrefVO> getUserNotificationPreferences(List<String> userIds) {
+		Map<String, UserNotificationPrefVO> res = new HashMap<>();
+		for (int from = 0; from < userIds.size(); from += MAX_USERS_PER_BATCH) {
+			List<String> batch = userIds.subList(from, Math.min(userIds.size(), from + MAX_USERS_PER_BATCH));
+			try {
+				HttpHeaders headers = new HttpHeaders();
+				headers.set("Accept", "application/json");
+				headers.set("Content-Type", "application/json");
+
+				String batchUserNotificationPrefUri = dnaBaseUri + notificationPreferencesBatchApiUri;
+				HttpEntity<UserNotificationPrefBatchRequestVO> entity = new HttpEntity<>(
+						new UserNotificationPrefBatchRequestVO().userIds(batch), headers);
+				ResponseEntity<UserNotificationPrefCollectionVO> response = restTemplate.exchange(
+						batchUserNotificationPrefUri, HttpMethod.POST, entity, UserNotificationPrefCollectionVO.class);
+				if (response != null && response.hasBody() && response.getBody().getRecords() != null) {
+					log.info("Success from dna getUserNotificationPreferences for {} users", batch.size());
+					for (UserNotificationPrefVO preferenceVO : response.getBody().getRecords()) {
+						if (preferenceVO != null && preferenceVO.getUserId() != null) {
+							res.put(preferenceVO.getUserId(), preferenceVO);
+						}
+					}
+				}
+			} catch (Exception e) {
+				log.error("Error occured while calling dna getUserNotificationPreferences for {} users {}",
+						batch.size(), e.getMessage());
+			}
+		}
+		return res;
+	}
 	
 }
@@ -29,10 +29,11 @@ package com.daimler.dna.notifications.common.event.config;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
@@ -51,8 +52,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
-import com.daimler.dna.notifications.common.dna.client.DnaNotificationPreferenceClient;
 import com.daimler.dna.notifications.common.util.CacheUtil;
+import com.daimler.dna.notifications.common.util.NotificationPreferenceCache;
+import com.daimler.dna.notifications.common.util.NotificationSnapshot;
 import com.daimler.dna.notifications.dto.NotificationVO;
 import com.mbc.dna.notifications.mailer.JMailer;
 
@@ -86,14 +88,19 @@ public class CacheUpdateEventListener {
 	private CacheUtil cacheUtil;
 	
 	@Autowired
-	private DnaNotificationPreferenceClient userNotificationPreferencesClient;
+	private NotificationPreferenceCache notificationPreferenceCache;
 	
 	@Autowired
 	private JMailer mailer;
 
+	@Autowired
+	private NotificationSnapshot notificationSnapshot;
+
 	@PostConstruct
 	public void init() {
 
+		notificationSnapshot.load();
+
 		LOG.info("started updating cache from " + centralTopic);
 		populateDataOnCache(centralTopic, false, false);
 		LOG.info("Successfully updated data on cache from " + centralTopic);
@@ -107,14 +114,14 @@ public class CacheUpdateEventListener {
 		LOG.info("Successfully updated data on cache from " + deleteTopicName);
 
 		LOG.info("Cache Update Successfull...");
+		notificationSnapshot.markReady();
 
 	}
 
 	private void populateDataOnCache(String topicName, boolean readTopic, boolean deleteTopic) {
 		Properties props = new Properties();
 		props.setProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapAddress);
-		props.setProperty(ConsumerConfig.GROUP_ID_CONFIG, "test");
-		// props.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		props.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 		props.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
 		// props.setProperty(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, "1000");
 		props.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecors);
@@ -123,18 +130,26 @@ public class CacheUpdateEventListener {
 		props.setProperty(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
 				"com.daimler.dna.notifications.common.event.config.GenericEventRecordDeserializer");
 		KafkaConsumer<String, GenericEventRecord> consumer = new KafkaConsumer<>(props);
-		consumer.subscribe(Arrays.asList(topicName));
-		LOG.info("partitions :: {}", consumer.partitionsFor(topicName));
-		while (true) {
-			ConsumerRecords<String, GenericEventRecord> records = consumer
-					.poll(Duration.ofMillis(Integer.parseInt(pollingTime)));
-			if (!consumer.assignment().isEmpty()) {
-				consumer.seekToBeginning(consumer.assignment());
-				break;
+		List<PartitionInfo> partitionInfos = consumer.partitionsFor(topicName);
+		LOG.info("partitions :: {}", partitionInfos);
+		List<TopicPartition> partitions = partitionInfos == null ? new ArrayList<>()
+				: partitionInfos.stream().map(info -> new TopicPartition(info.topic(), info.partition()))
+						.collect(Collectors.toList());
+		consumer.assign(partitions);
+		// resume from the snapshot where possible, replay everything else
+		List<TopicPartition> fromBeginning = new ArrayList<>();
+		for (TopicPartition partition : partitions) {
+			Long offset = notificationSnapshot.getOffset(partition.topic(), partition.partition());
+			if (offset != null) {
+				consumer.seek(partition, offset);
+			} else {
+				fromBeginning.add(partition);
 			}
 		}
-		int i = 10;
-		while (i >= 0) {
+		consumer.seekToBeginning(fromBeginning);
+		// replay up to the end offsets as of now, later records are consumed by the listeners
+		Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+		while (!isCaughtUp(consumer, endOffsets)) {
 			ConsumerRecords<String, GenericEventRecord> records = consumer
 					.poll(Duration.ofMillis(Integer.parseInt(pollingTime)));
 			LOG.info("Total record ::{}", records.count());
@@ -143,14 +158,11 @@ public class CacheUpdateEventListener {
 					if (record.value() != null && !readTopic && !deleteTopic) {
 						List<String> users = record.value().getSubscribedUsers();
 						List<String> usersEmails = record.value().getSubscribedUsersEmail();
+						Map<String, UserNotificationPrefVO> preferences = notificationPreferenceCache.getAll(users);
 						int userListPivot = 0;
 						for (String user : users) {
 							if (StringUtils.hasText(user) && user != "null") {
-								if (cacheUtil.getCache(user) == null) {
-									LOG.info("Creating cache for user {}", user);
-									cacheUtil.createCache(user);
-								}
-								UserNotificationPrefVO preferenceVO = userNotificationPreferencesClient.getUserNotificationPreferences(user);
+								UserNotificationPrefVO preferenceVO = preferences.get(user);
 								boolean appNotificationPreferenceFlag = true;
 								boolean emailNotificationPreferenceFlag = false;
 								if(record.value().getEventType().contains("Solution")) {
@@ -172,7 +184,7 @@ public class CacheUpdateEventListener {
 								vo.setChangeLogs(record.value().getChangeLogs());
 								GenericEventRecord message = record.value();
 								if(appNotificationPreferenceFlag) {
-									cacheUtil.addEntry(user, vo);
+									cacheUtil.addEntryIfAbsent(user, vo);
 									LOG.info("New message with details- user {}, eventType {}, uuid {} added to user notifications", user,
 											message.getEventType(), message.getUuid());
 								}else {
@@ -198,10 +210,6 @@ public class CacheUpdateEventListener {
 						}
 					} else if (record.value() != null && readTopic && !deleteTopic) {
 						String user = record.value().getPublishingUser();
-						if (cacheUtil.getCache(user) == null) {
-							LOG.info("Creating cache for user {}", user);
-							cacheUtil.createCache(user);
-						}
 						NotificationVO vo = new NotificationVO();
 						vo.setDateTime(record.value().getTime());
 						vo.setEventType(record.value().getEventType());
@@ -215,18 +223,23 @@ public class CacheUpdateEventListener {
 					} else if (record.value() != null && !readTopic && deleteTopic) {
 
 						String user = record.value().getPublishingUser();
-						if (cacheUtil.getCache(user) == null) {
-							LOG.info("Creating cache for user {}", user);
-							cacheUtil.createCache(user);
-						}
 						cacheUtil.deleteEntry(user, record.value().getUuid());
 					}
+					notificationSnapshot.recordOffset(record.topic(), record.partition(), record.offset());
 				}
-				consumer.commitSync();
 			}
-			i--;
 		}
 
 		consumer.close();
 	}
+
+	private boolean isCaughtUp(KafkaConsumer<String, GenericEventRecord> consumer,
+			Map<TopicPartition, Long> endOffsets) {
+		for (Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+			if (consumer.position(endOffset.getKey()) < endOffset.getValue()) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
@@ -48,6 +48,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Scope;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
@@ -61,6 +62,7 @@ import com.daimler.dna.notifications.common.user.UserStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Configuration
+@EnableScheduling
 public class EventsWebConfig implements WebMvcConfigurer {
 
 	@Value("${allowedCorsOriginPatternUrl}")
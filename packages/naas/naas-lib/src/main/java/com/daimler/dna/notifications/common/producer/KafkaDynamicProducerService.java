@@ -50,8 +50,12 @@ public class KafkaDynamicProducerService {
 	@Autowired
 	private EventPushExceptionRepo eventRepo;
 
+	/**
+	 * @return result of the send, failures are already logged and stored
+	 */
 	@Transactional
-	public void sendMessage(String topicName, GenericEventRecord record) {
+	public ListenableFuture<SendResult<String, GenericEventRecord>> sendMessage(String topicName,
+			GenericEventRecord record) {
 		String publishingAppName = record != null ? record.getPublishingAppName() : null;
 		String eventType = record != null ? record.getEventType() : null;
 		String publishingUser = record != null ? record.getPublishingUser() : null;
@@ -71,6 +75,7 @@ public class KafkaDynamicProducerService {
 						ex.getMessage(), topicName, publishingAppName, eventType, publishingUser);
 			}
 		});
+		return future;
 	}
 
 }
@@ -27,39 +27,24 @@
 
 package com.daimler.dna.notifications.common.util;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
-import org.springframework.beans.BeanUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.daimler.dna.notifications.common.event.config.GenericEventRecord;
 import com.daimler.dna.notifications.common.producer.KafkaDynamicProducerService;
+import com.daimler.dna.notifications.common.util.NotificationStore.NotificationPage;
 import com.daimler.dna.notifications.dto.NotificationVO;
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.Element;
-import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.Searchable;
-import net.sf.ehcache.search.Attribute;
-import net.sf.ehcache.search.Query;
-import net.sf.ehcache.search.Results;
-import net.sf.ehcache.search.attribute.DynamicAttributesExtractor;
-import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 
 @Component
 public class CacheUtil {
 
+	private static final Logger LOG = LoggerFactory.getLogger(CacheUtil.class);
+
 	@Value(value = "${kafka.centralReadTopic.name}")
 	private String readTopicName;
 
@@ -67,87 +52,33 @@ public class CacheUtil {
 	private String deleteTopicName;
 
 	@Autowired
-	private CacheManager cacheManager;
+	private NotificationStore notificationStore;
 
 	@Autowired
 	private KafkaDynamicProducerService dynamicProducer;
 
-	public void createCache(String cacheName) {
-		final String attrNames[] = { "isRead" };
-		Searchable search = new Searchable();
-		search.allowDynamicIndexing(true);
-		CacheConfiguration cacheConfiguration = new CacheConfiguration(cacheName, 2000);
-		cacheConfiguration.addSearchable(search);
-		Ehcache testCache = new Cache(
-				cacheConfiguration.memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LFU).eternal(true));
-
-		testCache.registerDynamicAttributesExtractor(new DynamicAttributesExtractor() {
-			public Map<String, Object> attributesFor(Element element) {
-				Map<String, Object> attrs = new HashMap<String, Object>();
-				NotificationVO value = (NotificationVO) element.getObjectValue();
-				// For example, extract first name only
-				attrs.put(attrNames[0], value.getIsRead());
-				return attrs;
-			}
-		});
-		cacheManager.addCache(testCache);
-	}
+	@Autowired
+	private NotificationSnapshot notificationSnapshot;
 
-	public Ehcache getCache(String cacheName) {
-		return this.cacheManager.getEhcache(cacheName);
+	public void addEntry(String userId, NotificationVO record) {
+		notificationStore.put(userId, record);
 	}
 
-	public void addEntry(String cacheName, NotificationVO record) {
-		this.getCache(cacheName).put(new Element(record.getId(), record));
+	public void addEntryIfAbsent(String userId, NotificationVO record) {
+		notificationStore.putIfAbsent(userId, record);
 	}
 
-	public void deleteEntry(String cacheName, String id) {
-		this.getCache(cacheName).remove(id);
+	public void deleteEntry(String userId, String id) {
+		notificationStore.remove(userId, id);
 	}
 
-	public List<NotificationVO> getNotificationVO(String userId, String eventType, String readType, String searchTerm,
+	public NotificationPage getNotifications(String userId, String eventType, String readType, String searchTerm,
 			Integer offset, Integer limit) {
-		Attribute<String> isRead = this.getCache(userId).getSearchAttribute("isRead");
-		Query query = null;
-		if ("READ".equalsIgnoreCase(readType)) {
-			query = this.getCache(userId).createQuery().addCriteria(isRead.eq("true")).includeKeys().includeValues()
-					.end();
-		} else if ("UNREAD".equalsIgnoreCase(readType)) {
-			query = this.getCache(userId).createQuery().addCriteria(isRead.eq("false")).includeKeys().includeValues()
-					.end();
-		} else {
-			List<String> values = new ArrayList<String>();
-			values.add("true");
-			values.add("false");
-			query = this.getCache(userId).createQuery().addCriteria(isRead.in(values)).includeKeys().includeValues()
-					.end();
-		}
-
-		Results results = query.execute();
-		List<NotificationVO> list = results.all().stream().map(n -> {
-			NotificationVO l = new NotificationVO();
-			BeanUtils.copyProperties(n.getValue(), l);
-			return l;
-		}).collect(Collectors.toList());
-
-		/*
-		 * DateTimeFormatter formatter =
-		 * DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-		 * Comparator<NotificationVO> compareByDateTime = (NotificationVO r1,
-		 * NotificationVO r2) -> LocalDateTime.parse(r2.getDateTime(),
-		 * formatter).compareTo(LocalDateTime.parse(r1.getDateTime(), formatter));
-		 * Collections.sort(list, compareByDateTime); //applying limit and offset
-		 * if(limit==0 || (offset + limit)>=list.size()) limit = list.size(); else limit
-		 * = offset + limit; if(results!=null && !list.isEmpty()) list =
-		 * list.subList(offset, limit);
-		 */
-
-		return list;
+		return notificationStore.getPage(userId, eventType, readType, searchTerm, offset, limit);
 	}
 
-	@SuppressWarnings("deprecation")
-	public void markMessages(String type, String cacheName, List<String> messageIds) {
-		String topicName = cacheName;
+	public void markMessages(String type, String userId, List<String> messageIds) {
+		String topicName = userId;
 		String isRead = "";
 		boolean deleteRecord = false;
 		if ("READ".equalsIgnoreCase(type)) {
@@ -159,16 +90,16 @@ public class CacheUtil {
 			deleteRecord = true;
 		}
 		for (String id : messageIds) {
-			Ehcache cache = this.getCache(cacheName);
-			NotificationVO vo = new NotificationVO();
-			Element element = this.getCache(cacheName).get(id);
-			BeanUtils.copyProperties(element.getObjectValue(), vo);
+			NotificationVO vo = notificationStore.get(userId, id);
+			if (vo == null) {
+				LOG.info("Skipped marking message {} of user {} as {}, message not found", id, userId, type);
+				continue;
+			}
 			vo.setIsRead(isRead);
 			if (deleteRecord) {
-				cache.remove(vo.getId());
+				notificationStore.remove(userId, vo.getId());
 			} else {
-				Element element1 = new Element(vo.getId(), vo);
-				cache.put(element1);
+				notificationStore.put(userId, vo);
 			}
 			GenericEventRecord markedMessage = new GenericEventRecord();
 			markedMessage.setUuid(vo.getId());
@@ -178,9 +109,12 @@ public class CacheUtil {
 			markedMessage.setEventType(vo.getEventType());
 			markedMessage.setChangeLogs(vo.getChangeLogs());
 			markedMessage.setTime(vo.getDateTime());
-			markedMessage.setPublishingUser(cacheName);
+			markedMessage.setPublishingUser(userId);
 			markedMessage.setPublishingAppName("DNA");
-			dynamicProducer.sendMessage(topicName, markedMessage);
+			// the mark is applied to the store already, so the snapshot can skip its record
+			dynamicProducer.sendMessage(topicName, markedMessage).completable()
+					.thenAccept(result -> notificationSnapshot.recordOffset(result.getRecordMetadata().topic(),
+							result.getRecordMetadata().partition(), result.getRecordMetadata().offset()));
 		}
 
 	}
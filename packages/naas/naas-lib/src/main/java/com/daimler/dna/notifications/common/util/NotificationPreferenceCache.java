@@ -0,0 +1,186 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.dna.notifications.common.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.daimler.data.dto.usernotificationpref.NotificationPreferenceVO;
+import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
+import com.daimler.dna.notifications.common.dna.client.DnaNotificationPreferenceClient;
+
+/**
+ * Notification preferences of users, so that fanning out an event costs at most
+ * one batch call to dna for the users not cached yet. Entries expire after the
+ * configured ttl and are dropped right away when dna publishes a change.
+ * Above maxEntries the oldest entries are evicted first.
+ */
+@Component
+public class NotificationPreferenceCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NotificationPreferenceCache.class);
+
+	/** Event type dna publishes on the central topic when a user saved preferences */
+	public static final String PREFERENCES_CHANGED_EVENT = "Notification Preferences Updated";
+
+	@Value("${notifications.preferences.cacheTtlMillis}")
+	private long ttlMillis;
+
+	@Value("${notifications.preferences.cacheMaxEntries}")
+	private int maxEntries;
+
+	@Autowired
+	private DnaNotificationPreferenceClient userNotificationPreferencesClient;
+
+	private final Map<String, CachedPreference> preferences = new ConcurrentHashMap<>();
+
+	// entries in insertion order, which is expiry order as all share the same ttl
+	private final ConcurrentLinkedQueue<CachedPreference> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * @return preferences by userId for all given users, defaults for users dna
+	 *         could not be asked for
+	 */
+	public Map<String, UserNotificationPrefVO> getAll(List<String> userIds) {
+		Map<String, UserNotificationPrefVO> result = new HashMap<>();
+		List<String> missing = new ArrayList<>();
+		long now = System.currentTimeMillis();
+		for (String userId : userIds) {
+			if (!StringUtils.hasText(userId) || result.containsKey(userId)) {
+				continue;
+			}
+			CachedPreference cached = preferences.get(key(userId));
+			if (cached != null && cached.expiresAt > now) {
+				result.put(userId, cached.preference);
+			} else if (!missing.contains(userId)) {
+				missing.add(userId);
+			}
+		}
+		if (!missing.isEmpty()) {
+			Map<String, UserNotificationPrefVO> fetched = new HashMap<>();
+			userNotificationPreferencesClient.getUserNotificationPreferences(missing)
+					.forEach((userId, preference) -> fetched.put(key(userId), preference));
+			long fetchedAt = System.currentTimeMillis();
+			for (String userId : missing) {
+				UserNotificationPrefVO preference = fetched.get(key(userId));
+				if (isComplete(preference)) {
+					CachedPreference cached = new CachedPreference(key(userId), preference, fetchedAt + ttlMillis);
+					preferences.put(cached.key, cached);
+					insertionOrder.add(cached);
+					result.put(userId, preference);
+				} else {
+					// not cached, asked again with the next event
+					LOG.warn("No notification preferences received for user {}, using defaults", userId);
+					result.put(userId, defaultPreference(userId));
+				}
+			}
+			evictExpiredAndOldest(fetchedAt);
+		}
+		return result;
+	}
+
+	public void invalidate(String userId) {
+		if (StringUtils.hasText(userId)) {
+			preferences.remove(key(userId));
+			LOG.debug("Invalidated cached notification preferences of user {}", userId);
+		}
+	}
+
+	/**
+	 * To drop entries from the head of the insertion order while they are
+	 * expired, invalidated or replaced, or the cache is above maxEntries. Stops
+	 * at the first live entry within the limit.
+	 */
+	private void evictExpiredAndOldest(long now) {
+		CachedPreference oldest;
+		while ((oldest = insertionOrder.peek()) != null) {
+			boolean removed = preferences.get(oldest.key) != oldest;
+			if (!removed && now < oldest.expiresAt && preferences.size() <= maxEntries) {
+				return;
+			}
+			if (insertionOrder.remove(oldest)) {
+				preferences.remove(oldest.key, oldest);
+			}
+		}
+	}
+
+	private static String key(String userId) {
+		return userId.toLowerCase(Locale.ROOT);
+	}
+
+	private static boolean isComplete(UserNotificationPrefVO preference) {
+		return preference != null && preference.getSolutionNotificationPref() != null
+				&& preference.getNotebookNotificationPref() != null;
+	}
+
+	/**
+	 * Same defaults dna assigns to users without stored preferences.
+	 */
+	private static UserNotificationPrefVO defaultPreference(String userId) {
+		UserNotificationPrefVO preference = new UserNotificationPrefVO();
+		preference.setUserId(userId);
+		preference.setSolutionNotificationPref(defaultNotificationPreference());
+		preference.setNotebookNotificationPref(defaultNotificationPreference());
+		return preference;
+	}
+
+	private static NotificationPreferenceVO defaultNotificationPreference() {
+		NotificationPreferenceVO notificationPreference = new NotificationPreferenceVO();
+		notificationPreference.setEnableAppNotifications(true);
+		notificationPreference.setEnableEmailNotifications(false);
+		return notificationPreference;
+	}
+
+	private static class CachedPreference {
+
+		private final String key;
+
+		private final UserNotificationPrefVO preference;
+
+		private final long expiresAt;
+
+		CachedPreference(String key, UserNotificationPrefVO preference, long expiresAt) {
+			this.key = key;
+			this.preference = preference;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+}
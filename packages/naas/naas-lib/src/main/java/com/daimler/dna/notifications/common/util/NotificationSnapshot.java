@@ -0,0 +1,266 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.dna.notifications.common.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.daimler.data.dto.solution.ChangeLogVO;
+import com.daimler.dna.notifications.dto.NotificationVO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Periodically written local snapshot of the notification store together with
+ * the kafka offsets it reflects, so that startup only replays the topics from
+ * these offsets on.
+ * <p>
+ * Offsets are taken before the store is written and are only advanced after a
+ * record was applied to the store, so the snapshot never misses a record before
+ * its offsets. Records after them may be contained already, replaying those is
+ * harmless.
+ */
+@Component
+public class NotificationSnapshot {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NotificationSnapshot.class);
+
+	// "NAAS"
+	private static final int MAGIC = 0x4E414153;
+	private static final int VERSION = 1;
+
+	@Value("${notifications.snapshot.path}")
+	private String snapshotPath;
+
+	@Autowired
+	private NotificationStore notificationStore;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	// next offset to replay per partition
+	private final Map<TopicPartition, Long> offsets = new ConcurrentHashMap<>();
+
+	private volatile boolean ready;
+
+	private volatile long writtenVersion = -1;
+
+	/**
+	 * To be called once the record at the given offset is applied to the store.
+	 */
+	public void recordOffset(String topic, int partition, long offset) {
+		offsets.merge(new TopicPartition(topic, partition), offset + 1, Math::max);
+	}
+
+	/**
+	 * @return next offset to replay, null if the partition is not in the snapshot
+	 */
+	public Long getOffset(String topic, int partition) {
+		return offsets.get(new TopicPartition(topic, partition));
+	}
+
+	/**
+	 * Snapshots are only written once the startup replay completed.
+	 */
+	public void markReady() {
+		ready = true;
+	}
+
+	/**
+	 * Restores the store and offsets from the snapshot file. A missing, outdated or
+	 * unreadable snapshot is ignored, the topics are then replayed from the
+	 * beginning.
+	 */
+	public void load() {
+		if (!StringUtils.hasText(snapshotPath) || !Files.exists(Paths.get(snapshotPath))) {
+			LOG.info("No notification snapshot found at {}", snapshotPath);
+			return;
+		}
+		Map<TopicPartition, Long> loadedOffsets = new HashMap<>();
+		Map<String, List<NotificationVO>> loadedUsers = new HashMap<>();
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(Files.newInputStream(Paths.get(snapshotPath)))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				LOG.info("Ignoring notification snapshot {} written in another format", snapshotPath);
+				return;
+			}
+			int offsetCount = in.readInt();
+			for (int i = 0; i < offsetCount; i++) {
+				loadedOffsets.put(new TopicPartition(readString(in), in.readInt()), in.readLong());
+			}
+			String userId;
+			while ((userId = readString(in)) != null) {
+				int count = in.readInt();
+				List<NotificationVO> notifications = new ArrayList<>(count);
+				for (int j = 0; j < count; j++) {
+					notifications.add(readNotification(in));
+				}
+				loadedUsers.put(userId, notifications);
+			}
+		} catch (IOException | RuntimeException e) {
+			LOG.error("Failed to read notification snapshot {}, replaying topics from beginning. Reason {}",
+					snapshotPath, e.getMessage());
+			return;
+		}
+		loadedUsers.forEach((userId, notifications) -> notifications.forEach(vo -> notificationStore.put(userId, vo)));
+		offsets.putAll(loadedOffsets);
+		writtenVersion = notificationStore.getVersion();
+		LOG.info("Loaded notification snapshot of {} users at offsets {}", loadedUsers.size(), loadedOffsets);
+	}
+
+	@Scheduled(initialDelayString = "${notifications.snapshot.intervalMillis}", fixedDelayString = "${notifications.snapshot.intervalMillis}")
+	public void write() {
+		if (!ready || !StringUtils.hasText(snapshotPath)) {
+			return;
+		}
+		long version = notificationStore.getVersion();
+		if (version == writtenVersion) {
+			return;
+		}
+		Map<TopicPartition, Long> snapshotOffsets = new HashMap<>(offsets);
+		Path target = Paths.get(snapshotPath);
+		Path tmp = Paths.get(snapshotPath + ".tmp");
+		try {
+			if (target.getParent() != null) {
+				Files.createDirectories(target.getParent());
+			}
+			int[] userCount = new int[1];
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(snapshotOffsets.size());
+				for (Map.Entry<TopicPartition, Long> entry : snapshotOffsets.entrySet()) {
+					writeString(out, entry.getKey().topic());
+					out.writeInt(entry.getKey().partition());
+					out.writeLong(entry.getValue());
+				}
+				// user count is not known upfront, users are terminated by a null user id
+				notificationStore.forEachUser((userId, notifications) -> {
+					try {
+						writeString(out, userId);
+						out.writeInt(notifications.size());
+						for (NotificationVO vo : notifications) {
+							writeNotification(out, vo);
+						}
+						userCount[0]++;
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				writeString(out, null);
+			}
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			writtenVersion = version;
+			LOG.info("Written notification snapshot of {} users at offsets {}", userCount[0], snapshotOffsets);
+		} catch (IOException | UncheckedIOException e) {
+			LOG.error("Failed to write notification snapshot {}. Reason {}", snapshotPath, e.getMessage());
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		write();
+	}
+
+	private void writeNotification(DataOutputStream out, NotificationVO vo) throws IOException {
+		writeString(out, vo.getId());
+		writeString(out, vo.getEventType());
+		writeString(out, vo.getResourceId());
+		writeString(out, vo.getMessageDetails());
+		writeString(out, vo.getMessage());
+		out.writeBoolean(Boolean.parseBoolean(vo.getIsRead()));
+		writeString(out, vo.getDateTime());
+		// change logs are rare and nested, kept as json
+		writeString(out, vo.getChangeLogs() != null ? objectMapper.writeValueAsString(vo.getChangeLogs()) : null);
+	}
+
+	private NotificationVO readNotification(DataInputStream in) throws IOException {
+		NotificationVO vo = new NotificationVO();
+		vo.setId(readString(in));
+		vo.setEventType(readString(in));
+		vo.setResourceId(readString(in));
+		vo.setMessageDetails(readString(in));
+		vo.setMessage(readString(in));
+		vo.setIsRead(String.valueOf(in.readBoolean()));
+		vo.setDateTime(readString(in));
+		String changeLogs = readString(in);
+		if (changeLogs != null) {
+			vo.setChangeLogs(objectMapper.readValue(changeLogs, new TypeReference<List<ChangeLogVO>>() {
+			}));
+		}
+		return vo;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,573 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.dna.notifications.common.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.daimler.dna.notifications.dto.NotificationVO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Notifications of every user ordered by publishing time, newest first. Each
+ * user has a time index plus read/unread and eventType indexes, so a page is
+ * read by walking the smallest matching index from the newest entry instead of
+ * copying and sorting all notifications of the user.
+ * <p>
+ * Memory is bounded per user and globally. Notifications older than the
+ * retention are dropped, and over the per user limit or the global budget the
+ * oldest notifications are evicted, read ones before unread ones.
+ */
+@Component
+public class NotificationStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NotificationStore.class);
+
+	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
+	// notification object, its keys and index nodes, excluding the field values
+	private static final long ENTRY_OVERHEAD_BYTES = 480;
+	private static final long STRING_OVERHEAD_BYTES = 40;
+	private static final long CHANGE_LOG_BYTES = 200;
+
+	@Value("${notifications.store.maxPerUser}")
+	private int maxPerUser;
+
+	@Value("${notifications.store.maxMegabytes}")
+	private long maxMegabytes;
+
+	@Value("${notifications.store.retentionDays}")
+	private int retentionDays;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Map<String, UserNotifications> users = new ConcurrentHashMap<>();
+
+	// oldest first over all users, changed while holding the lock of the user
+	private final ConcurrentSkipListSet<AgeKey> readByAge = new ConcurrentSkipListSet<>();
+	private final ConcurrentSkipListSet<AgeKey> unreadByAge = new ConcurrentSkipListSet<>();
+
+	// few distinct event types, shared by all notifications
+	private final Map<String, String> eventTypes = new ConcurrentHashMap<>();
+
+	private final AtomicLong estimatedBytes = new AtomicLong();
+
+	private final AtomicLong version = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		Gauge.builder("naas.notifications.store.bytes", estimatedBytes, AtomicLong::get)
+				.description("Estimated heap used by stored notifications").register(meterRegistry);
+		Gauge.builder("naas.notifications.store.users", users, Map::size).register(meterRegistry);
+		Gauge.builder("naas.notifications.store.entries", this, store -> store.readByAge.size() + store.unreadByAge.size())
+				.register(meterRegistry);
+	}
+
+	public void put(String userId, NotificationVO vo) {
+		Long time = toEpochMillis(vo.getDateTime());
+		if (time == null) {
+			// kept as received now instead of being dropped as older than the retention
+			LocalDateTime receivedAt = LocalDateTime.now();
+			LOG.warn("Invalid dateTime {} of notification {} for user {}, using receive time instead",
+					vo.getDateTime(), vo.getId(), userId);
+			vo.setDateTime(receivedAt.format(DATE_TIME_FORMATTER));
+			time = receivedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+		}
+		if (time < retentionCutoff()) {
+			return;
+		}
+		if (vo.getEventType() != null) {
+			vo.setEventType(eventTypes.computeIfAbsent(vo.getEventType(), k -> k));
+		}
+		vo.setIsRead(Boolean.parseBoolean(vo.getIsRead()) ? "true" : "false");
+		boolean stored = false;
+		while (!stored) {
+			UserNotifications notifications = users.computeIfAbsent(userId, k -> new UserNotifications());
+			synchronized (notifications) {
+				// users are removed once their last notification is gone, retry with a new one
+				if (users.get(userId) != notifications) {
+					continue;
+				}
+				removeEntry(userId, notifications, vo.getId());
+				notifications.put(vo, time);
+				(Boolean.parseBoolean(vo.getIsRead()) ? readByAge : unreadByAge)
+						.add(new AgeKey(time, userId, vo.getId()));
+				estimatedBytes.addAndGet(estimateBytes(vo));
+				while (notifications.size() > maxPerUser) {
+					// oldest read notification first, unread ones only when none is read
+					EntryKey oldest = !notifications.read.isEmpty() ? notifications.read.lastKey()
+							: notifications.byTime.lastKey();
+					removeEntry(userId, notifications, oldest.id);
+				}
+				stored = true;
+			}
+		}
+		version.incrementAndGet();
+		// other users are locked one at a time, never while holding this user
+		evictOverBudget();
+	}
+
+	/**
+	 * Adds the notification unless one with the same id exists, so replaying an
+	 * event keeps the read state of the stored notification.
+	 */
+	public void putIfAbsent(String userId, NotificationVO vo) {
+		UserNotifications notifications = users.get(userId);
+		if (notifications != null) {
+			synchronized (notifications) {
+				if (notifications.byId.containsKey(vo.getId())) {
+					return;
+				}
+			}
+		}
+		put(userId, vo);
+	}
+
+	/**
+	 * @return copy of the notification, null if not found
+	 */
+	public NotificationVO get(String userId, String id) {
+		UserNotifications notifications = users.get(userId);
+		NotificationVO vo = null;
+		if (notifications != null) {
+			synchronized (notifications) {
+				EntryKey key = notifications.byId.get(id);
+				vo = key != null ? notifications.byTime.get(key) : null;
+			}
+		}
+		return vo != null ? copy(vo) : null;
+	}
+
+	public void remove(String userId, String id) {
+		UserNotifications notifications = users.get(userId);
+		if (notifications != null) {
+			synchronized (notifications) {
+				removeEntry(userId, notifications, id);
+				removeIfEmpty(userId, notifications);
+			}
+			version.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Drops notifications older than the retention.
+	 */
+	@Scheduled(fixedDelayString = "${notifications.store.purgeIntervalMillis}")
+	public void purgeExpired() {
+		long cutoff = retentionCutoff();
+		int purged = evictWhile(readByAge, oldest -> oldest.time < cutoff)
+				+ evictWhile(unreadByAge, oldest -> oldest.time < cutoff);
+		if (purged > 0) {
+			LOG.info("Purged {} notifications older than {} days", purged, retentionDays);
+		}
+	}
+
+	/**
+	 * @return estimated heap used by the stored notifications
+	 */
+	public long getEstimatedBytes() {
+		return estimatedBytes.get();
+	}
+
+	private void evictOverBudget() {
+		long maxBytes = maxMegabytes * 1024 * 1024;
+		if (estimatedBytes.get() <= maxBytes) {
+			return;
+		}
+		int evicted = evictWhile(readByAge, oldest -> estimatedBytes.get() > maxBytes)
+				+ evictWhile(unreadByAge, oldest -> estimatedBytes.get() > maxBytes);
+		if (evicted > 0) {
+			LOG.info("Evicted {} oldest notifications to stay within {} MB", evicted, maxMegabytes);
+		}
+	}
+
+	private int evictWhile(ConcurrentSkipListSet<AgeKey> byAge, Predicate<AgeKey> condition) {
+		int evicted = 0;
+		AgeKey oldest;
+		while ((oldest = first(byAge)) != null && condition.test(oldest)) {
+			UserNotifications notifications = users.get(oldest.userId);
+			if (notifications == null) {
+				byAge.remove(oldest);
+				continue;
+			}
+			synchronized (notifications) {
+				// the entry may have been changed since it was looked up
+				EntryKey key = notifications.byId.get(oldest.id);
+				if (key != null && key.time == oldest.time && byAge.contains(oldest)) {
+					removeEntry(oldest.userId, notifications, oldest.id);
+					removeIfEmpty(oldest.userId, notifications);
+					evicted++;
+				} else {
+					byAge.remove(oldest);
+				}
+			}
+		}
+		if (evicted > 0) {
+			version.incrementAndGet();
+		}
+		return evicted;
+	}
+
+	private void removeEntry(String userId, UserNotifications notifications, String id) {
+		EntryKey key = notifications.byId.get(id);
+		if (key == null) {
+			return;
+		}
+		NotificationVO vo = notifications.remove(id);
+		AgeKey ageKey = new AgeKey(key.time, userId, id);
+		readByAge.remove(ageKey);
+		unreadByAge.remove(ageKey);
+		estimatedBytes.addAndGet(-estimateBytes(vo));
+	}
+
+	/*
+	 * Called while holding the lock of the user, put checks the user is still
+	 * mapped under that lock
+	 */
+	private void removeIfEmpty(String userId, UserNotifications notifications) {
+		if (notifications.size() == 0) {
+			users.remove(userId, notifications);
+		}
+	}
+
+	private long retentionCutoff() {
+		return retentionDays > 0
+				? LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli() - TimeUnit.DAYS.toMillis(retentionDays)
+				: Long.MIN_VALUE;
+	}
+
+	private static AgeKey first(ConcurrentSkipListSet<AgeKey> byAge) {
+		// first() throws when the set was emptied concurrently
+		return byAge.ceiling(AgeKey.MIN);
+	}
+
+	private static long estimateBytes(NotificationVO vo) {
+		long bytes = ENTRY_OVERHEAD_BYTES + estimateBytes(vo.getId()) + estimateBytes(vo.getResourceId())
+				+ estimateBytes(vo.getMessageDetails()) + estimateBytes(vo.getMessage())
+				+ estimateBytes(vo.getDateTime());
+		return vo.getChangeLogs() != null ? bytes + vo.getChangeLogs().size() * CHANGE_LOG_BYTES : bytes;
+	}
+
+	private static long estimateBytes(String value) {
+		return value != null ? STRING_OVERHEAD_BYTES + value.length() : 0;
+	}
+
+	/**
+	 * Calls the consumer with the notifications of each user, latest first. The
+	 * lists are taken per user, so concurrent changes of other users may or may
+	 * not be seen.
+	 */
+	public void forEachUser(BiConsumer<String, List<NotificationVO>> consumer) {
+		for (Map.Entry<String, UserNotifications> entry : users.entrySet()) {
+			List<NotificationVO> values;
+			synchronized (entry.getValue()) {
+				values = new ArrayList<>(entry.getValue().byTime.values());
+			}
+			if (!values.isEmpty()) {
+				consumer.accept(entry.getKey(), values);
+			}
+		}
+	}
+
+	/**
+	 * @return counter increased by every change
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * @param eventType  optional eventType filter, case insensitive
+	 * @param readType   optional READ or UNREAD filter
+	 * @param searchTerm optional filter on the message, case insensitive
+	 * @param limit      zero for all matching notifications
+	 */
+	public NotificationPage getPage(String userId, String eventType, String readType, String searchTerm,
+			int offset, int limit) {
+		UserNotifications notifications = users.get(userId);
+		if (notifications == null) {
+			return new NotificationPage(new ArrayList<>(), new ArrayList<>(), 0);
+		}
+		Boolean read = "READ".equalsIgnoreCase(readType) ? Boolean.TRUE
+				: "UNREAD".equalsIgnoreCase(readType) ? Boolean.FALSE : null;
+		String type = StringUtils.hasText(eventType) ? eventType.toLowerCase() : null;
+		String term = StringUtils.hasText(searchTerm) ? searchTerm.toLowerCase() : null;
+
+		// walk the smallest index, the remaining filter is applied while walking
+		NavigableMap<EntryKey, NotificationVO> index;
+		int total;
+		List<String> categories;
+		synchronized (notifications) {
+			EventTypeIndex typeIndex = type != null ? notifications.byEventType.get(type) : null;
+			if (type != null) {
+				index = typeIndex != null ? typeIndex.entries : Collections.emptyNavigableMap();
+				total = typeIndex == null ? 0
+						: read == null ? typeIndex.entries.size()
+								: read ? typeIndex.entries.size() - typeIndex.unreadCount : typeIndex.unreadCount;
+			} else if (read != null) {
+				index = read ? notifications.read : notifications.unread;
+				total = index.size();
+			} else {
+				index = notifications.byTime;
+				total = index.size();
+			}
+			categories = notifications.byEventType.values().stream()
+					.filter(t -> !t.eventType.isEmpty())
+					.filter(t -> read == null ? !t.entries.isEmpty()
+							: read ? t.entries.size() > t.unreadCount : t.unreadCount > 0)
+					.map(t -> t.eventType).sorted().collect(Collectors.toList());
+		}
+
+		boolean filterRead = type != null && read != null;
+		List<NotificationVO> records = new ArrayList<>();
+		int matched = 0;
+		for (NotificationVO vo : index.values()) {
+			if ((filterRead && read != Boolean.parseBoolean(vo.getIsRead()))
+					|| (term != null && (vo.getMessage() == null || !vo.getMessage().toLowerCase().contains(term)))) {
+				continue;
+			}
+			if (matched >= offset && (limit == 0 || records.size() < limit)) {
+				records.add(copy(vo));
+			} else if (matched >= offset && term == null) {
+				break;
+			}
+			matched++;
+		}
+		// with a search term the total is only known after the full walk
+		return new NotificationPage(records, categories, term != null ? matched : total);
+	}
+
+	private static NotificationVO copy(NotificationVO vo) {
+		NotificationVO copy = new NotificationVO();
+		BeanUtils.copyProperties(vo, copy);
+		return copy;
+	}
+
+	/**
+	 * @return null when dateTime is missing or not in the expected format
+	 */
+	private static Long toEpochMillis(String dateTime) {
+		if (dateTime == null) {
+			return null;
+		}
+		try {
+			return LocalDateTime.parse(dateTime, DATE_TIME_FORMATTER).toInstant(ZoneOffset.UTC).toEpochMilli();
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	public static class NotificationPage {
+
+		private final List<NotificationVO> records;
+		private final List<String> categories;
+		private final int totalCount;
+
+		public NotificationPage(List<NotificationVO> records, List<String> categories, int totalCount) {
+			this.records = records;
+			this.categories = categories;
+			this.totalCount = totalCount;
+		}
+
+		public List<NotificationVO> getRecords() {
+			return records;
+		}
+
+		public List<String> getCategories() {
+			return categories;
+		}
+
+		public int getTotalCount() {
+			return totalCount;
+		}
+	}
+
+	/*
+	 * Orders oldest first over all users
+	 */
+	private static final class AgeKey implements Comparable<AgeKey> {
+
+		private static final AgeKey MIN = new AgeKey(Long.MIN_VALUE, "", "");
+
+		private final long time;
+		private final String userId;
+		private final String id;
+
+		private AgeKey(long time, String userId, String id) {
+			this.time = time;
+			this.userId = userId;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(AgeKey other) {
+			int result = Long.compare(time, other.time);
+			if (result == 0) {
+				result = userId.compareTo(other.userId);
+			}
+			return result != 0 ? result : id.compareTo(other.id);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof AgeKey && compareTo((AgeKey) obj) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return (Long.hashCode(time) * 31 + userId.hashCode()) * 31 + id.hashCode();
+		}
+	}
+
+	/*
+	 * Orders newest first, id keeps notifications published in the same second
+	 * apart
+	 */
+	private static final class EntryKey implements Comparable<EntryKey> {
+
+		private final long time;
+		private final String id;
+
+		private EntryKey(long time, String id) {
+			this.time = time;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(EntryKey other) {
+			int result = Long.compare(other.time, time);
+			return result != 0 ? result : id.compareTo(other.id);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof EntryKey && compareTo((EntryKey) obj) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(time) * 31 + id.hashCode();
+		}
+	}
+
+	private static final class EventTypeIndex {
+
+		private final String eventType;
+		private final ConcurrentSkipListMap<EntryKey, NotificationVO> entries = new ConcurrentSkipListMap<>();
+		private int unreadCount;
+
+		private EventTypeIndex(String eventType) {
+			this.eventType = eventType;
+		}
+	}
+
+	/*
+	 * Indexes are written while holding the lock on the instance, pages are read
+	 * from the skip lists without it
+	 */
+	private static final class UserNotifications {
+
+		private final ConcurrentSkipListMap<EntryKey, NotificationVO> byTime = new ConcurrentSkipListMap<>();
+		private final ConcurrentSkipListMap<EntryKey, NotificationVO> read = new ConcurrentSkipListMap<>();
+		private final ConcurrentSkipListMap<EntryKey, NotificationVO> unread = new ConcurrentSkipListMap<>();
+		private final Map<String, EventTypeIndex> byEventType = new HashMap<>();
+		private final Map<String, EntryKey> byId = new HashMap<>();
+
+		private int size() {
+			return byId.size();
+		}
+
+		private void put(NotificationVO vo, long time) {
+			EntryKey key = new EntryKey(time, vo.getId());
+			byId.put(vo.getId(), key);
+			byTime.put(key, vo);
+			boolean isRead = Boolean.parseBoolean(vo.getIsRead());
+			(isRead ? read : unread).put(key, vo);
+			String eventType = vo.getEventType() != null ? vo.getEventType() : "";
+			EventTypeIndex typeIndex = byEventType.computeIfAbsent(eventType.toLowerCase(),
+					k -> new EventTypeIndex(eventType));
+			typeIndex.entries.put(key, vo);
+			if (!isRead) {
+				typeIndex.unreadCount++;
+			}
+		}
+
+		private NotificationVO remove(String id) {
+			EntryKey key = byId.remove(id);
+			if (key == null) {
+				return null;
+			}
+			NotificationVO vo = byTime.remove(key);
+			read.remove(key);
+			boolean wasUnread = unread.remove(key) != null;
+			String eventType = vo.getEventType() != null ? vo.getEventType().toLowerCase() : "";
+			EventTypeIndex typeIndex = byEventType.get(eventType);
+			if (typeIndex != null) {
+				typeIndex.entries.remove(key);
+				if (wasUnread) {
+					typeIndex.unreadCount--;
+				}
+				if (typeIndex.entries.isEmpty()) {
+					byEventType.remove(eventType);
+				}
+			}
+			return vo;
+		}
+	}
+
+}
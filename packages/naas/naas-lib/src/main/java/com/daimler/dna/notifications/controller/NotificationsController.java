@@ -28,11 +28,7 @@
 package com.daimler.dna.notifications.controller;
 
 import java.text.SimpleDateFormat;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -112,20 +108,8 @@ public class NotificationsController implements NotificationsApi {
 				limit = 0;
 			NotificationCollectionVO collectResult = notificationService.getAll(userId, eventCategory, readType,
 					searchTerm, offset, limit);
+			// records are already filtered, sorted latest first and paged by the store
 			List<NotificationVO> list = collectResult.getRecords();
-			DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-			Comparator<NotificationVO> compareByDateTime = (NotificationVO r1, NotificationVO r2) -> LocalDateTime
-					.parse(r2.getDateTime(), formatter).compareTo(LocalDateTime.parse(r1.getDateTime(), formatter));
-			Collections.sort(list, compareByDateTime);
-			// applying limit and offset
-
-			if (limit == 0 || (offset + limit) >= list.size())
-				limit = list.size();
-			else
-				limit = offset + limit;
-			if (list != null && !list.isEmpty())
-				list = list.subList(offset, limit);
-			LOG.debug("Applied limit and offset {} {} ", limit, offset);
 			List<NotificationVO> unreadlist = list.stream().filter(n -> n.getIsRead().equalsIgnoreCase("false"))
 					.collect(Collectors.toList());
 			List<NotificationVO> readlist = list.stream().filter(n -> n.getIsRead().equalsIgnoreCase("true"))
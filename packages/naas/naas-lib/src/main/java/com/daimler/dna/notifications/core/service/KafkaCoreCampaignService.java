@@ -34,6 +34,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -41,6 +42,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
@@ -48,10 +51,11 @@ import org.springframework.util.StringUtils;
 import com.daimler.data.dto.solution.ChangeLogVO;
 import com.daimler.data.dto.usernotificationpref.UserNotificationPrefVO;
 import com.daimler.dna.notifications.common.consumer.KafkaDynamicConsumerService;
-import com.daimler.dna.notifications.common.dna.client.DnaNotificationPreferenceClient;
 import com.daimler.dna.notifications.common.event.config.GenericEventRecord;
 import com.daimler.dna.notifications.common.producer.KafkaDynamicProducerService;
 import com.daimler.dna.notifications.common.util.CacheUtil;
+import com.daimler.dna.notifications.common.util.NotificationPreferenceCache;
+import com.daimler.dna.notifications.common.util.NotificationSnapshot;
 import com.daimler.dna.notifications.dto.NotificationVO;
 import com.mbc.dna.notifications.mailer.JMailer;
 
@@ -70,11 +74,14 @@ public class KafkaCoreCampaignService {
 	private CacheUtil cacheUtil;
 	
 	@Autowired
-	private DnaNotificationPreferenceClient userNotificationPreferencesClient;
+	private NotificationPreferenceCache notificationPreferenceCache;
 	
 	@Autowired
 	private JMailer mailer;
 
+	@Autowired
+	private NotificationSnapshot notificationSnapshot;
+
 	@Value("${kafka.centralTopic.name}")
 	private String dnaCentralTopicName;
 	
@@ -89,18 +96,26 @@ public class KafkaCoreCampaignService {
 	 */
 
 	@KafkaListener(topics = "dnaCentralEventTopic")
-	public void centralTopicListnerToPublishToUsers(GenericEventRecord message) {
-		if (message != null) {
+	public void centralTopicListnerToPublishToUsers(GenericEventRecord message,
+			@Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+			@Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition, @Header(KafkaHeaders.OFFSET) long offset) {
+		if (message != null && NotificationPreferenceCache.PREFERENCES_CHANGED_EVENT.equals(message.getEventType())) {
+			notificationPreferenceCache.invalidate(message.getPublishingUser());
+		} else if (message != null) {
 			List<String> users = message.getSubscribedUsers();
 			List<String> usersEmails = message.getSubscribedUsersEmail();
+			Map<String, UserNotificationPrefVO> preferences = notificationPreferenceCache.getAll(users);
+			List<String> emailRecipients = new ArrayList<>();
+			String emailBody = "<br/>"+ message.getMessage() + "<br/>";
+			if(!ObjectUtils.isEmpty(message.getChangeLogs())) {
+				for (ChangeLogVO changeLog : message.getChangeLogs()) {
+					emailBody += "<br/>" + "\u2022" + " " + changeLog.getChangeDescription() + "<br/>";
+				}
+			}
 			int userListPivot = 0;
 			for (String user : users) {
 				if (StringUtils.hasText(user) && user != "null") {
-					if (cacheUtil.getCache(user) == null) {
-						LOGGER.info("Creating cache for user " + user);
-						cacheUtil.createCache(user);
-					}
-					UserNotificationPrefVO preferenceVO = userNotificationPreferencesClient.getUserNotificationPreferences(user);
+					UserNotificationPrefVO preferenceVO = preferences.get(user);
 					boolean appNotificationPreferenceFlag = true;
 					boolean emailNotificationPreferenceFlag = false;
 					if(message.getEventType().contains("Solution")) {
@@ -120,14 +135,8 @@ public class KafkaCoreCampaignService {
 					vo.setMessageDetails(message.getMessageDetails());
 					vo.setIsRead("false");
 					vo.setMessage(message.getMessage());
-					String emailBody = "<br/>"+ message.getMessage() + "<br/>";
-					if(!ObjectUtils.isEmpty(message.getChangeLogs())) {
-						for (ChangeLogVO changeLog : message.getChangeLogs()) {
-							emailBody += "<br/>" + "\u2022" + " " + changeLog.getChangeDescription() + "<br/>";
-						}
-					}
 					if(appNotificationPreferenceFlag) {
-						cacheUtil.addEntry(user, vo);
+						cacheUtil.addEntryIfAbsent(user, vo);
 						LOGGER.info("New message with details- user {}, eventType {}, uuid {} added to user notifications", user,
 								message.getEventType(), message.getUuid());
 					}else {
@@ -137,9 +146,8 @@ public class KafkaCoreCampaignService {
 					if(emailNotificationPreferenceFlag) {
 						String userEmail = usersEmails.get(userListPivot);
 						if(userEmail!= null && !"".equalsIgnoreCase(userEmail)) {
-							String emailSubject = message.getEventType()+" Email Notification";
-							mailer.sendSimpleMail(message.getUuid(),userEmail, emailSubject , emailBody);
-							LOGGER.info("Sent email as per user preference, Details: user {}, eventType {}, uuid {}", user,
+							emailRecipients.add(userEmail);
+							LOGGER.info("Queued email as per user preference, Details: user {}, eventType {}, uuid {}", user,
 									message.getEventType(), message.getUuid());
 						}else {
 							LOGGER.info("Skipped sending email even after user preference is enabled. Cause is email id not found for the user. Details: user {}, eventType {}, uuid {}", user,
@@ -153,7 +161,13 @@ public class KafkaCoreCampaignService {
 				userListPivot++;
 				// dynamicProducer.sendMessage(user, message);
 			}
+			if (!emailRecipients.isEmpty()) {
+				// one mail for all recipients of the event, sent asynchronously by the mailer
+				String emailSubject = message.getEventType()+" Email Notification";
+				mailer.sendSimpleMail(message.getUuid(), emailRecipients, emailSubject, emailBody);
+			}
 		}
+		notificationSnapshot.recordOffset(topic, partition, offset);
 	}
 
 	public void publishMessageTocentralTopic(GenericEventRecord request) {
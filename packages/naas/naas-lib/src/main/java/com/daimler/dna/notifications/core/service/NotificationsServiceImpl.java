@@ -29,7 +29,6 @@ package com.daimler.dna.notifications.core.service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +37,7 @@ import org.springframework.stereotype.Service;
 
 import com.daimler.dna.notifications.common.event.config.GenericEventRecord;
 import com.daimler.dna.notifications.common.util.CacheUtil;
+import com.daimler.dna.notifications.common.util.NotificationStore.NotificationPage;
 import com.daimler.dna.notifications.dto.NotificationCollectionVO;
 import com.daimler.dna.notifications.dto.NotificationVO;
 
@@ -69,19 +69,19 @@ public class NotificationsServiceImpl implements NotificationsService {
 		NotificationCollectionVO collectionVO = new NotificationCollectionVO();
 		List<String> eventTypes = new ArrayList<String>();
 		List<NotificationVO> notifications = new ArrayList<NotificationVO>();
+		int totalRecordCount = 0;
 		try {
-			notifications = cacheUtil.getNotificationVO(userId, eventType, readType, searchTerm, offset, limit);
+			NotificationPage page = cacheUtil.getNotifications(userId, eventType, readType, searchTerm, offset,
+					limit);
+			notifications = page.getRecords();
+			eventTypes = page.getCategories();
+			totalRecordCount = page.getTotalCount();
 		} catch (Exception e) {
 			LOG.error("unable to fetch message. reason::{} caused by::{}", e.getMessage(), e.getCause());
 		}
-
-		if (notifications != null && !notifications.isEmpty()) {
-			eventTypes = notifications.stream().map(n -> n.getEventType()).collect(Collectors.toList());
-			eventTypes = eventTypes.stream().distinct().collect(Collectors.toList());
-		}
 		collectionVO.setCategories(eventTypes);
 		collectionVO.setRecords(notifications);
-		collectionVO.setTotalRecordCount(notifications.size());
+		collectionVO.setTotalRecordCount(totalRecordCount);
 		return collectionVO;
 	}
 
@@ -27,27 +27,85 @@
 
 package com.mbc.dna.notifications.mailer;
 
-import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.Address;
+import javax.mail.Message;
 import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
+import com.daimler.dna.notifications.common.db.entities.MailPushException;
+import com.daimler.dna.notifications.common.db.repo.MailPushExceptionRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Mails are queued and sent by a pool of workers, so that kafka consumption
+ * never waits for the mail server. Each worker keeps its smtp connection open
+ * while it has mails to send. Failed mails are retried with backoff and then
+ * stored in mailpushexception_nsql, from where they are replayed periodically.
+ */
 @Component
 @Slf4j
 public class BaseJMailer implements JMailer {
+
+	private static final int REPLAY_BATCH_SIZE = 500;
 	
 	@Value("${dna.notification.senderEmail}")
 	private String senderEmailId;
+
+	@Value("${dna.notification.mail.workers}")
+	private int workers;
+
+	@Value("${dna.notification.mail.queueCapacity}")
+	private int queueCapacity;
+
+	@Value("${dna.notification.mail.maxRecipientsPerMail}")
+	private int maxRecipientsPerMail;
+
+	@Value("${dna.notification.mail.maxAttempts}")
+	private int maxAttempts;
+
+	@Value("${dna.notification.mail.retryBackoffMillis}")
+	private long retryBackoffMillis;
+
+	@Value("${dna.notification.mail.transportIdleMillis}")
+	private long transportIdleMillis;
+
+	@Value("${dna.notification.mail.maxReplays}")
+	private int maxReplays;
 	
 	public BaseJMailer() {
 		super();
@@ -56,35 +114,310 @@ public class BaseJMailer implements JMailer {
 	@Autowired
 	private JavaMailSender javaMailSender;
 
+	@Autowired
+	private MailPushExceptionRepo mailExceptionRepo;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private BlockingQueue<MailJob> queue;
+
+	// jobs waiting for their retry, persisted on shutdown
+	private final Set<MailJob> pendingRetries = ConcurrentHashMap.newKeySet();
+
+	private final List<Thread> workerThreads = new ArrayList<>();
+
+	private ScheduledExecutorService retryScheduler;
+
+	private volatile boolean running;
+
+	private Timer sendTimer;
+
+	private Counter sentCounter;
+
+	private Counter failedCounter;
+
+	@PostConstruct
+	public void init() {
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		Gauge.builder("naas.mail.queue.depth", queue, BlockingQueue::size)
+				.description("Mails waiting to be sent").register(meterRegistry);
+		Gauge.builder("naas.mail.retry.pending", pendingRetries, Set::size)
+				.description("Mails waiting for their retry").register(meterRegistry);
+		sendTimer = Timer.builder("naas.mail.send.latency").description("Time to send one mail to the mail server")
+				.register(meterRegistry);
+		sentCounter = Counter.builder("naas.mail.sent").register(meterRegistry);
+		failedCounter = Counter.builder("naas.mail.failed").description("Mails stored for replay")
+				.register(meterRegistry);
+		retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("naas-mail-retry-"));
+		running = true;
+		CustomizableThreadFactory workerFactory = new CustomizableThreadFactory("naas-mailer-");
+		workerFactory.setDaemon(true);
+		for (int i = 0; i < workers; i++) {
+			Thread worker = workerFactory.newThread(this::work);
+			workerThreads.add(worker);
+			worker.start();
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		running = false;
+		workerThreads.forEach(Thread::interrupt);
+		for (Thread worker : workerThreads) {
+			try {
+				worker.join(TimeUnit.SECONDS.toMillis(10));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		retryScheduler.shutdownNow();
+		// keep unsent mails for the next start
+		List<MailJob> unsent = new ArrayList<>(pendingRetries);
+		queue.drainTo(unsent);
+		for (MailJob job : unsent) {
+			storeFailure(job, "Not sent before shutdown");
+		}
+	}
+
 	@Override
 	public void sendSimpleMail(String eventId, String to, String subject, String msgTxt) {
-                
-        MimeMessage message = javaMailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message);
-        try {
-	        	
-	        helper.setSubject("This is an HTML email");
-	        helper.setFrom(senderEmailId);
-	        helper.setTo(to);
-	        helper.setSubject(subject);
-	         
-	        boolean html = true;
-	        helper.setText("<p>Hi</p>"
-	        		+ "<br/>Message Details: <br/>"
-	        		+ msgTxt
-	        		+ "<p> You received this auto generated email from DNA as per preferences set. For more details check application. </p>", html);
-	         
-	        javaMailSender.send(message);
-	        log.info("Mail sent successfully for eventRecord {} , please check notification by this id for more details", eventId);
-	        
-        }catch(Exception e){
-        	log.info("Failed in sending eMail for eventRecord {} with exception {} , please check notification by this id for more details", eventId, e.getMessage());
-        }
-        log.info("Mail sent successfully for eventRecord {} , please check notification by this id for more details", eventId);
-    }
+		sendSimpleMail(eventId, Collections.singletonList(to), subject, msgTxt);
+	}
+
+	@Override
+	public void sendSimpleMail(String eventId, List<String> recipients, String subject, String msgTxt) {
+		// a malformed address would fail all recipients sharing its mail
+		List<String> to = recipients.stream().filter(recipient -> isValidAddress(eventId, recipient))
+				.collect(Collectors.toList());
+		for (int from = 0; from < to.size(); from += maxRecipientsPerMail) {
+			List<String> recipients = new ArrayList<>(to.subList(from, Math.min(to.size(), from + maxRecipientsPerMail)));
+			enqueue(new MailJob(eventId, recipients, subject, msgTxt, 0, 0));
+		}
+	}
+
+	/**
+	 * Queues stored mails again, mails that failed after too many replays stay in
+	 * the table for inspection. Stored mails are claimed with SKIP LOCKED, so
+	 * replicas replaying at the same time never pick up the same mail.
+	 */
+	@Scheduled(initialDelayString = "${dna.notification.mail.replayIntervalMillis}", fixedDelayString = "${dna.notification.mail.replayIntervalMillis}")
+	public void replayFailedMails() {
+		int batchSize;
+		List<MailPushException> claimed;
+		do {
+			// only claim what fits the queue, claimed mails are no longer stored
+			batchSize = Math.min(REPLAY_BATCH_SIZE, queue.remainingCapacity());
+			if (batchSize == 0) {
+				log.info("Mail queue full, stopped replaying failed mails");
+				return;
+			}
+			claimed = mailExceptionRepo.claimForReplay(batchSize, maxReplays);
+			for (MailPushException failed : claimed) {
+				enqueue(new MailJob(failed.getEventId(), failed.getRecipients(), failed.getSubject(),
+						failed.getMsgTxt(), 0, failed.getRetryCount() + 1));
+				log.info("Replaying failed mail for eventRecord {}", failed.getEventId());
+			}
+		} while (claimed.size() == batchSize);
+	}
 
 	@Override
 	public void sendMailWithAttachments(String to, String subject, String msgTxt, String attachmentsPath) {
 
 	}
+
+	private void enqueue(MailJob job) {
+		if (!queue.offer(job)) {
+			log.error("Mail queue full, storing mail for eventRecord {} for replay", job.eventId);
+			storeFailure(job, "Mail queue full");
+		}
+	}
+
+	private void work() {
+		Transport transport = null;
+		while (running) {
+			MailJob job;
+			try {
+				job = queue.poll(transportIdleMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				break;
+			}
+			if (job == null) {
+				transport = close(transport);
+				continue;
+			}
+			long start = System.nanoTime();
+			try {
+				MimeMessage message = createMessage(job);
+				if (javaMailSender instanceof JavaMailSenderImpl) {
+					transport = connected(transport);
+					transport.sendMessage(message, envelopeRecipients(message));
+				} else {
+					javaMailSender.send(message);
+				}
+				sentCounter.increment();
+				log.info("Mail sent successfully for eventRecord {} , please check notification by this id for more details", job.eventId);
+			} catch (SendFailedException e) {
+				transport = close(transport);
+				retryUnsent(job, e);
+			} catch (Exception e) {
+				// connection state is unknown after a failure
+				transport = close(transport);
+				retryOrStore(job, e);
+			} finally {
+				sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+		close(transport);
+	}
+
+	/*
+	 * Without sendpartial one invalid address fails the whole mail. Invalid
+	 * addresses are dropped, so they do not keep the other recipients of the
+	 * mail from getting it, only the valid unsent ones are retried.
+	 */
+	private static boolean isValidAddress(String eventId, String address) {
+		try {
+			new InternetAddress(address, true).validate();
+			return true;
+		} catch (AddressException | NullPointerException e) {
+			log.error("Dropping invalid recipient {} of mail for eventRecord {}", address, eventId);
+			return false;
+		}
+	}
+
+	private void retryUnsent(MailJob job, SendFailedException e) {
+		Address[] invalid = e.getInvalidAddresses();
+		Address[] validUnsent = e.getValidUnsentAddresses();
+		if (ObjectUtils.isEmpty(invalid) && ObjectUtils.isEmpty(validUnsent)) {
+			retryOrStore(job, e);
+			return;
+		}
+		if (!ObjectUtils.isEmpty(invalid)) {
+			log.error("Dropping invalid recipients {} of mail for eventRecord {}", Arrays.toString(invalid), job.eventId);
+		}
+		if (!ObjectUtils.isEmpty(validUnsent)) {
+			List<String> recipients = Arrays.stream(validUnsent).map(Address::toString).collect(Collectors.toList());
+			retryOrStore(job.withRecipients(recipients), e);
+		}
+	}
+
+	private MimeMessage createMessage(MailJob job) throws MessagingException {
+		MimeMessage message = javaMailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message);
+		helper.setFrom(senderEmailId);
+		if (job.recipients.size() == 1) {
+			helper.setTo(job.recipients.get(0));
+		} else {
+			// recipients of the same event must not see each other
+			helper.setTo(senderEmailId);
+			helper.setBcc(job.recipients.toArray(new String[0]));
+		}
+		helper.setSubject(job.subject);
+		boolean html = true;
+		helper.setText("<p>Hi</p>"
+				+ "<br/>Message Details: <br/>"
+				+ job.msgTxt
+				+ "<p> You received this auto generated email from DNA as per preferences set. For more details check application. </p>", html);
+		message.saveChanges();
+		return message;
+	}
+
+	/*
+	 * The sender is only the visible To of mails with bcc recipients, it must
+	 * not get a copy of each of them
+	 */
+	private static Address[] envelopeRecipients(MimeMessage message) throws MessagingException {
+		Address[] bcc = message.getRecipients(Message.RecipientType.BCC);
+		return bcc != null ? bcc : message.getAllRecipients();
+	}
+
+	private Transport connected(Transport transport) throws MessagingException {
+		if (transport != null && transport.isConnected()) {
+			return transport;
+		}
+		JavaMailSenderImpl mailSender = (JavaMailSenderImpl) javaMailSender;
+		String protocol = StringUtils.hasText(mailSender.getProtocol()) ? mailSender.getProtocol() : "smtp";
+		Transport newTransport = mailSender.getSession().getTransport(protocol);
+		String username = StringUtils.hasLength(mailSender.getUsername()) ? mailSender.getUsername() : null;
+		String password = username != null ? mailSender.getPassword() : null;
+		newTransport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+		return newTransport;
+	}
+
+	private Transport close(Transport transport) {
+		if (transport != null) {
+			try {
+				transport.close();
+			} catch (MessagingException e) {
+				log.debug("Failed to close mail transport {}", e.getMessage());
+			}
+		}
+		return null;
+	}
+
+	private void retryOrStore(MailJob job, Exception e) {
+		if (job.attempt + 1 >= maxAttempts || !running) {
+			log.error("Failed in sending eMail for eventRecord {} with exception {} , storing it for replay", job.eventId, e.getMessage());
+			storeFailure(job, e.getMessage());
+			return;
+		}
+		MailJob retry = job.nextAttempt();
+		long backoff = retryBackoffMillis << Math.min(job.attempt, 10);
+		log.info("Failed in sending eMail for eventRecord {} with exception {} , retrying in {} ms", job.eventId, e.getMessage(), backoff);
+		pendingRetries.add(retry);
+		try {
+			retryScheduler.schedule(() -> {
+				if (pendingRetries.remove(retry)) {
+					enqueue(retry);
+				}
+			}, backoff, TimeUnit.MILLISECONDS);
+		} catch (Exception rejected) {
+			if (pendingRetries.remove(retry)) {
+				storeFailure(retry, e.getMessage());
+			}
+		}
+	}
+
+	private void storeFailure(MailJob job, String reason) {
+		failedCounter.increment();
+		try {
+			mailExceptionRepo.logPushException(new MailPushException(job.eventId, job.recipients, job.subject, job.msgTxt,
+					reason, job.replays, System.currentTimeMillis()));
+		} catch (Exception e) {
+			log.error("Failed to store mail for eventRecord {} for replay, mail is lost. Reason {}", job.eventId, e.getMessage());
+		}
+	}
+
+	private static class MailJob {
+
+		private final String eventId;
+
+		private final List<String> recipients;
+
+		private final String subject;
+
+		private final String msgTxt;
+
+		private final int attempt;
+
+		private final int replays;
+
+		MailJob(String eventId, List<String> recipients, String subject, String msgTxt, int attempt, int replays) {
+			this.eventId = eventId;
+			this.recipients = recipients;
+			this.subject = subject;
+			this.msgTxt = msgTxt;
+			this.attempt = attempt;
+			this.replays = replays;
+		}
+
+		MailJob nextAttempt() {
+			return new MailJob(eventId, recipients, subject, msgTxt, attempt + 1, replays);
+		}
+
+		MailJob withRecipients(List<String> unsentRecipients) {
+			return new MailJob(eventId, unsentRecipients, subject, msgTxt, attempt, replays);
+		}
+	}
 }
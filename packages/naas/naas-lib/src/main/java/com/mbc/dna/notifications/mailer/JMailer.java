@@ -27,10 +27,18 @@
 
 package com.mbc.dna.notifications.mailer;
 
+import java.util.List;
+
 public interface JMailer {
 
 	void sendSimpleMail(String eventId, String to, String subject, String msgTxt);
 
+	/**
+	 * Queues the mail of an event for all recipients, returns without waiting for
+	 * the mail server.
+	 */
+	void sendSimpleMail(String eventId, List<String> to, String subject, String msgTxt);
+
 	void sendMailWithAttachments(String to, String subject, String msgTxt, String attachmentsPath);
 
 }
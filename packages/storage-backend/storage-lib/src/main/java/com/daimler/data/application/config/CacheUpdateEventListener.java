@@ -29,11 +29,10 @@ package com.daimler.data.application.config;
 
 import java.util.Map;
 
-import javax.annotation.PostConstruct;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import com.daimler.data.minio.client.DnaMinioClient;
@@ -53,24 +52,20 @@ public class CacheUpdateEventListener {
 	@Autowired
 	private CacheUtil cacheUtil;
 
-	@PostConstruct
-	public void init() {
-
-		LOGGER.info("started updating cache from Minio");
-		populateDataOnCache();
-		LOGGER.info("Successfully updated data on cache from Minio");
-	}
-
-	private void populateDataOnCache() {
-		String cacheName = "minioUsersCache";
-		
-		LOGGER.info("Creating cache for Minio users.");
-		cacheUtil.createCache(cacheName);
-		
-		LOGGER.info("listing Users from minio.");
+	/*
+	 * Runs on the scheduler once the application is up and then periodically, so
+	 * startup does not wait for the minio user listing
+	 */
+	@Scheduled(initialDelay = 0, fixedDelayString = "${minio.usersSyncInterval}")
+	public void syncMinioUsers() {
+		LOGGER.debug("listing Users from minio.");
+		long listedAtVersion = cacheUtil.getMinioUsersVersion();
 		Map<String, UserInfo> users = dnaMinioClient.listUsers();
-		//Adding data to cache
-		cacheUtil.updateCache(cacheName, users);
-		
+		if (users == null) {
+			LOGGER.warn("Skipping minio users cache sync, listing users failed.");
+			return;
+		}
+		int changes = cacheUtil.syncMinioUsers(users, listedAtVersion);
+		LOGGER.info("Synced minio users cache, {} of {} users changed", changes, users.size());
 	}
 }
@@ -27,27 +27,31 @@
 
 package com.daimler.data.application.config;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.util.ObjectUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.daimler.data.dto.AVScanResponseWrapperVO;
 import com.daimler.data.dto.FileScanDetailsVO;
+import com.daimler.dna.common.scan.MalwareScannerHttpClient;
+import com.daimler.dna.common.scan.MalwareScannerHttpClient.ScanResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
 public class MalwareScannerClient {
@@ -63,8 +67,40 @@ public class MalwareScannerClient {
 	@Value("${dna.malwareScan.apiKey}")
 	private String malwareScannerApiKey;
 
+	@Value("${dna.malwareScan.connectTimeoutMillis}")
+	private long connectTimeoutMillis;
+
+	@Value("${dna.malwareScan.readTimeoutMillis}")
+	private long readTimeoutMillis;
+
+	@Value("${dna.malwareScan.maxInFlight}")
+	private int maxInFlight;
+
+	@Value("${dna.malwareScan.acquireTimeoutMillis}")
+	private long acquireTimeoutMillis;
+
+	@Value("${dna.malwareScan.circuitBreaker.failureThreshold}")
+	private int failureThreshold;
+
+	@Value("${dna.malwareScan.circuitBreaker.openMillis}")
+	private long openMillis;
+
 	@Autowired
-	RestTemplate restTemplate;
+	private ObjectMapper objectMapper;
+
+	private MalwareScannerHttpClient scannerClient;
+
+	@PostConstruct
+	public void init() {
+		scannerClient = new MalwareScannerHttpClient(malwareScannerBaseUri, malwareScannerAppId,
+				malwareScannerApiKey, connectTimeoutMillis, readTimeoutMillis, maxInFlight, acquireTimeoutMillis,
+				failureThreshold, openMillis);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		scannerClient.close();
+	}
 
 	/**
 	 * To scan file for malware
@@ -73,38 +109,82 @@ public class MalwareScannerClient {
 	 * @return
 	 */
 	public Optional<FileScanDetailsVO> scan(MultipartFile file) {
-		FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
-		try {
-			// setting uri for malware scanner service
-			String malwareScannerUri = malwareScannerBaseUri + "/scan/upload";
-			LinkedMultiValueMap<String, Object> map = new LinkedMultiValueMap<>();
-			map.add("files", file.getResource());
-
-			HttpHeaders headers = new HttpHeaders();
-			headers.set("Accept", "application/json");
-			headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-			headers.set("appId", malwareScannerAppId);
-			headers.set("apiKey", malwareScannerApiKey);			
-			HttpEntity<LinkedMultiValueMap<String, Object>> requestEntity = new HttpEntity<>(map, headers);
-
-			logger.info("Scanning file:{} with avscan.", file.getOriginalFilename());
-			ResponseEntity<AVScanResponseWrapperVO> response = restTemplate.exchange(malwareScannerUri, HttpMethod.POST,
-					requestEntity, AVScanResponseWrapperVO.class);
-			if (response.hasBody()) {
-				logger.debug("Success from avscan for file {}", file.getOriginalFilename());
-				AVScanResponseWrapperVO aVScanResponseWrapperVO = response.getBody();
-				fileScanDetailsVO = aVScanResponseWrapperVO != null ? aVScanResponseWrapperVO.getFileDetails().get(0)
-						: null;
+		return Optional.ofNullable(scanAsync(file).join());
+	}
+
+	/**
+	 * To scan file content for malware while it is being read from content, the
+	 * request body is streamed to the scanner without buffering the file
+	 * 
+	 * @param fileName
+	 * @param content
+	 * @return
+	 */
+	public Optional<FileScanDetailsVO> scan(String fileName, InputStream content) {
+		return Optional.ofNullable(scanAsync(fileName, content).join());
+	}
+
+	/**
+	 * To scan file for malware without blocking the caller while the scanner
+	 * works, the returned future never completes exceptionally, failures are
+	 * reported in the error message of the result
+	 * 
+	 * @param multiPartFile
+	 * @return
+	 */
+	public CompletableFuture<FileScanDetailsVO> scanAsync(MultipartFile file) {
+		return scanAsync(file.getOriginalFilename(), () -> {
+			try {
+				return file.getInputStream();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
-		} catch (HttpClientErrorException e) {
-			logger.error("HttpClientErrorException occured:{} while scanning file {}", e.getMessage(), file.getName());
-			fileScanDetailsVO.setErrorMessage(this.getErrorMsg(e.getMessage()));
-		} catch (Exception e) {
-			logger.error("Error occured while calling malware scanner service:{} while scanning file {} ",
-					e.getMessage(), file.getName());
-			fileScanDetailsVO.setErrorMessage(this.getErrorMsg(e.getMessage()));
+		});
+	}
+
+	/**
+	 * To scan file content for malware without blocking the caller, content is
+	 * read on the http client threads
+	 * 
+	 * @param fileName
+	 * @param content
+	 * @return
+	 */
+	public CompletableFuture<FileScanDetailsVO> scanAsync(String fileName, InputStream content) {
+		return scanAsync(fileName, () -> content);
+	}
+
+	private CompletableFuture<FileScanDetailsVO> scanAsync(String fileName, Supplier<InputStream> content) {
+		return scannerClient.scan(fileName, content).thenApply(response -> toFileScanDetails(fileName, response));
+	}
+
+	private FileScanDetailsVO toFileScanDetails(String fileName, ScanResponse response) {
+		if (response.getErrorMessage() != null) {
+			return failure(response.getErrorMessage());
+		}
+		if (response.getStatusCode() >= 400) {
+			logger.error("HttpClientErrorException occured:{} while scanning file {}", response.getStatusCode(),
+					fileName);
+			String errorMsg = this.getErrorMsg(response.getBody());
+			return failure(errorMsg != null ? errorMsg : MalwareScannerHttpClient.SCAN_FAILED_MSG);
+		}
+		try {
+			AVScanResponseWrapperVO aVScanResponseWrapperVO = objectMapper.readValue(response.getBody(),
+					AVScanResponseWrapperVO.class);
+			logger.debug("Success from avscan for file {}", fileName);
+			return aVScanResponseWrapperVO != null && !ObjectUtils.isEmpty(aVScanResponseWrapperVO.getFileDetails())
+					? aVScanResponseWrapperVO.getFileDetails().get(0)
+					: null;
+		} catch (IOException ex) {
+			logger.error("Failed to read malware scanner response:{} for file {}", ex.getMessage(), fileName);
+			return failure(MalwareScannerHttpClient.SCAN_FAILED_MSG);
 		}
-		return Optional.ofNullable(fileScanDetailsVO);
+	}
+
+	private static FileScanDetailsVO failure(String errorMessage) {
+		FileScanDetailsVO fileScanDetailsVO = new FileScanDetailsVO();
+		fileScanDetailsVO.setErrorMessage(errorMessage);
+		return fileScanDetailsVO;
 	}
 
 	/**
@@ -115,6 +195,9 @@ public class MalwareScannerClient {
 	 */
 	private String getErrorMsg(String error) {
 		String result = null;
+		if (error == null) {
+			return result;
+		}
 		Pattern pattern = Pattern.compile("message\":\"(.*?)\"}");
 		Matcher matcher = pattern.matcher(error);
 		if (matcher.find()) {
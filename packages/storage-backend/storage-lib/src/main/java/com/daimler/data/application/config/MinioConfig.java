@@ -27,6 +27,13 @@
 
 package com.daimler.data.application.config;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,6 +54,21 @@ public class MinioConfig {
 	@Value("${minio.secretKey}")
 	private String minioSecretKey;
 
+	@Value("${minio.upload.workers}")
+	private int uploadWorkers;
+
+	@Value("${minio.delete.workers}")
+	private int deleteWorkers;
+
+	@Value("${minio.delete.maxJobs}")
+	private int deleteMaxJobs;
+
+	@Value("${minio.notification.scanWorkers}")
+	private int scanWorkers;
+
+	@Value("${minio.notification.scanQueueCapacity}")
+	private int scanQueueCapacity;
+
 	@Bean
 	@Lazy
 	public MinioAdminClient getMinioAdminClient() {
@@ -58,4 +80,44 @@ public class MinioConfig {
 	public MinioClient getMinioClient() {
 		return MinioClient.builder().endpoint(minioBaseUri).credentials(minioAccessKey, minioSecretKey).build();
 	}
+
+	/*
+	 * Runs part uploads alongside the request thread feeding them. When all
+	 * workers are busy the request thread uploads the part itself, so uploads
+	 * slow down instead of adding threads
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService uploadExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(uploadWorkers, uploadWorkers, 60, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/*
+	 * Sends the DeleteObjects batches of all running delete jobs
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService deleteExecutor() {
+		return Executors.newFixedThreadPool(deleteWorkers);
+	}
+
+	/*
+	 * Lists the objects of a delete job and feeds its batches to deleteExecutor,
+	 * further jobs wait in queue
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService deleteJobExecutor() {
+		return Executors.newFixedThreadPool(deleteMaxJobs);
+	}
+
+	/*
+	 * Scans objects reported by minio bucket notifications. Scans are persisted
+	 * before being queued, so scans rejected by a full queue are retried later
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService scanExecutor() {
+		return new ThreadPoolExecutor(scanWorkers, scanWorkers, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(scanQueueCapacity), new ThreadPoolExecutor.AbortPolicy());
+	}
 }
@@ -0,0 +1,224 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.application.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.daimler.data.dto.FileScanDetailsVO;
+import com.daimler.data.dto.MinioGenericResponse;
+import com.daimler.data.dto.PendingScanDTO;
+import com.daimler.data.minio.client.DnaMinioClient;
+import com.daimler.data.util.ConstantsUtility;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Scans objects reported by minio bucket notifications, which covers objects
+ * uploaded directly to minio through presigned urls. Infected objects are moved
+ * to the quarantine bucket.
+ * 
+ * Every reported object is first persisted as a pending scan, so scans lost to
+ * a full queue, a restart or a scanner outage are retried. Objects which still
+ * cannot be scanned after maxScanAttempts are quarantined as well.
+ */
+@Component
+public class MinioEventListener {
+
+	private static Logger LOGGER = LoggerFactory.getLogger(MinioEventListener.class);
+
+	private static final String OBJECT_CREATED_EVENT = "s3:ObjectCreated:";
+
+	// Copies are made from objects already in minio, e.g. into the quarantine bucket
+	private static final String OBJECT_COPIED_EVENT = "s3:ObjectCreated:Copy";
+
+	@Value("${dna.feature.attachmentMalwareScan}")
+	private Boolean attachmentMalwareScan;
+
+	@Value("${minio.quarantine.bucket}")
+	private String quarantineBucket;
+
+	@Value("${minio.notification.maxScanAttempts}")
+	private int maxScanAttempts;
+
+	@Autowired
+	private DnaMinioClient dnaMinioClient;
+
+	@Autowired
+	private MalwareScannerClient malwareScannerClient;
+
+	@Autowired
+	private ExecutorService scanExecutor;
+
+	// Scans queued or running, so the retry job does not queue them twice
+	private final Set<String> scansInFlight = ConcurrentHashMap.newKeySet();
+
+	/*
+	 * To persist and queue a scan for every object created in given notification,
+	 * returns the number of scans queued. Throws IllegalStateException when a scan
+	 * could not be persisted, so the event is redelivered by minio.
+	 */
+	public int onEvent(JsonNode event) {
+		int queued = 0;
+		if (!Boolean.TRUE.equals(attachmentMalwareScan)) {
+			LOGGER.debug("Malware scan disabled, skipping minio event");
+			return queued;
+		}
+		for (JsonNode record : event.path("Records")) {
+			String eventName = record.path("eventName").asText();
+			String bucketName = record.path("s3").path("bucket").path("name").asText();
+			// Object keys are url encoded in notifications
+			String objectName = URLDecoder.decode(record.path("s3").path("object").path("key").asText(),
+					StandardCharsets.UTF_8);
+			if (!eventName.startsWith(OBJECT_CREATED_EVENT) || OBJECT_COPIED_EVENT.equals(eventName)
+					|| quarantineBucket.equals(bucketName) || !StringUtils.hasText(objectName)) {
+				continue;
+			}
+			MinioGenericResponse minioResponse = dnaMinioClient.addPendingScan(bucketName, objectName);
+			if (minioResponse == null || !ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+				throw new IllegalStateException(
+						"Could not persist pending scan of object:" + objectName + " of bucket:" + bucketName);
+			}
+			if (submitScan(bucketName, objectName)) {
+				queued++;
+			}
+		}
+		return queued;
+	}
+
+	/*
+	 * To requeue pending scans, covering scans rejected by a full queue, failed
+	 * scans and scans lost on restart
+	 */
+	@Scheduled(fixedDelayString = "${minio.notification.retryIntervalMillis}")
+	public void retryPendingScans() {
+		if (!Boolean.TRUE.equals(attachmentMalwareScan)) {
+			return;
+		}
+		int queued = 0;
+		for (PendingScanDTO pendingScan : dnaMinioClient.listPendingScans()) {
+			if (submitScan(pendingScan.getBucketName(), pendingScan.getObjectName())) {
+				queued++;
+			}
+		}
+		if (queued > 0) {
+			LOGGER.info("Requeued {} pending object scans", queued);
+		}
+	}
+
+	private boolean submitScan(String bucketName, String objectName) {
+		String scanKey = bucketName + "/" + objectName;
+		if (!scansInFlight.add(scanKey)) {
+			return false;
+		}
+		try {
+			LOGGER.debug("Queueing scan of object:{} in bucket:{}", objectName, bucketName);
+			scanExecutor.execute(() -> {
+				try {
+					scanObject(bucketName, objectName);
+				} finally {
+					scansInFlight.remove(scanKey);
+				}
+			});
+			return true;
+		} catch (RejectedExecutionException e) {
+			// Scan stays pending and is picked up by the retry job
+			LOGGER.warn("Scan queue full, deferring scan of object:{} of bucket:{}", objectName, bucketName);
+			scansInFlight.remove(scanKey);
+			return false;
+		}
+	}
+
+	private void scanObject(String bucketName, String objectName) {
+		MinioGenericResponse minioResponse = dnaMinioClient.getObjectStreamForScan(bucketName, objectName);
+		if (minioResponse != null && HttpStatus.NOT_FOUND.equals(minioResponse.getHttpStatus())) {
+			LOGGER.debug("Object:{} of bucket:{} no longer exists, dropping scan", objectName, bucketName);
+			dnaMinioClient.removePendingScan(bucketName, objectName);
+			return;
+		}
+		if (minioResponse == null || !ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+			LOGGER.warn("Could not read object:{} of bucket:{} for scan", objectName, bucketName);
+			onScanFailed(bucketName, objectName);
+			return;
+		}
+		Optional<FileScanDetailsVO> scanResult;
+		try (InputStream content = minioResponse.getObjectStream().getContent()) {
+			scanResult = malwareScannerClient.scan(objectName, content);
+		} catch (IOException e) {
+			LOGGER.warn("Error closing object:{} of bucket:{} after scan: {}", objectName, bucketName, e.getMessage());
+			scanResult = Optional.empty();
+		}
+		FileScanDetailsVO fileScanDetailsVO = scanResult.orElse(null);
+		if (Objects.nonNull(fileScanDetailsVO) && Boolean.TRUE.equals(fileScanDetailsVO.getDetected())) {
+			LOGGER.info("Malware detected in object:{} of bucket:{}, moving to quarantine", objectName, bucketName);
+			quarantine(bucketName, objectName);
+		} else if (Objects.isNull(fileScanDetailsVO) || StringUtils.hasText(fileScanDetailsVO.getErrorMessage())) {
+			LOGGER.warn("Failed to scan object:{} of bucket:{}", objectName, bucketName);
+			onScanFailed(bucketName, objectName);
+		} else {
+			LOGGER.debug("No malware detected in object:{} of bucket:{}", objectName, bucketName);
+			dnaMinioClient.removePendingScan(bucketName, objectName);
+		}
+	}
+
+	/*
+	 * Failed scans stay pending for the retry job, objects that keep failing are
+	 * quarantined instead of being left unscanned
+	 */
+	private void onScanFailed(String bucketName, String objectName) {
+		int attempts = dnaMinioClient.recordFailedScan(bucketName, objectName);
+		if (attempts >= maxScanAttempts) {
+			LOGGER.warn("Scan of object:{} of bucket:{} failed {} times, moving to quarantine", objectName,
+					bucketName, attempts);
+			quarantine(bucketName, objectName);
+		}
+	}
+
+	private void quarantine(String bucketName, String objectName) {
+		MinioGenericResponse minioResponse = dnaMinioClient.quarantineObject(bucketName, objectName);
+		if (minioResponse != null && ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+			dnaMinioClient.removePendingScan(bucketName, objectName);
+		}
+	}
+}
@@ -30,8 +30,11 @@ package com.daimler.data.application.config;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.PostConstruct;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.vault.authentication.TokenAuthentication;
@@ -40,6 +43,12 @@ import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBac
 import org.springframework.vault.core.VaultTemplate;
 import org.springframework.vault.support.VaultResponse;
 
+import com.daimler.data.minio.client.MinioClientRegistry;
+import com.daimler.data.util.CacheUtil;
+import com.daimler.data.util.ConstantsUtility;
+
+import net.sf.ehcache.Element;
+
 @Configuration
 public class VaultConfig {
 
@@ -63,16 +72,39 @@ public class VaultConfig {
 	@Value("${spring.cloud.vault.mountpath}")
 	private String mountPath;
 
+	@Value("${spring.cloud.vault.credentialCache.ttlSeconds}")
+	private long credentialCacheTtlSeconds;
+
+	@Value("${spring.cloud.vault.credentialCache.maxEntries}")
+	private int credentialCacheMaxEntries;
+
+	@Autowired
+	private CacheUtil cacheUtil;
+
+	@Autowired
+	private MinioClientRegistry minioClientRegistry;
+
+	private VaultTemplate vaultTemplate;
+
+	@PostConstruct
+	public void init() {
+		vaultTemplate = new VaultTemplate(this.getVaultEndpoint(), new TokenAuthentication(vaultToken));
+		cacheUtil.createCache(ConstantsUtility.VAULT_CREDENTIALS_CACHE, credentialCacheMaxEntries,
+				credentialCacheTtlSeconds);
+	}
+
 	/*
 	 * To add user in vault
 	 * 
 	 */
 	public String addUserVault(String userId, String userSecretKey) {
 		// Adding user in vault
-		VaultTemplate vaultTemplate = new VaultTemplate(this.getVaultEndpoint(), new TokenAuthentication(vaultToken));
 		Map<String, String> secMap = new HashMap<String, String>();
 		secMap.put(userId, userSecretKey);
 		vaultTemplate.opsForKeyValue(mountPath, KeyValueBackend.KV_2).put(vaultPathUtility(userId), secMap);
+		// Secret changed, drop client and credential built from the previous one
+		minioClientRegistry.evict(userId);
+		cacheUtil.getCache(ConstantsUtility.VAULT_CREDENTIALS_CACHE).put(new Element(userId, userSecretKey));
 		return userSecretKey;
 	}
 
@@ -80,15 +112,20 @@ public class VaultConfig {
 	public String validateUserInVault(String userId) {
 		String userSecretKey = "";
 
-		LOGGER.info("Validating user:{} in Vault.", userId);
-		VaultTemplate vaultTemplate = new VaultTemplate(this.getVaultEndpoint(), new TokenAuthentication(vaultToken));
+		Element cachedSecret = cacheUtil.getCache(ConstantsUtility.VAULT_CREDENTIALS_CACHE).get(userId);
+		if (cachedSecret != null) {
+			LOGGER.debug("Got credential for user:{} from cache", userId);
+			return (String) cachedSecret.getObjectValue();
+		}
 
+		LOGGER.info("Validating user:{} in Vault.", userId);
 		LOGGER.debug("Fetching details for user:{} from vault.",userId);
 		VaultResponse vaultResponse = vaultTemplate.opsForKeyValue(mountPath, KeyValueBackend.KV_2)
 				.get(vaultPathUtility(userId));
 		if (vaultResponse != null && vaultResponse.getData().get(userId) != null) {
 			LOGGER.info("Got credential for user:{} from vault",userId);
 			userSecretKey = vaultResponse.getData().get(userId).toString();
+			cacheUtil.getCache(ConstantsUtility.VAULT_CREDENTIALS_CACHE).put(new Element(userId, userSecretKey));
 		}
 		return userSecretKey;
 	}
@@ -86,8 +86,6 @@ public class JWTAuthenticationFilter implements Filter {
 			return;
 		} else {
 			Claims claims = JWTGenerator.decodeJWT(jwt);
-			log.debug("Claims:{}", claims.toString());
-			String userId = (String) claims.get("id");
 			if (claims == null) {
 				log.error("Invalid  JWT!");
 				HttpServletResponse response = (HttpServletResponse) servletResponse;
@@ -95,6 +93,7 @@ public class JWTAuthenticationFilter implements Filter {
 				response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 				return;
 			} else {
+				log.debug("Claims:{}", claims.toString());
 				if (dnaAuthEnable) {
 					JSONObject res = dnaAuthClient.verifyLogin(jwt);
 					if (res != null) {
@@ -0,0 +1,100 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.daimler.data.application.config.MinioEventListener;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import springfox.documentation.annotations.ApiIgnore;
+
+/**
+ * Webhook target of minio bucket notifications. Called by minio itself, so it
+ * is kept outside /api and authenticated with the webhook auth token instead of
+ * a user JWT.
+ */
+@ApiIgnore
+@RestController
+@RequestMapping("/minio")
+public class MinioEventController {
+
+	private static Logger LOGGER = LoggerFactory.getLogger(MinioEventController.class);
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	@Value("${minio.notification.authToken}")
+	private String notificationAuthToken;
+
+	@Autowired
+	private MinioEventListener minioEventListener;
+
+	@RequestMapping(value = "/events", consumes = { "application/json" }, method = RequestMethod.POST)
+	public ResponseEntity<Void> onEvent(
+			@RequestHeader(value = "Authorization", required = false) String authorization,
+			@RequestBody JsonNode event) {
+		if (!isAuthorized(authorization)) {
+			LOGGER.warn("Rejected minio event with invalid auth token");
+			return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+		}
+		try {
+			int queued = minioEventListener.onEvent(event);
+			LOGGER.debug("Queued {} object scans from minio event", queued);
+		} catch (IllegalStateException e) {
+			// Minio keeps failed events and redelivers them
+			LOGGER.error("Failed to accept minio event: {}", e.getMessage());
+			return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+		}
+		return new ResponseEntity<>(HttpStatus.OK);
+	}
+
+	private boolean isAuthorized(String authorization) {
+		if (authorization == null || !StringUtils.hasText(notificationAuthToken)) {
+			return false;
+		}
+		// Newer minio versions send the token as bearer token
+		String token = authorization.startsWith(BEARER_PREFIX) ? authorization.substring(BEARER_PREFIX.length())
+				: authorization;
+		return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+				notificationAuthToken.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -33,16 +33,18 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.daimler.data.api.storage.StorageApi;
 import com.daimler.data.application.auth.UserStore;
@@ -53,6 +55,9 @@ import com.daimler.data.dto.storage.BucketRequestVO;
 import com.daimler.data.dto.storage.BucketResponseVO;
 import com.daimler.data.dto.storage.BucketResponseWrapperVO;
 import com.daimler.data.dto.storage.BucketVo;
+import com.daimler.data.dto.storage.DeleteJobResponseVO;
+import com.daimler.data.dto.storage.PresignedUploadResponseVO;
+import com.daimler.data.dto.storage.PresignedUrlResponseVO;
 import com.daimler.data.dto.storage.UserRefreshWrapperVO;
 import com.daimler.data.service.storage.StorageService;
 
@@ -143,16 +148,39 @@ public class StorageController implements StorageApi {
 			"application/json" }, method = RequestMethod.GET)
 	public ResponseEntity<BucketObjectResponseWrapperVO> getBucketObjects(
 			@ApiParam(value = "Bucket name for which object to be fetch.", required = true) @PathVariable("bucketName") String bucketName,
-			@ApiParam(value = "Path for which object need to be fetch.") @Valid @RequestParam(value = "prefix", required = false) String prefix) {
-		return storageService.getBucketObjects(bucketName, prefix);
+			@ApiParam(value = "Path for which object need to be fetch.") @Valid @RequestParam(value = "prefix", required = false) String prefix,
+			@ApiParam(value = "Maximum number of objects to be returned, all objects if not given.") @Valid @RequestParam(value = "maxKeys", required = false) Integer maxKeys,
+			@ApiParam(value = "Token of the page to be fetched, as returned in nextContinuationToken.") @Valid @RequestParam(value = "continuationToken", required = false) String continuationToken) {
+		return storageService.getBucketObjects(bucketName, prefix, maxKeys, continuationToken);
 	}
 
 	@Override
-	@ApiOperation(value = "Get Objects associated with Bucket name.", nickname = "getObjectContent", notes = "Get Objects for a given Bucket.", response = ByteArrayResource.class, tags = {
+	@ApiOperation(value = "Stream Objects associated with Bucket name.", nickname = "streamBucketObjects", notes = "Stream all Objects for a given Bucket as newline delimited json, one object per line.", response = StreamingResponseBody.class, tags = {
 			"storage", })
 	@ApiResponses(value = {
-			@ApiResponse(code = 200, message = "Returns message of succes or failure", response = ByteArrayResource.class),
+			@ApiResponse(code = 200, message = "Objects of bucket, one per line", response = StreamingResponseBody.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/{bucketName}/objects/stream", produces = { "application/x-ndjson" }, consumes = {
+			"application/json" }, method = RequestMethod.GET)
+	public ResponseEntity<StreamingResponseBody> streamBucketObjects(
+			@ApiParam(value = "Bucket name for which object to be fetch.", required = true) @PathVariable("bucketName") String bucketName,
+			@ApiParam(value = "Path for which object need to be fetch.") @Valid @RequestParam(value = "prefix", required = false) String prefix,
+			@ApiParam(value = "Object name after which streaming starts.") @Valid @RequestParam(value = "continuationToken", required = false) String continuationToken,
+			@ApiParam(value = "List objects of all sub paths instead of directories.") @Valid @RequestParam(value = "recursive", required = false) Boolean recursive) {
+		return storageService.streamBucketObjects(bucketName, prefix, continuationToken, recursive);
+	}
+
+	@Override
+	@ApiOperation(value = "Get Objects associated with Bucket name.", nickname = "getObjectContent", notes = "Get Objects for a given Bucket.", response = InputStreamResource.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns message of succes or failure", response = InputStreamResource.class),
 			@ApiResponse(code = 204, message = "Fetch complete, no content found."),
+			@ApiResponse(code = 206, message = "Requested range of the object.", response = InputStreamResource.class),
 			@ApiResponse(code = 400, message = "Bad request."),
 			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
 			@ApiResponse(code = 403, message = "Request is not authorized."),
@@ -160,10 +188,11 @@ public class StorageController implements StorageApi {
 			@ApiResponse(code = 500, message = "Internal error") })
 	@RequestMapping(value = "/buckets/{bucketName}/objects/metadata", produces = { "application/json" }, consumes = {
 			"application/json" }, method = RequestMethod.GET)
-	public ResponseEntity<ByteArrayResource> getObjectContent(
+	public ResponseEntity<InputStreamResource> getObjectContent(
 			@ApiParam(value = "Bucket name for which object to be fetch.", required = true) @PathVariable("bucketName") String bucketName,
-			@NotNull @ApiParam(value = "Object path for which metadata need to be fetch.", required = true) @Valid @RequestParam(value = "prefix", required = true) String prefix) {
-		return storageService.getObjectContent(bucketName, prefix);
+			@NotNull @ApiParam(value = "Object path for which metadata need to be fetch.", required = true) @Valid @RequestParam(value = "prefix", required = true) String prefix,
+			@ApiParam(value = "Byte range of the object to be fetched, e.g. bytes=0-1023") @RequestHeader(value = "Range", required = false) String range) {
+		return storageService.getObjectContent(bucketName, prefix, range);
 	}
 
 	@Override
@@ -259,6 +288,119 @@ public class StorageController implements StorageApi {
 		return storageService.deleteBucket(bucketName);
 	}
 
+	@Override
+	@ApiOperation(value = "Get presigned url of object.", nickname = "getPresignedUrl", notes = "Get short lived url to read (GET) or write (PUT) object directly in minio.", response = PresignedUrlResponseVO.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns presigned url", response = PresignedUrlResponseVO.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/{bucketName}/presignedurl", produces = { "application/json" }, consumes = {
+			"application/json" }, method = RequestMethod.GET)
+	public ResponseEntity<PresignedUrlResponseVO> getPresignedUrl(
+			@ApiParam(value = "Bucket name of the object.", required = true) @PathVariable("bucketName") String bucketName,
+			@NotNull @ApiParam(value = "Object path for which url to be presigned.", required = true) @Valid @RequestParam(value = "prefix", required = true) String prefix,
+			@ApiParam(value = "GET to download or PUT to upload, GET if not given.", allowableValues = "GET, PUT") @Valid @RequestParam(value = "method", required = false) String method) {
+		return storageService.getPresignedUrl(bucketName, prefix, method);
+	}
+
+	@Override
+	@ApiOperation(value = "Start presigned multipart upload.", nickname = "createPresignedUpload", notes = "Start multipart upload of object, each part is put directly to minio with its presigned url.", response = PresignedUploadResponseVO.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns upload id and presigned url per part", response = PresignedUploadResponseVO.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/{bucketName}/presignedupload", produces = { "application/json" }, consumes = {
+			"application/json" }, method = RequestMethod.POST)
+	public ResponseEntity<PresignedUploadResponseVO> createPresignedUpload(
+			@ApiParam(value = "Bucket name where object to be uploaded.", required = true) @PathVariable("bucketName") String bucketName,
+			@NotNull @ApiParam(value = "Object path where object to be uploaded.", required = true) @Valid @RequestParam(value = "prefix", required = true) String prefix,
+			@NotNull @ApiParam(value = "Number of parts the object is uploaded in.", required = true) @Valid @RequestParam(value = "parts", required = true) Integer parts) {
+		return storageService.createPresignedUpload(bucketName, prefix, parts);
+	}
+
+	@Override
+	@ApiOperation(value = "Complete presigned multipart upload.", nickname = "completePresignedUpload", notes = "Complete multipart upload with all parts uploaded so far.", response = GenericMessage.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns message of succes or failure", response = GenericMessage.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/{bucketName}/presignedupload/{uploadId}", produces = {
+			"application/json" }, consumes = { "application/json" }, method = RequestMethod.POST)
+	public ResponseEntity<GenericMessage> completePresignedUpload(
+			@ApiParam(value = "Bucket name where object is uploaded.", required = true) @PathVariable("bucketName") String bucketName,
+			@ApiParam(value = "Id of the multipart upload.", required = true) @PathVariable("uploadId") String uploadId,
+			@NotNull @ApiParam(value = "Object path where object is uploaded.", required = true) @Valid @RequestParam(value = "prefix", required = true) String prefix) {
+		return storageService.completePresignedUpload(bucketName, uploadId, prefix);
+	}
+
+	@Override
+	@ApiOperation(value = "Abort presigned multipart upload.", nickname = "abortPresignedUpload", notes = "Abort multipart upload and remove its uploaded parts.", response = GenericMessage.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns message of succes or failure", response = GenericMessage.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/{bucketName}/presignedupload/{uploadId}", produces = {
+			"application/json" }, consumes = { "application/json" }, method = RequestMethod.DELETE)
+	public ResponseEntity<GenericMessage> abortPresignedUpload(
+			@ApiParam(value = "Bucket name where object is uploaded.", required = true) @PathVariable("bucketName") String bucketName,
+			@ApiParam(value = "Id of the multipart upload.", required = true) @PathVariable("uploadId") String uploadId,
+			@NotNull @ApiParam(value = "Object path where object is uploaded.", required = true) @Valid @RequestParam(value = "prefix", required = true) String prefix) {
+		return storageService.abortPresignedUpload(bucketName, uploadId, prefix);
+	}
+
+	@Override
+	@ApiOperation(value = "Start bulk delete of bucket objects.", nickname = "createDeleteJob", notes = "Removes all objects of bucket under given path in background, optionally followed by the bucket.", response = DeleteJobResponseVO.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 202, message = "Delete job accepted", response = DeleteJobResponseVO.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/{bucketName}/deletejobs", produces = { "application/json" }, consumes = {
+			"application/json" }, method = RequestMethod.POST)
+	public ResponseEntity<DeleteJobResponseVO> createDeleteJob(
+			@ApiParam(value = "Bucket name in which objects to be deleted.", required = true) @PathVariable("bucketName") String bucketName,
+			@ApiParam(value = "Path under which all objects need to be deleted, whole bucket if not given.") @Valid @RequestParam(value = "prefix", required = false) String prefix,
+			@ApiParam(value = "Remove the bucket once all its objects are deleted.") @Valid @RequestParam(value = "removeBucket", required = false) Boolean removeBucket) {
+		return storageService.createDeleteJob(bucketName, prefix, removeBucket);
+	}
+
+	@Override
+	@ApiOperation(value = "Get bulk delete job.", nickname = "getDeleteJob", notes = "Get status and progress of delete job identified by jobId.", response = DeleteJobResponseVO.class, tags = {
+			"storage", })
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Returns status of delete job", response = DeleteJobResponseVO.class),
+			@ApiResponse(code = 400, message = "Bad request."),
+			@ApiResponse(code = 401, message = "Request does not have sufficient credentials."),
+			@ApiResponse(code = 403, message = "Request is not authorized."),
+			@ApiResponse(code = 404, message = "Delete job not found."),
+			@ApiResponse(code = 405, message = "Method not allowed"),
+			@ApiResponse(code = 500, message = "Internal error") })
+	@RequestMapping(value = "/buckets/deletejobs/{jobId}", produces = { "application/json" }, consumes = {
+			"application/json" }, method = RequestMethod.GET)
+	public ResponseEntity<DeleteJobResponseVO> getDeleteJob(
+			@ApiParam(value = "Id of the delete job.", required = true) @PathVariable("jobId") String jobId) {
+		return storageService.getDeleteJob(jobId);
+	}
+
 	@Override
 	@ApiOperation(value = "Update existing Bucket", nickname = "updateBucket", notes = "Bucket will be updated with this api", response = BucketResponseWrapperVO.class, tags = {
 			"storage", })
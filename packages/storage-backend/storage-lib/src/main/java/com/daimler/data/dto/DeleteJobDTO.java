@@ -0,0 +1,88 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Delete job, saved as json in minio so its status can be read on any replica
+ * and unfinished jobs are resumed after a restart.
+ */
+@Data
+@NoArgsConstructor
+public class DeleteJobDTO {
+
+	// Only the first errors are kept, a failing bucket would otherwise fill memory
+	private static final int MAX_ERRORS = 100;
+
+	private String jobId;
+	private String userId;
+	private String bucketName;
+	private String prefix;
+	private boolean removeBucket;
+	private volatile String status;
+	private final AtomicLong deletedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final List<ErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+	private Date createdOn;
+	private volatile Date lastModified;
+
+	public void addError(String errorMsg) {
+		if (errors.size() < MAX_ERRORS) {
+			errors.add(new ErrorDTO(null, errorMsg));
+		}
+	}
+
+	@JsonSetter("deletedCount")
+	private void restoreDeletedCount(long count) {
+		deletedCount.set(count);
+	}
+
+	@JsonSetter("failedCount")
+	private void restoreFailedCount(long count) {
+		failedCount.set(count);
+	}
+
+	@JsonSetter("errors")
+	private void restoreErrors(List<ErrorDTO> restored) {
+		errors.clear();
+		if (restored != null) {
+			errors.addAll(restored);
+		}
+	}
+
+}
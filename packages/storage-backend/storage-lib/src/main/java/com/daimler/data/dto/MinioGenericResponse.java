@@ -53,6 +53,10 @@ public class MinioGenericResponse {
 	private List<Bucket> buckets;
 	private Bucket bucket;
 	private ObjectMetadataVO objectMetadata;
+	private ObjectStreamDTO objectStream;
 	private UserVO user;
 	private List<BucketObjectVO> objects;
+	private String nextContinuationToken;
+	private String uploadId;
+	private List<String> presignedUrls;
 }
@@ -25,19 +25,18 @@
  * LICENSE END 
  */
 
-package com.daimler.dna.notifications.common.event.config;
+package com.daimler.data.dto;
 
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
-import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.config.CacheConfiguration;
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingScanDTO {
 
-@Configuration
-public class NotificationCacheConfiguration {
+	private String bucketName;
+	private String objectName;
 
-	@Bean
-	public CacheManager getCacheManager() {
-		return CacheManager.create();
-	}
 }
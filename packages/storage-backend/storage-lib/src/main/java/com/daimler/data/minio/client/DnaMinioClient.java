@@ -27,18 +27,26 @@
 
 package com.daimler.data.minio.client;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
+import org.springframework.http.HttpRange;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.daimler.data.dto.DeleteJobDTO;
 import com.daimler.data.dto.MinioGenericResponse;
+import com.daimler.data.dto.PendingScanDTO;
+import com.daimler.data.dto.storage.BucketObjectVO;
 import com.daimler.data.dto.storage.PermissionVO;
 import com.daimler.data.dto.storage.UserVO;
 
 import io.minio.admin.UserInfo;
+import io.minio.http.Method;
 
 public interface DnaMinioClient {
 
@@ -68,24 +76,193 @@ public interface DnaMinioClient {
 	public MinioGenericResponse getAllBuckets(String userId);
 
 	/**
-	 * To list all the objects inside buckets
+	 * To list the objects inside buckets, a page of at most maxKeys objects
+	 * starting after the given key. Next page token is set when more objects
+	 * follow.
 	 * 
 	 * @param userId
 	 * @param bucketName
 	 * @param prefix
+	 * @param startAfter{null for first page}
+	 * @param maxKeys{null for all objects}
 	 * @return MinioGenericResponse
 	 */
-	public MinioGenericResponse getBucketObjects(String userId, String bucketName, String prefix);
+	public MinioGenericResponse getBucketObjects(String userId, String bucketName, String prefix,
+			String startAfter, Integer maxKeys);
 
 	/**
-	 * To get object contents for given path
+	 * To pass every object inside buckets to consumer while listing, without
+	 * holding the whole listing in memory
 	 * 
 	 * @param userId
 	 * @param bucketName
 	 * @param prefix
+	 * @param startAfter{null to start from first object}
+	 * @param recursive
+	 * @param consumer
 	 * @return MinioGenericResponse
 	 */
-	public MinioGenericResponse getObjectContents(String userId, String bucketName, String prefix);
+	public MinioGenericResponse forEachBucketObject(String userId, String bucketName, String prefix,
+			String startAfter, boolean recursive, Consumer<BucketObjectVO> consumer);
+
+	/**
+	 * To open a stream on object contents for given path, optionally limited to
+	 * the given byte range
+	 * 
+	 * @param userId
+	 * @param bucketName
+	 * @param prefix
+	 * @param range
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse getObjectStream(String userId, String bucketName, String prefix, HttpRange range);
+
+	/**
+	 * To get a presigned url for given object, so that the object is read or
+	 * written directly in minio
+	 * 
+	 * @param userId
+	 * @param bucketName
+	 * @param prefix
+	 * @param method{GET or PUT}
+	 * @param expirySeconds
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse getPresignedUrl(String userId, String bucketName, String prefix, Method method,
+			int expirySeconds);
+
+	/**
+	 * To start a multipart upload of given object along with presigned urls for
+	 * each of its parts
+	 * 
+	 * @param userId
+	 * @param bucketName
+	 * @param prefix
+	 * @param parts
+	 * @param expirySeconds
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse createPresignedUpload(String userId, String bucketName, String prefix, int parts,
+			int expirySeconds);
+
+	/**
+	 * To complete a multipart upload with the parts uploaded through presigned
+	 * urls
+	 * 
+	 * @param userId
+	 * @param bucketName
+	 * @param prefix
+	 * @param uploadId
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse completePresignedUpload(String userId, String bucketName, String prefix,
+			String uploadId);
+
+	/**
+	 * To abort a multipart upload and drop its uploaded parts
+	 * 
+	 * @param userId
+	 * @param bucketName
+	 * @param prefix
+	 * @param uploadId
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse abortPresignedUpload(String userId, String bucketName, String prefix,
+			String uploadId);
+
+	/**
+	 * To open a stream on object contents with admin credentials, for scanning
+	 * objects that did not pass through this service
+	 * 
+	 * @param bucketName
+	 * @param objectName
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse getObjectStreamForScan(String bucketName, String objectName);
+
+	/**
+	 * To move object to the quarantine bucket
+	 * 
+	 * @param bucketName
+	 * @param objectName
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse quarantineObject(String bucketName, String objectName);
+
+	/**
+	 * To make sure objects created in bucket are reported to the malware scan
+	 * webhook, returns false when notifications are not configured
+	 * 
+	 * @param bucketName
+	 * @return boolean
+	 */
+	public boolean ensureScanNotification(String bucketName);
+
+	/**
+	 * To persist a pending scan of object, so it survives restarts until scanned
+	 * 
+	 * @param bucketName
+	 * @param objectName
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse addPendingScan(String bucketName, String objectName);
+
+	/**
+	 * To record a failed scan attempt of object, returns the number of failed
+	 * attempts so far or 0 when it could not be recorded
+	 * 
+	 * @param bucketName
+	 * @param objectName
+	 * @return int
+	 */
+	public int recordFailedScan(String bucketName, String objectName);
+
+	/**
+	 * To remove the pending scan of object
+	 * 
+	 * @param bucketName
+	 * @param objectName
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse removePendingScan(String bucketName, String objectName);
+
+	/**
+	 * To list all pending scans
+	 * 
+	 * @return List<PendingScanDTO>
+	 */
+	public List<PendingScanDTO> listPendingScans();
+
+	/**
+	 * To save state and progress of delete job
+	 * 
+	 * @param deleteJob
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse saveDeleteJob(DeleteJobDTO deleteJob);
+
+	/**
+	 * To get saved delete job, null if not found or not readable
+	 * 
+	 * @param jobId
+	 * @return DeleteJobDTO
+	 */
+	public DeleteJobDTO getDeleteJob(String jobId);
+
+	/**
+	 * To list all saved delete jobs
+	 * 
+	 * @return List<DeleteJobDTO>
+	 */
+	public List<DeleteJobDTO> listDeleteJobs();
+
+	/**
+	 * To remove saved delete job
+	 * 
+	 * @param jobId
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse removeDeleteJob(String jobId);
 
 	/**
 	 * To upload object in given path
@@ -98,6 +275,22 @@ public interface DnaMinioClient {
 	 */
 	public MinioGenericResponse objectUpload(String userId, MultipartFile uploadfile, String bucketName, String prefix);
 
+	/**
+	 * To upload object in given path as a multipart upload while teeing the same
+	 * bytes to scanStream. The upload is committed only if scanVerdict accepts the
+	 * file once the whole content was sent, otherwise it is aborted.
+	 * 
+	 * @param userId
+	 * @param uploadfile
+	 * @param bucketName
+	 * @param prefix
+	 * @param scanStream
+	 * @param scanVerdict
+	 * @return MinioGenericResponse
+	 */
+	public MinioGenericResponse objectUpload(String userId, MultipartFile uploadfile, String bucketName, String prefix,
+			OutputStream scanStream, BooleanSupplier scanVerdict);
+
 	/**
 	 * To refresh user secret
 	 * 
@@ -129,6 +322,15 @@ public interface DnaMinioClient {
 	 * @return userInfo{Map<String, UserInfo>}
 	 */
 	public Map<String, UserInfo> listUsers();
+
+	/**
+	 * To fetch user info from minio itself instead of minioUsersCache, for
+	 * changes that write policies of the user back
+	 * 
+	 * @param userId
+	 * @return userInfo, null if user does not exist or minio could not be reached
+	 */
+	public UserInfo getLiveUserInfo(String userId);
 	
 	/**
 	 * To get permission of bucket for current user
@@ -157,6 +359,19 @@ public interface DnaMinioClient {
 	 */
 	public MinioGenericResponse removeObjects(String userId, String bucketName, String prefix);
 	
+	/**
+	 * To remove all objects of bucket under prefix in batches, progress is
+	 * recorded on the delete job
+	 * 
+	 * @param userId
+	 * @param bucketName
+	 * @param prefix{empty for whole bucket}
+	 * @param deleteJob
+	 * @return Returns {@code MinioGenericResponse}
+	 */
+	public MinioGenericResponse removeAllObjects(String userId, String bucketName, String prefix,
+			DeleteJobDTO deleteJob);
+	
 	/**
 	 * To remove bucket identified by name
 	 * 
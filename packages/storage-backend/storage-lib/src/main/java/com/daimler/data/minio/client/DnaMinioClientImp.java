@@ -30,16 +30,27 @@ package com.daimler.data.minio.client;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.bouncycastle.crypto.InvalidCipherTextException;
@@ -47,7 +58,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
@@ -56,25 +67,37 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.daimler.data.application.config.MinioConfig;
 import com.daimler.data.application.config.VaultConfig;
+import com.daimler.data.dto.DeleteJobDTO;
 import com.daimler.data.dto.ErrorDTO;
 import com.daimler.data.dto.MinioGenericResponse;
+import com.daimler.data.dto.ObjectStreamDTO;
+import com.daimler.data.dto.PendingScanDTO;
 import com.daimler.data.dto.storage.BucketObjectVO;
-import com.daimler.data.dto.storage.ObjectMetadataVO;
 import com.daimler.data.dto.storage.PermissionVO;
 import com.daimler.data.dto.storage.UserVO;
+import com.daimler.data.util.BucketPermissionIndex;
 import com.daimler.data.util.CacheUtil;
 import com.daimler.data.util.ConstantsUtility;
 import com.daimler.data.util.PolicyUtility;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.minio.BucketExistsArgs;
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.GetBucketNotificationArgs;
 import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.ListObjectsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveBucketArgs;
+import io.minio.RemoveObjectArgs;
 import io.minio.RemoveObjectsArgs;
 import io.minio.Result;
+import io.minio.SetBucketNotificationArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
 import io.minio.admin.MinioAdminClient;
 import io.minio.admin.UserInfo;
 import io.minio.admin.UserInfo.Status;
@@ -85,10 +108,15 @@ import io.minio.errors.InvalidResponseException;
 import io.minio.errors.MinioException;
 import io.minio.errors.ServerException;
 import io.minio.errors.XmlParserException;
+import io.minio.http.Method;
 import io.minio.messages.Bucket;
 import io.minio.messages.DeleteError;
 import io.minio.messages.DeleteObject;
+import io.minio.messages.EventType;
 import io.minio.messages.Item;
+import io.minio.messages.NotificationConfiguration;
+import io.minio.messages.Part;
+import io.minio.messages.QueueConfiguration;
 
 @Component
 public class DnaMinioClientImp implements DnaMinioClient {
@@ -116,6 +144,50 @@ public class DnaMinioClientImp implements DnaMinioClient {
 	@Autowired
 	private CacheUtil cacheUtil;
 
+	@Autowired
+	private MinioClientRegistry minioClientRegistry;
+
+	@Value("${minio.upload.partSize}")
+	private long uploadPartSize;
+
+	@Autowired
+	private ExecutorService uploadExecutor;
+
+	@Autowired
+	private ExecutorService deleteExecutor;
+
+	@Value("${minio.delete.workers}")
+	private int deleteWorkers;
+
+	// DeleteObjects accepts at most 1000 keys per request
+	private static final int DELETE_BATCH_SIZE = 1000;
+
+	@Value("${minio.notification.queueArn}")
+	private String notificationQueueArn;
+
+	@Value("${minio.quarantine.bucket}")
+	private String quarantineBucket;
+
+	// Buckets already known to report new objects to the malware scan webhook
+	private final Set<String> scanNotifiedBuckets = ConcurrentHashMap.newKeySet();
+
+	// Pending scans are kept as markers in the quarantine bucket, bucket names
+	// cannot start with a dot so markers never collide with quarantined objects
+	private static final String PENDING_SCAN_PREFIX = ".pending/";
+
+	private static final String SCAN_ATTEMPTS_METADATA = "scan-attempts";
+
+	// Delete jobs are kept next to the pending scans, as json per job
+	private static final String DELETE_JOB_PREFIX = ".delete-jobs/";
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// ListObjects returns at most 1000 keys per request
+	private static final int LIST_PAGE_SIZE = 1000;
+
+	private static final String HIGHEST_CODE_POINT = "\uDBFF\uDFFF";
+
 	@Override
 	public MinioGenericResponse createBucket(String bucketName) {
 		MinioGenericResponse minioResponse = new MinioGenericResponse();
@@ -164,6 +236,16 @@ public class DnaMinioClientImp implements DnaMinioClient {
 //			CreateBucketPolicy(policyName, minioPolicyVersion, resource, action, effect, sid);
 //			policies.add(policyName);
 
+			if (StringUtils.hasText(notificationQueueArn)) {
+				// New objects are reported to the malware scan webhook
+				LOGGER.debug("Setting object created notification for bucket:{}", bucketName);
+				NotificationConfiguration notificationConfiguration = new NotificationConfiguration();
+				notificationConfiguration.setQueueConfigurationList(Arrays.asList(scanQueueConfiguration()));
+				minioClient.setBucketNotification(SetBucketNotificationArgs.builder().bucket(bucketName)
+						.config(notificationConfiguration).build());
+				scanNotifiedBuckets.add(bucketName);
+			}
+
 			LOGGER.info("Bucket created successfully.");
 			minioResponse.setStatus(ConstantsUtility.SUCCESS);
 			minioResponse.setPolicies(policies);
@@ -202,15 +284,13 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			String userSecretKey = vaultConfig.validateUserInVault(userId);
 			if(StringUtils.hasText(userSecretKey)) {
 				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
-				MinioClient minioClient = MinioClient.builder().endpoint(minioBaseUri).credentials(userId, userSecretKey)
-						.build();
-				ByteArrayInputStream bais = new ByteArrayInputStream(uploadfile.getBytes());
-
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
 				LOGGER.info("Uploading object to minio..{}", uploadfile.getOriginalFilename());
-				minioClient.putObject(PutObjectArgs.builder().bucket(bucketName)
-						.object(prefix + "/" + uploadfile.getOriginalFilename()).stream(bais, bais.available(), -1)
-						.build());
-				bais.close();
+				try (InputStream stream = uploadfile.getInputStream()) {
+					minioClient.putObject(PutObjectArgs.builder().bucket(bucketName)
+							.object(prefix + "/" + uploadfile.getOriginalFilename())
+							.stream(stream, uploadfile.getSize(), uploadPartSize).build());
+				}
 				LOGGER.info("Success from minio object upload..{}", uploadfile.getOriginalFilename());
 				minioResponse.setStatus(ConstantsUtility.SUCCESS);
 				minioResponse.setHttpStatus(HttpStatus.OK);
@@ -233,6 +313,101 @@ public class DnaMinioClientImp implements DnaMinioClient {
 
 	}
 
+	@Override
+	public MinioGenericResponse objectUpload(String userId, MultipartFile uploadfile, String bucketName,
+			String prefix, OutputStream scanStream, BooleanSupplier scanVerdict) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		String objectName = prefix + "/" + uploadfile.getOriginalFilename();
+		MultipartMinioClient minioClient = null;
+		String uploadId = null;
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if(StringUtils.hasText(userSecretKey)) {
+				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
+				minioClient = new MultipartMinioClient(minioClientRegistry.getClient(userId, userSecretKey));
+
+				LOGGER.info("Starting multipart upload to minio..{}", uploadfile.getOriginalFilename());
+				uploadId = minioClient.createUpload(bucketName, objectName);
+				List<Part> parts = new ArrayList<>();
+				boolean scanStreamComplete = true;
+				// Two part buffers, one being filled (and teed to the scanner) while the
+				// previous one is uploaded
+				byte[][] buffers = { new byte[(int) uploadPartSize], new byte[(int) uploadPartSize] };
+				CompletableFuture<Part> pendingPart = null;
+				try (InputStream stream = uploadfile.getInputStream()) {
+					int partNumber = 0;
+					int length;
+					do {
+						byte[] buffer = buffers[partNumber % 2];
+						length = 0;
+						int read;
+						while (length < buffer.length && (read = stream.read(buffer, length, buffer.length - length)) != -1) {
+							if (scanStreamComplete) {
+								try {
+									scanStream.write(buffer, length, read);
+								} catch (IOException e) {
+									LOGGER.warn("Malware scanner stopped reading file {}: {}",
+											uploadfile.getOriginalFilename(), e.getMessage());
+									scanStreamComplete = false;
+								}
+							}
+							length += read;
+						}
+						if (pendingPart != null) {
+							parts.add(pendingPart.join());
+						}
+						if (length > 0 || partNumber == 0) {
+							partNumber++;
+							pendingPart = uploadPartAsync(minioClient, bucketName, objectName, uploadId, partNumber,
+									buffer, length);
+						} else {
+							pendingPart = null;
+						}
+					} while (length == uploadPartSize);
+					if (pendingPart != null) {
+						parts.add(pendingPart.join());
+					}
+				} finally {
+					closeQuietly(scanStream);
+				}
+
+				if (scanStreamComplete && scanVerdict.getAsBoolean()) {
+					minioClient.completeUpload(bucketName, objectName, uploadId, parts);
+					uploadId = null;
+					LOGGER.info("Success from minio multipart object upload..{}", uploadfile.getOriginalFilename());
+					minioResponse.setStatus(ConstantsUtility.SUCCESS);
+					minioResponse.setHttpStatus(HttpStatus.OK);
+				} else {
+					LOGGER.info("Upload of {} rejected by malware scan, aborting multipart upload",
+							uploadfile.getOriginalFilename());
+					minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Upload rejected by malware scan.")));
+					minioResponse.setStatus(ConstantsUtility.FAILURE);
+					minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+				}
+			}else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}",userId);
+				minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:"+userId)));
+				minioResponse.setStatus(ConstantsUtility.FAILURE);
+				minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException | CompletionException e) {
+			LOGGER.error("DNA-MINIO-ERR-003::Error occured while uploading object to minio: {}",
+					e instanceof CompletionException ? e.getCause().getMessage() : e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Error occured while uploading object to minio ")));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		} finally {
+			closeQuietly(scanStream);
+			if (uploadId != null) {
+				abortUpload(minioClient, bucketName, objectName, uploadId);
+			}
+		}
+		return minioResponse;
+	}
+
 	@Override
 	public MinioGenericResponse getAllBuckets(String userId) {
 		MinioGenericResponse getBucketResponse = new MinioGenericResponse();
@@ -241,8 +416,7 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			String userSecretKey =  vaultConfig.validateUserInVault(userId);
 			if(StringUtils.hasText(userSecretKey)) {
 				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
-				MinioClient minioClient = MinioClient.builder().endpoint(minioBaseUri).credentials(userId, userSecretKey)
-						.build();
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
 
 				LOGGER.info("Listing all buckets for user:{}", userId);
 				List<Bucket> buckets = minioClient.listBuckets();
@@ -276,29 +450,49 @@ public class DnaMinioClientImp implements DnaMinioClient {
 	}
 
 	@Override
-	public MinioGenericResponse getObjectContents(String userId, String bucketName, String prefix) {
+	public MinioGenericResponse getObjectStream(String userId, String bucketName, String prefix, HttpRange range) {
 		MinioGenericResponse minioObjectContentResponse = new MinioGenericResponse();
 		try {
 			LOGGER.info("Fetching secrets from vault for user:{}", userId);
 			String userSecretKey =  vaultConfig.validateUserInVault(userId);
 			if(StringUtils.hasText(userSecretKey)) {
 				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
-				MinioClient minioClient = MinioClient.builder().endpoint(minioBaseUri).credentials(userId, userSecretKey)
-						.build();
-
-				LOGGER.info("Fetching object contents from minio for user:{}", userId);
-				InputStream stream = minioClient
-						.getObject(GetObjectArgs.builder().bucket(bucketName).object(prefix).build());
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
+
+				LOGGER.debug("Fetching object size from minio for user:{}", userId);
+				long totalSize = minioClient
+						.statObject(StatObjectArgs.builder().bucket(bucketName).object(prefix).build()).size();
+
+				ObjectStreamDTO objectStream = new ObjectStreamDTO();
+				objectStream.setTotalSize(totalSize);
+				objectStream.setRangeStart(0);
+				objectStream.setRangeEnd(totalSize - 1);
+				if (range != null) {
+					try {
+						objectStream.setRangeStart(range.getRangeStart(totalSize));
+						objectStream.setRangeEnd(range.getRangeEnd(totalSize));
+						objectStream.setPartial(true);
+					} catch (IllegalArgumentException e) {
+						LOGGER.info("Requested range not satisfiable for object:{} of size:{}", prefix, totalSize);
+						minioObjectContentResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Requested range not satisfiable.")));
+						minioObjectContentResponse.setStatus(ConstantsUtility.FAILURE);
+						minioObjectContentResponse.setHttpStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+						return minioObjectContentResponse;
+					}
+				}
 
-				ObjectMetadataVO objectMetadataVO = new ObjectMetadataVO();
-				ByteArrayResource resource = new ByteArrayResource(stream.readAllBytes());
-				objectMetadataVO.setObjectContent(resource);
-				stream.close();
+				LOGGER.info("Opening object stream from minio for user:{}", userId);
+				GetObjectArgs.Builder getObjectArgs = GetObjectArgs.builder().bucket(bucketName).object(prefix);
+				if (objectStream.isPartial()) {
+					getObjectArgs.offset(objectStream.getRangeStart()).length(objectStream.getContentLength());
+				}
+				// Caller is responsible for closing the stream once the response is written
+				objectStream.setContent(minioClient.getObject(getObjectArgs.build()));
 
-				LOGGER.info("Success from minio get Object contents for user:{}", userId);
-				minioObjectContentResponse.setObjectMetadata(objectMetadataVO);
+				LOGGER.info("Success from minio get Object stream for user:{}", userId);
+				minioObjectContentResponse.setObjectStream(objectStream);
 				minioObjectContentResponse.setStatus(ConstantsUtility.SUCCESS);
-				minioObjectContentResponse.setHttpStatus(HttpStatus.OK);
+				minioObjectContentResponse.setHttpStatus(objectStream.isPartial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK);
 			}else {
 				LOGGER.debug("Fetch secret from vault failed for user:{}",userId);
 				minioObjectContentResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:"+userId)));
@@ -320,7 +514,468 @@ public class DnaMinioClientImp implements DnaMinioClient {
 	}
 
 	@Override
-	public MinioGenericResponse getBucketObjects(String userId, String bucketName, String prefix) {
+	public MinioGenericResponse getPresignedUrl(String userId, String bucketName, String prefix, Method method,
+			int expirySeconds) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if (StringUtils.hasText(userSecretKey)) {
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
+				LOGGER.info("Presigning {} url for object:{} of bucket:{} for user:{}", method, prefix, bucketName,
+						userId);
+				String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder().method(method)
+						.bucket(bucketName).object(prefix).expiry(expirySeconds, TimeUnit.SECONDS).build());
+				minioResponse.setPresignedUrls(Arrays.asList(url));
+				minioResponse.setStatus(ConstantsUtility.SUCCESS);
+				minioResponse.setHttpStatus(HttpStatus.OK);
+			} else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}", userId);
+				minioResponse.setErrors(
+						Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:" + userId)));
+				minioResponse.setStatus(ConstantsUtility.FAILURE);
+				minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while presigning url for object:{} {}", prefix, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Error occured while presigning url for object: " + prefix)));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public MinioGenericResponse createPresignedUpload(String userId, String bucketName, String prefix, int parts,
+			int expirySeconds) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if (StringUtils.hasText(userSecretKey)) {
+				MultipartMinioClient minioClient = new MultipartMinioClient(
+						minioClientRegistry.getClient(userId, userSecretKey));
+				LOGGER.info("Starting multipart upload of object:{} to bucket:{} for user:{}", prefix, bucketName,
+						userId);
+				String uploadId = minioClient.createUpload(bucketName, prefix);
+
+				// Each part is put by the client with uploadId and partNumber of the upload
+				List<String> partUrls = new ArrayList<>(parts);
+				for (int partNumber = 1; partNumber <= parts; partNumber++) {
+					Map<String, String> partParams = new HashMap<>();
+					partParams.put("uploadId", uploadId);
+					partParams.put("partNumber", String.valueOf(partNumber));
+					partUrls.add(minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+							.method(Method.PUT).bucket(bucketName).object(prefix)
+							.expiry(expirySeconds, TimeUnit.SECONDS).extraQueryParams(partParams).build()));
+				}
+				minioResponse.setUploadId(uploadId);
+				minioResponse.setPresignedUrls(partUrls);
+				minioResponse.setStatus(ConstantsUtility.SUCCESS);
+				minioResponse.setHttpStatus(HttpStatus.OK);
+			} else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}", userId);
+				minioResponse.setErrors(
+						Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:" + userId)));
+				minioResponse.setStatus(ConstantsUtility.FAILURE);
+				minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while starting multipart upload of object:{} {}", prefix, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Error occured while starting upload of object: " + prefix)));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public MinioGenericResponse completePresignedUpload(String userId, String bucketName, String prefix,
+			String uploadId) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if (StringUtils.hasText(userSecretKey)) {
+				MultipartMinioClient minioClient = new MultipartMinioClient(
+						minioClientRegistry.getClient(userId, userSecretKey));
+				// Parts went directly to minio, so their etags are taken from minio
+				List<Part> parts = minioClient.listUploadedParts(bucketName, prefix, uploadId);
+				if (parts.isEmpty()) {
+					LOGGER.info("No parts uploaded for upload:{} of object:{}", uploadId, prefix);
+					minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "No parts uploaded for object: " + prefix)));
+					minioResponse.setStatus(ConstantsUtility.FAILURE);
+					minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+					return minioResponse;
+				}
+				LOGGER.info("Completing multipart upload of object:{} with {} parts", prefix, parts.size());
+				minioClient.completeUpload(bucketName, prefix, uploadId, parts);
+				minioResponse.setStatus(ConstantsUtility.SUCCESS);
+				minioResponse.setHttpStatus(HttpStatus.OK);
+			} else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}", userId);
+				minioResponse.setErrors(
+						Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:" + userId)));
+				minioResponse.setStatus(ConstantsUtility.FAILURE);
+				minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while completing multipart upload of object:{} {}", prefix, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Error occured while completing upload of object: " + prefix)));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public MinioGenericResponse abortPresignedUpload(String userId, String bucketName, String prefix,
+			String uploadId) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if (StringUtils.hasText(userSecretKey)) {
+				MultipartMinioClient minioClient = new MultipartMinioClient(
+						minioClientRegistry.getClient(userId, userSecretKey));
+				LOGGER.info("Aborting multipart upload:{} of object:{}", uploadId, prefix);
+				minioClient.abortUpload(bucketName, prefix, uploadId);
+				minioResponse.setStatus(ConstantsUtility.SUCCESS);
+				minioResponse.setHttpStatus(HttpStatus.OK);
+			} else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}", userId);
+				minioResponse.setErrors(
+						Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:" + userId)));
+				minioResponse.setStatus(ConstantsUtility.FAILURE);
+				minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while aborting multipart upload of object:{} {}", prefix, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, "Error occured while aborting upload of object: " + prefix)));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public MinioGenericResponse getObjectStreamForScan(String bucketName, String objectName) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			LOGGER.debug("Opening object:{} of bucket:{} for scan", objectName, bucketName);
+			ObjectStreamDTO objectStream = new ObjectStreamDTO();
+			// Caller is responsible for closing the stream once scanned
+			objectStream.setContent(
+					minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build()));
+			minioResponse.setObjectStream(objectStream);
+			minioResponse.setStatus(ConstantsUtility.SUCCESS);
+			minioResponse.setHttpStatus(HttpStatus.OK);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while opening object:{} for scan {}", objectName, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(
+					isNotFound(e) ? HttpStatus.NOT_FOUND : HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public MinioGenericResponse quarantineObject(String bucketName, String objectName) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(quarantineBucket).build())) {
+				LOGGER.info("Making quarantine bucket: {}", quarantineBucket);
+				minioClient.makeBucket(MakeBucketArgs.builder().bucket(quarantineBucket).build());
+			}
+			// Kept under the source bucket name so the origin of the object stays known.
+			// Compose falls back to a multipart copy for objects above the 5GB copy limit
+			LOGGER.info("Moving object:{} of bucket:{} to quarantine", objectName, bucketName);
+			minioClient.composeObject(ComposeObjectArgs.builder().bucket(quarantineBucket)
+					.object(bucketName + "/" + objectName)
+					.sources(Arrays.asList(ComposeSource.builder().bucket(bucketName).object(objectName).build()))
+					.build());
+			minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectName).build());
+			minioResponse.setStatus(ConstantsUtility.SUCCESS);
+			minioResponse.setHttpStatus(HttpStatus.OK);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while moving object:{} of bucket:{} to quarantine {}", objectName,
+					bucketName, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public boolean ensureScanNotification(String bucketName) {
+		if (!StringUtils.hasText(notificationQueueArn)) {
+			return false;
+		}
+		if (scanNotifiedBuckets.contains(bucketName)) {
+			return true;
+		}
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			NotificationConfiguration notificationConfiguration = minioClient
+					.getBucketNotification(GetBucketNotificationArgs.builder().bucket(bucketName).build());
+			List<QueueConfiguration> queueConfigurations = new ArrayList<>();
+			if (notificationConfiguration.queueConfigurationList() != null) {
+				queueConfigurations.addAll(notificationConfiguration.queueConfigurationList());
+			}
+			boolean configured = queueConfigurations.stream()
+					.anyMatch(queueConfiguration -> notificationQueueArn.equals(queueConfiguration.queue())
+							&& queueConfiguration.events().contains(EventType.OBJECT_CREATED_ANY));
+			if (!configured) {
+				// Buckets created before scanning was enabled have no notification yet
+				LOGGER.info("Setting object created notification for existing bucket:{}", bucketName);
+				queueConfigurations.add(scanQueueConfiguration());
+				notificationConfiguration.setQueueConfigurationList(queueConfigurations);
+				minioClient.setBucketNotification(SetBucketNotificationArgs.builder().bucket(bucketName)
+						.config(notificationConfiguration).build());
+			}
+			scanNotifiedBuckets.add(bucketName);
+			return true;
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while setting object created notification for bucket:{} {}", bucketName,
+					e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public MinioGenericResponse addPendingScan(String bucketName, String objectName) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			putPendingScan(minioConfig.getMinioClient(), bucketName, objectName, 0);
+			minioResponse.setStatus(ConstantsUtility.SUCCESS);
+			minioResponse.setHttpStatus(HttpStatus.OK);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while marking object:{} of bucket:{} as pending scan {}", objectName,
+					bucketName, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public int recordFailedScan(String bucketName, String objectName) {
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			int attempts = 0;
+			try {
+				StatObjectResponse marker = minioClient.statObject(StatObjectArgs.builder().bucket(quarantineBucket)
+						.object(pendingScanMarker(bucketName, objectName)).build());
+				String recorded = marker.userMetadata().get(SCAN_ATTEMPTS_METADATA);
+				attempts = StringUtils.hasText(recorded) ? Integer.parseInt(recorded) : 0;
+			} catch (ErrorResponseException e) {
+				if (!isNotFound(e)) {
+					throw e;
+				}
+			}
+			attempts++;
+			putPendingScan(minioClient, bucketName, objectName, attempts);
+			return attempts;
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while recording failed scan of object:{} of bucket:{} {}", objectName,
+					bucketName, e.getMessage());
+			return 0;
+		}
+	}
+
+	@Override
+	public MinioGenericResponse removePendingScan(String bucketName, String objectName) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			minioConfig.getMinioClient().removeObject(RemoveObjectArgs.builder().bucket(quarantineBucket)
+					.object(pendingScanMarker(bucketName, objectName)).build());
+			minioResponse.setStatus(ConstantsUtility.SUCCESS);
+			minioResponse.setHttpStatus(HttpStatus.OK);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while removing pending scan of object:{} of bucket:{} {}", objectName,
+					bucketName, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public List<PendingScanDTO> listPendingScans() {
+		List<PendingScanDTO> pendingScans = new ArrayList<>();
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(quarantineBucket).build())) {
+				return pendingScans;
+			}
+			Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+					.bucket(quarantineBucket).prefix(PENDING_SCAN_PREFIX).recursive(true).build());
+			for (Result<Item> result : results) {
+				String marker = result.get().objectName().substring(PENDING_SCAN_PREFIX.length());
+				int separator = marker.indexOf('/');
+				if (separator > 0) {
+					pendingScans.add(new PendingScanDTO(marker.substring(0, separator),
+							marker.substring(separator + 1)));
+				}
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while listing pending scans {}", e.getMessage());
+		}
+		return pendingScans;
+	}
+
+	@Override
+	public MinioGenericResponse saveDeleteJob(DeleteJobDTO deleteJob) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			makeQuarantineBucketIfAbsent(minioClient);
+			byte[] json = objectMapper.writeValueAsBytes(deleteJob);
+			minioClient.putObject(PutObjectArgs.builder().bucket(quarantineBucket)
+					.object(DELETE_JOB_PREFIX + deleteJob.getJobId()).contentType("application/json")
+					.stream(new ByteArrayInputStream(json), json.length, -1).build());
+			minioResponse.setStatus(ConstantsUtility.SUCCESS);
+			minioResponse.setHttpStatus(HttpStatus.OK);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while saving delete job:{} {}", deleteJob.getJobId(), e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	@Override
+	public DeleteJobDTO getDeleteJob(String jobId) {
+		try {
+			return readDeleteJob(minioConfig.getMinioClient(), DELETE_JOB_PREFIX + jobId);
+		} catch (ErrorResponseException e) {
+			if (!isNotFound(e)) {
+				LOGGER.error("Error occured while reading delete job:{} {}", jobId, e.getMessage());
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while reading delete job:{} {}", jobId, e.getMessage());
+		}
+		return null;
+	}
+
+	@Override
+	public List<DeleteJobDTO> listDeleteJobs() {
+		List<DeleteJobDTO> deleteJobs = new ArrayList<>();
+		try {
+			MinioClient minioClient = minioConfig.getMinioClient();
+			if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(quarantineBucket).build())) {
+				return deleteJobs;
+			}
+			Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+					.bucket(quarantineBucket).prefix(DELETE_JOB_PREFIX).recursive(true).build());
+			for (Result<Item> result : results) {
+				String objectName = result.get().objectName();
+				try {
+					deleteJobs.add(readDeleteJob(minioClient, objectName));
+				} catch (ErrorResponseException e) {
+					// removed since listed
+					if (!isNotFound(e)) {
+						throw e;
+					}
+				}
+			}
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while listing delete jobs {}", e.getMessage());
+		}
+		return deleteJobs;
+	}
+
+	@Override
+	public MinioGenericResponse removeDeleteJob(String jobId) {
+		MinioGenericResponse minioResponse = new MinioGenericResponse();
+		try {
+			minioConfig.getMinioClient().removeObject(
+					RemoveObjectArgs.builder().bucket(quarantineBucket).object(DELETE_JOB_PREFIX + jobId).build());
+			minioResponse.setStatus(ConstantsUtility.SUCCESS);
+			minioResponse.setHttpStatus(HttpStatus.OK);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IllegalArgumentException | IOException
+				| MinioException e) {
+			LOGGER.error("Error occured while removing delete job:{} {}", jobId, e.getMessage());
+			minioResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioResponse;
+	}
+
+	private DeleteJobDTO readDeleteJob(MinioClient minioClient, String objectName) throws InvalidKeyException,
+			NoSuchAlgorithmException, IllegalArgumentException, IOException, MinioException {
+		try (InputStream json = minioClient
+				.getObject(GetObjectArgs.builder().bucket(quarantineBucket).object(objectName).build())) {
+			return objectMapper.readValue(json, DeleteJobDTO.class);
+		}
+	}
+
+	/*
+	 * Object created notification of the malware scan webhook
+	 */
+	private QueueConfiguration scanQueueConfiguration() {
+		QueueConfiguration queueConfiguration = new QueueConfiguration();
+		queueConfiguration.setQueue(notificationQueueArn);
+		queueConfiguration.setEvents(Arrays.asList(EventType.OBJECT_CREATED_ANY));
+		return queueConfiguration;
+	}
+
+	private String pendingScanMarker(String bucketName, String objectName) {
+		return PENDING_SCAN_PREFIX + bucketName + "/" + objectName;
+	}
+
+	private void putPendingScan(MinioClient minioClient, String bucketName, String objectName, int attempts)
+			throws InvalidKeyException, NoSuchAlgorithmException, IllegalArgumentException, IOException,
+			MinioException {
+		makeQuarantineBucketIfAbsent(minioClient);
+		Map<String, String> userMetadata = new HashMap<>();
+		userMetadata.put(SCAN_ATTEMPTS_METADATA, String.valueOf(attempts));
+		minioClient.putObject(PutObjectArgs.builder().bucket(quarantineBucket)
+				.object(pendingScanMarker(bucketName, objectName)).userMetadata(userMetadata)
+				.stream(new ByteArrayInputStream(new byte[0]), 0, -1).build());
+	}
+
+	private void makeQuarantineBucketIfAbsent(MinioClient minioClient) throws InvalidKeyException,
+			NoSuchAlgorithmException, IllegalArgumentException, IOException, MinioException {
+		if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(quarantineBucket).build())) {
+			LOGGER.info("Making quarantine bucket: {}", quarantineBucket);
+			minioClient.makeBucket(MakeBucketArgs.builder().bucket(quarantineBucket).build());
+		}
+	}
+
+	private static boolean isNotFound(Exception e) {
+		if (!(e instanceof ErrorResponseException)) {
+			return false;
+		}
+		String code = ((ErrorResponseException) e).errorResponse().code();
+		return "NoSuchKey".equals(code) || "NoSuchBucket".equals(code);
+	}
+
+	@Override
+	public MinioGenericResponse getBucketObjects(String userId, String bucketName, String prefix,
+			String startAfter, Integer maxKeys) {
 		MinioGenericResponse minioObjectResponse = new MinioGenericResponse();
 
 		try {
@@ -328,37 +983,23 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			String userSecretKey =  vaultConfig.validateUserInVault(userId);
 			if(StringUtils.hasText(userSecretKey)) {
 				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
-				MinioClient minioClient = MinioClient.builder().endpoint(minioBaseUri).credentials(userId, userSecretKey)
-						.build();
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
 
-				// Lists objects information.
+				// Lists objects information, pages are fetched from minio while iterating
 				LOGGER.info("Listing Objects information from minio for user:{}", userId);
-				Iterable<Result<Item>> results = minioClient
-						.listObjects(ListObjectsArgs.builder().bucket(bucketName).prefix(prefix).build());
+				Iterable<Result<Item>> results = listItems(minioClient, bucketName, prefix, startAfter, false);
 
 				List<BucketObjectVO> objects = new ArrayList<>();
-				BucketObjectVO bucketObjectVO = null;
+				Item lastItem = null;
 				for (Result<Item> result : results) {
-					bucketObjectVO = new BucketObjectVO();
-					Item item = result.get();
-					LOGGER.debug("Got details for object:{}",item.objectName()!=null?item.objectName():null);
-					bucketObjectVO.setEtag(item.etag());
-					bucketObjectVO.setIsLatest(item.isLatest());
-					bucketObjectVO.setObjectName(item.objectName());
-					bucketObjectVO.setOwner(item.owner() != null ? item.owner().displayName() : null);
-					bucketObjectVO.setStorageClass(item.storageClass());
-					bucketObjectVO.setVersionId(item.versionId());
-
-					if (item.isDir()) {
-						bucketObjectVO.setIsDir(item.isDir());
-					} else {
-						bucketObjectVO.setLastModified(item.lastModified().toString());
-						bucketObjectVO.setSize(item.size());
-						bucketObjectVO.setIsDir(false);
+					if (maxKeys != null && objects.size() == maxKeys) {
+						// One more item exists, so next page starts after the last returned one
+						minioObjectResponse.setNextContinuationToken(continuationToken(lastItem));
+						break;
 					}
-
-					objects.add(bucketObjectVO);
-
+					lastItem = result.get();
+					LOGGER.debug("Got details for object:{}",lastItem.objectName()!=null?lastItem.objectName():null);
+					objects.add(toBucketObjectVO(lastItem));
 				}
 
 				minioObjectResponse.setObjects(objects);
@@ -383,6 +1024,84 @@ public class DnaMinioClientImp implements DnaMinioClient {
 		return minioObjectResponse;
 	}
 
+	@Override
+	public MinioGenericResponse forEachBucketObject(String userId, String bucketName, String prefix,
+			String startAfter, boolean recursive, Consumer<BucketObjectVO> consumer) {
+		MinioGenericResponse minioObjectResponse = new MinioGenericResponse();
+
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if (StringUtils.hasText(userSecretKey)) {
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
+
+				LOGGER.info("Streaming Objects information from minio for user:{}", userId);
+				long count = 0;
+				for (Result<Item> result : listItems(minioClient, bucketName, prefix, startAfter, recursive)) {
+					consumer.accept(toBucketObjectVO(result.get()));
+					count++;
+				}
+				LOGGER.info("Streamed {} objects of bucket:{}", count, bucketName);
+				minioObjectResponse.setStatus(ConstantsUtility.SUCCESS);
+				minioObjectResponse.setHttpStatus(HttpStatus.OK);
+			} else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}", userId);
+				minioObjectResponse.setErrors(
+						Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:" + userId)));
+				minioObjectResponse.setStatus(ConstantsUtility.FAILURE);
+				minioObjectResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+		} catch (InvalidKeyException | ErrorResponseException | IllegalArgumentException | InsufficientDataException
+				| InternalException | InvalidResponseException | NoSuchAlgorithmException | ServerException
+				| XmlParserException | IOException e) {
+			LOGGER.error("Error occured while streaming bucket's object from minio: {}", e.getMessage());
+			minioObjectResponse.setErrors(Arrays.asList(new ErrorDTO(null, e.getMessage())));
+			minioObjectResponse.setStatus(ConstantsUtility.FAILURE);
+			minioObjectResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+
+		return minioObjectResponse;
+	}
+
+	private Iterable<Result<Item>> listItems(MinioClient minioClient, String bucketName, String prefix,
+			String startAfter, boolean recursive) {
+		ListObjectsArgs.Builder listObjectsArgs = ListObjectsArgs.builder().bucket(bucketName).prefix(prefix)
+				.recursive(recursive).maxKeys(LIST_PAGE_SIZE);
+		if (StringUtils.hasText(startAfter)) {
+			listObjectsArgs.startAfter(startAfter);
+		}
+		return minioClient.listObjects(listObjectsArgs.build());
+	}
+
+	/*
+	 * Keys below a directory sort right after it, so a directory is skipped as a
+	 * whole by starting after the highest key it can hold. Keys are compared as
+	 * UTF-8 bytes, U+10FFFF sorts after every other character including
+	 * supplementary ones, Character.MAX_VALUE (U+FFFF) does not
+	 */
+	private String continuationToken(Item lastItem) {
+		return lastItem.isDir() ? lastItem.objectName() + HIGHEST_CODE_POINT : lastItem.objectName();
+	}
+
+	private BucketObjectVO toBucketObjectVO(Item item) {
+		BucketObjectVO bucketObjectVO = new BucketObjectVO();
+		bucketObjectVO.setEtag(item.etag());
+		bucketObjectVO.setIsLatest(item.isLatest());
+		bucketObjectVO.setObjectName(item.objectName());
+		bucketObjectVO.setOwner(item.owner() != null ? item.owner().displayName() : null);
+		bucketObjectVO.setStorageClass(item.storageClass());
+		bucketObjectVO.setVersionId(item.versionId());
+
+		if (item.isDir()) {
+			bucketObjectVO.setIsDir(item.isDir());
+		} else {
+			bucketObjectVO.setLastModified(item.lastModified().toString());
+			bucketObjectVO.setSize(item.size());
+			bucketObjectVO.setIsDir(false);
+		}
+		return bucketObjectVO;
+	}
+
 	@Override
 	public MinioGenericResponse onboardUserMinio(String userId, List<String> policies) {
 		MinioGenericResponse minioResponse = new MinioGenericResponse();
@@ -391,13 +1110,10 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			MinioAdminClient minioAdminClient = minioConfig.getMinioAdminClient();
 			LOGGER.debug("Validating user:{} in minio", userId);
 
-			LOGGER.debug("List all minio users.");
-			// To fetch user list from cache minioUsersCache
-			Map<String, UserInfo> users = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
-			if (users.containsKey(userId)) {
+			// Policies are added to the current ones, so they are read from minio itself
+			UserInfo userInfo = getLiveMinioUser(minioAdminClient, userId);
+			if (userInfo != null) {
 				LOGGER.info("User: {} already exists", userId);
-				// Fetching user info
-				UserInfo userInfo = users.get(userId);
 				// Fetching user policies
 				String existingPolicy = userInfo.policyName()!=null?userInfo.policyName():"";
 
@@ -409,7 +1125,7 @@ public class DnaMinioClientImp implements DnaMinioClient {
 				}
 				// Adding new policies to existing one
 				for (String policy : policies) {
-					existingPolicy = !existingPolicy.contains(policy) ? existingPolicy + "," + policy : existingPolicy;
+					existingPolicy = PolicyUtility.addPolicy(existingPolicy, policy);
 				}
 
 				// Setting new policy set to user
@@ -420,7 +1136,7 @@ public class DnaMinioClientImp implements DnaMinioClient {
 				// updating policy
 				UserInfo userInfoTemp = new UserInfo(userInfo.status(), userInfo.secretKey(), existingPolicy,
 						userInfo.memberOf());
-				users.put(userId, userInfoTemp);
+				cacheUtil.updateMinioUser(userId, userInfoTemp);
 
 			} else {
 				// to build policies as comma separated
@@ -445,7 +1161,7 @@ public class DnaMinioClientImp implements DnaMinioClient {
 				// Update users list for minioUsersCache
 				// updating policy
 				UserInfo userInfoTemp = new UserInfo(Status.ENABLED, userSecretKey, commaSeparatedPolicies, null);
-				users.put(userId, userInfoTemp);
+				cacheUtil.updateMinioUser(userId, userInfoTemp);
 			}
 			// Building User Onboard response
 			minioResponse.setStatus(ConstantsUtility.SUCCESS);
@@ -455,12 +1171,6 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			userVO.setSecretKey(userSecretKey);
 			minioResponse.setUser(userVO);
 
-			// updating minioUsersCache
-			LOGGER.debug("Removing all enteries from {}.", ConstantsUtility.MINIO_USERS_CACHE);
-			cacheUtil.removeAll(ConstantsUtility.MINIO_USERS_CACHE);
-			LOGGER.debug("Updating {}.", ConstantsUtility.MINIO_USERS_CACHE);
-			cacheUtil.updateCache(ConstantsUtility.MINIO_USERS_CACHE, users);
-
 		} catch (NoSuchAlgorithmException | InvalidKeyException | IOException | InvalidCipherTextException e) {
 			LOGGER.error("Error occured while onboarding user to minio:{} ", e.getMessage());
 			// Building response for user onboard failure
@@ -479,20 +1189,23 @@ public class DnaMinioClientImp implements DnaMinioClient {
 		try {
 			MinioAdminClient minioAdminClient = minioConfig.getMinioAdminClient();
 			LOGGER.info("Fetching user info from minio: {}", userId);
-			Map<String, UserInfo> users = minioAdminClient.listUsers();
+			// policies and groups are written back with the new secret, so they must be
+			// current, the cached user may be outdated or not loaded yet
+			UserInfo userInfo = getLiveMinioUser(minioAdminClient, userId);
 			// Creating new secret key for user
 			String userSecretKey = UUID.randomUUID().toString();
 
-			if (users.containsKey(userId)) {
-				UserInfo userInfo = users.get(userId);
-
+			if (userInfo != null) {
 				LOGGER.info("Setting new secret key for existing user:{} to minio.", userId);
 				minioAdminClient.addUser(userId, Status.ENABLED, userSecretKey, userInfo.policyName(),
 						userInfo.memberOf());
+				cacheUtil.updateMinioUser(userId,
+						new UserInfo(Status.ENABLED, userSecretKey, userInfo.policyName(), userInfo.memberOf()));
 
 			} else {
 				LOGGER.info("Adding new user:{} to minio.", userId);
 				minioAdminClient.addUser(userId, Status.ENABLED, userSecretKey, null, null);
+				cacheUtil.updateMinioUser(userId, new UserInfo(Status.ENABLED, userSecretKey, null, null));
 			}
 
 			LOGGER.info("Adding user to vault:{}", userId);
@@ -517,21 +1230,13 @@ public class DnaMinioClientImp implements DnaMinioClient {
 	@Override
 	public PermissionVO getBucketPermission(String bucketName, String currentUser){
 		PermissionVO permissionVO = null;
-		LOGGER.debug("Getting minio users from ehcache: {}",ConstantsUtility.MINIO_USERS_CACHE);
-		Map<String, UserInfo> usersInfo = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
-		UserInfo userInfo = usersInfo.get(currentUser);
-		if(Objects.nonNull(userInfo)) {
+		LOGGER.debug("Getting minio user from cache: {}",ConstantsUtility.MINIO_USERS_CACHE);
+		if(getMinioUser(currentUser) != null) {
 			//Setting permission for bucket
-			permissionVO = new PermissionVO();
-			if (userInfo.policyName().contains(bucketName + "_" + ConstantsUtility.READ)) {
-				LOGGER.debug("User:{} has read access to bucket:{}",currentUser,bucketName);
-				permissionVO.setRead(true);
-				permissionVO.setWrite(false);
-			}
-			if(userInfo.policyName().contains(bucketName + "_" + ConstantsUtility.READWRITE)) {
-				LOGGER.debug("User:{} has read/write access to bucket:{}",currentUser,bucketName);
-				permissionVO.setRead(true);
-				permissionVO.setWrite(true);
+			permissionVO = cacheUtil.getBucketPermissionIndex().getPermission(bucketName, currentUser);
+			if (permissionVO == null) {
+				LOGGER.debug("User:{} has no access to bucket:{}", currentUser, bucketName);
+				permissionVO = new PermissionVO();
 			}
 		}
 		return permissionVO;
@@ -540,44 +1245,32 @@ public class DnaMinioClientImp implements DnaMinioClient {
 	@Override
 	public List<UserVO> getBucketCollaborators(String bucketName, String currentUser) {
 		List<UserVO> bucketCollaborators = null;
-		// Getting minio users from ehcache minioUsersCache
-		LOGGER.debug("Getting minio users from ehcache: {}",ConstantsUtility.MINIO_USERS_CACHE);
-		Map<String, UserInfo> usersInfo = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
-		if (!usersInfo.isEmpty()) {
+		Map<String, PermissionVO> bucketUsers = null;
+		// Checking minio users are fully loaded into minioUsersCache, before that
+		// the index holds only single users and would miss collaborators
+		if (cacheUtil.isMinioUsersLoaded()) {
 			LOGGER.debug("Got user info from {}.",ConstantsUtility.MINIO_USERS_CACHE);
+			bucketUsers = cacheUtil.getBucketPermissionIndex().getUsers(bucketName);
+		} else {
+			LOGGER.debug("{} not loaded yet, listing users from minio.", ConstantsUtility.MINIO_USERS_CACHE);
+			Map<String, UserInfo> users = listUsers();
+			if (users != null) {
+				bucketUsers = BucketPermissionIndex.getUsers(bucketName, users);
+			}
+		}
+		if (bucketUsers != null) {
 			bucketCollaborators = new ArrayList<>();
-			// Iterating over usersInfo map to get collaborators
-			for (var entry : usersInfo.entrySet()) {
-				if (StringUtils.hasText(entry.getValue().policyName()) && !entry.getKey().equals(currentUser)) {
+			// Iterating over users having a policy for the bucket
+			for (var entry : bucketUsers.entrySet()) {
+				if (!entry.getKey().equals(currentUser)) {
+					LOGGER.debug("Setting Collaborator as user:{} has access to bucket:{}", entry.getKey(),
+							bucketName);
 					UserVO userVO = new UserVO();
-					PermissionVO permissionVO = new PermissionVO();
-					if (entry.getValue().policyName().contains(bucketName + "_" + ConstantsUtility.READ)) {
-						LOGGER.debug("User:{} has read access to bucket:{}", entry.getKey(), bucketName);
-						// Setting accesskey
-						userVO.setAccesskey(entry.getKey());
-						// Setting permission
-						permissionVO.setRead(true);
-						permissionVO.setWrite(false);
-						userVO.setPermission(permissionVO);
-
-					}
-					if (entry.getValue().policyName().contains(bucketName + "_" + ConstantsUtility.READWRITE)) {
-						LOGGER.debug("User:{} has read/write access to bucket:{}", entry.getKey(), bucketName);
-						// Setting accesskey
-						userVO.setAccesskey(entry.getKey());
-						// Setting permission
-						permissionVO.setRead(true);
-						permissionVO.setWrite(true);
-						userVO.setPermission(permissionVO);
-					}
-
-					if (!ObjectUtils.isEmpty(userVO.getAccesskey())) {
-						LOGGER.debug("Setting Collaborator as user:{} has access to bucket:{}", entry.getKey(),
-								bucketName);
-						userVO.setPermission(permissionVO);
-						bucketCollaborators.add(userVO);
-					}
-
+					// Setting accesskey
+					userVO.setAccesskey(entry.getKey());
+					// Setting permission
+					userVO.setPermission(entry.getValue());
+					bucketCollaborators.add(userVO);
 				}
 			}
 		}
@@ -598,18 +1291,65 @@ public class DnaMinioClientImp implements DnaMinioClient {
 		return users;
 	}
 
+	@Override
+	public UserInfo getLiveUserInfo(String userId) {
+		try {
+			UserInfo userInfo = getLiveMinioUser(minioConfig.getMinioAdminClient(), userId);
+			if (userInfo != null) {
+				cacheUtil.updateMinioUser(userId, userInfo);
+			}
+			return userInfo;
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IOException | InvalidCipherTextException e) {
+			LOGGER.error("Error occured while fetching user:{} from Minio:{}", userId, e.getMessage());
+			return null;
+		}
+	}
+
 	@Override
 	public Boolean validateUserInMinio(String userId) {
 		Boolean isUserExist = false;
-		// Getting minio users from ehcache minioUsersCache
-		LOGGER.debug("Getting minio users from ehcache: {}",ConstantsUtility.MINIO_USERS_CACHE);
-		Map<String, UserInfo> usersInfo = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
-		if (usersInfo.containsKey(userId)) {
+		// Getting minio user from minioUsersCache
+		LOGGER.debug("Getting minio user from cache: {}",ConstantsUtility.MINIO_USERS_CACHE);
+		if (getMinioUser(userId) != null) {
 			isUserExist = true;
 		}
 		return isUserExist;
 	}
 
+	/*
+	 * To fetch user info from minio itself. A failed lookup is confirmed with the
+	 * user list, so that an unreachable minio never passes for an unknown user.
+	 */
+	private UserInfo getLiveMinioUser(MinioAdminClient minioAdminClient, String userId)
+			throws NoSuchAlgorithmException, InvalidKeyException, IOException, InvalidCipherTextException {
+		try {
+			return minioAdminClient.getUserInfo(userId);
+		} catch (RuntimeException e) {
+			LOGGER.debug("User info lookup failed for user:{}, checking user list: {}", userId, e.getMessage());
+			return minioAdminClient.listUsers().get(userId);
+		}
+	}
+
+	/*
+	 * To fetch user info from minioUsersCache. Until the first background sync has
+	 * completed, a user missing from the cache is looked up in minio directly.
+	 */
+	private UserInfo getMinioUser(String userId) {
+		UserInfo userInfo = cacheUtil.getMinioUser(userId);
+		if (userInfo == null && !cacheUtil.isMinioUsersLoaded()) {
+			try {
+				LOGGER.debug("Minio users cache not loaded yet, fetching user:{} from minio", userId);
+				userInfo = minioConfig.getMinioAdminClient().getUserInfo(userId);
+				if (userInfo != null) {
+					cacheUtil.updateMinioUser(userId, userInfo);
+				}
+			} catch (Exception e) {
+				LOGGER.debug("User:{} not found in minio: {}", userId, e.getMessage());
+			}
+		}
+		return userInfo;
+	}
+
 
 	// To create bucket policy
 	private void createBucketPolicy(String policyName, String version, String resource, String action, String effect,
@@ -630,8 +1370,7 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			String userSecretKey = vaultConfig.validateUserInVault(userId);
 			if(StringUtils.hasText(userSecretKey)) {
 				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
-				MinioClient minioClient = MinioClient.builder().endpoint(minioBaseUri).credentials(userId, userSecretKey)
-						.build();
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
 				LOGGER.debug("Setting object list to be deleted");
 				List<DeleteObject> objects = new LinkedList<>();
 				if (StringUtils.hasText(prefix)) {
@@ -684,6 +1423,106 @@ public class DnaMinioClientImp implements DnaMinioClient {
 		return minioGenericResponse;
 	}
 
+	@Override
+	public MinioGenericResponse removeAllObjects(String userId, String bucketName, String prefix,
+			DeleteJobDTO deleteJob) {
+		MinioGenericResponse minioGenericResponse = new MinioGenericResponse();
+		List<CompletableFuture<Void>> batches = new ArrayList<>();
+		try {
+			LOGGER.info("Fetching secrets from vault for user:{}", userId);
+			String userSecretKey = vaultConfig.validateUserInVault(userId);
+			if (StringUtils.hasText(userSecretKey)) {
+				LOGGER.debug("Fetch secret from vault successfull for user:{}", userId);
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
+				// Bounds the batches listed ahead of the workers deleting them
+				Semaphore batchesInFlight = new Semaphore(deleteWorkers * 2);
+
+				LOGGER.info("Listing objects of bucket:{} under prefix:{} for removal", bucketName, prefix);
+				Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder().bucket(bucketName)
+						.prefix(StringUtils.hasText(prefix) ? prefix : null).recursive(true).build());
+				List<DeleteObject> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+				for (Result<Item> result : results) {
+					batch.add(new DeleteObject(result.get().objectName()));
+					if (batch.size() == DELETE_BATCH_SIZE) {
+						batches.add(removeObjectsBatch(minioClient, bucketName, batch, batchesInFlight, deleteJob));
+						batch = new ArrayList<>(DELETE_BATCH_SIZE);
+					}
+				}
+				if (!batch.isEmpty()) {
+					batches.add(removeObjectsBatch(minioClient, bucketName, batch, batchesInFlight, deleteJob));
+				}
+				CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+				if (deleteJob.getFailedCount().get() == 0) {
+					LOGGER.info("Removed {} objects from Minio bucket:{}", deleteJob.getDeletedCount().get(),
+							bucketName);
+					minioGenericResponse.setStatus(ConstantsUtility.SUCCESS);
+					minioGenericResponse.setHttpStatus(HttpStatus.OK);
+				} else {
+					LOGGER.info("Failed to remove {} objects from Minio bucket:{}", deleteJob.getFailedCount().get(),
+							bucketName);
+					minioGenericResponse.setErrors(Arrays.asList(new ErrorDTO(null,
+							"Failed to delete " + deleteJob.getFailedCount().get() + " objects of bucket " + bucketName)));
+					minioGenericResponse.setStatus(ConstantsUtility.FAILURE);
+					minioGenericResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+				}
+			} else {
+				LOGGER.debug("Fetch secret from vault failed for user:{}", userId);
+				minioGenericResponse.setErrors(
+						Arrays.asList(new ErrorDTO(null, "Fetch secret from vault failed for user:" + userId)));
+				minioGenericResponse.setStatus(ConstantsUtility.FAILURE);
+				minioGenericResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			}
+		} catch (InvalidKeyException | ErrorResponseException | InsufficientDataException | InternalException
+				| InvalidResponseException | NoSuchAlgorithmException | ServerException | XmlParserException
+				| IllegalArgumentException | IOException | InterruptedException e) {
+			LOGGER.error("Error occured while removing objects from Minio:{} ", e.getMessage());
+			// Let submitted batches finish so the counters are final
+			CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			minioGenericResponse.setStatus(ConstantsUtility.FAILURE);
+			minioGenericResponse.setErrors(
+					Arrays.asList(new ErrorDTO(null, "Error occured while removing objects from Minio: " + e.getMessage())));
+			minioGenericResponse.setHttpStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return minioGenericResponse;
+	}
+
+	/*
+	 * To remove one batch of objects with a single DeleteObjects call on
+	 * deleteExecutor. Blocks while too many batches are in flight.
+	 */
+	private CompletableFuture<Void> removeObjectsBatch(MinioClient minioClient, String bucketName,
+			List<DeleteObject> objects, Semaphore batchesInFlight, DeleteJobDTO deleteJob)
+			throws InterruptedException {
+		batchesInFlight.acquire();
+		return CompletableFuture.runAsync(() -> {
+			long failed = 0;
+			try {
+				Iterable<Result<DeleteError>> results = minioClient
+						.removeObjects(RemoveObjectsArgs.builder().bucket(bucketName).objects(objects).build());
+				for (Result<DeleteError> result : results) {
+					DeleteError deleteError = result.get();
+					failed++;
+					deleteJob.addError("Error in deleting object " + deleteError.objectName() + ": "
+							+ deleteError.message());
+				}
+				deleteJob.getDeletedCount().addAndGet(objects.size() - failed);
+				deleteJob.getFailedCount().addAndGet(failed);
+			} catch (InvalidKeyException | ErrorResponseException | InsufficientDataException | InternalException
+					| InvalidResponseException | NoSuchAlgorithmException | ServerException | XmlParserException
+					| IllegalArgumentException | IOException e) {
+				LOGGER.error("Error occured while removing batch of objects from Minio:{} ", e.getMessage());
+				deleteJob.getFailedCount().addAndGet(objects.size() - failed);
+				deleteJob.addError("Error occured while removing objects from Minio: " + e.getMessage());
+			} finally {
+				batchesInFlight.release();
+			}
+		}, deleteExecutor);
+	}
+
 	@Override
 	public MinioGenericResponse removeBucket(String userId, String bucketName) {
 		MinioGenericResponse minioGenericResponse = new MinioGenericResponse();
@@ -693,8 +1532,7 @@ public class DnaMinioClientImp implements DnaMinioClient {
 			String userSecretKey = vaultConfig.validateUserInVault(userId);
 			if(StringUtils.hasText(userSecretKey)) {
 				LOGGER.debug("Fetch secret from vault successfull for user:{}",userId);
-				MinioClient minioClient = MinioClient.builder().endpoint(minioBaseUri).credentials(userId, userSecretKey)
-						.build();
+				MinioClient minioClient = minioClientRegistry.getClient(userId, userSecretKey);
 				LOGGER.info("Removing bucket:{} from Minio", bucketName);
 				minioClient.removeBucket(RemoveBucketArgs.builder().bucket(bucketName).build());
 				LOGGER.info("Success from Minio remove Bucket:{}", bucketName);
@@ -731,72 +1569,62 @@ public class DnaMinioClientImp implements DnaMinioClient {
 	private void deletePolicy(List<String> policies) throws InvalidKeyException, NoSuchAlgorithmException, IOException {
 		// Getting MinioAdminClient from config
 		MinioAdminClient minioAdminClient = minioConfig.getMinioAdminClient();
-		LOGGER.debug("Fetching users from cache.");
-		Map<String, UserInfo> users = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
-		// Iterating over usersInfo map
-		for (var entry : users.entrySet()) {
-			// To fetch user access key
-			String userId = entry.getKey();
-			// To fetch user info
-			UserInfo userInfo = entry.getValue();
+		// Only users having a permission on the buckets of these policies can hold them
+		Set<String> userIds = new HashSet<>();
+		for (String policy : policies) {
+			String bucketName = policy.substring(0, policy.lastIndexOf('_'));
+			userIds.addAll(cacheUtil.getBucketPermissionIndex().getUsers(bucketName).keySet());
+		}
+		for (String userId : userIds) {
+			// Policies are written back, so they are read from minio itself
+			UserInfo userInfo = getLiveUserInfo(userId);
+			if (userInfo == null) {
+				continue;
+			}
 			// To fetch user policy
 			String userPolicy = userInfo.policyName();
 
-			// To check if user has any policy
-			if (StringUtils.hasText(userPolicy)) {
-				// Iterating over policies
-				for (String policy : policies) {
-					// Checking whether user has policy
-					if (userPolicy.contains(policy)) {
-						// Removing policy
-						userPolicy = userPolicy.replace(policy, "");
-						// To check if policy contains only commas ','
-						if (!userPolicy.chars().allMatch(c -> c == ',')) {
-							// Unlink policy from user in minio
-							minioAdminClient.setPolicy(userId, false, userPolicy);
-
-							// Removing policy from minio
-							minioAdminClient.removeCannedPolicy(policy);
-
-							// updating cache map for user
-							UserInfo userInfoTemp = new UserInfo(Status.ENABLED, userInfo.secretKey(), userPolicy,
-									userInfo.memberOf());
-							users.put(userId, userInfoTemp);
-						}
-
+			// Iterating over policies
+			for (String policy : policies) {
+				// Checking whether user has policy
+				if (PolicyUtility.hasPolicy(userPolicy, policy)) {
+					// Removing policy
+					userPolicy = PolicyUtility.removePolicy(userPolicy, policy);
+					// To check if user is left with any policy
+					if (StringUtils.hasText(userPolicy)) {
+						// Unlink policy from user in minio
+						minioAdminClient.setPolicy(userId, false, userPolicy);
+
+						// Removing policy from minio
+						minioAdminClient.removeCannedPolicy(policy);
+
+						// updating cache map for user
+						UserInfo userInfoTemp = new UserInfo(Status.ENABLED, userInfo.secretKey(), userPolicy,
+								userInfo.memberOf());
+						cacheUtil.updateMinioUser(userId, userInfoTemp);
 					}
+
 				}
 			}
 		}
-		// updating minioUsersCache
-		LOGGER.debug("Removing all enteries from {}.", ConstantsUtility.MINIO_USERS_CACHE);
-		cacheUtil.removeAll(ConstantsUtility.MINIO_USERS_CACHE);
-		LOGGER.debug("Updating {}.", ConstantsUtility.MINIO_USERS_CACHE);
-		cacheUtil.updateCache(ConstantsUtility.MINIO_USERS_CACHE, users);
 	}
 
 	@Override
 	public void setPolicy(String userOrGroupName, boolean isGroup, String policyName) {
 		// Getting MinioAdminClient from config
 		MinioAdminClient minioAdminClient = minioConfig.getMinioAdminClient();
-		LOGGER.debug("Fetching users from cache.");
-		Map<String, UserInfo> users = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
 		try {
 			LOGGER.info("Updating policy for user:{}", userOrGroupName);
 			minioAdminClient.setPolicy(userOrGroupName, isGroup, policyName);
 			LOGGER.info("Success from minio set policy");
 
-			// updating cache
-			UserInfo userInfo = users.get(userOrGroupName);
-			UserInfo userInfoTemp = new UserInfo(userInfo.status(), userInfo.secretKey(), policyName,
-					userInfo.memberOf());
-			users.put(userOrGroupName, userInfoTemp);
-
-			// updating minioUsersCache
-			LOGGER.debug("Removing all enteries from {}.", ConstantsUtility.MINIO_USERS_CACHE);
-			cacheUtil.removeAll(ConstantsUtility.MINIO_USERS_CACHE);
-			LOGGER.debug("Updating {}.", ConstantsUtility.MINIO_USERS_CACHE);
-			cacheUtil.updateCache(ConstantsUtility.MINIO_USERS_CACHE, users);
+			// updating minioUsersCache and bucket permissions of user
+			UserInfo userInfo = getMinioUser(userOrGroupName);
+			if (userInfo != null) {
+				UserInfo userInfoTemp = new UserInfo(userInfo.status(), userInfo.secretKey(), policyName,
+						userInfo.memberOf());
+				cacheUtil.updateMinioUser(userOrGroupName, userInfoTemp);
+			}
 
 		} catch (InvalidKeyException | NoSuchAlgorithmException | IOException e) {
 			LOGGER.error("Error occured while updating policy for user:{}", userOrGroupName);
@@ -813,4 +1641,40 @@ public class DnaMinioClientImp implements DnaMinioClient {
 		bucketConnectionUri.put(ConstantsUtility.HOSTNAME, hostName);
 		return bucketConnectionUri;
 	}
+
+	/*
+	 * Uploads a single part on the upload executor, data must not be modified
+	 * until the returned future completes
+	 */
+	private CompletableFuture<Part> uploadPartAsync(MultipartMinioClient minioClient, String bucketName,
+			String objectName, String uploadId, int partNumber, byte[] data, int length) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				LOGGER.debug("Uploading part:{} of object:{}", partNumber, objectName);
+				return minioClient.uploadPart(bucketName, objectName, uploadId, partNumber, data, length);
+			} catch (InvalidKeyException | NoSuchAlgorithmException | IOException | MinioException e) {
+				throw new CompletionException(e);
+			}
+		}, uploadExecutor);
+	}
+
+	private void abortUpload(MultipartMinioClient minioClient, String bucketName, String objectName,
+			String uploadId) {
+		try {
+			minioClient.abortUpload(bucketName, objectName, uploadId);
+			LOGGER.info("Aborted multipart upload of object:{}", objectName);
+		} catch (InvalidKeyException | NoSuchAlgorithmException | IOException | MinioException e) {
+			LOGGER.error("Error occured while aborting multipart upload of object:{} : {}", objectName,
+					e.getMessage());
+		}
+	}
+
+	private void closeQuietly(OutputStream stream) {
+		try {
+			stream.close();
+		} catch (IOException e) {
+			LOGGER.debug("Error occured while closing scan stream: {}", e.getMessage());
+		}
+	}
+
 }
@@ -0,0 +1,93 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.minio.client;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.minio.MinioClient;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Keeps one long lived MinioClient per access key. All clients share a single
+ * OkHttp client, so connections to minio are pooled across users.
+ */
+@Component
+public class MinioClientRegistry {
+
+	private Logger LOGGER = LoggerFactory.getLogger(MinioClientRegistry.class);
+
+	@Value("${minio.endpoint}")
+	private String minioBaseUri;
+
+	// Same timeouts and protocol as the default client built by the minio sdk
+	private final OkHttpClient httpClient = new OkHttpClient.Builder().connectTimeout(5, TimeUnit.MINUTES)
+			.writeTimeout(5, TimeUnit.MINUTES).readTimeout(5, TimeUnit.MINUTES)
+			.protocols(Arrays.asList(Protocol.HTTP_1_1)).build();
+
+	private final Map<String, RegisteredClient> clients = new ConcurrentHashMap<>();
+
+	/*
+	 * Returns the client for given user, a new one is built if the secret key
+	 * differs from the one the registered client was built with
+	 */
+	public MinioClient getClient(String userId, String userSecretKey) {
+		RegisteredClient registered = clients.get(userId);
+		if (registered == null || !registered.secretKey.equals(userSecretKey)) {
+			LOGGER.debug("Building minio client for user:{}", userId);
+			registered = new RegisteredClient(userSecretKey, MinioClient.builder().endpoint(minioBaseUri)
+					.credentials(userId, userSecretKey).httpClient(httpClient).build());
+			clients.put(userId, registered);
+		}
+		return registered.client;
+	}
+
+	public void evict(String userId) {
+		clients.remove(userId);
+	}
+
+	private static class RegisteredClient {
+
+		private final String secretKey;
+
+		private final MinioClient client;
+
+		private RegisteredClient(String secretKey, MinioClient client) {
+			this.secretKey = secretKey;
+			this.client = client;
+		}
+	}
+}
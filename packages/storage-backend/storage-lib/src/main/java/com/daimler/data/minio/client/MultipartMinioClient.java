@@ -0,0 +1,88 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.minio.client;
+
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.minio.MinioClient;
+import io.minio.errors.MinioException;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+
+/**
+ * Exposes the low level multipart upload calls of {@link MinioClient} so that an
+ * upload can be committed or aborted by the caller once all parts are sent.
+ */
+public class MultipartMinioClient extends MinioClient {
+
+	public MultipartMinioClient(MinioClient client) {
+		super(client);
+	}
+
+	public String createUpload(String bucketName, String objectName)
+			throws InvalidKeyException, NoSuchAlgorithmException, IOException, MinioException {
+		return createMultipartUpload(bucketName, null, objectName, null, null).result().uploadId();
+	}
+
+	public Part uploadPart(String bucketName, String objectName, String uploadId, int partNumber, byte[] data,
+			int length) throws InvalidKeyException, NoSuchAlgorithmException, IOException, MinioException {
+		String etag = uploadPart(bucketName, null, objectName, data, length, uploadId, partNumber, null, null).etag();
+		return new Part(partNumber, etag);
+	}
+
+	public void completeUpload(String bucketName, String objectName, String uploadId, List<Part> parts)
+			throws InvalidKeyException, NoSuchAlgorithmException, IOException, MinioException {
+		completeMultipartUpload(bucketName, null, objectName, uploadId, parts.toArray(new Part[0]), null, null);
+	}
+
+	/*
+	 * To list the parts uploaded so far, used when parts were sent by the client
+	 * directly to minio
+	 */
+	public List<Part> listUploadedParts(String bucketName, String objectName, String uploadId)
+			throws InvalidKeyException, NoSuchAlgorithmException, IOException, MinioException {
+		List<Part> parts = new ArrayList<>();
+		Integer partNumberMarker = null;
+		ListPartsResult result;
+		do {
+			result = listParts(bucketName, null, objectName, null, partNumberMarker, uploadId, null, null).result();
+			parts.addAll(result.partList());
+			partNumberMarker = result.nextPartNumberMarker();
+		} while (result.isTruncated());
+		return parts;
+	}
+
+	public void abortUpload(String bucketName, String objectName, String uploadId)
+			throws InvalidKeyException, NoSuchAlgorithmException, IOException, MinioException {
+		abortMultipartUpload(bucketName, null, objectName, uploadId, null, null);
+	}
+}
@@ -27,52 +27,77 @@
 
 package com.daimler.data.service.storage;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.daimler.data.application.auth.UserStore;
 import com.daimler.data.application.config.MalwareScannerClient;
 import com.daimler.data.application.config.VaultConfig;
 import com.daimler.data.controller.exceptions.GenericMessage;
 import com.daimler.data.controller.exceptions.MessageDescription;
+import com.daimler.data.dto.DeleteJobDTO;
 import com.daimler.data.dto.ErrorDTO;
 import com.daimler.data.dto.FileScanDetailsVO;
 import com.daimler.data.dto.MinioGenericResponse;
+import com.daimler.data.dto.ObjectStreamDTO;
 import com.daimler.data.dto.storage.BucketCollectionVO;
 import com.daimler.data.dto.storage.BucketObjectResponseVO;
 import com.daimler.data.dto.storage.BucketObjectResponseWrapperVO;
 import com.daimler.data.dto.storage.BucketResponseVO;
 import com.daimler.data.dto.storage.BucketResponseWrapperVO;
 import com.daimler.data.dto.storage.BucketVo;
+import com.daimler.data.dto.storage.DeleteJobResponseVO;
+import com.daimler.data.dto.storage.DeleteJobVO;
 import com.daimler.data.dto.storage.PermissionVO;
+import com.daimler.data.dto.storage.PresignedUploadResponseVO;
+import com.daimler.data.dto.storage.PresignedUploadVO;
+import com.daimler.data.dto.storage.PresignedUrlResponseVO;
+import com.daimler.data.dto.storage.PresignedUrlVO;
 import com.daimler.data.dto.storage.UserRefreshWrapperVO;
 import com.daimler.data.dto.storage.UserVO;
 import com.daimler.data.minio.client.DnaMinioClient;
 import com.daimler.data.util.CacheUtil;
 import com.daimler.data.util.ConstantsUtility;
+import com.daimler.data.util.PolicyUtility;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.minio.admin.UserInfo;
+import io.minio.http.Method;
 import io.minio.messages.Bucket;
 
 @Service
@@ -100,6 +125,35 @@ public class BaseStorageService implements StorageService {
 	
 	@Autowired
 	private MalwareScannerClient malwareScannerClient;
+
+	@Autowired
+	private ExecutorService deleteJobExecutor;
+
+	@Value("${minio.delete.jobs.ttlSeconds}")
+	private long deleteJobsTtlSeconds;
+
+	@Value("${minio.delete.jobs.saveIntervalMillis}")
+	private long deleteJobsSaveIntervalMillis;
+
+	// Delete jobs queued or running on this replica, their progress is saved
+	// periodically so other replicas can report it and resume them
+	private final Map<String, DeleteJobDTO> localDeleteJobs = new ConcurrentHashMap<>();
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${minio.list.maxKeys}")
+	private int listMaxKeys;
+
+	@Value("${minio.presign.expirySeconds}")
+	private int presignExpirySeconds;
+
+	@Value("${minio.presign.maxParts}")
+	private int presignMaxParts;
+
+	private static final int SCAN_PIPE_SIZE = 64 * 1024;
+
+	private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
 	
 	public BaseStorageService() {
 		super();
@@ -283,19 +337,28 @@ public class BaseStorageService implements StorageService {
 	}
 
 	@Override
-	public ResponseEntity<BucketObjectResponseWrapperVO> getBucketObjects(String bucketName, String prefix) {
+	public ResponseEntity<BucketObjectResponseWrapperVO> getBucketObjects(String bucketName, String prefix,
+			Integer maxKeys, String continuationToken) {
 		LOGGER.debug("Fetching Current user.");
 		String currentUser = userStore.getUserInfo().getId();
 		HttpStatus httpStatus;
 		BucketObjectResponseWrapperVO objectResponseWrapperVO = new BucketObjectResponseWrapperVO();
 
+		if (maxKeys != null && maxKeys < 1) {
+			LOGGER.info("Invalid maxKeys:{} for listing objects", maxKeys);
+			objectResponseWrapperVO.setErrors(Arrays.asList(new MessageDescription("maxKeys should be at least 1")));
+			return new ResponseEntity<>(objectResponseWrapperVO, HttpStatus.BAD_REQUEST);
+		}
+
 		LOGGER.debug("list bucket objects through minio client");
-		MinioGenericResponse minioObjectResponse = dnaMinioClient.getBucketObjects(currentUser, bucketName, prefix);
+		MinioGenericResponse minioObjectResponse = dnaMinioClient.getBucketObjects(currentUser, bucketName, prefix,
+				continuationToken, maxKeys != null ? Math.min(maxKeys, listMaxKeys) : null);
 		if (minioObjectResponse != null && minioObjectResponse.getStatus().equals(ConstantsUtility.SUCCESS)) {
 			LOGGER.info("Success from list objects minio client");
 			BucketObjectResponseVO bucketObjectResponseVO = new BucketObjectResponseVO();
 			//setting Bucket's object response from minio
 			bucketObjectResponseVO.setBucketObjects(minioObjectResponse.getObjects());
+			bucketObjectResponseVO.setNextContinuationToken(minioObjectResponse.getNextContinuationToken());
 			
 			LOGGER.info("Fetching bucket:{} permission for user:{}",bucketName,currentUser);
 			bucketObjectResponseVO.setBucketPermission(dnaMinioClient.getBucketPermission(bucketName, currentUser));
@@ -314,24 +377,87 @@ public class BaseStorageService implements StorageService {
 	}
 
 	@Override
-	public ResponseEntity<ByteArrayResource> getObjectContent(String bucketName, String prefix) {
+	public ResponseEntity<StreamingResponseBody> streamBucketObjects(String bucketName, String prefix,
+			String continuationToken, Boolean recursive) {
+		LOGGER.debug("Fetching Current user.");
+		String currentUser = userStore.getUserInfo().getId();
+
+		if (!hasPermission(bucketName, currentUser, false)) {
+			LOGGER.info("No permission for user:{} to list objects of bucket:{}", currentUser, bucketName);
+			return new ResponseEntity<>(null, HttpStatus.FORBIDDEN);
+		}
+
+		// One BucketObjectVO per line, a failure after streaming started is reported as last line
+		StreamingResponseBody responseBody = outputStream -> {
+			BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream);
+			MinioGenericResponse minioObjectResponse = dnaMinioClient.forEachBucketObject(currentUser, bucketName,
+					prefix, continuationToken, Boolean.TRUE.equals(recursive), bucketObjectVO -> {
+						try {
+							bufferedStream.write(objectMapper.writeValueAsBytes(bucketObjectVO));
+							bufferedStream.write('\n');
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+			if (minioObjectResponse == null || !ConstantsUtility.SUCCESS.equals(minioObjectResponse.getStatus())) {
+				LOGGER.info("Failure from stream objects minio client");
+				GenericMessage genericMessage = new GenericMessage(ConstantsUtility.FAILURE);
+				genericMessage.setErrors(getMessages(minioObjectResponse != null ? minioObjectResponse.getErrors() : null));
+				bufferedStream.write(objectMapper.writeValueAsBytes(genericMessage));
+				bufferedStream.write('\n');
+			}
+			bufferedStream.flush();
+		};
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE));
+		return new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+	}
+
+	@Override
+	public ResponseEntity<InputStreamResource> getObjectContent(String bucketName, String prefix, String range) {
 		String currentUser = userStore.getUserInfo().getId();
 		HttpStatus httpStatus;
-		LOGGER.debug("fetch object/file content through minio client");
-		MinioGenericResponse minioResponse = dnaMinioClient.getObjectContents(currentUser, bucketName, prefix);
+		HttpRange httpRange = null;
+		if (StringUtils.hasText(range)) {
+			try {
+				List<HttpRange> httpRanges = HttpRange.parseRanges(range);
+				// multipart/byteranges responses are not supported
+				if (httpRanges.size() != 1) {
+					throw new IllegalArgumentException("Only a single range is supported");
+				}
+				httpRange = httpRanges.get(0);
+			} catch (IllegalArgumentException e) {
+				LOGGER.info("Invalid range header:{}", range);
+				return new ResponseEntity<>(null, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+			}
+		}
+		LOGGER.debug("fetch object/file content stream through minio client");
+		MinioGenericResponse minioResponse = dnaMinioClient.getObjectStream(currentUser, bucketName, prefix,
+				httpRange);
 
 		if (minioResponse != null && minioResponse.getStatus().equals(ConstantsUtility.SUCCESS)) {
-			if (Objects.nonNull(minioResponse.getObjectMetadata().getObjectContent())) {
+			if (Objects.nonNull(minioResponse.getObjectStream())) {
 				LOGGER.info("Success from get object minio client");
-				ByteArrayResource resource = minioResponse.getObjectMetadata().getObjectContent();
-				return ResponseEntity.ok().contentLength(resource.contentLength()).contentType(contentType(prefix))
-						.header("Content-disposition", "attachment; filename=\"" + fileName(prefix) + "\"")
-						.body(resource);
+				ObjectStreamDTO objectStream = minioResponse.getObjectStream();
+				ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(minioResponse.getHttpStatus())
+						.contentLength(objectStream.getContentLength()).contentType(contentType(prefix))
+						.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+						.header("Content-disposition", "attachment; filename=\"" + fileName(prefix) + "\"");
+				if (objectStream.isPartial()) {
+					responseBuilder.header(HttpHeaders.CONTENT_RANGE, "bytes " + objectStream.getRangeStart() + "-"
+							+ objectStream.getRangeEnd() + "/" + objectStream.getTotalSize());
+				}
+				return responseBuilder.body(new InputStreamResource(objectStream.getContent()));
 			} else {
 				LOGGER.info("No content available.");
 				httpStatus = HttpStatus.NO_CONTENT;
 			}
 
+		} else if (minioResponse != null
+				&& HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.equals(minioResponse.getHttpStatus())) {
+			LOGGER.info("Requested range not satisfiable for object:{}", prefix);
+			httpStatus = HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 		} else {
 			LOGGER.info("Failure from get object minio client");
 			httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
@@ -377,12 +503,20 @@ public class BaseStorageService implements StorageService {
 		BucketResponseWrapperVO bucketResponseWrapperVO = new BucketResponseWrapperVO();
 		List<MessageDescription> errors = validateForUpload(uploadfile);
 		if (ObjectUtils.isEmpty(errors)) {
-			LOGGER.debug("upload object/file through minio client.");
-			MinioGenericResponse minioResponse = dnaMinioClient.objectUpload(currentUser, uploadfile, bucketName,
-					prefix);
+			MinioGenericResponse minioResponse;
+			if (Boolean.TRUE.equals(attachmentMalwareScan)) {
+				LOGGER.info("Scanning for malware for file {} while uploading", uploadfile.getOriginalFilename());
+				minioResponse = scanAndUpload(currentUser, uploadfile, bucketName, prefix, errors);
+			} else {
+				LOGGER.debug("upload object/file through minio client.");
+				minioResponse = dnaMinioClient.objectUpload(currentUser, uploadfile, bucketName, prefix);
+			}
 			if (minioResponse.getStatus().equals(ConstantsUtility.SUCCESS)) {
 				LOGGER.info("Success from put object minio client.");
 				httpStatus = HttpStatus.OK;
+			} else if (!ObjectUtils.isEmpty(errors)) {
+				LOGGER.info("Upload of file {} rejected by malware scan.", uploadfile.getOriginalFilename());
+				bucketResponseWrapperVO.setErrors(errors);
 			} else {
 				LOGGER.info("Failure from put object minio client.");
 				bucketResponseWrapperVO.setErrors(getMessages(minioResponse.getErrors()));
@@ -395,6 +529,41 @@ public class BaseStorageService implements StorageService {
 		return new ResponseEntity<>(bucketResponseWrapperVO, httpStatus);
 	}
 
+	/*
+	 * To upload file while the same bytes are streamed to the malware scanner, scan
+	 * findings are added to errors and keep the upload from being committed
+	 */
+	private MinioGenericResponse scanAndUpload(String currentUser, MultipartFile uploadfile, String bucketName,
+			String prefix, List<MessageDescription> errors) {
+		PipedOutputStream scanStream = new PipedOutputStream();
+		CompletableFuture<FileScanDetailsVO> scanResult;
+		try {
+			PipedInputStream scanInput = new PipedInputStream(scanStream, SCAN_PIPE_SIZE);
+			scanResult = malwareScannerClient.scanAsync(uploadfile.getOriginalFilename(), scanInput)
+					.whenComplete((result, ex) -> {
+						// closing the pipe once the scanner is done unblocks the uploading side
+						try {
+							scanInput.close();
+						} catch (IOException e) {
+							LOGGER.error("Error occured while closing scan stream for file {}: {}",
+									uploadfile.getOriginalFilename(), e.getMessage());
+						}
+					});
+		} catch (IOException e) {
+			LOGGER.error("Failed to open scan stream for file {}: {}", uploadfile.getOriginalFilename(),
+					e.getMessage());
+			errors.add(new MessageDescription("Failed to scan file:" + uploadfile.getOriginalFilename()));
+			MinioGenericResponse minioResponse = new MinioGenericResponse();
+			minioResponse.setStatus(ConstantsUtility.FAILURE);
+			minioResponse.setHttpStatus(HttpStatus.BAD_REQUEST);
+			return minioResponse;
+		}
+		return dnaMinioClient.objectUpload(currentUser, uploadfile, bucketName, prefix, scanStream, () -> {
+			errors.addAll(getScanErrors(scanResult.join(), uploadfile));
+			return errors.isEmpty();
+		});
+	}
+
 	/*
 	 * To validate file before upload
 	 */
@@ -403,19 +572,24 @@ public class BaseStorageService implements StorageService {
 		if (uploadfile.isEmpty()) {
 			LOGGER.info("Uploaded file is empty.");
 			errors.add(new MessageDescription("Please select file to upload."));
-		} else if (Boolean.TRUE.equals(attachmentMalwareScan)) {
-			LOGGER.info("Scanning for malware for file {}", uploadfile.getOriginalFilename());
-			FileScanDetailsVO fileScanDetailsVO = this.scan(uploadfile);
-			if (Objects.nonNull(fileScanDetailsVO) && Boolean.TRUE.equals(fileScanDetailsVO.getDetected())) {
-				LOGGER.info("Malware detected in the uploaded file {}", uploadfile.getOriginalFilename());
-				// setting upload as false
-				errors.add(new MessageDescription(
-						"Malware detected in the uploaded file " + uploadfile.getOriginalFilename()));
-			} else if (Objects.isNull(fileScanDetailsVO) || StringUtils.hasText(fileScanDetailsVO.getErrorMessage())) {
-				LOGGER.info("Failed to scan file:{}", uploadfile.getName());
-				// setting upload as false
-				errors.add(new MessageDescription("Failed to scan file:" + uploadfile.getName()));
-			}
+		}
+		return errors;
+	}
+
+	/*
+	 * To convert malware scan result into upload errors
+	 */
+	private List<MessageDescription> getScanErrors(FileScanDetailsVO fileScanDetailsVO, MultipartFile uploadfile) {
+		List<MessageDescription> errors = new ArrayList<>();
+		if (Objects.nonNull(fileScanDetailsVO) && Boolean.TRUE.equals(fileScanDetailsVO.getDetected())) {
+			LOGGER.info("Malware detected in the uploaded file {}", uploadfile.getOriginalFilename());
+			// setting upload as false
+			errors.add(new MessageDescription(
+					"Malware detected in the uploaded file " + uploadfile.getOriginalFilename()));
+		} else if (Objects.isNull(fileScanDetailsVO) || StringUtils.hasText(fileScanDetailsVO.getErrorMessage())) {
+			LOGGER.info("Failed to scan file:{}", uploadfile.getName());
+			// setting upload as false
+			errors.add(new MessageDescription("Failed to scan file:" + uploadfile.getName()));
 		}
 		return errors;
 	}
@@ -516,18 +690,18 @@ public class BaseStorageService implements StorageService {
 		GenericMessage genericMessage = new GenericMessage();
 		HttpStatus httpStatus;
 		LOGGER.debug("Fetching users from Minio.");
+		long listedAtVersion = cacheUtil.getMinioUsersVersion();
 		Map<String, UserInfo> users = dnaMinioClient.listUsers();
-		if (users.isEmpty()) {
+		if (users == null || users.isEmpty()) {
 			genericMessage.setSuccess(ConstantsUtility.FAILURE);
 			genericMessage.setErrors(
 					Arrays.asList(new MessageDescription("Cache refresh failed as no data got from Minio.")));
 			httpStatus = HttpStatus.NOT_FOUND;
 		} else {
-			// updating minioUsersCache
-			LOGGER.debug("Removing all enteries from minioUsersCache.");
-			cacheUtil.removeAll(ConstantsUtility.MINIO_USERS_CACHE);
-			LOGGER.debug("Updating minioUsersCache.");
-			cacheUtil.updateCache(ConstantsUtility.MINIO_USERS_CACHE, users);
+			// updating changed enteries of minioUsersCache
+			LOGGER.debug("Syncing minioUsersCache.");
+			int changes = cacheUtil.syncMinioUsers(users, listedAtVersion);
+			LOGGER.info("Synced minioUsersCache, {} users changed", changes);
 
 			genericMessage.setSuccess(ConstantsUtility.SUCCESS);
 			httpStatus = HttpStatus.OK;
@@ -583,6 +757,345 @@ public class BaseStorageService implements StorageService {
 		return new ResponseEntity<>(genericMessage, httpStatus);
 	}
 	
+	@Override
+	public ResponseEntity<PresignedUrlResponseVO> getPresignedUrl(String bucketName, String prefix, String method) {
+		PresignedUrlResponseVO presignedUrlResponseVO = new PresignedUrlResponseVO();
+		HttpStatus httpStatus;
+
+		LOGGER.debug("Fetching Current user.");
+		String currentUser = userStore.getUserInfo().getId();
+
+		Method presignMethod = StringUtils.hasText(method) ? parsePresignMethod(method) : Method.GET;
+		List<MessageDescription> errors = new ArrayList<>();
+		if (presignMethod == null) {
+			errors.add(new MessageDescription("Invalid method:" + method + ", only GET and PUT are supported"));
+		} else if (!StringUtils.hasText(prefix)) {
+			errors.add(new MessageDescription("Object path is required"));
+		}
+		if (!errors.isEmpty()) {
+			presignedUrlResponseVO.setErrors(errors);
+			return new ResponseEntity<>(presignedUrlResponseVO, HttpStatus.BAD_REQUEST);
+		}
+
+		if (!hasPermission(bucketName, currentUser, presignMethod == Method.PUT)) {
+			LOGGER.info("No permission for user:{} to {} objects of bucket:{}", currentUser, presignMethod,
+					bucketName);
+			presignedUrlResponseVO.setErrors(Arrays.asList(
+					new MessageDescription("No permission to " + presignMethod + " objects of bucket:" + bucketName)));
+			httpStatus = HttpStatus.FORBIDDEN;
+		} else if (presignMethod == Method.PUT && !isScanNotified(bucketName)) {
+			presignedUrlResponseVO.setErrors(Arrays.asList(new MessageDescription(
+					"Direct uploads to bucket:" + bucketName + " are unavailable until malware scan is set up")));
+			httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+		} else {
+			MinioGenericResponse minioResponse = dnaMinioClient.getPresignedUrl(currentUser, bucketName, prefix,
+					presignMethod, presignExpirySeconds);
+			if (minioResponse != null && ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+				LOGGER.info("Success from minio presign url.");
+				PresignedUrlVO presignedUrlVO = new PresignedUrlVO();
+				presignedUrlVO.setUrl(minioResponse.getPresignedUrls().get(0));
+				presignedUrlVO.setMethod(presignMethod.name());
+				presignedUrlVO.setExpiresAt(presignExpiry());
+				presignedUrlResponseVO.setData(presignedUrlVO);
+				httpStatus = HttpStatus.OK;
+			} else {
+				LOGGER.info("Failure from minio presign url.");
+				presignedUrlResponseVO.setErrors(getMessages(minioResponse != null ? minioResponse.getErrors() : null));
+				httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+			}
+		}
+		return new ResponseEntity<>(presignedUrlResponseVO, httpStatus);
+	}
+
+	/*
+	 * Presigned uploads bypass this service, with malware scan enabled they are
+	 * only handed out when minio reports new objects of bucket for scanning
+	 */
+	private boolean isScanNotified(String bucketName) {
+		if (!Boolean.TRUE.equals(attachmentMalwareScan) || dnaMinioClient.ensureScanNotification(bucketName)) {
+			return true;
+		}
+		LOGGER.warn("Malware scan notification not configured for bucket:{}, refusing presigned upload", bucketName);
+		return false;
+	}
+
+	@Override
+	public ResponseEntity<PresignedUploadResponseVO> createPresignedUpload(String bucketName, String prefix,
+			Integer parts) {
+		PresignedUploadResponseVO presignedUploadResponseVO = new PresignedUploadResponseVO();
+		HttpStatus httpStatus;
+
+		LOGGER.debug("Fetching Current user.");
+		String currentUser = userStore.getUserInfo().getId();
+
+		if (!StringUtils.hasText(prefix) || parts == null || parts < 1 || parts > presignMaxParts) {
+			presignedUploadResponseVO.setErrors(Arrays.asList(new MessageDescription(
+					"Object path and number of parts between 1 and " + presignMaxParts + " are required")));
+			return new ResponseEntity<>(presignedUploadResponseVO, HttpStatus.BAD_REQUEST);
+		}
+
+		if (!hasPermission(bucketName, currentUser, true)) {
+			LOGGER.info("No permission for user:{} to upload objects to bucket:{}", currentUser, bucketName);
+			presignedUploadResponseVO.setErrors(Arrays.asList(
+					new MessageDescription("No permission to upload objects to bucket:" + bucketName)));
+			httpStatus = HttpStatus.FORBIDDEN;
+		} else if (!isScanNotified(bucketName)) {
+			presignedUploadResponseVO.setErrors(Arrays.asList(new MessageDescription(
+					"Direct uploads to bucket:" + bucketName + " are unavailable until malware scan is set up")));
+			httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+		} else {
+			MinioGenericResponse minioResponse = dnaMinioClient.createPresignedUpload(currentUser, bucketName, prefix,
+					parts, presignExpirySeconds);
+			if (minioResponse != null && ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+				LOGGER.info("Success from minio presigned upload.");
+				PresignedUploadVO presignedUploadVO = new PresignedUploadVO();
+				presignedUploadVO.setUploadId(minioResponse.getUploadId());
+				presignedUploadVO.setObjectName(prefix);
+				presignedUploadVO.setPartUrls(minioResponse.getPresignedUrls());
+				presignedUploadVO.setExpiresAt(presignExpiry());
+				presignedUploadResponseVO.setData(presignedUploadVO);
+				httpStatus = HttpStatus.OK;
+			} else {
+				LOGGER.info("Failure from minio presigned upload.");
+				presignedUploadResponseVO
+						.setErrors(getMessages(minioResponse != null ? minioResponse.getErrors() : null));
+				httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+			}
+		}
+		return new ResponseEntity<>(presignedUploadResponseVO, httpStatus);
+	}
+
+	@Override
+	public ResponseEntity<GenericMessage> completePresignedUpload(String bucketName, String uploadId,
+			String prefix) {
+		return finishPresignedUpload(bucketName, uploadId, prefix, true);
+	}
+
+	@Override
+	public ResponseEntity<GenericMessage> abortPresignedUpload(String bucketName, String uploadId, String prefix) {
+		return finishPresignedUpload(bucketName, uploadId, prefix, false);
+	}
+
+	private ResponseEntity<GenericMessage> finishPresignedUpload(String bucketName, String uploadId, String prefix,
+			boolean complete) {
+		GenericMessage genericMessage = new GenericMessage();
+		HttpStatus httpStatus;
+
+		LOGGER.debug("Fetching Current user.");
+		String currentUser = userStore.getUserInfo().getId();
+
+		if (!hasPermission(bucketName, currentUser, true)) {
+			LOGGER.info("No permission for user:{} to upload objects to bucket:{}", currentUser, bucketName);
+			genericMessage.setSuccess(ConstantsUtility.FAILURE);
+			genericMessage.setErrors(Arrays.asList(
+					new MessageDescription("No permission to upload objects to bucket:" + bucketName)));
+			httpStatus = HttpStatus.FORBIDDEN;
+		} else {
+			MinioGenericResponse minioResponse = complete
+					? dnaMinioClient.completePresignedUpload(currentUser, bucketName, prefix, uploadId)
+					: dnaMinioClient.abortPresignedUpload(currentUser, bucketName, prefix, uploadId);
+			if (minioResponse != null && ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+				LOGGER.info("Success from minio {} presigned upload.", complete ? "complete" : "abort");
+				genericMessage.setSuccess(ConstantsUtility.SUCCESS);
+				httpStatus = HttpStatus.OK;
+			} else {
+				LOGGER.info("Failure from minio {} presigned upload.", complete ? "complete" : "abort");
+				genericMessage.setSuccess(ConstantsUtility.FAILURE);
+				genericMessage.setErrors(getMessages(minioResponse != null ? minioResponse.getErrors() : null));
+				httpStatus = minioResponse != null && minioResponse.getHttpStatus() != null
+						? minioResponse.getHttpStatus()
+						: HttpStatus.INTERNAL_SERVER_ERROR;
+			}
+		}
+		return new ResponseEntity<>(genericMessage, httpStatus);
+	}
+
+	private boolean hasPermission(String bucketName, String userId, boolean write) {
+		PermissionVO permissionVO = dnaMinioClient.getBucketPermission(bucketName, userId);
+		return permissionVO != null
+				&& Boolean.TRUE.equals(write ? permissionVO.isWrite() : permissionVO.isRead());
+	}
+
+	private Method parsePresignMethod(String method) {
+		String upperMethod = method.toUpperCase();
+		return Method.GET.name().equals(upperMethod) ? Method.GET
+				: Method.PUT.name().equals(upperMethod) ? Method.PUT : null;
+	}
+
+	private Date presignExpiry() {
+		return new Date(System.currentTimeMillis() + presignExpirySeconds * 1000L);
+	}
+
+	@Override
+	public ResponseEntity<DeleteJobResponseVO> createDeleteJob(String bucketName, String prefix,
+			Boolean removeBucket) {
+		DeleteJobResponseVO deleteJobResponseVO = new DeleteJobResponseVO();
+		HttpStatus httpStatus;
+
+		LOGGER.debug("Fetching Current user.");
+		String currentUser = userStore.getUserInfo().getId();
+
+		if (!hasPermission(bucketName, currentUser, true)) {
+			LOGGER.info("No permission for user:{} to delete objects of bucket:{}", currentUser, bucketName);
+			deleteJobResponseVO.setErrors(Arrays.asList(
+					new MessageDescription("No permission to delete objects of bucket:" + bucketName)));
+			httpStatus = HttpStatus.FORBIDDEN;
+		} else {
+			DeleteJobDTO deleteJob = new DeleteJobDTO();
+			deleteJob.setJobId(UUID.randomUUID().toString());
+			deleteJob.setUserId(currentUser);
+			deleteJob.setBucketName(bucketName);
+			deleteJob.setPrefix(prefix);
+			deleteJob.setRemoveBucket(Boolean.TRUE.equals(removeBucket));
+			deleteJob.setCreatedOn(new Date());
+			MinioGenericResponse minioResponse = updateDeleteJobStatus(deleteJob, ConstantsUtility.JOB_QUEUED);
+			if (!ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+				LOGGER.info("Failed to save delete job for bucket:{}", bucketName);
+				deleteJobResponseVO.setErrors(getMessages(minioResponse.getErrors()));
+				httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+			} else {
+				LOGGER.info("Submitting delete job:{} for bucket:{} prefix:{}", deleteJob.getJobId(), bucketName,
+						prefix);
+				submitDeleteJob(deleteJob);
+				deleteJobResponseVO.setData(toDeleteJobVO(deleteJob));
+				httpStatus = HttpStatus.ACCEPTED;
+			}
+		}
+		return new ResponseEntity<>(deleteJobResponseVO, httpStatus);
+	}
+
+	@Override
+	public ResponseEntity<DeleteJobResponseVO> getDeleteJob(String jobId) {
+		DeleteJobResponseVO deleteJobResponseVO = new DeleteJobResponseVO();
+		HttpStatus httpStatus;
+
+		LOGGER.debug("Fetching Current user.");
+		String currentUser = userStore.getUserInfo().getId();
+
+		// latest progress of jobs running here, last saved state of the others
+		DeleteJobDTO deleteJob = localDeleteJobs.get(jobId);
+		if (deleteJob == null) {
+			deleteJob = dnaMinioClient.getDeleteJob(jobId);
+		}
+		if (deleteJob == null) {
+			LOGGER.info("Delete job:{} not found", jobId);
+			deleteJobResponseVO.setErrors(Arrays.asList(new MessageDescription("Delete job:" + jobId + " not found")));
+			httpStatus = HttpStatus.NOT_FOUND;
+		} else if (!deleteJob.getUserId().equals(currentUser) && !userStore.getUserInfo().hasAdminAccess()) {
+			LOGGER.info("No permission for user:{} to view delete job:{}", currentUser, jobId);
+			deleteJobResponseVO.setErrors(Arrays.asList(new MessageDescription(
+					"No permission to view delete job:" + jobId + ", only owner or admin can view")));
+			httpStatus = HttpStatus.FORBIDDEN;
+		} else {
+			deleteJobResponseVO.setData(toDeleteJobVO(deleteJob));
+			deleteJobResponseVO.setErrors(getMessages(new ArrayList<>(deleteJob.getErrors())));
+			httpStatus = HttpStatus.OK;
+		}
+		return new ResponseEntity<>(deleteJobResponseVO, httpStatus);
+	}
+
+	/*
+	 * Saves the progress of the delete jobs of this replica, resumes jobs no
+	 * longer saved by any replica and removes finished jobs after the ttl. Jobs of
+	 * a stopped replica may be resumed by several replicas at once, deleting
+	 * objects twice is harmless.
+	 */
+	@Scheduled(initialDelay = 0, fixedDelayString = "${minio.delete.jobs.saveIntervalMillis}")
+	public void maintainDeleteJobs() {
+		for (DeleteJobDTO deleteJob : localDeleteJobs.values()) {
+			updateDeleteJobStatus(deleteJob, deleteJob.getStatus());
+		}
+		long now = System.currentTimeMillis();
+		for (DeleteJobDTO deleteJob : dnaMinioClient.listDeleteJobs()) {
+			if (localDeleteJobs.containsKey(deleteJob.getJobId())) {
+				continue;
+			}
+			long age = now - deleteJob.getLastModified().getTime();
+			boolean finished = ConstantsUtility.JOB_COMPLETED.equals(deleteJob.getStatus())
+					|| ConstantsUtility.JOB_FAILED.equals(deleteJob.getStatus());
+			if (finished && age > deleteJobsTtlSeconds * 1000) {
+				LOGGER.debug("Removing delete job:{} finished on {}", deleteJob.getJobId(),
+						deleteJob.getLastModified());
+				dnaMinioClient.removeDeleteJob(deleteJob.getJobId());
+			} else if (!finished && age > 3 * deleteJobsSaveIntervalMillis) {
+				LOGGER.info("Resuming delete job:{} for bucket:{} prefix:{}, last saved on {}", deleteJob.getJobId(),
+						deleteJob.getBucketName(), deleteJob.getPrefix(), deleteJob.getLastModified());
+				updateDeleteJobStatus(deleteJob, ConstantsUtility.JOB_QUEUED);
+				submitDeleteJob(deleteJob);
+			}
+		}
+	}
+
+	private void submitDeleteJob(DeleteJobDTO deleteJob) {
+		localDeleteJobs.put(deleteJob.getJobId(), deleteJob);
+		deleteJobExecutor.execute(() -> {
+			try {
+				runDeleteJob(deleteJob);
+			} finally {
+				localDeleteJobs.remove(deleteJob.getJobId());
+			}
+		});
+	}
+
+	/*
+	 * Runs on deleteJobExecutor, removes the objects and then the bucket if
+	 * requested. Resumed jobs list the remaining objects again, counts carry on
+	 * from the saved progress.
+	 */
+	private void runDeleteJob(DeleteJobDTO deleteJob) {
+		updateDeleteJobStatus(deleteJob, ConstantsUtility.JOB_RUNNING);
+		try {
+			MinioGenericResponse minioResponse = dnaMinioClient.removeAllObjects(deleteJob.getUserId(),
+					deleteJob.getBucketName(), deleteJob.getPrefix(), deleteJob);
+			if (minioResponse != null && ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())
+					&& deleteJob.isRemoveBucket()) {
+				LOGGER.info("Removing bucket:{} of delete job:{}", deleteJob.getBucketName(), deleteJob.getJobId());
+				minioResponse = dnaMinioClient.removeBucket(deleteJob.getUserId(), deleteJob.getBucketName());
+			}
+			if (minioResponse != null && ConstantsUtility.SUCCESS.equals(minioResponse.getStatus())) {
+				LOGGER.info("Delete job:{} completed, {} objects removed", deleteJob.getJobId(),
+						deleteJob.getDeletedCount().get());
+				updateDeleteJobStatus(deleteJob, ConstantsUtility.JOB_COMPLETED);
+			} else {
+				LOGGER.info("Delete job:{} failed", deleteJob.getJobId());
+				if (minioResponse != null && minioResponse.getErrors() != null) {
+					minioResponse.getErrors().forEach(error -> deleteJob.addError(error.getErrorMsg()));
+				}
+				updateDeleteJobStatus(deleteJob, ConstantsUtility.JOB_FAILED);
+			}
+		} catch (RuntimeException e) {
+			LOGGER.error("Delete job:{} failed: {}", deleteJob.getJobId(), e.getMessage());
+			deleteJob.addError("Delete job failed: " + e.getMessage());
+			updateDeleteJobStatus(deleteJob, ConstantsUtility.JOB_FAILED);
+		}
+	}
+
+	/*
+	 * Saves are serialized per job, so a periodic save never overwrites a later
+	 * status
+	 */
+	private MinioGenericResponse updateDeleteJobStatus(DeleteJobDTO deleteJob, String status) {
+		synchronized (deleteJob) {
+			deleteJob.setStatus(status);
+			deleteJob.setLastModified(new Date());
+			return dnaMinioClient.saveDeleteJob(deleteJob);
+		}
+	}
+
+	private DeleteJobVO toDeleteJobVO(DeleteJobDTO deleteJob) {
+		DeleteJobVO deleteJobVO = new DeleteJobVO();
+		deleteJobVO.setJobId(deleteJob.getJobId());
+		deleteJobVO.setBucketName(deleteJob.getBucketName());
+		deleteJobVO.setPrefix(deleteJob.getPrefix());
+		deleteJobVO.setRemoveBucket(deleteJob.isRemoveBucket());
+		deleteJobVO.setStatus(deleteJob.getStatus());
+		deleteJobVO.setDeletedCount(deleteJob.getDeletedCount().get());
+		deleteJobVO.setFailedCount(deleteJob.getFailedCount().get());
+		deleteJobVO.setCreatedOn(deleteJob.getCreatedOn());
+		deleteJobVO.setLastModified(deleteJob.getLastModified());
+		return deleteJobVO;
+	}
+
 	/*
 	 * To convert List<Error> errors to List<MessageDescription> 
 	 * 
@@ -661,8 +1174,6 @@ public class BaseStorageService implements StorageService {
 	private List<MessageDescription> updateBucketCollaborator(String bucketName, List<UserVO> existingCollaborators,
 			List<UserVO> newCollaborators) {
 		List<MessageDescription> errors = new ArrayList<>();
-		LOGGER.info("Fetching users from Minio user cache.");
-		Map<String, UserInfo> usersInfo = cacheUtil.getMinioUsers(ConstantsUtility.MINIO_USERS_CACHE);
 		String readPolicy = bucketName + "_" + ConstantsUtility.READ;
 		String readWritePolicy = bucketName + "_" + ConstantsUtility.READWRITE;
 
@@ -677,8 +1188,17 @@ public class BaseStorageService implements StorageService {
 			Optional<UserVO> existingCollaborator = existingCollaborators.stream()
 					.filter(userVO -> userVO.getAccesskey().equals(userId)).findAny();
 
-			// To get user info from Minio
-			UserInfo userInfo = usersInfo.get(userId);
+			// Policies are written back, so they are read from minio itself, the
+			// cached user may be outdated or not loaded yet
+			UserInfo userInfo = null;
+			if (existingCollaborator.isPresent()) {
+				userInfo = dnaMinioClient.getLiveUserInfo(userId);
+				if (userInfo == null) {
+					LOGGER.info("Could not fetch policies of collaborator:{}", userId);
+					errors.add(new MessageDescription("Failed to update permissions of collaborator:" + userId));
+					continue;
+				}
+			}
 			String policy = "";
 
 			// if user presents in new and existing
@@ -692,18 +1212,18 @@ public class BaseStorageService implements StorageService {
 				// if read permission available adding it
 				// if read permission not available removing it
 				if (Boolean.TRUE.equals(permissionVO.isRead())) {
-					policy = !policy.contains(readPolicy) ? policy.concat("," + readPolicy) : policy;
+					policy = PolicyUtility.addPolicy(policy, readPolicy);
 				} else {
-					policy = policy.contains(readPolicy) ? policy.replace(readPolicy, "") : policy;
+					policy = PolicyUtility.removePolicy(policy, readPolicy);
 				}
 
 				// Checking for read/write permission
 				// if read/write permission available adding it
 				// if read/write permission not available removing it
 				if (Boolean.TRUE.equals(permissionVO.isWrite())) {
-					policy = !policy.contains(readWritePolicy) ? policy.concat("," + readWritePolicy) : policy;
+					policy = PolicyUtility.addPolicy(policy, readWritePolicy);
 				} else {
-					policy = policy.contains(readWritePolicy) ? policy.replace(readWritePolicy, "") : policy;
+					policy = PolicyUtility.removePolicy(policy, readWritePolicy);
 				}
 				// Setting permission in Minio
 				dnaMinioClient.setPolicy(userId, false, policy);
@@ -742,9 +1262,9 @@ public class BaseStorageService implements StorageService {
 				policy = userInfo.policyName();
 
 				// Removing read permission
-				policy = policy.contains(readPolicy) ? policy.replace(readPolicy, "") : policy;
+				policy = PolicyUtility.removePolicy(policy, readPolicy);
 				// Removing read/write permission
-				policy = policy.contains(readWritePolicy) ? policy.replace(readWritePolicy, "") : policy;
+				policy = PolicyUtility.removePolicy(policy, readWritePolicy);
 
 				// Setting permission in Minio
 				dnaMinioClient.setPolicy(userId, false, policy);
@@ -778,16 +1298,4 @@ public class BaseStorageService implements StorageService {
 		return new ResponseEntity<>(bucketResponseVO, httpStatus);
 	}
 
-	/**
-	 * To scan file by calling AVscan service
-	 * 
-	 * @param multiPartFile
-	 * @return FileScanDetailsVO
-	 */
-	private FileScanDetailsVO scan(MultipartFile multiPartFile) {
-		LOGGER.debug("Calling avscan client to scan file:{}",multiPartFile.getOriginalFilename());
-		Optional<FileScanDetailsVO> aVScannerRes = malwareScannerClient.scan(multiPartFile);
-		return aVScannerRes.isPresent()?aVScannerRes.get():null;
-	}
-	
 }
@@ -27,9 +27,10 @@
 
 package com.daimler.data.service.storage;
 
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.daimler.data.controller.exceptions.GenericMessage;
 import com.daimler.data.dto.storage.BucketCollectionVO;
@@ -37,6 +38,9 @@ import com.daimler.data.dto.storage.BucketObjectResponseWrapperVO;
 import com.daimler.data.dto.storage.BucketResponseVO;
 import com.daimler.data.dto.storage.BucketResponseWrapperVO;
 import com.daimler.data.dto.storage.BucketVo;
+import com.daimler.data.dto.storage.DeleteJobResponseVO;
+import com.daimler.data.dto.storage.PresignedUploadResponseVO;
+import com.daimler.data.dto.storage.PresignedUrlResponseVO;
 import com.daimler.data.dto.storage.UserRefreshWrapperVO;
 
 public interface StorageService {
@@ -57,22 +61,38 @@ public interface StorageService {
 	public ResponseEntity<BucketCollectionVO> getAllBuckets();
 
 	/**
-	 * To list all the objects inside buckets
+	 * To list the objects inside buckets, one page when maxKeys is given
 	 * 
 	 * @param bucketName
 	 * @param prefix
+	 * @param maxKeys
+	 * @param continuationToken
 	 * @return ResponseEntity<BucketObjectResponseWrapperVO>
 	 */
-	public ResponseEntity<BucketObjectResponseWrapperVO> getBucketObjects(String bucketName, String prefix);
+	public ResponseEntity<BucketObjectResponseWrapperVO> getBucketObjects(String bucketName, String prefix,
+			Integer maxKeys, String continuationToken);
 
 	/**
-	 * To get object contents for given path
+	 * To stream the objects inside buckets as newline delimited json
 	 * 
 	 * @param bucketName
 	 * @param prefix
-	 * @return ResponseEntity<ByteArrayResource>
+	 * @param continuationToken
+	 * @param recursive
+	 * @return ResponseEntity<StreamingResponseBody>
 	 */
-	public ResponseEntity<ByteArrayResource> getObjectContent(String bucketName, String prefix);
+	public ResponseEntity<StreamingResponseBody> streamBucketObjects(String bucketName, String prefix,
+			String continuationToken, Boolean recursive);
+
+	/**
+	 * To stream object contents for given path, honouring a single HTTP byte range
+	 * 
+	 * @param bucketName
+	 * @param prefix
+	 * @param range
+	 * @return ResponseEntity<InputStreamResource>
+	 */
+	public ResponseEntity<InputStreamResource> getObjectContent(String bucketName, String prefix, String range);
 
 	/**
 	 * To upload object in given path
@@ -126,6 +146,66 @@ public interface StorageService {
 	 * @return ResponseEntity<GenericMessage>
 	 */
 	public ResponseEntity<GenericMessage> deleteBucket(String bucketName);
+
+	/**
+	 * To get a short lived presigned url reading or writing given object directly
+	 * in minio
+	 * 
+	 * @param bucketName
+	 * @param prefix
+	 * @param method{GET or PUT}
+	 * @return ResponseEntity<PresignedUrlResponseVO>
+	 */
+	public ResponseEntity<PresignedUrlResponseVO> getPresignedUrl(String bucketName, String prefix, String method);
+
+	/**
+	 * To start a multipart upload with a presigned url for each part
+	 * 
+	 * @param bucketName
+	 * @param prefix
+	 * @param parts
+	 * @return ResponseEntity<PresignedUploadResponseVO>
+	 */
+	public ResponseEntity<PresignedUploadResponseVO> createPresignedUpload(String bucketName, String prefix,
+			Integer parts);
+
+	/**
+	 * To complete a multipart upload started with createPresignedUpload
+	 * 
+	 * @param bucketName
+	 * @param uploadId
+	 * @param prefix
+	 * @return ResponseEntity<GenericMessage>
+	 */
+	public ResponseEntity<GenericMessage> completePresignedUpload(String bucketName, String uploadId, String prefix);
+
+	/**
+	 * To abort a multipart upload started with createPresignedUpload
+	 * 
+	 * @param bucketName
+	 * @param uploadId
+	 * @param prefix
+	 * @return ResponseEntity<GenericMessage>
+	 */
+	public ResponseEntity<GenericMessage> abortPresignedUpload(String bucketName, String uploadId, String prefix);
+
+	/**
+	 * To start a background job removing all objects of bucket under given path
+	 * 
+	 * @param bucketName
+	 * @param prefix
+	 * @param removeBucket
+	 * @return ResponseEntity<DeleteJobResponseVO>
+	 */
+	public ResponseEntity<DeleteJobResponseVO> createDeleteJob(String bucketName, String prefix, Boolean removeBucket);
+
+	/**
+	 * To get status of delete job
+	 * 
+	 * @param jobId
+	 * @return ResponseEntity<DeleteJobResponseVO>
+	 */
+	public ResponseEntity<DeleteJobResponseVO> getDeleteJob(String jobId);
 	
 	/**
 	 * To update bucket along with collaborator
@@ -0,0 +1,150 @@
+/* LICENSE START
+ * 
+ * MIT License
+ * 
+ * Copyright (c) 2019 Daimler TSS GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * 
+ * LICENSE END 
+ */
+
+package com.daimler.data.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.StringUtils;
+
+import com.daimler.data.dto.storage.PermissionVO;
+
+import io.minio.admin.UserInfo;
+
+/**
+ * Inverted index of bucket permissions derived from minio user policies, kept
+ * as bucket to {user to write access} and user to buckets. Policies are matched
+ * exactly by name, {bucket}_READ grants read and {bucket}_RW grants read/write.
+ * Updates put the new permissions of a user before dropping the old ones, so
+ * lock-free readers never miss a permission kept by the update.
+ */
+public class BucketPermissionIndex {
+
+	// read without lock
+	private final Map<String, Map<String, Boolean>> bucketUsers = new ConcurrentHashMap<>();
+
+	// only used while holding the lock
+	private final Map<String, Set<String>> userBuckets = new HashMap<>();
+
+	public synchronized void updateUser(String userId, String policyName) {
+		Map<String, Boolean> permissions = parsePolicies(policyName);
+		permissions.forEach((bucketName, write) -> bucketUsers
+				.computeIfAbsent(bucketName, k -> new ConcurrentHashMap<>()).put(userId, write));
+		Set<String> previous = permissions.isEmpty() ? userBuckets.remove(userId)
+				: userBuckets.put(userId, new HashSet<>(permissions.keySet()));
+		if (previous != null) {
+			previous.removeAll(permissions.keySet());
+			removeFromBuckets(userId, previous);
+		}
+	}
+
+	public synchronized void removeUser(String userId) {
+		Set<String> buckets = userBuckets.remove(userId);
+		if (buckets != null) {
+			removeFromBuckets(userId, buckets);
+		}
+	}
+
+	/*
+	 * Returns user permission on bucket or null if user has no policy for it
+	 */
+	public PermissionVO getPermission(String bucketName, String userId) {
+		Map<String, Boolean> users = bucketUsers.get(bucketName);
+		Boolean write = users != null ? users.get(userId) : null;
+		return write != null ? toPermission(write) : null;
+	}
+
+	/*
+	 * Returns all users having a policy for bucket with their permission
+	 */
+	public Map<String, PermissionVO> getUsers(String bucketName) {
+		Map<String, PermissionVO> permissions = new HashMap<>();
+		bucketUsers.getOrDefault(bucketName, Collections.emptyMap())
+				.forEach((userId, write) -> permissions.put(userId, toPermission(write)));
+		return permissions;
+	}
+
+	/*
+	 * Returns all users of given listing having a policy for bucket, for use
+	 * while the index is not loaded yet
+	 */
+	public static Map<String, PermissionVO> getUsers(String bucketName, Map<String, UserInfo> users) {
+		Map<String, PermissionVO> permissions = new HashMap<>();
+		users.forEach((userId, userInfo) -> {
+			Boolean write = parsePolicies(userInfo.policyName()).get(bucketName);
+			if (write != null) {
+				permissions.put(userId, toPermission(write));
+			}
+		});
+		return permissions;
+	}
+
+	private void removeFromBuckets(String userId, Set<String> buckets) {
+		for (String bucketName : buckets) {
+			Map<String, Boolean> users = bucketUsers.get(bucketName);
+			if (users != null) {
+				users.remove(userId);
+				if (users.isEmpty()) {
+					bucketUsers.remove(bucketName);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns bucket to write access granted by the comma separated policies
+	 */
+	private static Map<String, Boolean> parsePolicies(String policyName) {
+		Map<String, Boolean> permissions = new HashMap<>();
+		if (!StringUtils.hasText(policyName)) {
+			return permissions;
+		}
+		for (String policy : policyName.split(",")) {
+			policy = policy.trim();
+			if (policy.endsWith("_" + ConstantsUtility.READWRITE)) {
+				permissions.put(policy.substring(0, policy.length() - ConstantsUtility.READWRITE.length() - 1), true);
+			} else if (policy.endsWith("_" + ConstantsUtility.READ)) {
+				// read/write wins over read if user has both policies
+				permissions.merge(policy.substring(0, policy.length() - ConstantsUtility.READ.length() - 1), false,
+						Boolean::logicalOr);
+			}
+		}
+		return permissions;
+	}
+
+	private static PermissionVO toPermission(boolean write) {
+		PermissionVO permissionVO = new PermissionVO();
+		permissionVO.setRead(true);
+		permissionVO.setWrite(write);
+		return permissionVO;
+	}
+}
@@ -28,6 +28,9 @@
 package com.daimler.data.util;
 
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,11 +43,7 @@ import io.minio.admin.UserInfo;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.Ehcache;
-import net.sf.ehcache.Element;
 import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.Searchable;
-import net.sf.ehcache.search.Query;
-import net.sf.ehcache.search.Results;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 
 @Component
@@ -55,43 +54,108 @@ public class CacheUtil {
 	@Autowired
 	private CacheManager cacheManager;
 
-	public void createCache(String cacheName) {
-		Searchable search = new Searchable();
-		search.allowDynamicIndexing(true);
-		CacheConfiguration cacheConfiguration = new CacheConfiguration(cacheName, 2000);
-		cacheConfiguration.addSearchable(search);
-		LOGGER.info("Creating cache:{}",cacheName);
-		Ehcache minioUsersCache = new Cache(
-				cacheConfiguration.memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LFU).eternal(true));
+	// Minio users keyed by access key, never evicted, kept in sync with minio
+	private final Map<String, UserInfo> minioUsers = new ConcurrentHashMap<>();
 
-		cacheManager.addCache(minioUsersCache);
-	}
+	private final BucketPermissionIndex bucketPermissionIndex = new BucketPermissionIndex();
+
+	private volatile boolean minioUsersLoaded;
+
+	// increased with every change of a user, a sync skips users changed after its
+	// listing was started, as the listing may not contain the change yet
+	private final AtomicLong minioUsersVersion = new AtomicLong();
+
+	private final Map<String, Long> minioUserVersions = new ConcurrentHashMap<>();
 
-	public void updateCache(String cacheName, Map<String, UserInfo> users) {
-		LOGGER.info("Updating cache:{}",cacheName);
-		this.getCache(cacheName).put(new Element("users", users));
+	public void createCache(String cacheName, int maxEntries, long timeToLiveSeconds) {
+		CacheConfiguration cacheConfiguration = new CacheConfiguration(cacheName, maxEntries);
+		LOGGER.info("Creating cache:{} with ttl:{}s", cacheName, timeToLiveSeconds);
+		Ehcache cache = new Cache(cacheConfiguration.memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU)
+				.eternal(false).timeToLiveSeconds(timeToLiveSeconds));
+
+		cacheManager.addCache(cache);
 	}
-	
+
 	public Ehcache getCache(String cacheName) {
 		return this.cacheManager.getEhcache(cacheName);
 	}
 
-	public void removeAll(String cacheName) {
-		LOGGER.info("Updating cache:{}",cacheName);
-		this.getCache(cacheName).removeAll();
+	public UserInfo getMinioUser(String userId) {
+		return minioUsers.get(userId);
 	}
-	
-	public Map<String, UserInfo> getMinioUsers(String cacheName) {
-		Map<String, UserInfo> users = null;
-		Query query = this.getCache(cacheName).createQuery().includeKeys().includeValues()
-				.end();
-		
-		Results results = query.execute();
-		if(results.hasValues()) {
-			users = (Map<String, UserInfo>) results.all().get(0).getValue();
+
+	/*
+	 * Whether a full listing of minio users was synced at least once
+	 */
+	public boolean isMinioUsersLoaded() {
+		return minioUsersLoaded;
+	}
+
+	/*
+	 * To be read before listing users from minio, see syncMinioUsers
+	 */
+	public long getMinioUsersVersion() {
+		return minioUsersVersion.get();
+	}
+
+	/*
+	 * To update a single user in minio users cache along with its bucket permissions
+	 */
+	public void updateMinioUser(String userId, UserInfo userInfo) {
+		LOGGER.debug("Updating user:{} in {}", userId, ConstantsUtility.MINIO_USERS_CACHE);
+		minioUserVersions.put(userId, minioUsersVersion.incrementAndGet());
+		minioUsers.put(userId, userInfo);
+		bucketPermissionIndex.updateUser(userId, userInfo.policyName());
+	}
+
+	public void removeMinioUser(String userId) {
+		LOGGER.debug("Removing user:{} from {}", userId, ConstantsUtility.MINIO_USERS_CACHE);
+		minioUserVersions.put(userId, minioUsersVersion.incrementAndGet());
+		minioUsers.remove(userId);
+		bucketPermissionIndex.removeUser(userId);
+	}
+
+	/*
+	 * To bring minio users cache in line with a full listing from minio, only users
+	 * that were added, removed or changed are touched. Users changed by this
+	 * service after listedAtVersion are kept, their cached state is newer than the
+	 * listing.
+	 * 
+	 * @param listedAtVersion getMinioUsersVersion() read before listing users
+	 * @return number of users changed
+	 */
+	public int syncMinioUsers(Map<String, UserInfo> users, long listedAtVersion) {
+		int changes = 0;
+		for (Map.Entry<String, UserInfo> entry : users.entrySet()) {
+			UserInfo cached = minioUsers.get(entry.getKey());
+			if ((cached == null || !isSameUser(cached, entry.getValue()))
+					&& !isChangedSince(entry.getKey(), listedAtVersion)) {
+				updateMinioUser(entry.getKey(), entry.getValue());
+				changes++;
+			}
+		}
+		for (String userId : minioUsers.keySet()) {
+			if (!users.containsKey(userId) && !isChangedSince(userId, listedAtVersion)) {
+				removeMinioUser(userId);
+				changes++;
+			}
 		}
-		return users;
+		minioUsersLoaded = true;
+		return changes;
+	}
+
+	public BucketPermissionIndex getBucketPermissionIndex() {
+		return bucketPermissionIndex;
+	}
+
+	private boolean isChangedSince(String userId, long version) {
+		Long userVersion = minioUserVersions.get(userId);
+		return userVersion != null && userVersion > version;
+	}
+
+	private boolean isSameUser(UserInfo cached, UserInfo listed) {
+		return Objects.equals(cached.policyName(), listed.policyName()) && cached.status() == listed.status()
+				&& Objects.equals(cached.memberOf(), listed.memberOf());
 	}
 
-	
 }
@@ -40,6 +40,13 @@ public class ConstantsUtility {
 	
 	//Variables for cache
 	public static final String MINIO_USERS_CACHE = "minioUsersCache";
+	public static final String VAULT_CREDENTIALS_CACHE = "vaultCredentialsCache";
+	
+	//Status of delete jobs
+	public static final String JOB_QUEUED = "QUEUED";
+	public static final String JOB_RUNNING = "RUNNING";
+	public static final String JOB_COMPLETED = "COMPLETED";
+	public static final String JOB_FAILED = "FAILED";
 	
 	//Variables To make minio policy
 	public static final String POLICY_LIST_BUCKET = "s3:ListBucket";
@@ -30,6 +30,7 @@ package com.daimler.data.util;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.daimler.data.dto.PolicyDTO;
 import com.daimler.data.dto.PolicyStatementDTO;
@@ -59,4 +60,27 @@ public class PolicyUtility {
 		return policy;
 	}
 	
+
+	// To check if comma separated policy names contain policy, matching whole names only
+	public static boolean hasPolicy(String policyNames, String policy) {
+		return policyNames != null && Arrays.stream(policyNames.split(",")).map(String::trim)
+				.anyMatch(policy::equals);
+	}
+
+	// To add policy to comma separated policy names if not already present
+	public static String addPolicy(String policyNames, String policy) {
+		if (policyNames == null || policyNames.isBlank()) {
+			return policy;
+		}
+		return hasPolicy(policyNames, policy) ? policyNames : policyNames + "," + policy;
+	}
+
+	// To remove policy from comma separated policy names, matching whole names only
+	public static String removePolicy(String policyNames, String policy) {
+		if (policyNames == null) {
+			return null;
+		}
+		return Arrays.stream(policyNames.split(",")).map(String::trim)
+				.filter(name -> !name.isEmpty() && !name.equals(policy)).collect(Collectors.joining(","));
+	}
 }